@@ -2,16 +2,21 @@ package projekt.base;
 
 import org.jetbrains.annotations.NotNull;
 
-import java.util.Comparator;
-
 /**
- * A tuple for the x- and y-coordinates of a point.
+ * A tuple for the x- and y-coordinates of a point.<p>
+ *
+ * Both coordinates can be packed into a single {@code long} key with {@link #getKey()}, which is used by
+ * {@link LocationMap} to look up locations without hashing objects. Locations close to the origin are canonicalized by
+ * {@link #of(int, int)}, so frequently used locations are not allocated again and again.
  */
 @SuppressWarnings("ClassCanBeRecord")
 public final class Location implements Comparable<Location> {
 
-    private final static Comparator<Location> COMPARATOR = Comparator.comparing(Location::getX)
-            .thenComparing(Location::getY);
+    /**
+     * The locations with coordinates in {@code [-CACHE_RADIUS, CACHE_RADIUS)} returned by {@link #of(int, int)}.
+     */
+    private static final int CACHE_RADIUS = 128;
+    private static final Location[] CACHE = new Location[4 * CACHE_RADIUS * CACHE_RADIUS];
 
     private final int x;
     private final int y;
@@ -28,6 +33,79 @@ public final class Location implements Comparable<Location> {
         this.y = y;
     }
 
+    /**
+     * Returns a {@link Location} with the given coordinates. Unlike {@link #Location(int, int)} this returns the same
+     * instance for every call with the same coordinates close to the origin.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @return a {@link Location} with the given coordinates
+     */
+    public static Location of(int x, int y) {
+        if (x < -CACHE_RADIUS || x >= CACHE_RADIUS || y < -CACHE_RADIUS || y >= CACHE_RADIUS) {
+            return new Location(x, y);
+        }
+        int index = (x + CACHE_RADIUS) * 2 * CACHE_RADIUS + y + CACHE_RADIUS;
+        // Location is immutable, so a racy initialization at worst creates an equal instance twice
+        Location location = CACHE[index];
+        if (location == null) {
+            location = new Location(x, y);
+            CACHE[index] = location;
+        }
+        return location;
+    }
+
+    /**
+     * Returns the {@link Location} with the given packed coordinates.
+     *
+     * @param key the coordinates packed by {@link #getKey()}
+     * @return the {@link Location} with the given coordinates
+     */
+    public static Location ofKey(long key) {
+        return of(keyX(key), keyY(key));
+    }
+
+    /**
+     * Packs the given coordinates into a single {@code long}. Keys of different coordinates are different.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @return the packed coordinates
+     */
+    public static long key(int x, int y) {
+        return (long) x << 32 | y & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Returns the x-coordinate of the given packed coordinates.
+     *
+     * @param key the packed coordinates
+     * @return the x-coordinate
+     */
+    public static int keyX(long key) {
+        return (int) (key >> 32);
+    }
+
+    /**
+     * Returns the y-coordinate of the given packed coordinates.
+     *
+     * @param key the packed coordinates
+     * @return the y-coordinate
+     */
+    public static int keyY(long key) {
+        return (int) key;
+    }
+
+    /**
+     * Returns the coordinates of this location packed into a single {@code long}.
+     *
+     * @return the packed coordinates
+     * @see #key(int, int)
+     */
+    public long getKey() {
+        return key(x, y);
+    }
+
     /**
      * Returns the x-coordinate of this location.
      *
@@ -57,7 +135,7 @@ public final class Location implements Comparable<Location> {
      *         locations
      */
     public Location add(Location other) {
-        return new Location(x + other.x, y + other.y);
+        return of(x + other.x, y + other.y);
     }
 
     /**
@@ -71,27 +149,35 @@ public final class Location implements Comparable<Location> {
      *         both locations
      */
     public Location subtract(Location other) {
-        return new Location(x - other.x, y - other.y);
+        return of(x - other.x, y - other.y);
     }
 
     @Override
     public int compareTo(@NotNull Location o) {
-        return COMPARATOR.compare(this, o);
+        int result = Integer.compare(x, o.x);
+        return result != 0 ? result : Integer.compare(y, o.y);
     }
 
     @Override
     public int hashCode() {
-        return String.format("%s%s", x, y).hashCode();
+        // unique for all locations with |y| < 2^15, the finalizer of MurmurHash3 is a bijection that spreads the bits
+        int hash = (x << 16) + y;
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        hash *= 0xC2B2AE35;
+        hash ^= hash >>> 16;
+        return hash;
     }
 
     @Override
     public boolean equals(Object o) {
-        if (!(o instanceof Location) || o == null) {
-            return false;
-        }
         if (this == o) {
             return true;
         }
+        if (!(o instanceof Location) || o == null) {
+            return false;
+        }
 
         Location castedObject = (Location) o;
         if (x == castedObject.getX() && y == castedObject.getY()) {
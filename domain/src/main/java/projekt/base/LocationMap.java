@@ -0,0 +1,387 @@
+package projekt.base;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * A {@link Map} with {@link Location}s as keys that looks them up by their packed coordinates
+ * ({@link Location#getKey()}) instead of {@link Location#hashCode()} and {@link Location#equals(Object)}.<p>
+ *
+ * The entries are stored in dense arrays in insertion order and found with an open-addressing hash table of
+ * {@code int} indices that is probed linearly. A lookup therefore neither allocates nor follows a chain of entry
+ * objects, and {@link #get(int, int)} does not even need a {@link Location}. Removing an entry moves the last entry
+ * into its place, so the iteration order is the insertion order as long as no entry has been removed.<p>
+ *
+ * {@code null} keys are not permitted, {@code null} values are. This map is not thread-safe.
+ *
+ * @param <V> The type of the values.
+ */
+public class LocationMap<V> extends AbstractMap<Location, V> {
+
+    private static final int MIN_CAPACITY = 8;
+
+    private long[] keys;
+    private Location[] locations;
+    private Object[] values;
+    private int size;
+
+    /**
+     * The index of every entry plus one at the slot of its key or {@code 0} for empty slots. At most half of the slots
+     * are used.
+     */
+    private int[] table;
+    private int shift;
+    private int modCount;
+
+    private @Nullable Set<Entry<Location, V>> entrySet;
+
+    /**
+     * Creates a new, empty {@link LocationMap}.
+     */
+    public LocationMap() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * Creates a new, empty {@link LocationMap} that can hold the given amount of entries without growing.
+     *
+     * @param expectedSize The expected amount of entries.
+     */
+    public LocationMap(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Illegal size: %d".formatted(expectedSize));
+        }
+        int capacity = Math.max(MIN_CAPACITY, expectedSize);
+        keys = new long[capacity];
+        locations = new Location[capacity];
+        values = new Object[capacity];
+        resizeTable(tableSizeFor(capacity));
+    }
+
+    /**
+     * Creates a new {@link LocationMap} with the entries of the given {@link Map}.
+     *
+     * @param map The {@link Map} whose entries are copied.
+     */
+    public LocationMap(Map<? extends Location, ? extends V> map) {
+        this(map.size());
+        putAll(map);
+    }
+
+    private static int tableSizeFor(int capacity) {
+        return Integer.highestOneBit(capacity * 2 - 1) * 2;
+    }
+
+    /**
+     * Returns the slot of the given key in the table if there was no collision.
+     */
+    private int slot(long key) {
+        // Fibonacci hashing, the upper bits of the product depend on all bits of the key
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+    }
+
+    /**
+     * Returns the slot of the given key or the empty slot it would be stored in.
+     */
+    private int find(long key) {
+        int mask = table.length - 1;
+        int slot = slot(key);
+        int index;
+        while ((index = table[slot]) != 0 && keys[index - 1] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private int indexOf(long key) {
+        return table[find(key)] - 1;
+    }
+
+    private int indexOf(@Nullable Object key) {
+        return key instanceof Location location ? indexOf(location.getKey()) : -1;
+    }
+
+    private void resizeTable(int tableSize) {
+        table = new int[tableSize];
+        shift = 64 - Integer.numberOfTrailingZeros(tableSize);
+        for (int index = 0; index < size; index++) {
+            table[find(keys[index])] = index + 1;
+        }
+    }
+
+    /**
+     * Returns the value of the {@link Location} with the given coordinates.
+     *
+     * @param x The x-coordinate of the {@link Location}.
+     * @param y The y-coordinate of the {@link Location}.
+     * @return The value or {@code null} if there is no entry for the {@link Location}.
+     */
+    public @Nullable V get(int x, int y) {
+        return getByKey(Location.key(x, y));
+    }
+
+    /**
+     * Returns the value of the {@link Location} with the given packed coordinates.
+     *
+     * @param key The coordinates packed by {@link Location#getKey()}.
+     * @return The value or {@code null} if there is no entry for the {@link Location}.
+     */
+    @SuppressWarnings("unchecked")
+    public @Nullable V getByKey(long key) {
+        int index = indexOf(key);
+        return index < 0 ? null : (V) values[index];
+    }
+
+    /**
+     * Returns true, if this map contains an entry for the {@link Location} with the given coordinates.
+     *
+     * @param x The x-coordinate of the {@link Location}.
+     * @param y The y-coordinate of the {@link Location}.
+     * @return True, if there is an entry for the {@link Location}.
+     */
+    public boolean containsKey(int x, int y) {
+        return indexOf(Location.key(x, y)) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        for (int index = 0; index < size; index++) {
+            if (Objects.equals(values[index], value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public @Nullable V get(Object key) {
+        int index = indexOf(key);
+        return index < 0 ? null : (V) values[index];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public @Nullable V put(Location location, V value) {
+        long key = location.getKey();
+        int slot = find(key);
+        int index = table[slot] - 1;
+        if (index >= 0) {
+            V previous = (V) values[index];
+            values[index] = value;
+            return previous;
+        }
+        if (size == keys.length) {
+            int capacity = size * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            locations = Arrays.copyOf(locations, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+        keys[size] = key;
+        locations[size] = location;
+        values[size] = value;
+        size++;
+        modCount++;
+        if (size * 2 > table.length) {
+            resizeTable(table.length * 2);
+        } else {
+            table[slot] = size;
+        }
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public @Nullable V remove(Object key) {
+        if (!(key instanceof Location location)) {
+            return null;
+        }
+        int slot = find(location.getKey());
+        int index = table[slot] - 1;
+        if (index < 0) {
+            return null;
+        }
+        V previous = (V) values[index];
+        removeAt(slot, index);
+        return previous;
+    }
+
+    /**
+     * Removes the entry with the given index, which is stored in the given slot.
+     */
+    private void removeAt(int slot, int index) {
+        deleteSlot(slot);
+        int last = size - 1;
+        if (index != last) {
+            // move the last entry into the gap
+            table[find(keys[last])] = index + 1;
+            keys[index] = keys[last];
+            locations[index] = locations[last];
+            values[index] = values[last];
+        }
+        locations[last] = null;
+        values[last] = null;
+        size--;
+        modCount++;
+    }
+
+    /**
+     * Empties the given slot and shifts back the following entries of its cluster, so no entry becomes unreachable.
+     */
+    private void deleteSlot(int slot) {
+        int mask = table.length - 1;
+        int gap = slot;
+        int current = slot;
+        while (true) {
+            current = (current + 1) & mask;
+            int index = table[current];
+            if (index == 0) {
+                break;
+            }
+            int home = slot(keys[index - 1]);
+            // the entry may only be moved if its home slot is not between the gap and its current slot
+            if (((current - home) & mask) >= ((current - gap) & mask)) {
+                table[gap] = index;
+                gap = current;
+            }
+        }
+        table[gap] = 0;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(locations, 0, size, null);
+        Arrays.fill(values, 0, size, null);
+        Arrays.fill(table, 0);
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super Location, ? super V> action) {
+        int expectedModCount = modCount;
+        for (int index = 0; index < size; index++) {
+            action.accept(locations[index], (V) values[index]);
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    @Override
+    public Set<Entry<Location, V>> entrySet() {
+        Set<Entry<Location, V>> result = entrySet;
+        if (result == null) {
+            result = new EntrySet();
+            entrySet = result;
+        }
+        return result;
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<Location, V>> {
+
+        @Override
+        public Iterator<Entry<Location, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Entry<?, ?> entry)) {
+                return false;
+            }
+            int index = indexOf(entry.getKey());
+            return index >= 0 && Objects.equals(values[index], entry.getValue());
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!contains(o)) {
+                return false;
+            }
+            LocationMap.this.remove(((Entry<?, ?>) o).getKey());
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            LocationMap.this.clear();
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Entry<Location, V>> {
+
+        private int next;
+        private int current = -1;
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return next < size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Entry<Location, V> next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (next >= size) {
+                throw new NoSuchElementException();
+            }
+            current = next++;
+            int index = current;
+            return new SimpleEntry<>(locations[index], (V) values[index]) {
+                @Override
+                public V setValue(V value) {
+                    if (modCount != expectedModCount) {
+                        throw new ConcurrentModificationException();
+                    }
+                    values[index] = value;
+                    return super.setValue(value);
+                }
+            };
+        }
+
+        @Override
+        public void remove() {
+            if (current < 0) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            removeAt(find(keys[current]), current);
+            // the last entry has been moved to the current index and still has to be visited
+            next = current;
+            current = -1;
+            expectedModCount = modCount;
+        }
+    }
+}
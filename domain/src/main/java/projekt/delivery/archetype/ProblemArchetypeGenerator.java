@@ -0,0 +1,580 @@
+package projekt.delivery.archetype;
+
+import projekt.base.EuclideanDistanceCalculator;
+import projekt.base.Location;
+import projekt.base.LocationMap;
+import projekt.delivery.generator.FridayOrderGenerator;
+import projekt.delivery.rating.AmountDeliveredRater;
+import projekt.delivery.rating.InTimeRater;
+import projekt.delivery.rating.Rater;
+import projekt.delivery.rating.RatingCriteria;
+import projekt.delivery.rating.TravelDistanceRater;
+import projekt.delivery.routing.DijkstraPathCalculator;
+import projekt.delivery.routing.PathCalculator;
+import projekt.delivery.routing.Region;
+import projekt.delivery.routing.VehicleManager;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.function.IntPredicate;
+import java.util.function.Supplier;
+
+/**
+ * Generates synthetic {@link ProblemArchetype}s of arbitrary size, e.g. to benchmark the simulation on regions with
+ * millions of nodes.<p>
+ *
+ * The generated regions are always connected. The restaurants and neighborhoods are chosen randomly among the nodes,
+ * the vehicles are distributed evenly among the restaurants. Everything depends only on the settings and the seed, so
+ * generating a problem twice with the same settings results in equal problems. To create a new
+ * {@link ProblemArchetypeGenerator}, use {@code ProblemArchetypeGenerator.builder()...build();}.
+ */
+public class ProblemArchetypeGenerator {
+
+    /**
+     * The presets the restaurants are created from, in order.
+     */
+    private static final List<Region.Restaurant.Preset> RESTAURANT_PRESETS = List.of(
+        Region.Restaurant.LOS_FOPBOTS_HERMANOS,
+        Region.Restaurant.JAVA_HUT,
+        Region.Restaurant.PASTAFAR,
+        Region.Restaurant.PALPAPIZZA,
+        Region.Restaurant.ISENJAR,
+        Region.Restaurant.MIDDLE_FOP,
+        Region.Restaurant.MOUNT_DOOM_PIZZA
+    );
+
+    /**
+     * The amount of nearest neighbours every node of a {@link Topology#RANDOM_GEOMETRIC} region is connected to.
+     */
+    private static final int RANDOM_GEOMETRIC_NEIGHBOURS = 3;
+
+    /**
+     * The shape of a generated region.
+     */
+    public enum Topology {
+
+        /**
+         * The nodes are placed on a square grid row by row, every node is connected to its horizontal and vertical
+         * neighbours.
+         */
+        GRID,
+
+        /**
+         * The nodes are placed on concentric rings around a center node. The {@code r}-th ring has {@code 6r} nodes,
+         * every node is connected to its neighbours on the ring and to the closest node of the next inner ring.
+         */
+        RADIAL,
+
+        /**
+         * The nodes are placed uniformly at random in a square, every node is connected to its three nearest
+         * neighbours. Components that are not connected afterwards are joined by their closest nodes.
+         */
+        RANDOM_GEOMETRIC
+    }
+
+    public final Topology topology;
+    public final int nodeCount;
+    public final int restaurantCount;
+    public final int neighborhoodCount;
+    public final int vehicleCount;
+    public final double vehicleCapacity;
+    public final int spacing;
+    public final int orderCount;
+    public final long simulationLength;
+    public final long seed;
+    public final Supplier<? extends PathCalculator> pathCalculatorFactory;
+
+    private ProblemArchetypeGenerator(Topology topology, int nodeCount, int restaurantCount, int neighborhoodCount,
+                                      int vehicleCount, double vehicleCapacity, int spacing, int orderCount,
+                                      long simulationLength, long seed,
+                                      Supplier<? extends PathCalculator> pathCalculatorFactory) {
+        this.topology = topology;
+        this.nodeCount = nodeCount;
+        this.restaurantCount = restaurantCount;
+        this.neighborhoodCount = neighborhoodCount;
+        this.vehicleCount = vehicleCount;
+        this.vehicleCapacity = vehicleCapacity;
+        this.spacing = spacing;
+        this.orderCount = orderCount;
+        this.simulationLength = simulationLength;
+        this.seed = seed;
+        this.pathCalculatorFactory = pathCalculatorFactory;
+    }
+
+    /**
+     * Creates a new {@link ProblemArchetypeGenerator.Builder}.
+     *
+     * @return The created {@link ProblemArchetypeGenerator.Builder}.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Generates a {@link ProblemArchetype} with the given name.
+     *
+     * @param name The name of the generated {@link ProblemArchetype}.
+     * @return The generated {@link ProblemArchetype}.
+     */
+    public ProblemArchetype generate(String name) {
+        VehicleManager vehicleManager = generateVehicleManager(generateRegion());
+        // an EnumMap writes the raters of a generated problem in a fixed order
+        Map<RatingCriteria, Rater.Factory> raterFactoryMap = new EnumMap<>(Map.of(
+            RatingCriteria.IN_TIME, InTimeRater.Factory.builder().build(),
+            RatingCriteria.TRAVEL_DISTANCE, TravelDistanceRater.Factory.builder()
+                .setVehicleManager(vehicleManager)
+                .build(),
+            RatingCriteria.AMOUNT_DELIVERED, AmountDeliveredRater.Factory.builder().build()
+        ));
+        FridayOrderGenerator.Factory orderGeneratorFactory = FridayOrderGenerator.Factory.builder()
+            .setOrderCount(orderCount)
+            .setVehicleManager(vehicleManager)
+            .setLastTick(Math.max(0, simulationLength - 50))
+            .setSeed(seed)
+            .build();
+        return new ProblemArchetypeImpl(orderGeneratorFactory, vehicleManager, raterFactoryMap, simulationLength, name);
+    }
+
+    /**
+     * Generates a {@link Region} with the settings of this generator.
+     *
+     * @return The generated {@link Region}.
+     */
+    public Region generateRegion() {
+        Random random = new Random(seed);
+        Layout layout = switch (topology) {
+            case GRID -> gridLayout();
+            case RADIAL -> radialLayout();
+            case RANDOM_GEOMETRIC -> randomGeometricLayout(random);
+        };
+
+        // choose the restaurants and neighborhoods with a partial Fisher-Yates shuffle
+        int[] permutation = new int[nodeCount];
+        for (int i = 0; i < nodeCount; i++) {
+            permutation[i] = i;
+        }
+        int special = restaurantCount + neighborhoodCount;
+        for (int i = 0; i < special; i++) {
+            int j = i + random.nextInt(nodeCount - i);
+            int swap = permutation[i];
+            permutation[i] = permutation[j];
+            permutation[j] = swap;
+        }
+        byte[] kinds = new byte[nodeCount];
+        for (int i = 0; i < special; i++) {
+            kinds[permutation[i]] = (byte) (i < restaurantCount ? 1 : 2);
+        }
+
+        Region.Builder builder = Region.builder(nodeCount, layout.edgeCount)
+            .distanceCalculator(new EuclideanDistanceCalculator());
+        int restaurants = 0;
+        int neighborhoods = 0;
+        for (int i = 0; i < nodeCount; i++) {
+            Location location = layout.locations[i];
+            if (kinds[i] == 1) {
+                Region.Restaurant.Preset preset = RESTAURANT_PRESETS.get(restaurants % RESTAURANT_PRESETS.size());
+                builder.addRestaurant("%s %d".formatted(preset.name(), restaurants++), location, preset.availableFoods());
+            } else if (kinds[i] == 2) {
+                builder.addNeighborhood("Neighborhood %d".formatted(neighborhoods++), location);
+            } else {
+                builder.addNode("Node %d".formatted(i), location);
+            }
+        }
+        for (int i = 0; i < layout.edgeCount; i++) {
+            builder.addEdge("Edge %d".formatted(i), layout.locations[layout.edgesA[i]], layout.locations[layout.edgesB[i]]);
+        }
+        return builder.build();
+    }
+
+    private VehicleManager generateVehicleManager(Region region) {
+        VehicleManager.Builder builder = VehicleManager.builder()
+            .region(region)
+            .pathCalculator(pathCalculatorFactory.get());
+        Location[] restaurants = region.getNodes().stream()
+            .filter(Region.Restaurant.class::isInstance)
+            .map(Region.Node::getLocation)
+            .sorted()
+            .toArray(Location[]::new);
+        for (int i = 0; i < vehicleCount; i++) {
+            builder.addVehicle(restaurants[i % restaurants.length], vehicleCapacity);
+        }
+        return builder.build();
+    }
+
+    private Layout gridLayout() {
+        int width = (int) Math.ceil(Math.sqrt(nodeCount));
+        Layout layout = new Layout(nodeCount, 2 * nodeCount);
+        for (int i = 0; i < nodeCount; i++) {
+            int x = i % width;
+            int y = i / width;
+            layout.place(i, x * spacing, y * spacing);
+            if (x > 0) {
+                layout.connect(i - 1, i);
+            }
+            if (y > 0) {
+                layout.connect(i - width, i);
+            }
+        }
+        return layout;
+    }
+
+    private Layout radialLayout() {
+        Layout layout = new Layout(nodeCount, 2 * nodeCount);
+        layout.place(0, 0, 0);
+        int ringStart = 1;
+        for (int ring = 1; ringStart < nodeCount; ring++) {
+            int ringSize = 6 * ring;
+            int innerStart = ringStart - 6 * (ring - 1);
+            int innerSize = Math.max(1, 6 * (ring - 1));
+            int placed = Math.min(ringSize, nodeCount - ringStart);
+            for (int j = 0; j < placed; j++) {
+                double angle = 2 * Math.PI * j / ringSize;
+                int node = ringStart + j;
+                layout.place(node, (int) Math.round(Math.cos(angle) * ring * spacing),
+                    (int) Math.round(Math.sin(angle) * ring * spacing));
+                layout.connect(ring == 1 ? 0 : innerStart + (int) Math.round((double) j * innerSize / ringSize) % innerSize,
+                    node);
+                if (j > 0) {
+                    layout.connect(node - 1, node);
+                }
+            }
+            if (placed == ringSize && ringSize > 1) {
+                layout.connect(ringStart, ringStart + ringSize - 1);
+            }
+            ringStart += placed;
+        }
+        return layout;
+    }
+
+    private Layout randomGeometricLayout(Random random) {
+        int side = Math.max(1, (int) Math.ceil(Math.sqrt(nodeCount)));
+        Layout layout = new Layout(nodeCount, (RANDOM_GEOMETRIC_NEIGHBOURS + 1) * nodeCount);
+        for (int i = 0; i < nodeCount; i++) {
+            layout.place(i, random.nextInt(side * spacing), random.nextInt(side * spacing));
+        }
+
+        // bucket the nodes into cells of the size of the average distance between neighbouring nodes
+        CellGrid grid = new CellGrid(layout, side, spacing);
+        UnionFind components = new UnionFind(nodeCount);
+        int[] nearest = new int[RANDOM_GEOMETRIC_NEIGHBOURS];
+        for (int i = 0; i < nodeCount; i++) {
+            int current = i;
+            int found = grid.nearest(i, nearest, node -> node != current);
+            for (int n = 0; n < found; n++) {
+                // every pair is connected once, even if both nodes are among the nearest nodes of each other
+                if (nearest[n] > i || !grid.isAmongNearest(nearest[n], i)) {
+                    layout.connect(i, nearest[n]);
+                    components.union(i, nearest[n]);
+                }
+            }
+        }
+        for (int i = 0; i < nodeCount; i++) {
+            if (components.find(i) != components.find(0)) {
+                int root = components.find(i);
+                int[] other = new int[1];
+                grid.nearest(i, other, node -> components.find(node) != root);
+                layout.connect(i, other[0]);
+                components.union(i, other[0]);
+            }
+        }
+        return layout;
+    }
+
+    /**
+     * The locations of the nodes and the edges between them, referenced by the index of the nodes.
+     */
+    private static final class Layout {
+
+        private final Location[] locations;
+        private final LocationMap<Integer> used;
+        private int[] edgesA;
+        private int[] edgesB;
+        private int edgeCount;
+
+        private Layout(int nodeCount, int expectedEdges) {
+            locations = new Location[nodeCount];
+            used = new LocationMap<>(nodeCount);
+            edgesA = new int[Math.max(1, expectedEdges)];
+            edgesB = new int[Math.max(1, expectedEdges)];
+        }
+
+        /**
+         * Places the given node at the given coordinates or, if they are already used, at the next free coordinates
+         * to the right.
+         */
+        private void place(int node, int x, int y) {
+            while (used.containsKey(x, y)) {
+                x++;
+            }
+            locations[node] = Location.of(x, y);
+            used.put(locations[node], node);
+        }
+
+        private void connect(int a, int b) {
+            if (edgeCount == edgesA.length) {
+                edgesA = Arrays.copyOf(edgesA, edgeCount * 2);
+                edgesB = Arrays.copyOf(edgesB, edgeCount * 2);
+            }
+            edgesA[edgeCount] = a;
+            edgesB[edgeCount] = b;
+            edgeCount++;
+        }
+    }
+
+    /**
+     * A uniform grid of cells that finds the nodes closest to a node by searching the cells in rings around it.
+     */
+    private static final class CellGrid {
+
+        private final Location[] locations;
+        private final int cellSize;
+        private final int cells;
+        private final int[] cellStart;
+        private final int[] cellNodes;
+
+        private CellGrid(Layout layout, int side, int cellSize) {
+            this.locations = layout.locations;
+            this.cellSize = cellSize;
+            this.cells = side;
+            cellStart = new int[cells * cells + 1];
+            cellNodes = new int[locations.length];
+            for (Location location : locations) {
+                cellStart[cellOf(location) + 1]++;
+            }
+            for (int cell = 0; cell < cells * cells; cell++) {
+                cellStart[cell + 1] += cellStart[cell];
+            }
+            int[] fill = Arrays.copyOf(cellStart, cells * cells);
+            for (int node = 0; node < locations.length; node++) {
+                cellNodes[fill[cellOf(locations[node])]++] = node;
+            }
+        }
+
+        private int cell(int coordinate) {
+            return Math.min(cells - 1, Math.max(0, coordinate / cellSize));
+        }
+
+        private int cellOf(Location location) {
+            return cell(location.getY()) * cells + cell(location.getX());
+        }
+
+        private long distanceSquared(int a, int b) {
+            long dx = locations[a].getX() - locations[b].getX();
+            long dy = locations[a].getY() - locations[b].getY();
+            return dx * dx + dy * dy;
+        }
+
+        /**
+         * Returns true, if {@code other} is among the nearest nodes of {@code node}.
+         */
+        private boolean isAmongNearest(int node, int other) {
+            int[] nearest = new int[RANDOM_GEOMETRIC_NEIGHBOURS];
+            int found = nearest(node, nearest, candidate -> candidate != node);
+            for (int n = 0; n < found; n++) {
+                if (nearest[n] == other) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Stores the nodes accepted by the filter that are closest to the given node in the given array, closest
+         * first. Ties are broken by the index of the nodes.
+         *
+         * @return The amount of found nodes.
+         */
+        private int nearest(int node, int[] result, IntPredicate filter) {
+            long[] distances = new long[result.length];
+            int found = 0;
+            int cx = cell(locations[node].getX());
+            int cy = cell(locations[node].getY());
+            for (int ring = 0; ring < cells; ring++) {
+                // all nodes outside of the searched rings are at least this far away
+                long bound = (long) Math.max(0, ring - 1) * cellSize;
+                if (found == result.length && distances[found - 1] < bound * bound) {
+                    break;
+                }
+                for (int y = cy - ring; y <= cy + ring; y++) {
+                    if (y < 0 || y >= cells) {
+                        continue;
+                    }
+                    boolean edgeRow = y == cy - ring || y == cy + ring;
+                    for (int x = cx - ring; x <= cx + ring; x += edgeRow ? 1 : 2 * ring) {
+                        if (x < 0 || x >= cells) {
+                            continue;
+                        }
+                        int cell = y * cells + x;
+                        for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+                            int candidate = cellNodes[i];
+                            if (!filter.test(candidate)) {
+                                continue;
+                            }
+                            long distance = distanceSquared(node, candidate);
+                            int position = found;
+                            while (position > 0 && (distances[position - 1] > distance
+                                || distances[position - 1] == distance && result[position - 1] > candidate)) {
+                                position--;
+                            }
+                            if (position < result.length) {
+                                int moved = Math.min(found, result.length - 1) - position;
+                                System.arraycopy(result, position, result, position + 1, moved);
+                                System.arraycopy(distances, position, distances, position + 1, moved);
+                                result[position] = candidate;
+                                distances[position] = distance;
+                                found = Math.min(found + 1, result.length);
+                            }
+                        }
+                    }
+                }
+            }
+            return found;
+        }
+    }
+
+    /**
+     * A disjoint-set forest with path halving.
+     */
+    private static final class UnionFind {
+
+        private final int[] parents;
+
+        private UnionFind(int size) {
+            parents = new int[size];
+            for (int i = 0; i < size; i++) {
+                parents[i] = i;
+            }
+        }
+
+        private int find(int element) {
+            while (parents[element] != element) {
+                parents[element] = parents[parents[element]];
+                element = parents[element];
+            }
+            return element;
+        }
+
+        private void union(int a, int b) {
+            int rootA = find(a);
+            int rootB = find(b);
+            // the smaller root becomes the parent, so the root of the component of node 0 never changes
+            if (rootA < rootB) {
+                parents[rootB] = rootA;
+            } else {
+                parents[rootA] = rootB;
+            }
+        }
+    }
+
+    /**
+     * A builder for constructing a new {@link ProblemArchetypeGenerator}.
+     */
+    public static class Builder {
+
+        public Topology topology = Topology.GRID;
+        public int nodeCount = 10_000;
+        public int restaurantCount = 10;
+        public int neighborhoodCount = 1_000;
+        public int vehicleCount = 100;
+        public double vehicleCapacity = 2;
+        public int spacing = 10;
+        public int orderCount = 1_000;
+        public long simulationLength = 1_000;
+        public long seed = 0;
+        public Supplier<? extends PathCalculator> pathCalculatorFactory = DijkstraPathCalculator::new;
+
+        private Builder() {
+        }
+
+        public Builder setTopology(Topology topology) {
+            this.topology = topology;
+            return this;
+        }
+
+        public Builder setNodeCount(int nodeCount) {
+            this.nodeCount = nodeCount;
+            return this;
+        }
+
+        public Builder setRestaurantCount(int restaurantCount) {
+            this.restaurantCount = restaurantCount;
+            return this;
+        }
+
+        public Builder setNeighborhoodCount(int neighborhoodCount) {
+            this.neighborhoodCount = neighborhoodCount;
+            return this;
+        }
+
+        public Builder setVehicleCount(int vehicleCount) {
+            this.vehicleCount = vehicleCount;
+            return this;
+        }
+
+        public Builder setVehicleCapacity(double vehicleCapacity) {
+            this.vehicleCapacity = vehicleCapacity;
+            return this;
+        }
+
+        public Builder setSpacing(int spacing) {
+            this.spacing = spacing;
+            return this;
+        }
+
+        public Builder setOrderCount(int orderCount) {
+            this.orderCount = orderCount;
+            return this;
+        }
+
+        public Builder setSimulationLength(long simulationLength) {
+            this.simulationLength = simulationLength;
+            return this;
+        }
+
+        public Builder setSeed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public Builder setPathCalculatorFactory(Supplier<? extends PathCalculator> pathCalculatorFactory) {
+            this.pathCalculatorFactory = pathCalculatorFactory;
+            return this;
+        }
+
+        /**
+         * Constructs the {@link ProblemArchetypeGenerator}.
+         *
+         * @return The constructed {@link ProblemArchetypeGenerator}.
+         * @throws IllegalArgumentException If the settings are invalid, e.g. there are more restaurants and
+         *                                  neighborhoods than nodes.
+         */
+        public ProblemArchetypeGenerator build() {
+            Objects.requireNonNull(topology, "topology");
+            Objects.requireNonNull(pathCalculatorFactory, "pathCalculatorFactory");
+            if (nodeCount < 1) {
+                throw new IllegalArgumentException("Illegal node count: %d".formatted(nodeCount));
+            }
+            if (restaurantCount < 1 || neighborhoodCount < 0 || (long) restaurantCount + neighborhoodCount > nodeCount) {
+                throw new IllegalArgumentException("Illegal amount of restaurants and neighborhoods for %d nodes: %d, %d"
+                    .formatted(nodeCount, restaurantCount, neighborhoodCount));
+            }
+            if (vehicleCount < 0 || vehicleCapacity <= 0) {
+                throw new IllegalArgumentException("Illegal fleet: %d vehicles with capacity %f"
+                    .formatted(vehicleCount, vehicleCapacity));
+            }
+            if (spacing < 1 || (long) spacing * (long) Math.ceil(Math.sqrt(nodeCount)) > Integer.MAX_VALUE / 2) {
+                throw new IllegalArgumentException("Illegal spacing: %d".formatted(spacing));
+            }
+            if (orderCount < 0 || simulationLength < 0) {
+                throw new IllegalArgumentException("Illegal amount of orders or simulation length: %d, %d"
+                    .formatted(orderCount, simulationLength));
+            }
+            return new ProblemArchetypeGenerator(topology, nodeCount, restaurantCount, neighborhoodCount, vehicleCount,
+                vehicleCapacity, spacing, orderCount, simulationLength, seed, pathCalculatorFactory);
+        }
+    }
+}
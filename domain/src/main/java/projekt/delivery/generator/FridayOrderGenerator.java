@@ -5,6 +5,7 @@ import projekt.delivery.routing.ConfirmedOrder;
 import projekt.delivery.routing.VehicleManager;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -38,6 +39,8 @@ public class FridayOrderGenerator implements OrderGenerator {
 
     private final Map<Long, List<ConfirmedOrder>> tickToOrder = new HashMap<>();
 
+    private long[] orderTicks;
+
     /**
      * Creates a new {@link FridayOrderGenerator} with the given parameters.
      *
@@ -57,7 +60,7 @@ public class FridayOrderGenerator implements OrderGenerator {
      * @param seed             The seed for the used {@link Random} instance. If
      *                         negative a random seed will be used.
      */
-    private FridayOrderGenerator(int orderCount, VehicleManager vehicleManager, int deliveryInterval, double maxWeight, double standardDeviation, long lastTick, int seed) {
+    private FridayOrderGenerator(int orderCount, VehicleManager vehicleManager, int deliveryInterval, double maxWeight, double standardDeviation, long lastTick, long seed) {
         this.orderCount = orderCount;
         this.vehicleManager = vehicleManager;
         this.deliveryInterval = deliveryInterval;
@@ -88,6 +91,21 @@ public class FridayOrderGenerator implements OrderGenerator {
         return tickToOrder.getOrDefault(tick, new ArrayList<>());
     }
 
+    @Override
+    public long getNextOrderTick(long tick) {
+        if (tickToOrder.size() == 0) {
+            populateTickToOrder();
+        }
+        if (orderTicks == null) {
+            orderTicks = tickToOrder.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+        }
+        int index = Arrays.binarySearch(orderTicks, tick);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return index < orderTicks.length ? orderTicks[index] : Long.MAX_VALUE;
+    }
+
     private void populateTickToOrder() {
         List<VehicleManager.OccupiedNeighborhood> neighborhoods = vehicleManager.getOccupiedNeighborhoods().stream()
                 .toList();
@@ -128,10 +146,10 @@ public class FridayOrderGenerator implements OrderGenerator {
         public final double maxWeight;
         public final double standardDeviation;
         public final long lastTick;
-        public final int seed;
+        public final long seed;
 
 
-        private Factory(int orderCount, VehicleManager vehicleManager, int deliveryInterval, double maxWeight, double standardDeviation, long lastTick, int seed) {
+        private Factory(int orderCount, VehicleManager vehicleManager, int deliveryInterval, double maxWeight, double standardDeviation, long lastTick, long seed) {
             this.orderCount = orderCount;
             this.vehicleManager = vehicleManager;
             this.deliveryInterval = deliveryInterval;
@@ -168,7 +186,7 @@ public class FridayOrderGenerator implements OrderGenerator {
         public double maxWeight = 0.5;
         public double standardDeviation = 0.5;
         public long lastTick = 480;
-        public int seed = -1;
+        public long seed = -1;
 
         private FactoryBuilder() {
         }
@@ -203,7 +221,7 @@ public class FridayOrderGenerator implements OrderGenerator {
             return this;
         }
 
-        public FactoryBuilder setSeed(int seed) {
+        public FactoryBuilder setSeed(long seed) {
             this.seed = seed;
             return this;
         }
@@ -22,6 +22,19 @@ public interface OrderGenerator {
      */
     List<ConfirmedOrder> generateOrders(long tick);
 
+    /**
+     * Returns the first tick that is not before the given tick for which {@link #generateOrders(long)} may return a
+     * non-empty {@link List}. All ticks in between have no orders.<p>
+     * <p>
+     * The default implementation returns the given tick, i.e. it does not rule out orders for any tick.
+     *
+     * @param tick the first tick to consider
+     * @return the next tick that may have orders or {@link Long#MAX_VALUE} if there are no more orders
+     */
+    default long getNextOrderTick(long tick) {
+        return tick;
+    }
+
     /**
      * A factory for creating a new {@link OrderGenerator}.
      */
@@ -0,0 +1,217 @@
+package projekt.delivery.partition;
+
+import projekt.delivery.routing.CompiledRegion;
+import projekt.delivery.routing.Region;
+
+import java.util.Arrays;
+
+/**
+ * A partition of the nodes of a {@link CompiledRegion} into cells.<p>
+ *
+ * Every node belongs to exactly one cell in {@code [0, getCellCount())}, nodes are identified by their ids in the
+ * {@link CompiledRegion}. A node is a boundary node if it is connected to a node of another cell, an edge is a cut edge
+ * if its nodes belong to different cells. The nodes and the boundary nodes of every cell are stored in ascending order
+ * of their ids. A {@link Partition} does not change once it has been created.
+ *
+ * @see RegionPartitioner
+ */
+public final class Partition {
+
+    private final CompiledRegion region;
+    private final int cellCount;
+    private final int[] cells;
+    /**
+     * The nodes of cell {@code c} are stored in {@code [cellOffsets[c], cellOffsets[c + 1])} of {@link #cellNodes}.
+     */
+    private final int[] cellOffsets;
+    private final int[] cellNodes;
+    /**
+     * The boundary nodes of cell {@code c} are stored in {@code [boundaryOffsets[c], boundaryOffsets[c + 1])} of
+     * {@link #boundaryNodes}.
+     */
+    private final int[] boundaryOffsets;
+    private final int[] boundaryNodes;
+    private final boolean[] boundary;
+    private final long cutEdgeCount;
+
+    /**
+     * Creates a new {@link Partition} instance.
+     * @param region The partitioned {@link CompiledRegion}.
+     * @param cellCount The amount of cells.
+     * @param cells The cell of every node.
+     */
+    Partition(CompiledRegion region, int cellCount, int[] cells) {
+        int n = region.size();
+        if (cells.length != n) {
+            throw new IllegalArgumentException("Expected the cells of %d nodes, got %d".formatted(n, cells.length));
+        }
+        this.region = region;
+        this.cellCount = cellCount;
+        this.cells = cells;
+
+        boundary = new boolean[n];
+        cellOffsets = new int[cellCount + 1];
+        boundaryOffsets = new int[cellCount + 1];
+        long cutArcs = 0;
+        for (int u = 0; u < n; u++) {
+            int cell = cells[u];
+            if (cell < 0 || cell >= cellCount) {
+                throw new IllegalArgumentException("Node %d has the illegal cell %d".formatted(u, cell));
+            }
+            for (int arc = region.arcStart(u); arc < region.arcEnd(u); arc++) {
+                if (cells[region.arcTarget(arc)] != cell) {
+                    boundary[u] = true;
+                    cutArcs++;
+                }
+            }
+            cellOffsets[cell + 1]++;
+            if (boundary[u]) {
+                boundaryOffsets[cell + 1]++;
+            }
+        }
+        // every cut edge is stored as two arcs
+        cutEdgeCount = cutArcs / 2;
+
+        for (int cell = 0; cell < cellCount; cell++) {
+            cellOffsets[cell + 1] += cellOffsets[cell];
+            boundaryOffsets[cell + 1] += boundaryOffsets[cell];
+        }
+        cellNodes = new int[n];
+        boundaryNodes = new int[boundaryOffsets[cellCount]];
+        int[] cellPositions = Arrays.copyOf(cellOffsets, cellCount);
+        int[] boundaryPositions = Arrays.copyOf(boundaryOffsets, cellCount);
+        for (int u = 0; u < n; u++) {
+            cellNodes[cellPositions[cells[u]]++] = u;
+            if (boundary[u]) {
+                boundaryNodes[boundaryPositions[cells[u]]++] = u;
+            }
+        }
+    }
+
+    /**
+     * Returns the partitioned {@link CompiledRegion}.
+     * @return The partitioned {@link CompiledRegion}.
+     */
+    public CompiledRegion getRegion() {
+        return region;
+    }
+
+    /**
+     * Returns the amount of cells.
+     * @return The amount of cells.
+     */
+    public int getCellCount() {
+        return cellCount;
+    }
+
+    /**
+     * Returns the cell of the node with the given id.
+     * @param node The id of the node.
+     * @return The cell of the node.
+     */
+    public int getCell(int node) {
+        return cells[node];
+    }
+
+    /**
+     * Returns the cell of the given {@link Region.Node}.
+     * @param node The {@link Region.Node} to return the cell of.
+     * @return The cell of the {@link Region.Node}.
+     * @throws IllegalArgumentException If the given {@link Region.Node} is not part of the partitioned region.
+     */
+    public int getCell(Region.Node node) {
+        return cells[region.indexOf(node)];
+    }
+
+    /**
+     * Returns the cells of all nodes, indexed by the ids of the nodes.
+     * @return A new array containing the cell of every node.
+     */
+    public int[] getCells() {
+        return cells.clone();
+    }
+
+    /**
+     * Returns the amount of nodes in the given cell.
+     * @param cell The cell.
+     * @return The amount of nodes in the cell.
+     */
+    public int getCellSize(int cell) {
+        return cellOffsets[cell + 1] - cellOffsets[cell];
+    }
+
+    /**
+     * Returns the ids of the nodes in the given cell in ascending order.
+     * @param cell The cell.
+     * @return A new array containing the ids of the nodes in the cell.
+     */
+    public int[] getNodes(int cell) {
+        return Arrays.copyOfRange(cellNodes, cellOffsets[cell], cellOffsets[cell + 1]);
+    }
+
+    /**
+     * Returns whether the node with the given id is connected to a node of another cell.
+     * @param node The id of the node.
+     * @return True, if the node is a boundary node.
+     */
+    public boolean isBoundary(int node) {
+        return boundary[node];
+    }
+
+    /**
+     * Returns the ids of the boundary nodes of the given cell in ascending order.
+     * @param cell The cell.
+     * @return A new array containing the ids of the boundary nodes of the cell.
+     */
+    public int[] getBoundaryNodes(int cell) {
+        return Arrays.copyOfRange(boundaryNodes, boundaryOffsets[cell], boundaryOffsets[cell + 1]);
+    }
+
+    /**
+     * Returns the amount of boundary nodes of all cells.
+     * @return The amount of boundary nodes.
+     */
+    public int getBoundaryNodeCount() {
+        return boundaryNodes.length;
+    }
+
+    /**
+     * Returns the amount of edges connecting nodes of different cells.
+     * @return The amount of cut edges.
+     */
+    public long getCutEdgeCount() {
+        return cutEdgeCount;
+    }
+
+    /**
+     * Returns the amount of nodes in the largest cell.
+     * @return The amount of nodes in the largest cell.
+     */
+    public int getMaxCellSize() {
+        int max = 0;
+        for (int cell = 0; cell < cellCount; cell++) {
+            max = Math.max(max, getCellSize(cell));
+        }
+        return max;
+    }
+
+    /**
+     * Returns how much larger the largest cell is than a cell of a perfectly balanced partition, e.g. {@code 0.03} if
+     * it has 3% more nodes than the average.
+     * @return The imbalance of this {@link Partition}.
+     */
+    public double getImbalance() {
+        return cells.length == 0 ? 0 : (double) getMaxCellSize() * cellCount / cells.length - 1;
+    }
+
+    @Override
+    public String toString() {
+        return "Partition("
+            + "cells=" + cellCount
+            + ", nodes=" + cells.length
+            + ", cutEdges=" + cutEdgeCount
+            + ", boundaryNodes=" + boundaryNodes.length
+            + ", imbalance=" + getImbalance()
+            + ')';
+    }
+}
@@ -0,0 +1,351 @@
+package projekt.delivery.partition;
+
+import projekt.delivery.routing.CompiledRegion;
+import projekt.delivery.routing.Region;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Partitions the nodes of a {@link Region} into balanced cells that are connected by few edges.<p>
+ *
+ * The partition is computed in three steps, each of them in (near) linear time:
+ * <ol>
+ *     <li>One seed per cell is chosen at evenly spaced positions of a Hilbert curve through the coordinates of the
+ *     nodes, so the seeds are spread over the whole region. Starting from the seeds, the cells are grown by a
+ *     simultaneous breadth-first search until they reach their maximum size.</li>
+ *     <li>Nodes that have not been reached, because they are separated from the seeds by full cells or lie in another
+ *     connected component, are assigned to an adjacent cell or the smallest cell in breadth-first order.</li>
+ *     <li>The cells are refined by size-constrained label propagation: every node moves to the cell most of its
+ *     neighbours belong to, as long as that cell is not full. Every round visits the nodes in a random order. The
+ *     rounds keep the cells balanced and usually lower the amount of cut edges, but a round is not guaranteed to
+ *     reduce it. The refinement stops after a round without moves or after the configured amount of rounds.</li>
+ * </ol>
+ * No cell has more than {@code ceil((1 + imbalance) * n / cellCount)} nodes and no cell is empty. The result only
+ * depends on the settings and the seed. To create a new {@link RegionPartitioner}, use
+ * {@code RegionPartitioner.builder()...build();}.
+ */
+public class RegionPartitioner {
+
+    /**
+     * The amount of bits of a coordinate on the Hilbert curve.
+     */
+    private static final int HILBERT_BITS = 16;
+
+    public final int cellCount;
+    public final double imbalance;
+    public final int refinementRounds;
+    public final long seed;
+
+    private RegionPartitioner(int cellCount, double imbalance, int refinementRounds, long seed) {
+        this.cellCount = cellCount;
+        this.imbalance = imbalance;
+        this.refinementRounds = refinementRounds;
+        this.seed = seed;
+    }
+
+    /**
+     * Creates a new {@link RegionPartitioner.Builder}.
+     *
+     * @return The created {@link RegionPartitioner.Builder}.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Partitions the given {@link Region}.
+     *
+     * @param region The {@link Region} to partition.
+     * @return The {@link Partition} of the {@link CompiledRegion} of the given {@link Region}.
+     * @throws IllegalArgumentException If the {@link Region} has fewer nodes than cells.
+     */
+    public Partition partition(Region region) {
+        return partition(CompiledRegion.of(region));
+    }
+
+    /**
+     * Partitions the given {@link CompiledRegion}.
+     *
+     * @param region The {@link CompiledRegion} to partition.
+     * @return The {@link Partition} of the {@link CompiledRegion}.
+     * @throws IllegalArgumentException If the {@link CompiledRegion} has fewer nodes than cells.
+     */
+    public Partition partition(CompiledRegion region) {
+        int n = region.size();
+        if (n < cellCount) {
+            throw new IllegalArgumentException("Cannot partition %d nodes into %d cells".formatted(n, cellCount));
+        }
+        int maxCellSize = (int) Math.max((n + cellCount - 1) / cellCount, Math.ceil((1 + imbalance) * n / cellCount));
+        int[] cells = new int[n];
+        int[] sizes = new int[cellCount];
+        Arrays.fill(cells, -1);
+        Random random = new Random(seed);
+
+        int[] queue = new int[n];
+        growCells(region, cells, sizes, maxCellSize, chooseSeeds(region), queue);
+        assignRemaining(region, cells, sizes, maxCellSize, queue);
+        refine(region, cells, sizes, maxCellSize, random);
+        return new Partition(region, cellCount, cells);
+    }
+
+    /**
+     * Chooses one seed per cell at evenly spaced positions of the Hilbert curve.
+     */
+    private int[] chooseSeeds(CompiledRegion region) {
+        int n = region.size();
+        int minX = Integer.MAX_VALUE;
+        int minY = Integer.MAX_VALUE;
+        long maxX = Integer.MIN_VALUE;
+        long maxY = Integer.MIN_VALUE;
+        for (int u = 0; u < n; u++) {
+            minX = Math.min(minX, region.getX(u));
+            minY = Math.min(minY, region.getY(u));
+            maxX = Math.max(maxX, region.getX(u));
+            maxY = Math.max(maxY, region.getY(u));
+        }
+        // both axes are scaled by the same factor, so the curve keeps the shape of the region
+        long range = Math.max(1, Math.max(maxX - minX, maxY - minY));
+        long scale = (1L << HILBERT_BITS) - 1;
+        long[] keys = new long[n];
+        for (int u = 0; u < n; u++) {
+            int x = (int) ((region.getX(u) - (long) minX) * scale / range);
+            int y = (int) ((region.getY(u) - (long) minY) * scale / range);
+            keys[u] = hilbertIndex(x, y) << Integer.SIZE - 1 | u;
+        }
+        Arrays.sort(keys);
+
+        int[] seeds = new int[cellCount];
+        for (int cell = 0; cell < cellCount; cell++) {
+            // the middle of the cell-th of cellCount equal ranges of the curve, consecutive positions differ by at
+            // least n / cellCount >= 1, so the seeds are distinct
+            int position = (int) ((2 * cell + 1) * (long) n / (2L * cellCount));
+            seeds[cell] = (int) (keys[position] & Integer.MAX_VALUE);
+        }
+        return seeds;
+    }
+
+    /**
+     * Returns the position of the given coordinates on a Hilbert curve through a square of {@code 2^16} by
+     * {@code 2^16} cells.
+     */
+    static long hilbertIndex(int x, int y) {
+        int mask = (1 << HILBERT_BITS) - 1;
+        long index = 0;
+        for (int s = 1 << HILBERT_BITS - 1; s > 0; s >>= 1) {
+            int rx = (x & s) != 0 ? 1 : 0;
+            int ry = (y & s) != 0 ? 1 : 0;
+            index += (long) s * s * ((3 * rx) ^ ry);
+            // rotate the quadrant, so the curve continues in the next quadrant
+            if (ry == 0) {
+                if (rx == 1) {
+                    x = mask - x;
+                    y = mask - y;
+                }
+                int t = x;
+                x = y;
+                y = t;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Grows the cells from their seeds by a simultaneous breadth-first search. A cell stops growing once it is full.
+     */
+    private void growCells(CompiledRegion region, int[] cells, int[] sizes, int maxCellSize, int[] seeds, int[] queue) {
+        int tail = 0;
+        for (int cell = 0; cell < seeds.length; cell++) {
+            cells[seeds[cell]] = cell;
+            sizes[cell] = 1;
+            queue[tail++] = seeds[cell];
+        }
+        for (int head = 0; head < tail; head++) {
+            int u = queue[head];
+            int cell = cells[u];
+            for (int arc = region.arcStart(u); arc < region.arcEnd(u) && sizes[cell] < maxCellSize; arc++) {
+                int v = region.arcTarget(arc);
+                if (cells[v] < 0) {
+                    cells[v] = cell;
+                    sizes[cell]++;
+                    queue[tail++] = v;
+                }
+            }
+        }
+    }
+
+    /**
+     * Assigns the nodes that have not been reached by {@link #growCells}. Every piece of connected unassigned nodes is
+     * assigned in breadth-first order to the smallest adjacent cell that is not full yet. If there is none or once that
+     * cell is full, the remaining nodes of the piece are assigned to the cell with the lowest index that is not full.
+     */
+    private void assignRemaining(CompiledRegion region, int[] cells, int[] sizes, int maxCellSize, int[] queue) {
+        // since cells only grow here, the next cell that is not full is found by scanning the cells only once
+        int nextFree = 0;
+        for (int start = 0; start < cells.length; start++) {
+            if (cells[start] >= 0) {
+                continue;
+            }
+            // collect the piece and mark its nodes with -2
+            int tail = 0;
+            int target = -1;
+            cells[start] = -2;
+            queue[tail++] = start;
+            for (int head = 0; head < tail; head++) {
+                int u = queue[head];
+                for (int arc = region.arcStart(u); arc < region.arcEnd(u); arc++) {
+                    int v = region.arcTarget(arc);
+                    int cell = cells[v];
+                    if (cell == -1) {
+                        cells[v] = -2;
+                        queue[tail++] = v;
+                    } else if (cell >= 0 && sizes[cell] < maxCellSize && (target < 0 || sizes[cell] < sizes[target]
+                        || sizes[cell] == sizes[target] && cell < target)) {
+                        target = cell;
+                    }
+                }
+            }
+            for (int i = 0; i < tail; i++) {
+                if (target < 0 || sizes[target] >= maxCellSize) {
+                    while (sizes[nextFree] >= maxCellSize) {
+                        nextFree++;
+                    }
+                    target = nextFree;
+                }
+                cells[queue[i]] = target;
+                sizes[target]++;
+            }
+        }
+    }
+
+    /**
+     * Refines the cells by size-constrained label propagation. A node moves to the cell with the most neighbours if
+     * that reduces the cut, or to an equally connected smaller cell if that improves the balance. Nodes never leave a
+     * cell they are the last node of and never enter a full cell.
+     */
+    private void refine(CompiledRegion region, int[] cells, int[] sizes, int maxCellSize, Random random) {
+        int n = cells.length;
+        // only nodes with a neighbour in another cell can move, at first these are the boundary nodes and afterwards
+        // the nodes next to a moved node
+        int[] active = new int[n];
+        int activeCount = 0;
+        for (int u = 0; u < n; u++) {
+            for (int arc = region.arcStart(u); arc < region.arcEnd(u); arc++) {
+                if (cells[region.arcTarget(arc)] != cells[u]) {
+                    active[activeCount++] = u;
+                    break;
+                }
+            }
+        }
+        int[] next = new int[n];
+        int[] queuedInRound = new int[n];
+        int[] connections = new int[cellCount];
+        int[] touched = new int[cellCount];
+        for (int round = 1; round <= refinementRounds && activeCount > 0; round++) {
+            // a new random order in every round, so nodes do not always move in the same direction
+            for (int i = activeCount - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int t = active[i];
+                active[i] = active[j];
+                active[j] = t;
+            }
+            int nextCount = 0;
+            for (int i = 0; i < activeCount; i++) {
+                int u = active[i];
+                int from = cells[u];
+                int touchedCount = 0;
+                for (int arc = region.arcStart(u); arc < region.arcEnd(u); arc++) {
+                    int cell = cells[region.arcTarget(arc)];
+                    if (connections[cell]++ == 0) {
+                        touched[touchedCount++] = cell;
+                    }
+                }
+                int best = from;
+                for (int j = 0; j < touchedCount; j++) {
+                    int cell = touched[j];
+                    if (cell != from && sizes[cell] < maxCellSize && (connections[cell] > connections[best]
+                        || connections[cell] == connections[best] && sizes[cell] + 1 < sizes[best])) {
+                        best = cell;
+                    }
+                }
+                for (int j = 0; j < touchedCount; j++) {
+                    connections[touched[j]] = 0;
+                }
+                if (best == from || sizes[from] == 1) {
+                    continue;
+                }
+                cells[u] = best;
+                sizes[from]--;
+                sizes[best]++;
+                if (queuedInRound[u] != round) {
+                    queuedInRound[u] = round;
+                    next[nextCount++] = u;
+                }
+                for (int arc = region.arcStart(u); arc < region.arcEnd(u); arc++) {
+                    int v = region.arcTarget(arc);
+                    if (queuedInRound[v] != round) {
+                        queuedInRound[v] = round;
+                        next[nextCount++] = v;
+                    }
+                }
+            }
+            int[] t = active;
+            active = next;
+            next = t;
+            activeCount = nextCount;
+        }
+    }
+
+    /**
+     * A builder for constructing a new {@link RegionPartitioner}.
+     */
+    public static class Builder {
+
+        public int cellCount = 16;
+        public double imbalance = 0.03;
+        public int refinementRounds = 32;
+        public long seed = 0;
+
+        private Builder() {
+        }
+
+        public Builder setCellCount(int cellCount) {
+            this.cellCount = cellCount;
+            return this;
+        }
+
+        public Builder setImbalance(double imbalance) {
+            this.imbalance = imbalance;
+            return this;
+        }
+
+        public Builder setRefinementRounds(int refinementRounds) {
+            this.refinementRounds = refinementRounds;
+            return this;
+        }
+
+        public Builder setSeed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * Constructs the {@link RegionPartitioner}.
+         *
+         * @return The constructed {@link RegionPartitioner}.
+         * @throws IllegalArgumentException If the settings are invalid, e.g. the amount of cells is not positive.
+         */
+        public RegionPartitioner build() {
+            if (cellCount < 1) {
+                throw new IllegalArgumentException("Illegal cell count: %d".formatted(cellCount));
+            }
+            if (!(imbalance >= 0)) {
+                throw new IllegalArgumentException("Illegal imbalance: %f".formatted(imbalance));
+            }
+            if (refinementRounds < 0) {
+                throw new IllegalArgumentException("Illegal amount of refinement rounds: %d".formatted(refinementRounds));
+            }
+            return new RegionPartitioner(cellCount, imbalance, refinementRounds, seed);
+        }
+    }
+}
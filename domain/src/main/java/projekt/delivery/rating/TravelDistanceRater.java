@@ -1,13 +1,12 @@
 package projekt.delivery.rating;
 
-import java.util.Deque;
 import java.util.List;
 
 import projekt.delivery.event.ArrivedAtNodeEvent;
 import projekt.delivery.event.DeliverOrderEvent;
 import projekt.delivery.event.Event;
+import projekt.delivery.routing.DistanceMatrix;
 import projekt.delivery.routing.PathCalculator;
-import projekt.delivery.routing.Region;
 import projekt.delivery.routing.VehicleManager;
 import projekt.delivery.simulation.Simulation;
 
@@ -16,6 +15,12 @@ import projekt.delivery.simulation.Simulation;
  * vehicles.
  * <p>
  *
+ * The worst distance of an order is calculated with the {@link PathCalculator} of the {@link VehicleManager}. If
+ * {@link FactoryBuilder#setUseDistanceMatrix(boolean)} is enabled, the {@link DistanceMatrix} of the
+ * {@link VehicleManager} is used instead. It is computed on the first delivery and ignores the durations of custom
+ * path calculators.
+ * <p>
+ *
  * To create a new {@link TravelDistanceRater} use
  * {@code TravelDistanceRater.Factory.builder()...build();}.
  */
@@ -23,17 +28,19 @@ public class TravelDistanceRater implements Rater {
 
     public static final RatingCriteria RATING_CRITERIA = RatingCriteria.TRAVEL_DISTANCE;
 
-    private final Region region;
+    private final VehicleManager vehicleManager;
     private final PathCalculator pathCalculator;
     private final double factor;
+    private final boolean useDistanceMatrix;
 
     private double actualDistance = 0;
     private double worstDistance = 0;
 
-    private TravelDistanceRater(VehicleManager vehicleManager, double factor) {
-        region = vehicleManager.getRegion();
+    private TravelDistanceRater(VehicleManager vehicleManager, double factor, boolean useDistanceMatrix) {
+        this.vehicleManager = vehicleManager;
         pathCalculator = vehicleManager.getPathCalculator();
         this.factor = factor;
+        this.useDistanceMatrix = useDistanceMatrix;
     }
 
     @Override
@@ -57,17 +64,13 @@ public class TravelDistanceRater implements Rater {
                 actualDistance += castedEvent.getLastEdge().getDuration();
             } else if (event instanceof DeliverOrderEvent) {
                 DeliverOrderEvent castedEvent = (DeliverOrderEvent) event;
-                Deque<Region.Node> nodesToLocation = pathCalculator.getPath(
-                        castedEvent.getOrder().getRestaurant().getComponent(),
-                        castedEvent.getNode());
-                Region.Node lastNode = castedEvent.getOrder().getRestaurant().getComponent();
-
-                double totalDistance = 0;
-
-                for (Region.Node node : nodesToLocation) {
-                    totalDistance += region.getEdge(lastNode, node).getDuration();
-                    lastNode = node;
-                }
+                double totalDistance = useDistanceMatrix
+                        ? vehicleManager.getDistanceMatrix().getDistance(
+                                castedEvent.getNode(),
+                                castedEvent.getOrder().getRestaurant().getComponent())
+                        : pathCalculator.getDistance(
+                                castedEvent.getOrder().getRestaurant().getComponent(),
+                                castedEvent.getNode());
                 worstDistance += totalDistance * 2;
             }
         }
@@ -80,15 +83,17 @@ public class TravelDistanceRater implements Rater {
 
         public final VehicleManager vehicleManager;
         public final double factor;
+        public final boolean useDistanceMatrix;
 
-        private Factory(VehicleManager vehicleManager, double factor) {
+        private Factory(VehicleManager vehicleManager, double factor, boolean useDistanceMatrix) {
             this.vehicleManager = vehicleManager;
             this.factor = factor;
+            this.useDistanceMatrix = useDistanceMatrix;
         }
 
         @Override
         public TravelDistanceRater create() {
-            return new TravelDistanceRater(vehicleManager, factor);
+            return new TravelDistanceRater(vehicleManager, factor, useDistanceMatrix);
         }
 
         /**
@@ -110,13 +115,14 @@ public class TravelDistanceRater implements Rater {
 
         public VehicleManager vehicleManager;
         public double factor = 0.5;
+        public boolean useDistanceMatrix = false;
 
         private FactoryBuilder() {
         }
 
         @Override
         public Factory build() {
-            return new Factory(vehicleManager, factor);
+            return new Factory(vehicleManager, factor, useDistanceMatrix);
         }
 
         public FactoryBuilder setVehicleManager(VehicleManager vehicleManager) {
@@ -132,6 +138,19 @@ public class TravelDistanceRater implements Rater {
             this.factor = factor;
             return this;
         }
+
+        /**
+         * Sets whether the worst distances are looked up in the {@link DistanceMatrix} of the {@link VehicleManager}
+         * instead of being calculated by its {@link PathCalculator}. The matrix is worth its preprocessing only for
+         * many deliveries on a region whose durations are not changed by the path calculator.
+         *
+         * @param useDistanceMatrix Whether to use the {@link DistanceMatrix}.
+         * @return This {@link FactoryBuilder}.
+         */
+        public FactoryBuilder setUseDistanceMatrix(boolean useDistanceMatrix) {
+            this.useDistanceMatrix = useDistanceMatrix;
+            return this;
+        }
     }
 
 }
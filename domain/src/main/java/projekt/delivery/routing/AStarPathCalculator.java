@@ -0,0 +1,257 @@
+package projekt.delivery.routing;
+
+import org.jetbrains.annotations.Nullable;
+import projekt.base.ChessboardDistanceCalculator;
+import projekt.base.DistanceCalculator;
+import projekt.base.EuclideanDistanceCalculator;
+import projekt.base.ManhattanDistanceCalculator;
+
+import java.util.Deque;
+import java.util.Map;
+
+/**
+ * A {@link PathCalculator} that calculates the shortest path between a start and an end point using A*.<p>
+ *
+ * The {@link DistanceCalculator} of the {@link Region} is used as heuristic. The durations of edges built by
+ * {@link Region#builder()} are the rounded up distances between their nodes, so the distance is a lower bound for the
+ * duration of any path and A* only has to settle the nodes that may lie on a shortest path instead of the whole
+ * region.<p>
+ *
+ * The heuristic is only used if it is guaranteed to be consistent, i.e. if the region uses a
+ * {@link EuclideanDistanceCalculator}, a {@link ManhattanDistanceCalculator} or a {@link ChessboardDistanceCalculator}
+ * and no edge is shorter than the distance between its nodes. Otherwise, this calculator falls back to Dijkstra's
+ * algorithm and returns the same paths as a {@link DijkstraPathCalculator}.
+ */
+public class AStarPathCalculator implements PathCalculator {
+
+    /**
+     * The key of the {@link Heuristic} attached to a {@link CompiledRegion}.
+     */
+    private static final Object HEURISTIC_KEY = new Object();
+
+    /**
+     * The {@link QueueStrategy} to use or {@code null} to choose one for every region.
+     */
+    private final @Nullable QueueStrategy queueStrategy;
+
+    /**
+     * The calculator used if no consistent heuristic is available.
+     */
+    private final DijkstraPathCalculator fallback;
+
+    /**
+     * Creates a new {@link AStarPathCalculator} that chooses the {@link QueueStrategy} based on the searched region.
+     */
+    public AStarPathCalculator() {
+        this(null);
+    }
+
+    /**
+     * Creates a new {@link AStarPathCalculator} that uses the given {@link QueueStrategy}.
+     *
+     * @param queueStrategy The {@link QueueStrategy} to use or {@code null} to choose one based on the searched region.
+     */
+    public AStarPathCalculator(@Nullable QueueStrategy queueStrategy) {
+        this.queueStrategy = queueStrategy;
+        this.fallback = new DijkstraPathCalculator(queueStrategy);
+    }
+
+    /**
+     * Returns true, if A* is used for the given {@link Region}, i.e. if its {@link DistanceCalculator} is a
+     * consistent heuristic.
+     *
+     * @param region The {@link Region} to check.
+     * @return True, if the heuristic is used for the given {@link Region}.
+     */
+    public boolean isHeuristicUsed(Region region) {
+        return getHeuristic(CompiledRegion.of(region)) != Heuristic.NONE;
+    }
+
+    private static Heuristic getHeuristic(CompiledRegion compiled) {
+        return compiled.getOrCompute(HEURISTIC_KEY, Heuristic::of);
+    }
+
+    @Override
+    public Deque<Region.Node> getPath(Region.Node start, Region.Node end) {
+        CompiledRegion compiled = CompiledRegion.of(end.getRegion());
+        Heuristic heuristic = getHeuristic(compiled);
+        if (heuristic == Heuristic.NONE) {
+            return fallback.getPath(start, end);
+        }
+
+        int startId = compiled.indexOf(start);
+        Deque<Region.Node> path = search(compiled, heuristic, startId, compiled.indexOf(end)).pathToRoot(startId);
+        if (path == null) {
+            throw new IllegalArgumentException("No path from %s to %s".formatted(start, end));
+        }
+        return path;
+    }
+
+    /**
+     * {@inheritDoc}<p>
+     *
+     * The duration is taken from the search without creating the path.
+     *
+     * @throws IllegalArgumentException If there is no path from start to end.
+     */
+    @Override
+    public long getDistance(Region.Node start, Region.Node end) {
+        CompiledRegion compiled = CompiledRegion.of(end.getRegion());
+        Heuristic heuristic = getHeuristic(compiled);
+        if (heuristic == Heuristic.NONE) {
+            return fallback.getDistance(start, end);
+        }
+
+        int startId = compiled.indexOf(start);
+        long distance = search(compiled, heuristic, startId, compiled.indexOf(end)).getDistance(startId);
+        if (distance == Long.MAX_VALUE) {
+            throw new IllegalArgumentException("No path from %s to %s".formatted(start, end));
+        }
+        return distance;
+    }
+
+    /**
+     * Runs A* from {@code end} to {@code start} in the workspace of the current thread.
+     */
+    private DijkstraWorkspace search(CompiledRegion compiled, Heuristic heuristic, int startId, int endId) {
+        // the key of a node may increase by its arc duration plus the change of the heuristic, which is at most the
+        // distance between the nodes rounded up
+        long maxKeyIncrease = 2 * compiled.getMaxDuration() + 1;
+        QueueStrategy strategy = queueStrategy != null ? queueStrategy
+            : maxKeyIncrease <= QueueStrategy.DIAL_MAX_DURATION ? QueueStrategy.DIAL : QueueStrategy.BINARY_HEAP;
+        DijkstraWorkspace workspace = DijkstraWorkspace.forCurrentThread(0, strategy);
+        // search backwards from end, so the parents of the search tree point towards end
+        search(compiled, workspace, heuristic, endId, startId, maxKeyIncrease);
+        return workspace;
+    }
+
+    /**
+     * {@inheritDoc}<p>
+     *
+     * A goal-directed search does not help if the paths of all nodes are needed, so this always uses Dijkstra's
+     * algorithm.
+     */
+    @Override
+    public Map<Region.Node, Deque<Region.Node>> getAllPathsTo(Region.Node end) {
+        return fallback.getAllPathsTo(end);
+    }
+
+    /**
+     * Runs A* from {@code source} until {@code target} is settled.
+     */
+    private static void search(CompiledRegion region, DijkstraWorkspace workspace, Heuristic heuristic,
+                               int source, int target, long maxKeyIncrease) {
+        workspace.begin(region, maxKeyIncrease);
+        NodeQueue queue = workspace.getQueue();
+        int[] offsets = region.offsets;
+        int[] targets = region.targets;
+        long[] durations = region.durations;
+        int[] xs = region.xs;
+        int[] ys = region.ys;
+        int targetX = xs[target];
+        int targetY = ys[target];
+
+        workspace.update(source, 0, -1, -1);
+        queue.update(source, heuristic.lowerBound((long) xs[source] - targetX, (long) ys[source] - targetY));
+        while (!queue.isEmpty()) {
+            int u = queue.poll();
+            workspace.settle(u);
+            if (u == target) {
+                return;
+            }
+            long distance = workspace.getDistance(u);
+            for (int arc = offsets[u], end = offsets[u + 1]; arc < end; arc++) {
+                int v = targets[arc];
+                if (workspace.isSettled(v)) {
+                    continue;
+                }
+                long candidate = distance + durations[arc];
+                if (workspace.update(v, candidate, u, arc)) {
+                    queue.update(v, candidate + heuristic.lowerBound((long) xs[v] - targetX, (long) ys[v] - targetY));
+                }
+            }
+        }
+    }
+
+    /**
+     * The heuristics supported by {@link AStarPathCalculator}.
+     */
+    enum Heuristic {
+
+        NONE {
+            @Override
+            double distance(long dx, long dy) {
+                return 0;
+            }
+        },
+        EUCLIDEAN {
+            @Override
+            double distance(long dx, long dy) {
+                return Math.sqrt((double) dx * dx + (double) dy * dy);
+            }
+        },
+        MANHATTAN {
+            @Override
+            double distance(long dx, long dy) {
+                return Math.abs(dx) + Math.abs(dy);
+            }
+        },
+        CHESSBOARD {
+            @Override
+            double distance(long dx, long dy) {
+                return Math.max(Math.abs(dx), Math.abs(dy));
+            }
+        };
+
+        /**
+         * Returns the distance between two points with the given coordinate differences.
+         */
+        abstract double distance(long dx, long dy);
+
+        /**
+         * Returns the distance between two points rounded down. Since the arc durations are integers, rounding down
+         * keeps the heuristic consistent.
+         */
+        long lowerBound(long dx, long dy) {
+            return (long) distance(dx, dy);
+        }
+
+        /**
+         * Determines the consistent heuristic of the given {@link CompiledRegion}.
+         */
+        static Heuristic of(CompiledRegion compiled) {
+            Heuristic heuristic = of(compiled.getRegion().getDistanceCalculator());
+            if (heuristic == NONE) {
+                return NONE;
+            }
+            for (int u = 0; u < compiled.size(); u++) {
+                for (int arc = compiled.offsets[u]; arc < compiled.offsets[u + 1]; arc++) {
+                    int v = compiled.targets[arc];
+                    long dx = (long) compiled.xs[u] - compiled.xs[v];
+                    long dy = (long) compiled.ys[u] - compiled.ys[v];
+                    if (compiled.durations[arc] < heuristic.distance(dx, dy)) {
+                        return NONE;
+                    }
+                }
+            }
+            return heuristic;
+        }
+
+        /**
+         * Determines the heuristic calculating the same distances as the given {@link DistanceCalculator}, without
+         * checking the durations of the edges.
+         */
+        static Heuristic of(DistanceCalculator distanceCalculator) {
+            // exact class checks, because subclasses may calculate different distances
+            Class<?> type = distanceCalculator.getClass();
+            if (type == EuclideanDistanceCalculator.class) {
+                return EUCLIDEAN;
+            } else if (type == ManhattanDistanceCalculator.class) {
+                return MANHATTAN;
+            } else if (type == ChessboardDistanceCalculator.class) {
+                return CHESSBOARD;
+            }
+            return NONE;
+        }
+    }
+}
@@ -4,7 +4,7 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -15,9 +15,15 @@ abstract class AbstractOccupied<C extends Region.Component<? super C>> implement
 
     protected final C component;
     protected final VehicleManager vehicleManager;
-    protected final Map<VehicleImpl, VehicleStats> vehicles = new HashMap<>();
+    // the insertion order keeps the order of the vehicles independent of their identity hash codes
+    protected final Map<VehicleImpl, VehicleStats> vehicles = new LinkedHashMap<>();
     private final Collection<Vehicle> unmodifiableVehicles =
         Collections.unmodifiableCollection(vehicles.keySet());
+    /**
+     * The index of this component in the active sets of its {@link VehicleManagerImpl} or {@code -1}, if it is not
+     * managed by one.
+     */
+    int index = -1;
 
     AbstractOccupied(C component, VehicleManager vehicleManager) {
         this.component = component;
@@ -44,6 +50,15 @@ abstract class AbstractOccupied<C extends Region.Component<? super C>> implement
         vehicles.clear();
     }
 
+    /**
+     * Marks this component as active, so it is ticked by its {@link VehicleManagerImpl} in the current or next tick.
+     */
+    void activate() {
+        if (vehicleManager instanceof VehicleManagerImpl vehicleManagerImpl) {
+            vehicleManagerImpl.activate(this);
+        }
+    }
+
     protected static class VehicleStats {
         final long arrived;
         final @Nullable VehicleManager.Occupied<?> previous;
@@ -0,0 +1,151 @@
+package projekt.delivery.routing;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Deque;
+import java.util.Map;
+
+/**
+ * A {@link PathCalculator} that calculates the shortest path between a start and an end point using A* with
+ * {@link Landmarks} and the triangle inequality as heuristic (ALT).<p>
+ *
+ * Unlike {@link AStarPathCalculator} the heuristic does not depend on the coordinates of the nodes, so it works for
+ * every region, including regions whose durations are not related to the distance between the nodes. The landmarks
+ * are selected on the first query of a region and shared by all calculators routing on the same region with the same
+ * settings. Every query only uses the {@link #ACTIVE_LANDMARKS} landmarks that bound the distance between its start
+ * and end best.
+ */
+public class AltPathCalculator implements PathCalculator {
+
+    /**
+     * The amount of landmarks used by a single query.
+     */
+    public static final int ACTIVE_LANDMARKS = 4;
+
+    private final int landmarkCount;
+    private final Landmarks.Selection selection;
+    private final @Nullable QueueStrategy queueStrategy;
+
+    /**
+     * The calculator used for {@link #getAllPathsTo(Region.Node)}.
+     */
+    private final DijkstraPathCalculator fallback;
+
+    /**
+     * Creates a new {@link AltPathCalculator} that uses {@link Landmarks#DEFAULT_COUNT} landmarks chosen with
+     * {@link Landmarks.Selection#AVOID}.
+     */
+    public AltPathCalculator() {
+        this(Landmarks.DEFAULT_COUNT, Landmarks.Selection.AVOID, null);
+    }
+
+    /**
+     * Creates a new {@link AltPathCalculator}.
+     *
+     * @param landmarkCount The amount of landmarks.
+     * @param selection     The strategy for choosing the landmarks.
+     * @param queueStrategy The {@link QueueStrategy} to use or {@code null} to choose one based on the searched region.
+     */
+    public AltPathCalculator(int landmarkCount, Landmarks.Selection selection, @Nullable QueueStrategy queueStrategy) {
+        if (landmarkCount < 0) {
+            throw new IllegalArgumentException("Invalid amount of landmarks: %d".formatted(landmarkCount));
+        }
+        this.landmarkCount = landmarkCount;
+        this.selection = selection;
+        this.queueStrategy = queueStrategy;
+        this.fallback = new DijkstraPathCalculator(queueStrategy);
+    }
+
+    /**
+     * Returns the {@link Landmarks} used for the given {@link Region} and selects them if necessary.
+     *
+     * @param region The {@link Region} to return the {@link Landmarks} of.
+     * @return The {@link Landmarks} of the given {@link Region}.
+     */
+    public Landmarks getLandmarks(Region region) {
+        return Landmarks.of(CompiledRegion.of(region), landmarkCount, selection);
+    }
+
+    @Override
+    public Deque<Region.Node> getPath(Region.Node start, Region.Node end) {
+        CompiledRegion compiled = CompiledRegion.of(end.getRegion());
+        int startId = compiled.indexOf(start);
+        Deque<Region.Node> path = search(compiled, startId, compiled.indexOf(end)).pathToRoot(startId);
+        if (path == null) {
+            throw new IllegalArgumentException("No path from %s to %s".formatted(start, end));
+        }
+        return path;
+    }
+
+    /**
+     * {@inheritDoc}<p>
+     *
+     * The duration is taken from the search without creating the path.
+     *
+     * @throws IllegalArgumentException If there is no path from start to end.
+     */
+    @Override
+    public long getDistance(Region.Node start, Region.Node end) {
+        CompiledRegion compiled = CompiledRegion.of(end.getRegion());
+        int startId = compiled.indexOf(start);
+        long distance = search(compiled, startId, compiled.indexOf(end)).getDistance(startId);
+        if (distance == Long.MAX_VALUE) {
+            throw new IllegalArgumentException("No path from %s to %s".formatted(start, end));
+        }
+        return distance;
+    }
+
+    /**
+     * {@inheritDoc}<p>
+     *
+     * A goal-directed search does not help if the paths of all nodes are needed, so this always uses Dijkstra's
+     * algorithm.
+     */
+    @Override
+    public Map<Region.Node, Deque<Region.Node>> getAllPathsTo(Region.Node end) {
+        return fallback.getAllPathsTo(end);
+    }
+
+    /**
+     * Runs A* from {@code end} until {@code start} is settled in the workspace of the current thread.
+     */
+    private DijkstraWorkspace search(CompiledRegion region, int start, int end) {
+        Landmarks landmarks = Landmarks.of(region, landmarkCount, selection);
+        int[] active = new int[ACTIVE_LANDMARKS];
+        int activeCount = landmarks.selectActive(end, start, active);
+
+        // the heuristic is consistent, so the key of a node increases by at most twice the duration of its arc
+        long maxKeyIncrease = 2 * region.getMaxDuration() + 1;
+        QueueStrategy strategy = queueStrategy != null ? queueStrategy
+            : maxKeyIncrease <= QueueStrategy.DIAL_MAX_DURATION ? QueueStrategy.DIAL : QueueStrategy.BINARY_HEAP;
+        DijkstraWorkspace workspace = DijkstraWorkspace.forCurrentThread(0, strategy);
+        workspace.begin(region, maxKeyIncrease);
+        NodeQueue queue = workspace.getQueue();
+        int[] offsets = region.offsets;
+        int[] targets = region.targets;
+        long[] durations = region.durations;
+
+        // search backwards from end, so the parents of the search tree point towards end
+        workspace.update(end, 0, -1, -1);
+        queue.update(end, landmarks.lowerBound(end, start, active, activeCount));
+        while (!queue.isEmpty()) {
+            int u = queue.poll();
+            workspace.settle(u);
+            if (u == start) {
+                break;
+            }
+            long distance = workspace.getDistance(u);
+            for (int arc = offsets[u], arcEnd = offsets[u + 1]; arc < arcEnd; arc++) {
+                int v = targets[arc];
+                if (workspace.isSettled(v)) {
+                    continue;
+                }
+                long candidate = distance + durations[arc];
+                if (workspace.update(v, candidate, u, arc)) {
+                    queue.update(v, candidate + landmarks.lowerBound(v, start, active, activeCount));
+                }
+            }
+        }
+        return workspace;
+    }
+}
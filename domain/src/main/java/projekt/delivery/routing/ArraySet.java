@@ -0,0 +1,87 @@
+package projekt.delivery.routing;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * An immutable {@link java.util.Set} backed by an array of distinct elements.<p>
+ *
+ * It is used for the adjacency of frozen {@link Region.Node}s, which only has a few elements, so
+ * {@link #contains(Object)} compares all elements instead of hashing them.
+ *
+ * @param <E> The type of the elements.
+ */
+final class ArraySet<E> extends AbstractSet<E> {
+
+    private final E[] elements;
+
+    /**
+     * Creates a new {@link ArraySet}. The given array is not copied and must not be modified afterwards.
+     *
+     * @param elements The distinct elements of this {@link ArraySet}.
+     */
+    ArraySet(E[] elements) {
+        this.elements = elements;
+    }
+
+    /**
+     * Returns the element with the given index.
+     * @param index The index of the element.
+     * @return The element with the given index.
+     */
+    E get(int index) {
+        return elements[index];
+    }
+
+    @Override
+    public int size() {
+        return elements.length;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        for (E element : elements) {
+            if (Objects.equals(element, o)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void forEach(Consumer<? super E> action) {
+        for (E element : elements) {
+            action.accept(element);
+        }
+    }
+
+    @Override
+    public Object[] toArray() {
+        return Arrays.copyOf(elements, elements.length, Object[].class);
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<>() {
+
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < elements.length;
+            }
+
+            @Override
+            public E next() {
+                if (next >= elements.length) {
+                    throw new NoSuchElementException();
+                }
+                return elements[next++];
+            }
+        };
+    }
+}
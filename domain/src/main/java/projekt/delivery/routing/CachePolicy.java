@@ -0,0 +1,43 @@
+package projekt.delivery.routing;
+
+/**
+ * Decides which entries of a bounded cache are evicted.<p>
+ *
+ * A policy only tracks the keys of the cache, the cache itself stores the values. The cache reports every access,
+ * insertion and removal to the policy and asks it for victims while it exceeds its limits. Policies are not
+ * thread-safe, the cache has to synchronize all calls.
+ *
+ * @param <K> The type of the keys.
+ * @see CachedPathCalculator
+ */
+public interface CachePolicy<K> {
+
+    /**
+     * Records an access of a key that is contained in the cache.
+     *
+     * @param key The accessed key.
+     */
+    void recordAccess(K key);
+
+    /**
+     * Records that a key has been inserted into the cache after it was not found.
+     *
+     * @param key The inserted key.
+     */
+    void recordInsertion(K key);
+
+    /**
+     * Records that a key has been removed from the cache without being chosen by {@link #evict()}.
+     *
+     * @param key The removed key.
+     */
+    void recordRemoval(K key);
+
+    /**
+     * Chooses the key that is evicted next and stops tracking it.
+     *
+     * @return The evicted key.
+     * @throws IllegalStateException If no key is tracked.
+     */
+    K evict();
+}
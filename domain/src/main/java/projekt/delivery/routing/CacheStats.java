@@ -0,0 +1,40 @@
+package projekt.delivery.routing;
+
+/**
+ * A snapshot of the statistics of a {@link CachedPathCalculator}.
+ *
+ * @param hits           The amount of requests that were answered from the cache.
+ * @param misses         The amount of requests that had to be calculated by the delegate.
+ * @param evictions      The amount of entries that have been evicted to stay within the limits of the cache.
+ * @param totalLoadNanos The total time spent calculating missing entries in nanoseconds.
+ * @param entries        The amount of entries currently in the cache.
+ * @param estimatedBytes The estimated amount of bytes currently occupied by the entries.
+ */
+public record CacheStats(long hits, long misses, long evictions, long totalLoadNanos, long entries,
+                         long estimatedBytes) {
+
+    /**
+     * Returns the amount of requests.
+     * @return The amount of requests.
+     */
+    public long requests() {
+        return hits + misses;
+    }
+
+    /**
+     * Returns the ratio of requests that were answered from the cache or {@code 1} if there were no requests.
+     * @return The hit rate in {@code [0, 1]}.
+     */
+    public double hitRate() {
+        long requests = requests();
+        return requests == 0 ? 1 : (double) hits / requests;
+    }
+
+    /**
+     * Returns the average time spent calculating a missing entry in nanoseconds or {@code 0} if there were no misses.
+     * @return The average load time in nanoseconds.
+     */
+    public double averageLoadNanos() {
+        return misses == 0 ? 0 : (double) totalLoadNanos / misses;
+    }
+}
@@ -0,0 +1,137 @@
+package projekt.delivery.routing;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fills a {@link CachedPathCalculator} with the paths to a list of end nodes in the background.<p>
+ *
+ * Every end node is calculated by its own task on the given {@link Executor}, so the trees are calculated in parallel
+ * if the executor has more than one thread. Tasks that have not started yet are skipped once the warm-up is cancelled.
+ *
+ * @see VehicleManager.Builder#warmUp(Executor, ProgressListener)
+ */
+public final class CacheWarmUp {
+
+    private final int total;
+    private final AtomicInteger completed = new AtomicInteger();
+    private volatile boolean cancelled;
+    private final CompletableFuture<Void> future;
+
+    private CacheWarmUp(CachedPathCalculator calculator, List<? extends Region.Node> ends, Executor executor,
+                        @Nullable ProgressListener listener) {
+        total = ends.size();
+        List<CompletableFuture<Void>> tasks = new ArrayList<>(total);
+        for (Region.Node end : ends) {
+            tasks.add(CompletableFuture.runAsync(() -> {
+                if (cancelled) {
+                    return;
+                }
+                calculator.warm(end);
+                int done = completed.incrementAndGet();
+                if (listener != null) {
+                    listener.onProgress(done, total);
+                }
+            }, executor));
+        }
+        future = CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * Starts to fill the given {@link CachedPathCalculator} with the paths to the given end nodes. At most
+     * {@link CachedPathCalculator#getSize()} end nodes are calculated, since further trees would evict the first ones.
+     *
+     * @param calculator The {@link CachedPathCalculator} to fill.
+     * @param ends       The end nodes in the order of their importance.
+     * @param executor   The {@link Executor} running the calculations.
+     * @param listener   The {@link ProgressListener} notified after every calculated end node or {@code null}.
+     * @return The started {@link CacheWarmUp}.
+     */
+    public static CacheWarmUp start(CachedPathCalculator calculator, List<? extends Region.Node> ends,
+                                    Executor executor, @Nullable ProgressListener listener) {
+        return new CacheWarmUp(calculator, ends.subList(0, Math.min(ends.size(), calculator.getSize())), executor,
+            listener);
+    }
+
+    /**
+     * Returns the amount of end nodes that are calculated by this {@link CacheWarmUp}.
+     * @return The amount of end nodes.
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * Returns the amount of end nodes that have been calculated.
+     * @return The amount of calculated end nodes.
+     */
+    public int getCompleted() {
+        return completed.get();
+    }
+
+    /**
+     * Returns true, if all tasks have finished, i.e. all end nodes have been calculated or skipped.
+     * @return True, if this {@link CacheWarmUp} is done.
+     */
+    public boolean isDone() {
+        return future.isDone();
+    }
+
+    /**
+     * Cancels this {@link CacheWarmUp}. Calculations that are already running are finished, all others are skipped.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Returns true, if this {@link CacheWarmUp} has been cancelled.
+     * @return True, if this {@link CacheWarmUp} has been cancelled.
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Returns a {@link CompletableFuture} that is completed once all tasks have finished.
+     * @return The {@link CompletableFuture} of this {@link CacheWarmUp}.
+     */
+    public CompletableFuture<Void> getFuture() {
+        return future;
+    }
+
+    /**
+     * Waits until all tasks have finished.
+     *
+     * @throws InterruptedException If the current thread has been interrupted while waiting.
+     * @throws IllegalStateException If the calculation of an end node failed.
+     */
+    public void await() throws InterruptedException {
+        try {
+            future.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Warm-up failed", e.getCause());
+        }
+    }
+
+    /**
+     * Is notified about the progress of a {@link CacheWarmUp}. It is called by the threads of the executor.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+
+        /**
+         * Called after an end node has been calculated.
+         *
+         * @param completed The amount of calculated end nodes.
+         * @param total     The amount of end nodes that are calculated.
+         */
+        void onProgress(int completed, int total);
+    }
+}
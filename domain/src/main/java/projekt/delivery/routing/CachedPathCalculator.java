@@ -3,75 +3,266 @@ package projekt.delivery.routing;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
 
 /**
- * A {@link PathCalculator} that is based on another {@link PathCalculator} and caches its result for later use.
+ * A {@link PathCalculator} that is based on another {@link PathCalculator} and caches its result for later use.<p>
+ *
+ * The paths to an end node are cached as a {@link ShortestPathTree}, which stores {@code 12} bytes per node instead
+ * of a path per node. The cache is split into segments that are locked independently, so a
+ * {@link CachedPathCalculator} can be shared by simulations running concurrently. Every segment evicts trees once it
+ * exceeds its share of the entry or memory limit. The evicted trees are chosen by a {@link CachePolicy}, by default a
+ * {@link WindowTinyLfuCachePolicy}. The effectiveness of the cache can be observed with {@link #getStats()}.<p>
+ *
+ * The cached paths are only valid as long as the paths of the delegate do not change, so a
+ * {@link TimeDependentPathCalculator}, whose paths depend on the departure tick, cannot be cached.
  */
 public class CachedPathCalculator implements PathCalculator {
 
+    private static final int MAX_SEGMENTS = 16;
+
     private final PathCalculator delegate;
-    private final Map<Region.Node, Map<Region.Node, Deque<Region.Node>>> cache = new HashMap<>();
     private final int size;
-    private final Set<Region.Node> accessOrder;
+    private final long maxBytes;
+    private final Segment[] segments;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder loadNanos = new LongAdder();
 
     /**
      * Creates a new {@link CachedPathCalculator}.
      * @param delegate The {@link PathCalculator} this {@link CachedPathCalculator} uses to calculate the paths.
      * @param size The size of the cache.
+     * @throws IllegalArgumentException If the size is not positive or the delegate is a
+     *     {@link TimeDependentPathCalculator}.
      */
     public CachedPathCalculator(PathCalculator delegate, int size) {
-        this.delegate = delegate;
-        this.size = size;
-        this.accessOrder = new LinkedHashSet<>(size);
+        this(delegate, size, Long.MAX_VALUE, WindowTinyLfuCachePolicy::new);
     }
 
     /**
      * Creates a new {@link CachedPathCalculator}.<p>
      * The size of the cache will be set to 1024
      * @param delegate The {@link PathCalculator} this {@link CachedPathCalculator} uses to calculate the paths.
+     * @throws IllegalArgumentException If the delegate is a {@link TimeDependentPathCalculator}.
      */
     public CachedPathCalculator(PathCalculator delegate) {
         this(delegate, 1024);
     }
 
+    /**
+     * Creates a new {@link CachedPathCalculator}.
+     *
+     * @param delegate      The {@link PathCalculator} this {@link CachedPathCalculator} uses to calculate the paths.
+     * @param size          The maximum amount of cached end nodes.
+     * @param maxBytes      The maximum amount of bytes occupied by the cached paths or {@link Long#MAX_VALUE}.
+     * @param policyFactory Creates the {@link CachePolicy} of a segment of the cache from its maximum amount of
+     *                      entries, e.g. {@code LruCachePolicy::new}.
+     * @throws IllegalArgumentException If the size or memory limit is not positive or the delegate is a
+     *     {@link TimeDependentPathCalculator}.
+     */
+    public CachedPathCalculator(PathCalculator delegate, int size, long maxBytes,
+                                IntFunction<? extends CachePolicy<Region.Node>> policyFactory) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Invalid cache size: %d".formatted(size));
+        }
+        if (maxBytes < 1) {
+            throw new IllegalArgumentException("Invalid memory limit: %d".formatted(maxBytes));
+        }
+        // nested caches have been checked when they were created
+        if (delegate instanceof TimeDependentPathCalculator) {
+            throw new IllegalArgumentException("Paths of a %s depend on the departure tick and cannot be cached"
+                .formatted(delegate.getClass().getSimpleName()));
+        }
+        this.delegate = delegate;
+        this.size = size;
+        this.maxBytes = maxBytes;
+        // every segment has to be able to hold at least one entry, so small caches use fewer segments
+        int segmentCount = Math.min(MAX_SEGMENTS, Integer.highestOneBit(size));
+        segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            int maxEntries = size / segmentCount + (i < size % segmentCount ? 1 : 0);
+            segments[i] = new Segment(maxEntries,
+                maxBytes == Long.MAX_VALUE ? Long.MAX_VALUE : Math.max(1, maxBytes / segmentCount),
+                policyFactory.apply(maxEntries));
+        }
+    }
+
+    /**
+     * Creates a new {@link CachedPathCalculator} whose cache occupies at most about the given amount of memory.
+     *
+     * @param delegate The {@link PathCalculator} this {@link CachedPathCalculator} uses to calculate the paths.
+     * @param size     The maximum amount of cached end nodes.
+     * @param maxBytes The maximum amount of bytes occupied by the cached paths.
+     * @return The created {@link CachedPathCalculator}.
+     * @throws IllegalArgumentException If the size or memory limit is not positive or the delegate is a
+     *     {@link TimeDependentPathCalculator}.
+     */
+    public static CachedPathCalculator withMemoryLimit(PathCalculator delegate, int size, long maxBytes) {
+        return new CachedPathCalculator(delegate, size, maxBytes, WindowTinyLfuCachePolicy::new);
+    }
+
     @Override
     public Deque<Region.Node> getPath(Region.Node start, Region.Node end) {
-        return getAllPathsTo(end).get(start);
+        ShortestPathTree tree = getTree(end);
+        Deque<Region.Node> path = tree.getPath(tree.getRegion().indexOf(start));
+        if (path == null) {
+            throw new IllegalArgumentException("No path from %s to %s".formatted(start, end));
+        }
+        return path;
+    }
+
+    /**
+     * {@inheritDoc}<p>
+     *
+     * The duration is looked up in the cached {@link ShortestPathTree}.
+     *
+     * @throws IllegalArgumentException If there is no path from start to end.
+     */
+    @Override
+    public long getDistance(Region.Node start, Region.Node end) {
+        ShortestPathTree tree = getTree(end);
+        long distance = tree.getDistance(tree.getRegion().indexOf(start));
+        if (distance == Long.MAX_VALUE) {
+            throw new IllegalArgumentException("No path from %s to %s".formatted(start, end));
+        }
+        return distance;
     }
 
     public PathCalculator getDelegate() {
         return delegate;
     }
 
+    /**
+     * Returns the maximum amount of cached end nodes.
+     * @return The maximum amount of cached end nodes.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the maximum amount of bytes occupied by the cached paths or {@link Long#MAX_VALUE} if it is unlimited.
+     * @return The maximum amount of bytes occupied by the cached paths.
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Returns a snapshot of the statistics of this {@link CachedPathCalculator}.
+     * @return The current {@link CacheStats}.
+     */
+    public CacheStats getStats() {
+        long entries = 0;
+        long bytes = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                entries += segment.entries.size();
+                bytes += segment.bytes;
+            }
+        }
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), loadNanos.sum(), entries, bytes);
+    }
+
+    /**
+     * {@inheritDoc}<p>
+     *
+     * The returned {@link Map} is an unmodifiable view of the cached {@link ShortestPathTree}. Every access of a path
+     * returns a new {@link Deque}, so callers may modify the paths.
+     */
     @Override
     public Map<Region.Node, Deque<Region.Node>> getAllPathsTo(Region.Node end) {
-        @Nullable Map<Region.Node, Deque<Region.Node>> path = cache.get(end);
-        if (path != null) {
-            return copyPath(path);
+        return getTree(end).asMap();
+    }
+
+    /**
+     * Returns the cached {@link ShortestPathTree} to the given end node or calculates it if it is not cached.
+     */
+    private ShortestPathTree getTree(Region.Node end) {
+        CompiledRegion compiled = CompiledRegion.of(end.getRegion());
+        Segment segment = segments[(end.hashCode() & 0x7fffffff) % segments.length];
+        @Nullable ShortestPathTree tree = segment.get(end);
+        // a tree of an outdated compiled region is calculated again
+        if (tree != null && tree.getRegion() == compiled) {
+            hits.increment();
+            return tree;
         }
+        misses.increment();
+        // calculated outside the lock, so other end nodes of the segment are not blocked
+        long start = System.nanoTime();
+        tree = calculateTree(compiled, end);
+        loadNanos.add(System.nanoTime() - start);
+        segment.put(end, tree);
+        return tree;
+    }
 
-        path = delegate.getAllPathsTo(end);
+    /**
+     * Calculates the {@link ShortestPathTree} to the given end node if it is not cached yet, without counting a request
+     * in the statistics.
+     */
+    void warm(Region.Node end) {
+        CompiledRegion compiled = CompiledRegion.of(end.getRegion());
+        Segment segment = segments[(end.hashCode() & 0x7fffffff) % segments.length];
+        @Nullable ShortestPathTree tree;
+        synchronized (segment) {
+            tree = segment.entries.get(end);
+        }
+        if (tree == null || tree.getRegion() != compiled) {
+            segment.put(end, calculateTree(compiled, end));
+        }
+    }
 
-        // Limit cache size
-        if (accessOrder.size() >= size) {
-            Iterator<Region.Node> iterator = accessOrder.iterator();
-            cache.remove(iterator.next());
-            iterator.remove();
+    private ShortestPathTree calculateTree(CompiledRegion compiled, Region.Node end) {
+        int root = compiled.indexOf(end);
+        if (delegate.getClass() == DijkstraPathCalculator.class) {
+            // the same search as DijkstraPathCalculator#getAllPathsTo without creating the paths first
+            DijkstraPathCalculator dijkstra = (DijkstraPathCalculator) delegate;
+            return ShortestPathTree.compute(compiled, root, dijkstra.getQueueStrategy(compiled));
         }
+        return ShortestPathTree.fromPaths(compiled, root, delegate.getAllPathsTo(end));
+    }
 
-        // Update access order if the element already exists
-        accessOrder.remove(end);
-        accessOrder.add(end);
-        cache.put(end, path);
+    /**
+     * A part of the cache with its own lock and {@link CachePolicy}.
+     */
+    private final class Segment {
 
-        return copyPath(path);
-    }
+        private final int maxEntries;
+        private final long maxBytes;
+        private final CachePolicy<Region.Node> policy;
+        private final Map<Region.Node, ShortestPathTree> entries = new HashMap<>();
+        private long bytes;
 
-    private Map<Region.Node, Deque<Region.Node>> copyPath(Map<Region.Node, Deque<Region.Node>> path) {
-        return path.entrySet().stream()
-            .map(entry -> Map.entry(entry.getKey(), new LinkedList<>(entry.getValue())))
-            .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
-    }
+        Segment(int maxEntries, long maxBytes, CachePolicy<Region.Node> policy) {
+            this.maxEntries = maxEntries;
+            this.maxBytes = maxBytes;
+            this.policy = policy;
+        }
 
+        synchronized @Nullable ShortestPathTree get(Region.Node end) {
+            @Nullable ShortestPathTree tree = entries.get(end);
+            if (tree != null) {
+                policy.recordAccess(end);
+            }
+            return tree;
+        }
+
+        synchronized void put(Region.Node end, ShortestPathTree tree) {
+            ShortestPathTree previous = entries.put(end, tree);
+            if (previous != null) {
+                bytes -= previous.getEstimatedBytes();
+                policy.recordRemoval(end);
+            }
+            bytes += tree.getEstimatedBytes();
+            policy.recordInsertion(end);
+            // the policy may also reject the new tree
+            while (entries.size() > maxEntries || bytes > maxBytes) {
+                bytes -= entries.remove(policy.evict()).getEstimatedBytes();
+                evictions.increment();
+            }
+        }
+    }
 }
@@ -0,0 +1,319 @@
+package projekt.delivery.routing;
+
+import projekt.base.Location;
+import projekt.base.LocationMap;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.function.Function;
+
+/**
+ * A frozen, compiled view of a {@link Region} that is optimized for routing.<p>
+ *
+ * Every {@link Region.Node} of the {@link Region} is assigned a dense id in {@code [0, size())}. The ids are assigned
+ * in ascending order of the {@link Location}s of the nodes, so compiling the same {@link Region} always results in the
+ * same ids. The adjacency of the nodes is stored in compressed sparse row (CSR) format: the arcs leaving the node
+ * {@code u} are the arcs in {@code [arcStart(u), arcEnd(u))}. Every undirected {@link Region.Edge} is stored as two
+ * arcs, one for each direction.<p>
+ *
+ * A {@link CompiledRegion} does not change once it has been created. Use {@link #of(Region)} to obtain the shared
+ * {@link CompiledRegion} of a {@link Region} instead of compiling it again.
+ */
+public final class CompiledRegion {
+
+    private final Region region;
+    private final Region.Node[] nodes;
+    private final Map<Location, Integer> ids;
+    private final int sourceEdgeCount;
+
+    final int[] xs;
+    final int[] ys;
+    final int[] offsets;
+    final int[] targets;
+    final long[] durations;
+    final Region.Edge[] edges;
+
+    private final long minDuration;
+    private final long maxDuration;
+    private final Map<Object, FutureTask<Object>> attachments = new ConcurrentHashMap<>();
+
+    private CompiledRegion(Region region) {
+        this.region = region;
+
+        Collection<Region.Node> regionNodes = region.getNodes();
+        nodes = regionNodes.toArray(Region.Node[]::new);
+        Arrays.sort(nodes, (a, b) -> a.getLocation().compareTo(b.getLocation()));
+
+        int n = nodes.length;
+        ids = new LocationMap<>(n);
+        xs = new int[n];
+        ys = new int[n];
+        for (int i = 0; i < n; i++) {
+            Location location = nodes[i].getLocation();
+            ids.put(location, i);
+            xs[i] = location.getX();
+            ys[i] = location.getY();
+        }
+
+        // first pass: count the arcs of every node so the arc arrays can be allocated exactly once
+        int[][] adjacency = new int[n][];
+        Region.Edge[][] adjacentEdges = new Region.Edge[n][];
+        offsets = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            Region.Node node = nodes[u];
+            Collection<Region.Node> adjacentNodes = node.getAdjacentNodes();
+            int[] neighbours = new int[adjacentNodes.size()];
+            int count = 0;
+            for (Region.Node adjacentNode : adjacentNodes) {
+                Integer v = ids.get(adjacentNode.getLocation());
+                if (v != null) {
+                    neighbours[count++] = v;
+                }
+            }
+            neighbours = Arrays.copyOf(neighbours, count);
+            // sort the neighbours to make the arc order independent of the iteration order of the adjacent nodes
+            Arrays.sort(neighbours);
+
+            Region.Edge[] neighbourEdges = new Region.Edge[count];
+            int arcs = 0;
+            for (int i = 0; i < count; i++) {
+                Region.Edge edge = node.getEdge(nodes[neighbours[i]]);
+                if (edge != null) {
+                    neighbours[arcs] = neighbours[i];
+                    neighbourEdges[arcs++] = edge;
+                }
+            }
+            adjacency[u] = Arrays.copyOf(neighbours, arcs);
+            adjacentEdges[u] = Arrays.copyOf(neighbourEdges, arcs);
+            offsets[u + 1] = offsets[u] + arcs;
+        }
+
+        // second pass: flatten the adjacency lists into the CSR arrays
+        int arcCount = offsets[n];
+        targets = new int[arcCount];
+        durations = new long[arcCount];
+        edges = new Region.Edge[arcCount];
+        long min = arcCount == 0 ? 0 : Long.MAX_VALUE;
+        long max = 0;
+        for (int u = 0; u < n; u++) {
+            int offset = offsets[u];
+            for (int i = 0; i < adjacency[u].length; i++) {
+                long duration = adjacentEdges[u][i].getDuration();
+                targets[offset + i] = adjacency[u][i];
+                durations[offset + i] = duration;
+                edges[offset + i] = adjacentEdges[u][i];
+                min = Math.min(min, duration);
+                max = Math.max(max, duration);
+            }
+        }
+        minDuration = min;
+        maxDuration = max;
+        sourceEdgeCount = region.getEdges().size();
+    }
+
+    /**
+     * Returns the shared {@link CompiledRegion} of the given {@link Region}.<p>
+     *
+     * Regions created by {@link Region#builder()} cache their compiled view, so the region is only compiled on the
+     * first call. Other {@link Region} implementations are compiled on every call.
+     *
+     * @param region The {@link Region} to return the {@link CompiledRegion} of.
+     * @return The {@link CompiledRegion} of the given {@link Region}.
+     */
+    public static CompiledRegion of(Region region) {
+        if (region instanceof RegionImpl regionImpl) {
+            return regionImpl.getCompiledRegion();
+        }
+        return compile(region);
+    }
+
+    /**
+     * Compiles the given {@link Region} into a new {@link CompiledRegion}.
+     *
+     * @param region The {@link Region} to compile.
+     * @return The new {@link CompiledRegion}.
+     */
+    public static CompiledRegion compile(Region region) {
+        return new CompiledRegion(region);
+    }
+
+    /**
+     * Returns the compiled {@link Region}.
+     * @return The compiled {@link Region}.
+     */
+    public Region getRegion() {
+        return region;
+    }
+
+    /**
+     * Returns the amount of {@link Region.Node}s in this {@link CompiledRegion}.
+     * @return The amount of {@link Region.Node}s in this {@link CompiledRegion}.
+     */
+    public int size() {
+        return nodes.length;
+    }
+
+    /**
+     * Returns the amount of arcs in this {@link CompiledRegion}. Every {@link Region.Edge} is stored as two arcs.
+     * @return The amount of arcs in this {@link CompiledRegion}.
+     */
+    public int arcCount() {
+        return targets.length;
+    }
+
+    /**
+     * Returns the {@link Region.Node} with the given id.
+     * @param id The id of the {@link Region.Node}.
+     * @return The {@link Region.Node} with the given id.
+     */
+    public Region.Node getNode(int id) {
+        return nodes[id];
+    }
+
+    /**
+     * Returns the id of the given {@link Region.Node}.
+     * @param node The {@link Region.Node} to return the id of.
+     * @return The id of the given {@link Region.Node}.
+     * @throws IllegalArgumentException If the given {@link Region.Node} is not part of the compiled {@link Region}.
+     */
+    public int indexOf(Region.Node node) {
+        Integer id = ids.get(node.getLocation());
+        if (id == null) {
+            throw new IllegalArgumentException("Node %s is not part of the compiled region".formatted(node));
+        }
+        return id;
+    }
+
+    /**
+     * Returns the x-coordinate of the {@link Region.Node} with the given id.
+     * @param id The id of the {@link Region.Node}.
+     * @return The x-coordinate of the {@link Region.Node}.
+     */
+    public int getX(int id) {
+        return xs[id];
+    }
+
+    /**
+     * Returns the y-coordinate of the {@link Region.Node} with the given id.
+     * @param id The id of the {@link Region.Node}.
+     * @return The y-coordinate of the {@link Region.Node}.
+     */
+    public int getY(int id) {
+        return ys[id];
+    }
+
+    /**
+     * Returns the index of the first arc leaving the {@link Region.Node} with the given id.
+     * @param node The id of the {@link Region.Node}.
+     * @return The index of the first arc leaving the {@link Region.Node}.
+     */
+    public int arcStart(int node) {
+        return offsets[node];
+    }
+
+    /**
+     * Returns the index after the last arc leaving the {@link Region.Node} with the given id.
+     * @param node The id of the {@link Region.Node}.
+     * @return The index after the last arc leaving the {@link Region.Node}.
+     */
+    public int arcEnd(int node) {
+        return offsets[node + 1];
+    }
+
+    /**
+     * Returns the id of the {@link Region.Node} the given arc points to.
+     * @param arc The index of the arc.
+     * @return The id of the target {@link Region.Node} of the arc.
+     */
+    public int arcTarget(int arc) {
+        return targets[arc];
+    }
+
+    /**
+     * Returns the duration of the given arc.
+     * @param arc The index of the arc.
+     * @return The duration of the arc.
+     */
+    public long arcDuration(int arc) {
+        return durations[arc];
+    }
+
+    /**
+     * Returns the {@link Region.Edge} the given arc belongs to.
+     * @param arc The index of the arc.
+     * @return The {@link Region.Edge} of the arc.
+     */
+    public Region.Edge arcEdge(int arc) {
+        return edges[arc];
+    }
+
+    /**
+     * Returns the smallest duration of all arcs or {@code 0} if there are no arcs.
+     * @return The smallest duration of all arcs.
+     */
+    public long getMinDuration() {
+        return minDuration;
+    }
+
+    /**
+     * Returns the largest duration of all arcs or {@code 0} if there are no arcs.
+     * @return The largest duration of all arcs.
+     */
+    public long getMaxDuration() {
+        return maxDuration;
+    }
+
+    /**
+     * Returns the data attached to this {@link CompiledRegion} with the given key and computes it if it is not
+     * present yet. This allows path calculators to share preprocessed data for the same {@link Region}, which is
+     * discarded together with the {@link CompiledRegion} once the {@link Region} changes.<p>
+     *
+     * The factory is called once per key, by the first caller. Threads requesting the same key at the same time wait
+     * for its result. The factory may attach data with other keys, but must not request its own key. If it throws,
+     * nothing is attached and the next call computes the data again.
+     *
+     * @param key     The key of the attached data.
+     * @param factory The function computing the data from this {@link CompiledRegion}.
+     * @param <T>     The type of the attached data.
+     * @return The data attached with the given key.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getOrCompute(Object key, Function<CompiledRegion, T> factory) {
+        FutureTask<Object> task = attachments.get(key);
+        if (task == null) {
+            // not computeIfAbsent, so the factory may attach other data itself
+            FutureTask<Object> created = new FutureTask<>(() -> factory.apply(this));
+            task = attachments.putIfAbsent(key, created);
+            if (task == null) {
+                task = created;
+                created.run();
+            }
+        }
+        try {
+            return (T) task.get();
+        } catch (ExecutionException e) {
+            attachments.remove(key, task);
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for %s".formatted(key), e);
+        }
+    }
+
+    /**
+     * Checks if this {@link CompiledRegion} still matches a {@link Region} with the given amount of nodes and edges.
+     */
+    boolean matches(int nodeCount, int edgeCount) {
+        return nodes.length == nodeCount && sourceEdgeCount == edgeCount;
+    }
+}
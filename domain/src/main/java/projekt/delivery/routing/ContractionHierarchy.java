@@ -0,0 +1,615 @@
+package projekt.delivery.routing;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * A contraction hierarchy of a {@link CompiledRegion}.<p>
+ *
+ * The nodes of the region are contracted one after another. Contracting a node removes it from the graph and adds a
+ * shortcut between two of its neighbours if the only shortest path between them led over the contracted node. The
+ * position of a node in this order is its rank. Every shortest path in the region then has an equally long path in
+ * the contracted graph that first only visits nodes of increasing rank and then only nodes of decreasing rank, so
+ * a query only has to search the upward arcs from both of its ends.<p>
+ *
+ * The nodes are contracted in rounds. Every round contracts an independent set of nodes that are not more important
+ * than their neighbours, which allows the witness searches of a round to run in parallel.<p>
+ *
+ * Use {@link #of(CompiledRegion)} to obtain the shared {@link ContractionHierarchy} of a {@link CompiledRegion}.
+ */
+public final class ContractionHierarchy {
+
+    /**
+     * The maximum amount of nodes settled by a single witness search while contracting a node. If the limit is
+     * reached, the shortcuts are added anyway, which keeps the hierarchy correct but may add unnecessary shortcuts.
+     */
+    private static final int CONTRACTION_SETTLE_LIMIT = 500;
+
+    /**
+     * The maximum amount of nodes settled by a single witness search while estimating the priority of a node. The
+     * priority only has to be approximate, so these searches are much smaller.
+     */
+    private static final int PRIORITY_SETTLE_LIMIT = 20;
+
+    /**
+     * The {@link DijkstraWorkspace} slot used by the witness searches.
+     */
+    private static final int WITNESS_SLOT = 2;
+
+    private final CompiledRegion region;
+    private final int shortcutCount;
+
+    final int[] ranks;
+    final int[] upOffsets;
+    final int[] upTargets;
+    final long[] upWeights;
+    /**
+     * The node a shortcut bypasses or {@code -1} if the arc is an arc of the region.
+     */
+    final int[] upMiddles;
+
+    private ContractionHierarchy(CompiledRegion region) {
+        this.region = region;
+        Contraction contraction = new Contraction(region);
+        contraction.run();
+
+        int n = region.size();
+        ranks = contraction.ranks;
+        upOffsets = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            int count = 0;
+            for (int i = 0; i < contraction.degrees[u]; i++) {
+                if (ranks[contraction.targets[u][i]] > ranks[u]) {
+                    count++;
+                }
+            }
+            upOffsets[u + 1] = upOffsets[u] + count;
+        }
+        upTargets = new int[upOffsets[n]];
+        upWeights = new long[upOffsets[n]];
+        upMiddles = new int[upOffsets[n]];
+        for (int u = 0; u < n; u++) {
+            int arc = upOffsets[u];
+            for (int i = 0; i < contraction.degrees[u]; i++) {
+                int v = contraction.targets[u][i];
+                if (ranks[v] > ranks[u]) {
+                    upTargets[arc] = v;
+                    upWeights[arc] = contraction.weights[u][i];
+                    upMiddles[arc++] = contraction.middles[u][i];
+                }
+            }
+        }
+        shortcutCount = contraction.shortcutCount;
+    }
+
+    /**
+     * Returns the shared {@link ContractionHierarchy} of the given {@link CompiledRegion} and builds it if necessary.
+     *
+     * @param region The {@link CompiledRegion} to return the {@link ContractionHierarchy} of.
+     * @return The {@link ContractionHierarchy} of the given {@link CompiledRegion}.
+     */
+    public static ContractionHierarchy of(CompiledRegion region) {
+        return region.getOrCompute(ContractionHierarchy.class, ContractionHierarchy::new);
+    }
+
+    /**
+     * Returns the {@link CompiledRegion} of this {@link ContractionHierarchy}.
+     * @return The {@link CompiledRegion} of this {@link ContractionHierarchy}.
+     */
+    public CompiledRegion getRegion() {
+        return region;
+    }
+
+    /**
+     * Returns the rank of the given node, i.e. its position in the contraction order.
+     * @param node The id of the node.
+     * @return The rank of the given node.
+     */
+    public int getRank(int node) {
+        return ranks[node];
+    }
+
+    /**
+     * Returns the amount of shortcuts that have been added to the region.
+     * @return The amount of shortcuts.
+     */
+    public int getShortcutCount() {
+        return shortcutCount;
+    }
+
+    /**
+     * Returns the amount of upward arcs, i.e. arcs of the region and shortcuts pointing to a node with a higher rank.
+     * @return The amount of upward arcs.
+     */
+    public int getUpwardArcCount() {
+        return upTargets.length;
+    }
+
+    /**
+     * Calculates the duration of the shortest path between the given nodes.
+     *
+     * @param source The id of the first node.
+     * @param target The id of the second node.
+     * @return The duration of the shortest path or {@link Long#MAX_VALUE} if the nodes are not connected.
+     */
+    public long getDistance(int source, int target) {
+        DijkstraWorkspace forward = DijkstraWorkspace.forCurrentThread(0, QueueStrategy.BINARY_HEAP);
+        DijkstraWorkspace backward = DijkstraWorkspace.forCurrentThread(1, QueueStrategy.BINARY_HEAP);
+        int meeting = query(source, target, forward, backward);
+        return meeting == -1 ? Long.MAX_VALUE : forward.getDistance(meeting) + backward.getDistance(meeting);
+    }
+
+    /**
+     * Calculates the shortest path between the given nodes.
+     *
+     * @param source The id of the first node.
+     * @param target The id of the second node.
+     * @return The ids of the nodes of the shortest path including {@code source} and {@code target} or {@code null}
+     * if the nodes are not connected.
+     */
+    public int @Nullable [] getPath(int source, int target) {
+        DijkstraWorkspace forward = DijkstraWorkspace.forCurrentThread(0, QueueStrategy.BINARY_HEAP);
+        DijkstraWorkspace backward = DijkstraWorkspace.forCurrentThread(1, QueueStrategy.BINARY_HEAP);
+        int meeting = query(source, target, forward, backward);
+        if (meeting == -1) {
+            return null;
+        }
+        IntList up = new IntList();
+        up.add(source);
+        unpackToRoot(forward, meeting, up);
+        IntList down = new IntList();
+        down.add(target);
+        unpackToRoot(backward, meeting, down);
+
+        int[] path = Arrays.copyOf(up.values, up.size + down.size - 1);
+        // the meeting node is the last node of both halves
+        for (int i = down.size - 2, j = up.size; i >= 0; i--, j++) {
+            path[j] = down.values[i];
+        }
+        return path;
+    }
+
+    /**
+     * Runs the bidirectional upward search and returns the node where both searches meet on a shortest path.
+     */
+    private int query(int source, int target, DijkstraWorkspace forward, DijkstraWorkspace backward) {
+        forward.begin(region, 0);
+        backward.begin(region, 0);
+        NodeQueue forwardQueue = forward.getQueue();
+        NodeQueue backwardQueue = backward.getQueue();
+        forward.update(source, 0, -1, -1);
+        forwardQueue.update(source, 0);
+        backward.update(target, 0, -1, -1);
+        backwardQueue.update(target, 0);
+
+        long best = Long.MAX_VALUE;
+        int meeting = -1;
+        while (!forwardQueue.isEmpty() || !backwardQueue.isEmpty()) {
+            boolean isForward = backwardQueue.isEmpty()
+                || !forwardQueue.isEmpty() && forwardQueue.peekKey() <= backwardQueue.peekKey();
+            DijkstraWorkspace workspace = isForward ? forward : backward;
+            DijkstraWorkspace other = isForward ? backward : forward;
+            NodeQueue queue = workspace.getQueue();
+            // a direction is finished once it cannot find a shorter path anymore
+            if (queue.peekKey() >= best) {
+                queue.clear();
+                continue;
+            }
+
+            int u = queue.poll();
+            workspace.settle(u);
+            long distance = workspace.getDistance(u);
+            if (other.isReached(u) && distance + other.getDistance(u) < best) {
+                best = distance + other.getDistance(u);
+                meeting = u;
+            }
+            if (isStalled(workspace, u, distance)) {
+                continue;
+            }
+            for (int arc = upOffsets[u], end = upOffsets[u + 1]; arc < end; arc++) {
+                int v = upTargets[arc];
+                long candidate = distance + upWeights[arc];
+                if (!workspace.isSettled(v) && workspace.update(v, candidate, u, arc)) {
+                    queue.update(v, candidate);
+                }
+            }
+        }
+        return meeting;
+    }
+
+    /**
+     * Runs a complete upward search from {@code source} in the given workspace, e.g. for the bucket searches of a
+     * {@link DistanceMatrix}. The highest node of every shortest path starting at {@code source} is contained in the
+     * result and its distance in the workspace is exact.
+     *
+     * @param source    The id of the node to start at.
+     * @param workspace The {@link DijkstraWorkspace} to search in.
+     * @return The ids of the settled nodes that are not stalled.
+     */
+    int[] searchUpward(int source, DijkstraWorkspace workspace) {
+        workspace.begin(region, 0);
+        NodeQueue queue = workspace.getQueue();
+        workspace.update(source, 0, -1, -1);
+        queue.update(source, 0);
+        IntList settled = new IntList();
+        while (!queue.isEmpty()) {
+            int u = queue.poll();
+            workspace.settle(u);
+            long distance = workspace.getDistance(u);
+            if (isStalled(workspace, u, distance)) {
+                continue;
+            }
+            settled.add(u);
+            for (int arc = upOffsets[u], end = upOffsets[u + 1]; arc < end; arc++) {
+                int v = upTargets[arc];
+                long candidate = distance + upWeights[arc];
+                if (!workspace.isSettled(v) && workspace.update(v, candidate, u, arc)) {
+                    queue.update(v, candidate);
+                }
+            }
+        }
+        return Arrays.copyOf(settled.values, settled.size);
+    }
+
+    /**
+     * Checks if the distance of {@code u} is not the shortest one, because a higher node reached by the same search
+     * has a shorter path to {@code u}. The arcs of such a node do not have to be relaxed ("stall-on-demand").
+     */
+    private boolean isStalled(DijkstraWorkspace workspace, int u, long distance) {
+        for (int arc = upOffsets[u], end = upOffsets[u + 1]; arc < end; arc++) {
+            int v = upTargets[arc];
+            if (workspace.isReached(v) && workspace.getDistance(v) + upWeights[arc] < distance) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Appends the unpacked path from the root of the given search (excluded) up to {@code top} (included).
+     */
+    private void unpackToRoot(DijkstraWorkspace workspace, int top, IntList out) {
+        IntList arcs = new IntList();
+        for (int node = top; workspace.getParent(node) != -1; node = workspace.getParent(node)) {
+            arcs.add(workspace.getParentArc(node));
+        }
+        IntList stack = new IntList();
+        for (int i = arcs.size - 1; i >= 0; i--) {
+            int arc = arcs.values[i];
+            int child = upTargets[arc];
+            int parent = workspace.getParent(child);
+            unpack(parent, child, upMiddles[arc], stack, out);
+        }
+    }
+
+    /**
+     * Appends the nodes of the arc from {@code from} (excluded) to {@code to} (included) with all shortcuts replaced
+     * by the arcs they bypass.
+     */
+    private void unpack(int from, int to, int middle, IntList stack, IntList out) {
+        stack.size = 0;
+        stack.add(from);
+        stack.add(to);
+        stack.add(middle);
+        while (stack.size > 0) {
+            int m = stack.values[--stack.size];
+            int b = stack.values[--stack.size];
+            int a = stack.values[--stack.size];
+            if (m == -1) {
+                out.add(b);
+            } else {
+                // push the second half first, so the first half is unpacked first
+                stack.add(m);
+                stack.add(b);
+                stack.add(middleOf(m, b));
+                stack.add(a);
+                stack.add(m);
+                stack.add(middleOf(a, m));
+            }
+        }
+    }
+
+    /**
+     * Returns the middle node of the upward arc between the given nodes.
+     */
+    private int middleOf(int a, int b) {
+        int lower = ranks[a] < ranks[b] ? a : b;
+        int higher = lower == a ? b : a;
+        for (int arc = upOffsets[lower]; arc < upOffsets[lower + 1]; arc++) {
+            if (upTargets[arc] == higher) {
+                return upMiddles[arc];
+            }
+        }
+        throw new IllegalStateException("Missing arc between %d and %d".formatted(a, b));
+    }
+
+    /**
+     * A growable list of ints.
+     */
+    private static final class IntList {
+
+        private int[] values = new int[8];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+
+    /**
+     * The state of the contraction: a dynamic adjacency list of the remaining graph including all shortcuts. Arcs to
+     * contracted nodes are removed from the lists of the remaining nodes, so the list of a contracted node only
+     * contains its upward arcs.
+     */
+    private static final class Contraction {
+
+        private static final byte ACTIVE = 0;
+        private static final byte CONTRACTING = 1;
+        private static final byte CONTRACTED = 2;
+
+        private final CompiledRegion region;
+        private final int[][] targets;
+        private final long[][] weights;
+        private final int[][] middles;
+        /**
+         * The amount of arcs of the region every arc represents.
+         */
+        private final int[][] hops;
+        private final int[] degrees;
+        private final byte[] states;
+        private final int[] ranks;
+        private final float[] priorities;
+        private final int[] levels;
+        private final boolean[] dirty;
+        private int shortcutCount;
+
+        Contraction(CompiledRegion region) {
+            this.region = region;
+            int n = region.size();
+            targets = new int[n][];
+            weights = new long[n][];
+            middles = new int[n][];
+            hops = new int[n][];
+            degrees = new int[n];
+            states = new byte[n];
+            ranks = new int[n];
+            priorities = new float[n];
+            levels = new int[n];
+            dirty = new boolean[n];
+            for (int u = 0; u < n; u++) {
+                int start = region.offsets[u];
+                int end = region.offsets[u + 1];
+                targets[u] = new int[Math.max(end - start, 1)];
+                weights[u] = new long[targets[u].length];
+                middles[u] = new int[targets[u].length];
+                hops[u] = new int[targets[u].length];
+                for (int arc = start; arc < end; arc++) {
+                    if (region.targets[arc] != u) {
+                        addArc(u, region.targets[arc], region.durations[arc], -1, 1);
+                    }
+                }
+            }
+            Arrays.fill(dirty, true);
+        }
+
+        void run() {
+            int n = region.size();
+            int remaining = n;
+            int rank = 0;
+            int[] round = new int[n];
+            while (remaining > 0) {
+                IntStream.range(0, n).parallel()
+                    .filter(v -> states[v] == ACTIVE && dirty[v])
+                    .forEach(v -> {
+                        priorities[v] = priority(v);
+                        dirty[v] = false;
+                    });
+
+                int roundSize = 0;
+                for (int v = 0; v < n; v++) {
+                    if (states[v] == ACTIVE && isLocalMinimum(v)) {
+                        round[roundSize++] = v;
+                    }
+                }
+                for (int i = 0; i < roundSize; i++) {
+                    states[round[i]] = CONTRACTING;
+                }
+
+                int[][] shortcutEnds = new int[roundSize][];
+                long[][] shortcutWeights = new long[roundSize][];
+                int[] contracted = Arrays.copyOf(round, roundSize);
+                IntStream.range(0, roundSize).parallel().forEach(i -> {
+                    IntList ends = new IntList();
+                    LongList shortcutWeight = new LongList();
+                    findShortcuts(contracted[i], ends, shortcutWeight, CONTRACTION_SETTLE_LIMIT);
+                    shortcutEnds[i] = Arrays.copyOf(ends.values, ends.size);
+                    shortcutWeights[i] = Arrays.copyOf(shortcutWeight.values, shortcutWeight.size);
+                });
+
+                // apply the shortcuts sequentially in the order of the node ids, so the result is deterministic
+                for (int i = 0; i < roundSize; i++) {
+                    int v = contracted[i];
+                    for (int j = 0; j < shortcutWeights[i].length; j++) {
+                        addShortcut(shortcutEnds[i][3 * j], shortcutEnds[i][3 * j + 1], shortcutWeights[i][j], v,
+                            shortcutEnds[i][3 * j + 2]);
+                    }
+                    states[v] = CONTRACTED;
+                    ranks[v] = rank++;
+                    for (int j = 0; j < degrees[v]; j++) {
+                        int u = targets[v][j];
+                        removeArc(u, v);
+                        levels[u] = Math.max(levels[u], levels[v] + 1);
+                        dirty[u] = true;
+                    }
+                }
+                remaining -= roundSize;
+            }
+        }
+
+        /**
+         * Checks if the given node is more important than none of its remaining neighbours.
+         */
+        private boolean isLocalMinimum(int v) {
+            for (int i = 0; i < degrees[v]; i++) {
+                int u = targets[v][i];
+                if (priorities[u] < priorities[v] || priorities[u] == priorities[v] && u < v) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Calculates the priority of the given node. Nodes with a lower priority are contracted earlier.
+         */
+        private float priority(int v) {
+            IntList ends = new IntList();
+            findShortcuts(v, ends, new LongList(), PRIORITY_SETTLE_LIMIT);
+            int removedHops = 0;
+            for (int i = 0; i < degrees[v]; i++) {
+                removedHops += hops[v][i];
+            }
+            int addedHops = 0;
+            for (int i = 2; i < ends.size; i += 3) {
+                addedHops += ends.values[i];
+            }
+            if (degrees[v] == 0) {
+                return levels[v];
+            }
+            // prefer nodes that remove more arcs than they add and keep the hierarchy flat
+            return levels[v] + (float) (ends.size / 3) / degrees[v] + (float) addedHops / removedHops;
+        }
+
+        /**
+         * Finds the shortcuts that are needed if the given node is contracted and adds the ends and the hops of every
+         * shortcut to {@code ends}. The witness searches ignore all nodes that are contracted in the current round,
+         * because their shortcuts are computed at the same time.
+         */
+        private void findShortcuts(int v, IntList ends, LongList shortcutWeights, int settleLimit) {
+            DijkstraWorkspace workspace = DijkstraWorkspace.forCurrentThread(WITNESS_SLOT, QueueStrategy.BINARY_HEAP);
+            for (int i = 0; i < degrees[v] - 1; i++) {
+                int u = targets[v][i];
+                long toU = weights[v][i];
+                long maxWeight = 0;
+                for (int j = i + 1; j < degrees[v]; j++) {
+                    maxWeight = Math.max(maxWeight, weights[v][j]);
+                }
+                witnessSearch(workspace, u, v, toU + maxWeight, settleLimit);
+                for (int j = i + 1; j < degrees[v]; j++) {
+                    int w = targets[v][j];
+                    long viaV = toU + weights[v][j];
+                    if (workspace.getDistance(w) > viaV) {
+                        ends.add(u);
+                        ends.add(w);
+                        ends.add(hops[v][i] + hops[v][j]);
+                        shortcutWeights.add(viaV);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Runs a bounded Dijkstra search from {@code source} that only visits active nodes except {@code ignored}.
+         */
+        private void witnessSearch(DijkstraWorkspace workspace, int source, int ignored, long maxDistance,
+                                   int settleLimit) {
+            workspace.begin(region, 0);
+            NodeQueue queue = workspace.getQueue();
+            workspace.update(source, 0, -1, -1);
+            queue.update(source, 0);
+            int settled = 0;
+            while (!queue.isEmpty() && queue.peekKey() <= maxDistance && settled++ < settleLimit) {
+                int x = queue.poll();
+                workspace.settle(x);
+                long distance = workspace.getDistance(x);
+                for (int i = 0; i < degrees[x]; i++) {
+                    int y = targets[x][i];
+                    if (y == ignored || states[y] != ACTIVE || workspace.isSettled(y)) {
+                        continue;
+                    }
+                    long candidate = distance + weights[x][i];
+                    if (workspace.update(y, candidate, x, -1)) {
+                        queue.update(y, candidate);
+                    }
+                }
+            }
+        }
+
+        private void addShortcut(int u, int w, long weight, int middle, int shortcutHops) {
+            if (improveArc(u, w, weight, middle, shortcutHops)) {
+                improveArc(w, u, weight, middle, shortcutHops);
+            } else {
+                addArc(u, w, weight, middle, shortcutHops);
+                addArc(w, u, weight, middle, shortcutHops);
+                shortcutCount++;
+            }
+        }
+
+        /**
+         * Lowers the weight of the existing arc from {@code u} to {@code w} and returns true, if the arc exists.
+         */
+        private boolean improveArc(int u, int w, long weight, int middle, int arcHops) {
+            for (int i = 0; i < degrees[u]; i++) {
+                if (targets[u][i] == w) {
+                    if (weight < weights[u][i]) {
+                        weights[u][i] = weight;
+                        middles[u][i] = middle;
+                        hops[u][i] = arcHops;
+                    }
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void addArc(int u, int w, long weight, int middle, int arcHops) {
+            int degree = degrees[u];
+            if (degree == targets[u].length) {
+                targets[u] = Arrays.copyOf(targets[u], degree * 2);
+                weights[u] = Arrays.copyOf(weights[u], degree * 2);
+                middles[u] = Arrays.copyOf(middles[u], degree * 2);
+                hops[u] = Arrays.copyOf(hops[u], degree * 2);
+            }
+            targets[u][degree] = w;
+            weights[u][degree] = weight;
+            middles[u][degree] = middle;
+            hops[u][degree] = arcHops;
+            degrees[u]++;
+        }
+
+        private void removeArc(int u, int w) {
+            int last = degrees[u] - 1;
+            for (int i = 0; i <= last; i++) {
+                if (targets[u][i] == w) {
+                    targets[u][i] = targets[u][last];
+                    weights[u][i] = weights[u][last];
+                    middles[u][i] = middles[u][last];
+                    hops[u][i] = hops[u][last];
+                    degrees[u] = last;
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * A growable list of longs.
+     */
+    private static final class LongList {
+
+        private long[] values = new long[4];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package projekt.delivery.routing;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+
+/**
+ * A {@link PathCalculator} that answers queries with the {@link ContractionHierarchy} of the region.<p>
+ *
+ * The hierarchy is built on the first query of a region and shared by all calculators routing on the same region.
+ * Building it takes about as long as a few hundred Dijkstra searches, afterwards a query only searches a tiny part of
+ * the region. This calculator is therefore best suited for large regions that are routed on many times.
+ */
+public class ContractionHierarchyPathCalculator implements PathCalculator {
+
+    /**
+     * The calculator used for {@link #getAllPathsTo(Region.Node)}.
+     */
+    private final DijkstraPathCalculator fallback = new DijkstraPathCalculator();
+
+    /**
+     * Builds the {@link ContractionHierarchy} of the given {@link Region} if it has not been built yet, so the first
+     * query does not have to wait for it.
+     *
+     * @param region The {@link Region} to prepare.
+     */
+    public void prepare(Region region) {
+        ContractionHierarchy.of(CompiledRegion.of(region));
+    }
+
+    @Override
+    public Deque<Region.Node> getPath(Region.Node start, Region.Node end) {
+        CompiledRegion compiled = CompiledRegion.of(end.getRegion());
+        int[] path = ContractionHierarchy.of(compiled).getPath(compiled.indexOf(start), compiled.indexOf(end));
+        if (path == null) {
+            throw new IllegalArgumentException("No path from %s to %s".formatted(start, end));
+        }
+        Deque<Region.Node> nodes = new ArrayDeque<>(path.length);
+        // the start node is not part of the path
+        for (int i = 1; i < path.length; i++) {
+            nodes.addLast(compiled.getNode(path[i]));
+        }
+        return nodes;
+    }
+
+    /**
+     * {@inheritDoc}<p>
+     *
+     * The duration is calculated by the hierarchy without unpacking the path.
+     *
+     * @throws IllegalArgumentException If there is no path from start to end.
+     */
+    @Override
+    public long getDistance(Region.Node start, Region.Node end) {
+        CompiledRegion compiled = CompiledRegion.of(end.getRegion());
+        long distance = ContractionHierarchy.of(compiled).getDistance(compiled.indexOf(start), compiled.indexOf(end));
+        if (distance == Long.MAX_VALUE) {
+            throw new IllegalArgumentException("No path from %s to %s".formatted(start, end));
+        }
+        return distance;
+    }
+
+    /**
+     * {@inheritDoc}<p>
+     *
+     * The paths to all nodes are calculated with a single Dijkstra search, which is faster than a query per node.
+     */
+    @Override
+    public Map<Region.Node, Deque<Region.Node>> getAllPathsTo(Region.Node end) {
+        return fallback.getAllPathsTo(end);
+    }
+}
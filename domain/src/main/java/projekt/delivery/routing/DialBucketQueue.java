@@ -0,0 +1,157 @@
+package projekt.delivery.routing;
+
+import java.util.Arrays;
+
+/**
+ * A monotone {@link NodeQueue} that uses Dial's circular bucket array. Every bucket holds the nodes of exactly one key,
+ * so insertions and key decreases are {@code O(1)} and polling is {@code O(C)} in the worst case, where {@code C} is
+ * the largest key increase passed to {@link #reset(int, long)}. This is the fastest queue for the small integer edge
+ * durations of most regions.
+ */
+final class DialBucketQueue implements NodeQueue {
+
+    private static final int NONE = -1;
+
+    private int[] heads = new int[0];
+    private int[] next = new int[0];
+    private int[] previous = new int[0];
+    private long[] keys = new long[0];
+    /**
+     * The bucket of every node plus one, or {@code 0} if the node is not contained.
+     */
+    private int[] buckets = new int[0];
+    private int mask;
+    private long cursor;
+    /**
+     * The largest key inserted since the last reset, only maintained until the first node is polled.
+     */
+    private long maxKey;
+    private boolean polled;
+    private int size;
+
+    @Override
+    public void reset(int capacity, long maxKeyIncrease) {
+        if (maxKeyIncrease < 0 || maxKeyIncrease >= 1 << 24) {
+            throw new IllegalArgumentException("Unsupported maximum key increase: %d".formatted(maxKeyIncrease));
+        }
+        clear();
+        int bucketCount = maxKeyIncrease == 0 ? 1 : Integer.highestOneBit((int) maxKeyIncrease) << 1;
+        if (heads.length != bucketCount) {
+            heads = new int[bucketCount];
+            Arrays.fill(heads, NONE);
+        }
+        mask = bucketCount - 1;
+        if (buckets.length < capacity) {
+            next = new int[capacity];
+            previous = new int[capacity];
+            keys = new long[capacity];
+            buckets = new int[capacity];
+        }
+    }
+
+    @Override
+    public void clear() {
+        polled = false;
+        if (size == 0) {
+            return;
+        }
+        for (int bucket = 0; bucket < heads.length; bucket++) {
+            for (int node = heads[bucket]; node != NONE; node = next[node]) {
+                buckets[node] = 0;
+            }
+            heads[bucket] = NONE;
+        }
+        size = 0;
+    }
+
+    @Override
+    public void update(int node, long key) {
+        if (buckets[node] != 0) {
+            if (keys[node] < key) {
+                throw new IllegalArgumentException("Cannot increase the key of node %d".formatted(node));
+            }
+            unlink(node);
+            size--;
+        }
+        if (!polled) {
+            // Until the first poll the window starts at the smallest inserted key
+            if (size == 0) {
+                cursor = key;
+                maxKey = key;
+            } else if (key < cursor && maxKey - key <= mask) {
+                cursor = key;
+            }
+            maxKey = Math.max(maxKey, key);
+        }
+        if (key < cursor || key - cursor > mask) {
+            throw new IllegalArgumentException("Key %d is outside of the bucket window [%d, %d]"
+                .formatted(key, cursor, cursor + mask));
+        }
+        keys[node] = key;
+        link(node, (int) (key & mask));
+        size++;
+    }
+
+    @Override
+    public boolean contains(int node) {
+        return buckets[node] != 0;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public long peekKey() {
+        return keys[heads[advance()]];
+    }
+
+    @Override
+    public int poll() {
+        int node = heads[advance()];
+        polled = true;
+        unlink(node);
+        size--;
+        return node;
+    }
+
+    /**
+     * Moves the cursor to the first non-empty bucket and returns it.
+     */
+    private int advance() {
+        if (size == 0) {
+            throw new IllegalStateException("Queue is empty");
+        }
+        int bucket = (int) (cursor & mask);
+        while (heads[bucket] == NONE) {
+            cursor++;
+            bucket = (bucket + 1) & mask;
+        }
+        return bucket;
+    }
+
+    private void link(int node, int bucket) {
+        int head = heads[bucket];
+        next[node] = head;
+        previous[node] = NONE;
+        if (head != NONE) {
+            previous[head] = node;
+        }
+        heads[bucket] = node;
+        buckets[node] = bucket + 1;
+    }
+
+    private void unlink(int node) {
+        int bucket = buckets[node] - 1;
+        if (previous[node] == NONE) {
+            heads[bucket] = next[node];
+        } else {
+            next[previous[node]] = next[node];
+        }
+        if (next[node] != NONE) {
+            previous[next[node]] = previous[node];
+        }
+        buckets[node] = 0;
+    }
+}
@@ -0,0 +1,134 @@
+package projekt.delivery.routing;
+
+/**
+ * Dijkstra's algorithm on the primitive arrays of a {@link CompiledRegion}.<p>
+ *
+ * The engine does not allocate: the tentative distances and parents are stored in a reusable
+ * {@link DijkstraWorkspace} and the priority queue is an addressable {@link NodeQueue} that supports decreasing keys,
+ * so every node is contained in the queue at most once.
+ */
+public final class DijkstraEngine {
+
+    private DijkstraEngine() {
+    }
+
+    /**
+     * Runs Dijkstra's algorithm from {@code source} in the workspace of the current thread.
+     *
+     * @param region   The {@link CompiledRegion} to search.
+     * @param source   The id of the source node.
+     * @param target   The id of the node after which the search is stopped or {@code -1} to settle all nodes.
+     * @param strategy The {@link QueueStrategy} to use.
+     * @return The {@link DijkstraWorkspace} containing the result of the search. It is only valid until the next
+     * search of the current thread.
+     */
+    public static DijkstraWorkspace search(CompiledRegion region, int source, int target, QueueStrategy strategy) {
+        DijkstraWorkspace workspace = DijkstraWorkspace.forCurrentThread(0, strategy);
+        search(region, workspace, source, target);
+        return workspace;
+    }
+
+    /**
+     * Runs Dijkstra's algorithm from {@code source} in the given workspace.
+     *
+     * @param region    The {@link CompiledRegion} to search.
+     * @param workspace The {@link DijkstraWorkspace} to store the result in.
+     * @param source    The id of the source node.
+     * @param target    The id of the node after which the search is stopped or {@code -1} to settle all nodes.
+     */
+    public static void search(CompiledRegion region, DijkstraWorkspace workspace, int source, int target) {
+        workspace.begin(region, region.getMaxDuration());
+        NodeQueue queue = workspace.getQueue();
+        int[] offsets = region.offsets;
+        int[] targets = region.targets;
+        long[] durations = region.durations;
+
+        workspace.update(source, 0, -1, -1);
+        queue.update(source, 0);
+        while (!queue.isEmpty()) {
+            int u = queue.poll();
+            workspace.settle(u);
+            if (u == target) {
+                return;
+            }
+            long distance = workspace.getDistance(u);
+            for (int arc = offsets[u], end = offsets[u + 1]; arc < end; arc++) {
+                int v = targets[arc];
+                if (workspace.isSettled(v)) {
+                    continue;
+                }
+                long candidate = distance + durations[arc];
+                if (workspace.update(v, candidate, u, arc)) {
+                    queue.update(v, candidate);
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs a bidirectional Dijkstra search between {@code source} and {@code target} in the given workspaces. The
+     * forward search starts at {@code source}, the backward search at {@code target}, and the direction whose next key
+     * is smaller is expanded first. The search stops once the sum of the smallest keys of both queues is not smaller
+     * than the shortest path found so far, which usually happens long before all nodes are settled. The regions are
+     * undirected, so both searches use the same arcs.
+     *
+     * @param region   The {@link CompiledRegion} to search.
+     * @param forward  The {@link DijkstraWorkspace} of the search from {@code source}.
+     * @param backward The {@link DijkstraWorkspace} of the search from {@code target}.
+     * @param source   The id of the source node.
+     * @param target   The id of the target node.
+     * @return The id of a node on a shortest path where both search trees meet or {@code -1} if the nodes are not
+     * connected. The path consists of the parents of this node in both workspaces.
+     */
+    public static int searchBidirectional(CompiledRegion region, DijkstraWorkspace forward,
+                                          DijkstraWorkspace backward, int source, int target) {
+        forward.begin(region, region.getMaxDuration());
+        backward.begin(region, region.getMaxDuration());
+        NodeQueue forwardQueue = forward.getQueue();
+        NodeQueue backwardQueue = backward.getQueue();
+        int[] offsets = region.offsets;
+        int[] targets = region.targets;
+        long[] durations = region.durations;
+
+        forward.update(source, 0, -1, -1);
+        forwardQueue.update(source, 0);
+        backward.update(target, 0, -1, -1);
+        backwardQueue.update(target, 0);
+        long best = source == target ? 0 : Long.MAX_VALUE;
+        int meeting = source == target ? source : -1;
+
+        while (!forwardQueue.isEmpty() && !backwardQueue.isEmpty()) {
+            long forwardKey = forwardQueue.peekKey();
+            long backwardKey = backwardQueue.peekKey();
+            // no path through an unsettled node can be shorter than the best one
+            if (forwardKey + backwardKey >= best) {
+                break;
+            }
+            boolean isForward = forwardKey <= backwardKey;
+            DijkstraWorkspace workspace = isForward ? forward : backward;
+            DijkstraWorkspace other = isForward ? backward : forward;
+            NodeQueue queue = workspace.getQueue();
+
+            int u = queue.poll();
+            workspace.settle(u);
+            long distance = workspace.getDistance(u);
+            for (int arc = offsets[u], end = offsets[u + 1]; arc < end; arc++) {
+                int v = targets[arc];
+                if (workspace.isSettled(v)) {
+                    continue;
+                }
+                long candidate = distance + durations[arc];
+                if (!workspace.update(v, candidate, u, arc)) {
+                    continue;
+                }
+                queue.update(v, candidate);
+                // a path that does not improve v has already been checked when v got its current distance
+                if (other.isReached(v) && candidate + other.getDistance(v) < best) {
+                    best = candidate + other.getDistance(v);
+                    meeting = v;
+                }
+            }
+        }
+        return meeting;
+    }
+}
@@ -1,234 +1,151 @@
 package projekt.delivery.routing;
 
-import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
 
 /**
- * A {@link PathCalculator} that calculates the shortest path between from a start and end point using Dijkstra.
+ * A {@link PathCalculator} that calculates the shortest path between from a start and end point using Dijkstra.<p>
+ *
+ * The search runs on the {@link CompiledRegion} of the region using the {@link DijkstraEngine}, so no objects are
+ * allocated per node and initializing a search does not depend on the size of the region. By default
+ * {@link #getPath(Region.Node, Region.Node)} searches from both ends at the same time and stops once the searches
+ * meet, while {@link #getAllPathsTo(Region.Node)} always settles the whole region.
  */
 public class DijkstraPathCalculator implements PathCalculator {
 
     /**
-     * Relaxes the given edge.
-     *
-     * @param u the first node of the edge
-     * @param v the second node of the edge
-     * @param w the edge between the two nodes
-     * @return {@code true} if the edge was relaxed, {@code false} otherwise
+     * The {@link QueueStrategy} to use or {@code null} to choose one for every region.
      */
-    private boolean relax(DijkstraNode u, DijkstraNode v, Region.Edge w) {
-        Long weight = w.getDuration();
-        if (u.duration != null) {
-            weight = u.duration + weight;
-        }
-        // Relax the edge if the new duration is shorter
-        // New weight must be smaller than the old weight (new weight can be infinity)
-        if (v.duration == null || weight.compareTo(v.duration) < 0) {
-            v.duration = weight;
-            v.previous = u;
-            return true;
-        }
-        return false;
+    private final @Nullable QueueStrategy queueStrategy;
+    private final boolean bidirectional;
+
+    /**
+     * Creates a new {@link DijkstraPathCalculator} that chooses the {@link QueueStrategy} based on the searched region.
+     */
+    public DijkstraPathCalculator() {
+        this(null);
     }
 
     /**
-     * Initializes the SSSP for the given start node.
+     * Creates a new {@link DijkstraPathCalculator} that uses the given {@link QueueStrategy}.
      *
-     * @param queue      the queue to add the initialized dijkstra nodes to.
-     * @param references the map to reference the dijkstra nodes by their region node.
-     * @param start      the start node.
+     * @param queueStrategy The {@link QueueStrategy} to use or {@code null} to choose one based on the searched region.
      */
-    private void initSSSP(Queue<DijkstraNode> queue, Map<Region.Node, DijkstraNode> references, Region.Node start) {
-        for (Region.Node node : start.getRegion().getNodes()) {
-            DijkstraNode dijkstraNode;
-            if (node.equals(start)) {
-                dijkstraNode = new DijkstraNode(node, 0L);
-                // Starting node in queue only contains the starting node since new relaxed node will be added to the queue anyway
-                queue.add(dijkstraNode);
-            } else {
-                // Infinity weight
-                dijkstraNode = new DijkstraNode(node);
-            }
-            references.put(node, dijkstraNode);
-        }
+    public DijkstraPathCalculator(@Nullable QueueStrategy queueStrategy) {
+        this(queueStrategy, true);
     }
 
     /**
-     * Executes Dijkstra's algorithm starting at the given node.
-     * @param end The starting node.
-     * @return The result of the algorithm. Each {@link DijkstraNode} contains the information about which adjacent node
-     * lies on the shortest path to given node.
+     * Creates a new {@link DijkstraPathCalculator}.
+     *
+     * @param queueStrategy The {@link QueueStrategy} to use or {@code null} to choose one based on the searched region.
+     * @param bidirectional If {@link #getPath(Region.Node, Region.Node)} should search from both ends.
      */
+    public DijkstraPathCalculator(@Nullable QueueStrategy queueStrategy, boolean bidirectional) {
+        this.queueStrategy = queueStrategy;
+        this.bidirectional = bidirectional;
+    }
 
-    private Map<Region.Node, DijkstraNode> execute(Region.Node end) {
-        // Initialize SSSP
-        int size = end.getRegion().getNodes().size();
-        Queue<DijkstraNode> queue = new PriorityQueue<>(size);
-        Map<Region.Node, DijkstraNode> references = new HashMap<>(size);
-        initSSSP(queue, references, end);
-
-        // Relax edges
-        while (!queue.isEmpty()) {
-            DijkstraNode u = queue.poll();
-
-            // Trick priority queue to not work on the same node twice
-            if (u.visited) {
-                continue;
-            }
-            u.visited = true;
-
-            // If the lowest distance in the queue is infinity, we can stop as all relax attempts from here will fail
-            if (u.duration == null) {
-                break;
-            }
-
-            for (Region.Node node : u.node.getAdjacentNodes()) {
-                DijkstraNode v = references.get(node);
-                // Only relax if the node is not visited (v must be in Q)
-                if (v.visited) {
-                    continue;
-                }
-                Region.Edge edge = u.node.getEdge(node);
-                assert edge != null;
-                if (relax(u, v, edge)) {
-                    queue.add(v);
-                }
-            }
-        }
-
-        return references;
+    /**
+     * Returns true, if {@link #getPath(Region.Node, Region.Node)} searches from both ends.
+     * @return True, if the search of a single path is bidirectional.
+     */
+    public boolean isBidirectional() {
+        return bidirectional;
     }
 
     /**
-     * Reconstructs the path from {@code start} to {@code end} after Dijkstra's algorithm was performed.
-     * @param references the results of Dijkstra's algorithm.
-     * @param start the start node of the path.
-     * @param end the end node of the path.
-     * @return The reconstructed path from {@code start} to {@code end}.
+     * Returns the {@link QueueStrategy} used for the given {@link CompiledRegion}.
+     *
+     * @param compiled The searched {@link CompiledRegion}.
+     * @return The {@link QueueStrategy} to use.
      */
-    private Deque<Region.Node> reconstructPath(Map<Region.Node, DijkstraNode> references, Region.Node start, Region.Node end) {
+    protected QueueStrategy getQueueStrategy(CompiledRegion compiled) {
+        return queueStrategy != null ? queueStrategy : QueueStrategy.forRegion(compiled);
+    }
 
-        if (start == end) {
-            return new ArrayDeque<>();
+    @Override
+    public Deque<Region.Node> getPath(Region.Node start, Region.Node end) {
+        CompiledRegion compiled = CompiledRegion.of(end.getRegion());
+        if (bidirectional) {
+            return getBidirectionalPath(compiled, start, end);
         }
-        // Reconstruct path, the start node is not part of the path
-        Deque<Region.Node> path = new ArrayDeque<>(start.getRegion().getNodes().size());
-        DijkstraNode node = references.get(start);
-        DijkstraNode endNode = references.get(end);
-
-        //don't add the startNode to the path
-        node = node.previous;
-
-        while (node != endNode) {
-            assert node != null;
-            path.addLast(node.node);
-            node = node.previous;
+        int startId = compiled.indexOf(start);
+        // Search backwards from end, so the parents of the search tree point towards end
+        DijkstraWorkspace workspace = DijkstraEngine.search(compiled, compiled.indexOf(end), startId,
+            getQueueStrategy(compiled));
+
+        Deque<Region.Node> path = workspace.pathToRoot(startId);
+        if (path == null) {
+            throw new IllegalArgumentException("No path from %s to %s".formatted(start, end));
         }
-
-        //add endNode to path
-        path.addLast(endNode.node);
-
         return path;
     }
 
+    /**
+     * {@inheritDoc}<p>
+     *
+     * The duration is taken from the search without creating the path.
+     *
+     * @throws IllegalArgumentException If there is no path from start to end.
+     */
     @Override
-    public Deque<Region.Node> getPath(Region.Node start, Region.Node end) {
-        Map<Region.Node, DijkstraNode> references = execute(end);
+    public long getDistance(Region.Node start, Region.Node end) {
+        CompiledRegion compiled = CompiledRegion.of(end.getRegion());
+        int startId = compiled.indexOf(start);
+        int endId = compiled.indexOf(end);
+        QueueStrategy strategy = getQueueStrategy(compiled);
+        long distance;
+        if (bidirectional) {
+            DijkstraWorkspace forward = DijkstraWorkspace.forCurrentThread(0, strategy);
+            DijkstraWorkspace backward = DijkstraWorkspace.forCurrentThread(1, strategy);
+            int meeting = DijkstraEngine.searchBidirectional(compiled, forward, backward, startId, endId);
+            distance = meeting == -1 ? Long.MAX_VALUE : forward.getDistance(meeting) + backward.getDistance(meeting);
+        } else {
+            distance = DijkstraEngine.search(compiled, endId, startId, strategy).getDistance(startId);
+        }
+        if (distance == Long.MAX_VALUE) {
+            throw new IllegalArgumentException("No path from %s to %s".formatted(start, end));
+        }
+        return distance;
+    }
+
+    private Deque<Region.Node> getBidirectionalPath(CompiledRegion compiled, Region.Node start, Region.Node end) {
+        QueueStrategy strategy = getQueueStrategy(compiled);
+        DijkstraWorkspace forward = DijkstraWorkspace.forCurrentThread(0, strategy);
+        DijkstraWorkspace backward = DijkstraWorkspace.forCurrentThread(1, strategy);
+        int meeting = DijkstraEngine.searchBidirectional(compiled, forward, backward, compiled.indexOf(start),
+            compiled.indexOf(end));
+        if (meeting == -1) {
+            throw new IllegalArgumentException("No path from %s to %s".formatted(start, end));
+        }
 
-        return reconstructPath(references, start, end);
+        // the parents of the forward search point towards start, so its half of the path is reversed
+        Deque<Region.Node> path = new ArrayDeque<>();
+        for (int node = meeting; forward.getParent(node) != -1; node = forward.getParent(node)) {
+            path.addFirst(compiled.getNode(node));
+        }
+        path.addAll(Objects.requireNonNull(backward.pathToRoot(meeting)));
+        return path;
     }
 
     @Override
     public Map<Region.Node, Deque<Region.Node>> getAllPathsTo(Region.Node end) {
-
-        Map<Region.Node, DijkstraNode> references = execute(end);
+        CompiledRegion compiled = CompiledRegion.of(end.getRegion());
+        DijkstraWorkspace workspace = DijkstraEngine.search(compiled, compiled.indexOf(end), -1,
+            getQueueStrategy(compiled));
 
         Map<Region.Node, Deque<Region.Node>> paths = new HashMap<>();
 
-        for (Region.Node node : end.getRegion().getNodes()) {
-            paths.put(node, reconstructPath(references, node, end));
+        for (int id = 0; id < compiled.size(); id++) {
+            Deque<Region.Node> path = workspace.pathToRoot(id);
+            // Nodes that cannot reach end have no path
+            if (path != null) {
+                paths.put(compiled.getNode(id), path);
+            }
         }
 
         return paths;
     }
-
-    /**
-     * Wraps a region node which contains additional information for the dijkstra algorithm.
-     */
-    private static class DijkstraNode implements Comparable<DijkstraNode> {
-
-        /**
-         * The region node which is wrapped.
-         */
-        public final @NotNull Region.Node node;
-        /**
-         * The duration (weight) of the shortest path from the start node to this node. If the duration is {@code null}, it means
-         * that the duration is infinite.
-         */
-        public @Nullable Long duration;
-        /**
-         * The previous node in the shortest path from the start node to this node.
-         */
-        public @Nullable DijkstraNode previous;
-        /**
-         * Whether this node has been visited. Since a {@link PriorityQueue} cannot update its priority after an element was
-         * updated, this is used to mark whether the node has been visited.
-         */
-        public boolean visited;
-
-        /**
-         * Constructs and initializes a new dijkstra node.
-         *
-         * @param node     the wrapped region node
-         * @param duration the duration (weight) of the shortest path from the start node to this node
-         * @param previous the previous node in the shortest path from the start node to this node
-         * @param visited  whether this node has been visited
-         */
-        private DijkstraNode(@NotNull Region.Node node, @Nullable Long duration, @Nullable DijkstraNode previous,
-                             boolean visited) {
-            this.node = node;
-            this.duration = duration;
-            this.previous = previous;
-            this.visited = visited;
-        }
-
-        /**
-         * Constructs and initializes a new dijkstra node with no previous node and is not visited yet.
-         *
-         * @param node     the wrapped region node
-         * @param distance the distance (weight) of the shortest path from the start node to this node
-         */
-        public DijkstraNode(Region.Node node, Long distance) {
-            this(node, distance, null, false);
-        }
-
-        /**
-         * Constructs and initializes a new dijkstra node with an infinite distance, no previous node and is not visited yet.
-         *
-         * @param node the wrapped region node
-         */
-        public DijkstraNode(Region.Node node) {
-            this(node, null, null, false);
-        }
-
-        @Override
-        public int compareTo(@NotNull DijkstraNode o) {
-            // If the weight is infinite, it is always greater than any other weight or equal to it
-            if (this.duration == null) {
-                // If both weights are infinite
-                if (o.duration == null) {
-                    return 0;
-                }
-                return 1;
-            }
-            // If the other weight is infinite, it is always less than this weight
-            else if (o.duration == null) {
-                return -1;
-            }
-            // If both weights are finite, compare them
-            return duration.compareTo(o.duration);
-        }
-    }
 }
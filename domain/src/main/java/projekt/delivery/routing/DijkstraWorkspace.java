@@ -0,0 +1,220 @@
+package projekt.delivery.routing;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+/**
+ * The reusable state of a shortest path search on a {@link CompiledRegion}.<p>
+ *
+ * A workspace stores the tentative distance, the parent and the settled flag of every node in primitive arrays. Instead
+ * of clearing these arrays before every search, every search gets a new generation number and an entry is only valid
+ * if its stamp matches the current generation. Starting a search is therefore {@code O(1)} instead of {@code O(n)}.<p>
+ *
+ * Workspaces are not thread-safe. Use {@link #forCurrentThread(int, QueueStrategy)} to get a workspace that is reused
+ * by all searches of the current thread.
+ */
+public final class DijkstraWorkspace {
+
+    /**
+     * The amount of workspaces that are available per thread, see {@link #forCurrentThread(int, QueueStrategy)}.
+     */
+    public static final int SLOT_COUNT = 4;
+
+    private static final ThreadLocal<DijkstraWorkspace[]> WORKSPACES =
+        ThreadLocal.withInitial(() -> new DijkstraWorkspace[SLOT_COUNT]);
+
+    private int[] stamps = new int[0];
+    private int[] settledStamps = new int[0];
+    private long[] distances = new long[0];
+    private int[] parents = new int[0];
+    private int[] parentArcs = new int[0];
+    private int generation;
+    private final NodeQueue[] queues = new NodeQueue[QueueStrategy.values().length];
+    private NodeQueue queue;
+    private @Nullable CompiledRegion region;
+
+    /**
+     * Creates a new, empty {@link DijkstraWorkspace}.
+     *
+     * @param strategy The {@link QueueStrategy} of the {@link NodeQueue} used by this {@link DijkstraWorkspace}.
+     */
+    public DijkstraWorkspace(QueueStrategy strategy) {
+        useStrategy(strategy);
+    }
+
+    /**
+     * Returns the {@link DijkstraWorkspace} of the current thread in the given slot. Searches that need more than one
+     * workspace at the same time, e.g. bidirectional searches, use different slots.
+     *
+     * @param slot     The slot of the workspace in {@code [0, SLOT_COUNT)}.
+     * @param strategy The {@link QueueStrategy} the returned workspace uses.
+     * @return The {@link DijkstraWorkspace} of the current thread in the given slot.
+     */
+    public static DijkstraWorkspace forCurrentThread(int slot, QueueStrategy strategy) {
+        DijkstraWorkspace[] workspaces = WORKSPACES.get();
+        DijkstraWorkspace workspace = workspaces[slot];
+        if (workspace == null) {
+            workspace = new DijkstraWorkspace(strategy);
+            workspaces[slot] = workspace;
+        } else {
+            workspace.useStrategy(strategy);
+        }
+        return workspace;
+    }
+
+    /**
+     * Switches the {@link NodeQueue} of this {@link DijkstraWorkspace} to the given {@link QueueStrategy}. The queue of
+     * every strategy is only created once, so callers using different strategies on the same thread do not allocate.
+     *
+     * @param strategy The {@link QueueStrategy} to use for the next search.
+     */
+    public void useStrategy(QueueStrategy strategy) {
+        NodeQueue strategyQueue = queues[strategy.ordinal()];
+        if (strategyQueue == null) {
+            strategyQueue = strategy.create();
+            queues[strategy.ordinal()] = strategyQueue;
+        }
+        queue = strategyQueue;
+    }
+
+    /**
+     * Starts a new search on the given {@link CompiledRegion}. All distances become infinite, no node is settled and
+     * the {@link NodeQueue} is empty.
+     *
+     * @param region         The searched {@link CompiledRegion}.
+     * @param maxKeyIncrease The largest difference between a key inserted into the queue and the last polled key.
+     */
+    public void begin(CompiledRegion region, long maxKeyIncrease) {
+        int size = region.size();
+        if (stamps.length < size) {
+            stamps = new int[size];
+            settledStamps = new int[size];
+            distances = new long[size];
+            parents = new int[size];
+            parentArcs = new int[size];
+            generation = 0;
+        }
+        if (generation == Integer.MAX_VALUE) {
+            Arrays.fill(stamps, 0);
+            Arrays.fill(settledStamps, 0);
+            generation = 0;
+        }
+        generation++;
+        this.region = region;
+        queue.reset(size, maxKeyIncrease);
+    }
+
+    /**
+     * Returns the {@link CompiledRegion} of the current search.
+     * @return The {@link CompiledRegion} of the current search.
+     */
+    public CompiledRegion getRegion() {
+        if (region == null) {
+            throw new IllegalStateException("No search has been started");
+        }
+        return region;
+    }
+
+    /**
+     * Returns the {@link NodeQueue} of this {@link DijkstraWorkspace}.
+     * @return The {@link NodeQueue} of this {@link DijkstraWorkspace}.
+     */
+    public NodeQueue getQueue() {
+        return queue;
+    }
+
+    /**
+     * Returns true, if a tentative distance has been set for the given node during the current search.
+     * @param node The id of the node.
+     * @return True, if the given node has been reached.
+     */
+    public boolean isReached(int node) {
+        return stamps[node] == generation;
+    }
+
+    /**
+     * Returns the tentative distance of the given node or {@link Long#MAX_VALUE} if it has not been reached.
+     * @param node The id of the node.
+     * @return The tentative distance of the given node.
+     */
+    public long getDistance(int node) {
+        return stamps[node] == generation ? distances[node] : Long.MAX_VALUE;
+    }
+
+    /**
+     * Returns the parent of the given node in the search tree or {@code -1} if it is the root or has not been reached.
+     * @param node The id of the node.
+     * @return The id of the parent of the given node.
+     */
+    public int getParent(int node) {
+        return stamps[node] == generation ? parents[node] : -1;
+    }
+
+    /**
+     * Returns the arc that connects the given node with its parent or {@code -1} if there is no parent.
+     * @param node The id of the node.
+     * @return The index of the arc from the given node to its parent.
+     */
+    public int getParentArc(int node) {
+        return stamps[node] == generation ? parentArcs[node] : -1;
+    }
+
+    /**
+     * Sets the tentative distance of the given node if it is smaller than the current one.
+     *
+     * @param node      The id of the node.
+     * @param distance  The new tentative distance.
+     * @param parent    The id of the parent of the node or {@code -1}.
+     * @param parentArc The arc between the node and its parent or {@code -1}.
+     * @return True, if the tentative distance has been updated.
+     */
+    public boolean update(int node, long distance, int parent, int parentArc) {
+        if (stamps[node] == generation && distances[node] <= distance) {
+            return false;
+        }
+        stamps[node] = generation;
+        distances[node] = distance;
+        parents[node] = parent;
+        parentArcs[node] = parentArc;
+        return true;
+    }
+
+    /**
+     * Returns true, if the given node has been settled during the current search.
+     * @param node The id of the node.
+     * @return True, if the given node has been settled.
+     */
+    public boolean isSettled(int node) {
+        return settledStamps[node] == generation;
+    }
+
+    /**
+     * Marks the given node as settled.
+     * @param node The id of the node.
+     */
+    public void settle(int node) {
+        settledStamps[node] = generation;
+    }
+
+    /**
+     * Follows the parents from the given node to the root of the search tree and returns the visited nodes.
+     *
+     * @param node The id of the node to start at.
+     * @return The path from the given node (excluded) to the root (included) or {@code null} if the given node has not
+     * been reached. The path is empty if the given node is the root.
+     */
+    public @Nullable Deque<Region.Node> pathToRoot(int node) {
+        if (!isReached(node)) {
+            return null;
+        }
+        CompiledRegion compiledRegion = getRegion();
+        Deque<Region.Node> path = new ArrayDeque<>();
+        for (int current = parents[node]; current != -1; current = parents[current]) {
+            path.addLast(compiledRegion.getNode(current));
+        }
+        return path;
+    }
+}
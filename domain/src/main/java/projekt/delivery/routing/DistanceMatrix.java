@@ -0,0 +1,242 @@
+package projekt.delivery.routing;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * The durations of the shortest paths between a set of source nodes and a set of target nodes of a
+ * {@link CompiledRegion}.<p>
+ *
+ * The matrix is computed with bucket-based many-to-many searches on the {@link ContractionHierarchy} of the region:
+ * an upward search from every target stores its distance in a bucket of every node it settles, then an upward search
+ * from every source scans the buckets of the nodes it settles. Every search only visits a tiny part of the region, so
+ * this is much faster than a Dijkstra search per source. The durations are stored in a single {@code long} array and
+ * looked up in {@code O(1)}.<p>
+ *
+ * Use {@link #toRestaurants(CompiledRegion)} to obtain the shared matrix of the distances between all nodes and all
+ * restaurants of a region.
+ */
+public final class DistanceMatrix {
+
+    private static final Object TO_RESTAURANTS_KEY = new Object();
+
+    private final CompiledRegion region;
+    private final int[] sources;
+    private final int[] targets;
+    /**
+     * The index of every node in {@link #sources} or {@code -1}.
+     */
+    private final int[] sourceIndices;
+    /**
+     * The index of every node in {@link #targets} or {@code -1}.
+     */
+    private final int[] targetIndices;
+    /**
+     * The duration from {@code sources[i]} to {@code targets[j]} at {@code i * targets.length + j} or
+     * {@link Long#MAX_VALUE} if there is no path.
+     */
+    private final long[] distances;
+
+    private DistanceMatrix(CompiledRegion region, int[] sources, int[] targets) {
+        this.region = region;
+        this.sources = sources;
+        this.targets = targets;
+        sourceIndices = indicesOf(region, sources);
+        targetIndices = indicesOf(region, targets);
+        if ((long) sources.length * targets.length > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Matrix with %d x %d entries is too large"
+                .formatted(sources.length, targets.length));
+        }
+        distances = new long[sources.length * targets.length];
+        Arrays.fill(distances, Long.MAX_VALUE);
+        if (distances.length > 0) {
+            compute(ContractionHierarchy.of(region));
+        }
+    }
+
+    /**
+     * Computes the {@link DistanceMatrix} between the given nodes.
+     *
+     * @param region  The {@link CompiledRegion} of the nodes.
+     * @param sources The ids of the source nodes, without duplicates.
+     * @param targets The ids of the target nodes, without duplicates.
+     * @return The computed {@link DistanceMatrix}.
+     * @throws IllegalArgumentException If a node is contained twice or the matrix would be too large.
+     */
+    public static DistanceMatrix compute(CompiledRegion region, int[] sources, int[] targets) {
+        return new DistanceMatrix(region, sources.clone(), targets.clone());
+    }
+
+    /**
+     * Returns the shared {@link DistanceMatrix} from all nodes of the given {@link CompiledRegion} to all of its
+     * {@link Region.Restaurant}s and computes it if necessary. The regions are undirected, so the matrix also contains
+     * the distances from the restaurants to all nodes, e.g. to all {@link Region.Neighborhood}s.
+     *
+     * @param region The {@link CompiledRegion} to return the matrix of.
+     * @return The {@link DistanceMatrix} from all nodes to all restaurants.
+     */
+    public static DistanceMatrix toRestaurants(CompiledRegion region) {
+        return region.getOrCompute(TO_RESTAURANTS_KEY, compiled -> {
+            int[] restaurants = IntStream.range(0, compiled.size())
+                .filter(id -> compiled.getNode(id) instanceof Region.Restaurant)
+                .toArray();
+            return new DistanceMatrix(compiled, IntStream.range(0, compiled.size()).toArray(), restaurants);
+        });
+    }
+
+    private static int[] indicesOf(CompiledRegion region, int[] nodes) {
+        int[] indices = new int[region.size()];
+        Arrays.fill(indices, -1);
+        for (int i = 0; i < nodes.length; i++) {
+            if (indices[nodes[i]] != -1) {
+                throw new IllegalArgumentException("Node %d is contained twice".formatted(nodes[i]));
+            }
+            indices[nodes[i]] = i;
+        }
+        return indices;
+    }
+
+    private void compute(ContractionHierarchy hierarchy) {
+        int n = region.size();
+        // the upward searches of the targets, stored as buckets of (target, distance) entries per node
+        int[][] reached = new int[targets.length][];
+        long[][] reachedDistances = new long[targets.length][];
+        IntStream.range(0, targets.length).parallel().forEach(j -> {
+            DijkstraWorkspace workspace = DijkstraWorkspace.forCurrentThread(0, QueueStrategy.BINARY_HEAP);
+            int[] nodes = hierarchy.searchUpward(targets[j], workspace);
+            long[] nodeDistances = new long[nodes.length];
+            for (int i = 0; i < nodes.length; i++) {
+                nodeDistances[i] = workspace.getDistance(nodes[i]);
+            }
+            reached[j] = nodes;
+            reachedDistances[j] = nodeDistances;
+        });
+        int[] bucketOffsets = new int[n + 1];
+        for (int[] nodes : reached) {
+            for (int node : nodes) {
+                bucketOffsets[node + 1]++;
+            }
+        }
+        for (int node = 0; node < n; node++) {
+            bucketOffsets[node + 1] += bucketOffsets[node];
+        }
+        int[] bucketTargets = new int[bucketOffsets[n]];
+        long[] bucketDistances = new long[bucketOffsets[n]];
+        int[] fill = Arrays.copyOf(bucketOffsets, n);
+        for (int j = 0; j < targets.length; j++) {
+            for (int i = 0; i < reached[j].length; i++) {
+                int entry = fill[reached[j][i]]++;
+                bucketTargets[entry] = j;
+                bucketDistances[entry] = reachedDistances[j][i];
+            }
+        }
+
+        // every source scans the buckets of the nodes its upward search settles
+        IntStream.range(0, sources.length).parallel().forEach(i -> {
+            DijkstraWorkspace workspace = DijkstraWorkspace.forCurrentThread(0, QueueStrategy.BINARY_HEAP);
+            int offset = i * targets.length;
+            for (int node : hierarchy.searchUpward(sources[i], workspace)) {
+                long distance = workspace.getDistance(node);
+                for (int entry = bucketOffsets[node], end = bucketOffsets[node + 1]; entry < end; entry++) {
+                    int index = offset + bucketTargets[entry];
+                    long candidate = distance + bucketDistances[entry];
+                    if (candidate < distances[index]) {
+                        distances[index] = candidate;
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns the {@link CompiledRegion} of this {@link DistanceMatrix}.
+     * @return The {@link CompiledRegion} of this {@link DistanceMatrix}.
+     */
+    public CompiledRegion getRegion() {
+        return region;
+    }
+
+    /**
+     * Returns the amount of source nodes.
+     * @return The amount of source nodes.
+     */
+    public int getSourceCount() {
+        return sources.length;
+    }
+
+    /**
+     * Returns the amount of target nodes.
+     * @return The amount of target nodes.
+     */
+    public int getTargetCount() {
+        return targets.length;
+    }
+
+    /**
+     * Returns the id of the source node with the given index.
+     * @param index The index of the source node.
+     * @return The id of the source node.
+     */
+    public int getSource(int index) {
+        return sources[index];
+    }
+
+    /**
+     * Returns the id of the target node with the given index.
+     * @param index The index of the target node.
+     * @return The id of the target node.
+     */
+    public int getTarget(int index) {
+        return targets[index];
+    }
+
+    /**
+     * Returns the index of the given {@link Region.Node} among the source nodes.
+     * @param node The {@link Region.Node}.
+     * @return The index of the source node or {@code -1} if the node is not a source node.
+     */
+    public int indexOfSource(Region.Node node) {
+        return sourceIndices[region.indexOf(node)];
+    }
+
+    /**
+     * Returns the index of the given {@link Region.Node} among the target nodes.
+     * @param node The {@link Region.Node}.
+     * @return The index of the target node or {@code -1} if the node is not a target node.
+     */
+    public int indexOfTarget(Region.Node node) {
+        return targetIndices[region.indexOf(node)];
+    }
+
+    /**
+     * Returns the duration of the shortest path between the source and the target node with the given indices.
+     *
+     * @param sourceIndex The index of the source node.
+     * @param targetIndex The index of the target node.
+     * @return The duration of the shortest path or {@link Long#MAX_VALUE} if there is no path.
+     */
+    public long getDistance(int sourceIndex, int targetIndex) {
+        return distances[sourceIndex * targets.length + targetIndex];
+    }
+
+    /**
+     * Returns the duration of the shortest path between the given nodes.
+     *
+     * @param source A source node of this {@link DistanceMatrix}.
+     * @param target A target node of this {@link DistanceMatrix}.
+     * @return The duration of the shortest path from source to target.
+     * @throws IllegalArgumentException If a node is not part of this matrix or there is no path between the nodes.
+     */
+    public long getDistance(Region.Node source, Region.Node target) {
+        int sourceIndex = indexOfSource(source);
+        int targetIndex = indexOfTarget(target);
+        if (sourceIndex == -1 || targetIndex == -1) {
+            throw new IllegalArgumentException("No distance from %s to %s in the matrix".formatted(source, target));
+        }
+        long distance = getDistance(sourceIndex, targetIndex);
+        if (distance == Long.MAX_VALUE) {
+            throw new IllegalArgumentException("No path from %s to %s".formatted(source, target));
+        }
+        return distance;
+    }
+}
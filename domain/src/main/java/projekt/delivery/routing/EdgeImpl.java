@@ -1,11 +1,11 @@
 package projekt.delivery.routing;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import projekt.base.Location;
 
 import static org.tudalgo.algoutils.student.Student.crash;
 
-import java.util.Comparator;
 import java.util.Objects;
 
 /**
@@ -19,6 +19,13 @@ class EdgeImpl implements Region.Edge {
     private final Location locationA;
     private final Location locationB;
     private final long duration;
+    private final @Nullable TravelTimeProfile profile;
+
+    /**
+     * The nodes resolved by {@link #freeze()} or {@code null} if they are looked up on every call.
+     */
+    private @Nullable Region.Node nodeA;
+    private @Nullable Region.Node nodeB;
 
     /**
      * Creates a new {@link EdgeImpl} instance.
@@ -35,6 +42,27 @@ class EdgeImpl implements Region.Edge {
             Location locationA,
             Location locationB,
             long duration) {
+        this(region, name, locationA, locationB, duration, null);
+    }
+
+    /**
+     * Creates a new {@link EdgeImpl} instance whose duration changes over time.
+     *
+     * @param region    The {@link Region} this {@link EdgeImpl} belongs to.
+     * @param name      The name of this {@link EdgeImpl}.
+     * @param locationA The start of this {@link EdgeImpl}.
+     * @param locationB The end of this {@link EdgeImpl}.
+     * @param duration  The length of this {@link EdgeImpl}.
+     * @param profile   The {@link TravelTimeProfile} of this {@link EdgeImpl} or {@code null} if its duration is
+     *                  constant.
+     */
+    EdgeImpl(
+            Region region,
+            String name,
+            Location locationA,
+            Location locationB,
+            long duration,
+            @Nullable TravelTimeProfile profile) {
         this.region = region;
         this.name = name;
         // locations must be in ascending order
@@ -45,6 +73,7 @@ class EdgeImpl implements Region.Edge {
         this.locationA = locationA;
         this.locationB = locationB;
         this.duration = duration;
+        this.profile = profile;
     }
 
     /**
@@ -80,21 +109,40 @@ class EdgeImpl implements Region.Edge {
         return duration;
     }
 
+    @Override
+    public @Nullable TravelTimeProfile getTravelTimeProfile() {
+        return profile;
+    }
+
+    @Override
+    public long getDuration(long tick) {
+        return profile != null ? profile.getDuration(tick) : duration;
+    }
+
+    /**
+     * Resolves the nodes of this {@link EdgeImpl} once, so {@link #getNodeA()} and {@link #getNodeB()} return them
+     * without looking them up. Must only be called once the {@link Region} of this {@link EdgeImpl} does not change
+     * anymore.
+     */
+    void freeze() {
+        nodeA = region.getNode(locationA);
+        nodeB = region.getNode(locationB);
+    }
+
     @Override
     public Region.Node getNodeA() {
-        return region.getNode(locationA);
+        return nodeA != null ? nodeA : region.getNode(locationA);
     }
 
     @Override
     public Region.Node getNodeB() {
-        return region.getNode(locationB);
+        return nodeB != null ? nodeB : region.getNode(locationB);
     }
 
     @Override
     public int compareTo(Region.@NotNull Edge o) {
-        Comparator<Region.Edge> nodeAComparator = Comparator.comparing(edge -> edge.getNodeA());
-        Comparator<Region.Edge> nodeBComparator = Comparator.comparing(edge -> edge.getNodeB());
-        return nodeAComparator.thenComparing(nodeBComparator).compare(this, o);
+        int result = getNodeA().compareTo(o.getNodeA());
+        return result != 0 ? result : getNodeB().compareTo(o.getNodeB());
     }
 
     @Override
@@ -108,7 +156,8 @@ class EdgeImpl implements Region.Edge {
         EdgeImpl castedObject = (EdgeImpl) o;
         return Objects.equals(this.name, castedObject.name) && Objects.equals(this.locationA, castedObject.locationA)
                 && Objects.equals(this.locationB, castedObject.locationB)
-                && Objects.equals(this.duration, castedObject.duration);
+                && Objects.equals(this.duration, castedObject.duration)
+                && Objects.equals(this.profile, castedObject.profile);
     }
 
     @Override
@@ -0,0 +1,100 @@
+package projekt.delivery.routing;
+
+/**
+ * A count-min sketch with 4-bit counters that estimates how often keys have been seen recently.<p>
+ *
+ * Every key is counted in four counters that are chosen by different hash functions, the estimate is the smallest of
+ * them. After {@code 10} times the capacity increments all counters are halved, so keys that were popular a long time
+ * ago are forgotten.
+ */
+final class FrequencySketch {
+
+    private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL,
+        0xcbf29ce484222325L};
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final int MAX_COUNT = 15;
+
+    /**
+     * 16 counters of 4 bits per long.
+     */
+    private final long[] table;
+    private final int mask;
+    private final int sampleSize;
+    private int additions;
+
+    /**
+     * Creates a new {@link FrequencySketch} for a cache of the given capacity.
+     *
+     * @param capacity The maximum amount of keys of the cache.
+     */
+    FrequencySketch(int capacity) {
+        int size = Integer.highestOneBit(Math.max(8, Math.min(capacity, 1 << 28) - 1) << 1);
+        table = new long[size];
+        mask = size - 1;
+        sampleSize = 10 * Math.max(1, capacity);
+    }
+
+    /**
+     * Returns the estimated frequency of the given key in {@code [0, 15]}.
+     *
+     * @param key The key.
+     * @return The estimated frequency of the key.
+     */
+    int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int frequency = MAX_COUNT;
+        for (int i = 0; i < SEEDS.length; i++) {
+            int offset = offsetOf(hash, i);
+            frequency = Math.min(frequency, (int) ((table[indexOf(hash, i)] >>> offset) & MAX_COUNT));
+        }
+        return frequency;
+    }
+
+    /**
+     * Increments the frequency of the given key.
+     *
+     * @param key The key.
+     */
+    void increment(Object key) {
+        int hash = spread(key.hashCode());
+        boolean added = false;
+        for (int i = 0; i < SEEDS.length; i++) {
+            int index = indexOf(hash, i);
+            int offset = offsetOf(hash, i);
+            if (((table[index] >>> offset) & MAX_COUNT) != MAX_COUNT) {
+                table[index] += 1L << offset;
+                added = true;
+            }
+        }
+        if (added && ++additions == sampleSize) {
+            reset();
+        }
+    }
+
+    /**
+     * Halves all counters.
+     */
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions /= 2;
+    }
+
+    private int indexOf(int hash, int i) {
+        long h = (hash + SEEDS[i]) * SEEDS[i];
+        h += h >>> 32;
+        return (int) h & mask;
+    }
+
+    private static int offsetOf(int hash, int i) {
+        // every hash function uses a different counter of the 16 counters in a long
+        return (((hash >>> (i << 3)) & 3) << 2 | i) << 2;
+    }
+
+    private static int spread(int hash) {
+        hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        return (hash >>> 16) ^ hash;
+    }
+}
@@ -0,0 +1,114 @@
+package projekt.delivery.routing;
+
+/**
+ * A {@link NodeQueue} backed by a binary heap that stores the position of every node, so keys can be decreased in
+ * {@code O(log n)} without inserting the node a second time.
+ */
+final class IndexedBinaryHeap implements NodeQueue {
+
+    private int[] heap = new int[0];
+    private long[] heapKeys = new long[0];
+    /**
+     * The position of every node in {@link #heap} plus one, or {@code 0} if the node is not contained.
+     */
+    private int[] positions = new int[0];
+    private int size;
+
+    @Override
+    public void reset(int capacity, long maxKeyIncrease) {
+        if (positions.length < capacity) {
+            heap = new int[capacity];
+            heapKeys = new long[capacity];
+            positions = new int[capacity];
+            size = 0;
+        } else {
+            clear();
+        }
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[heap[i]] = 0;
+        }
+        size = 0;
+    }
+
+    @Override
+    public void update(int node, long key) {
+        int position = positions[node] - 1;
+        if (position < 0) {
+            position = size++;
+        } else if (heapKeys[position] < key) {
+            throw new IllegalArgumentException("Cannot increase the key of node %d".formatted(node));
+        }
+        siftUp(position, node, key);
+    }
+
+    @Override
+    public boolean contains(int node) {
+        return positions[node] != 0;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public long peekKey() {
+        if (size == 0) {
+            throw new IllegalStateException("Queue is empty");
+        }
+        return heapKeys[0];
+    }
+
+    @Override
+    public int poll() {
+        if (size == 0) {
+            throw new IllegalStateException("Queue is empty");
+        }
+        int result = heap[0];
+        positions[result] = 0;
+        size--;
+        if (size > 0) {
+            siftDown(0, heap[size], heapKeys[size]);
+        }
+        return result;
+    }
+
+    private void siftUp(int position, int node, long key) {
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (heapKeys[parent] <= key) {
+                break;
+            }
+            place(position, heap[parent], heapKeys[parent]);
+            position = parent;
+        }
+        place(position, node, key);
+    }
+
+    private void siftDown(int position, int node, long key) {
+        int half = size >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            int right = child + 1;
+            if (right < size && heapKeys[right] < heapKeys[child]) {
+                child = right;
+            }
+            if (key <= heapKeys[child]) {
+                break;
+            }
+            place(position, heap[child], heapKeys[child]);
+            position = child;
+        }
+        place(position, node, key);
+    }
+
+    private void place(int position, int node, long key) {
+        heap[position] = node;
+        heapKeys[position] = key;
+        positions[node] = position + 1;
+    }
+}
@@ -0,0 +1,488 @@
+package projekt.delivery.routing;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A set of landmark nodes of a {@link CompiledRegion} together with the durations of the shortest paths between every
+ * landmark and every node.<p>
+ *
+ * By the triangle inequality the duration of the shortest path between two nodes {@code u} and {@code t} is at least
+ * {@code |d(L, t) - d(L, u)|} for every landmark {@code L}. These bounds do not depend on the coordinates of the nodes,
+ * so they also work for regions whose durations are not related to the distance between the nodes. The bounds are
+ * tight if a landmark lies "behind" one of the nodes, so landmarks are chosen at the border of the region.<p>
+ *
+ * Use {@link #of(CompiledRegion, int, Selection)} to obtain the shared {@link Landmarks} of a {@link CompiledRegion}.
+ *
+ * @see AltPathCalculator
+ */
+public final class Landmarks {
+
+    /**
+     * The default amount of landmarks.
+     */
+    public static final int DEFAULT_COUNT = 16;
+
+    /**
+     * The strategies for choosing the landmarks.
+     */
+    public enum Selection {
+
+        /**
+         * Every landmark is the node farthest away from all previous landmarks.
+         */
+        FARTHEST,
+
+        /**
+         * Every landmark is a leaf of the shortest path tree of a random node in the subtree whose nodes have the worst
+         * bounds of the previous landmarks ("avoid"). This usually gives better bounds than {@link #FARTHEST}.
+         */
+        AVOID
+    }
+
+    /**
+     * The key of shared {@link Landmarks} in {@link CompiledRegion#getOrCompute(Object, java.util.function.Function)}.
+     */
+    private record Key(int count, Selection selection) {
+    }
+
+    private final CompiledRegion region;
+    private final Selection selection;
+    private final int[] landmarks;
+    /**
+     * The duration between {@code landmarks[i]} and {@code node} at {@code node * landmarks.length + i} or
+     * {@link Long#MAX_VALUE} if they are not connected.
+     */
+    private final long[] distances;
+
+    private Landmarks(CompiledRegion region, Selection selection, int[] landmarks, long[] distances) {
+        this.region = region;
+        this.selection = selection;
+        this.landmarks = landmarks;
+        this.distances = distances;
+    }
+
+    /**
+     * Returns the shared {@link Landmarks} of the given {@link CompiledRegion} and selects them if necessary.
+     *
+     * @param region    The {@link CompiledRegion} to return the {@link Landmarks} of.
+     * @param count     The amount of landmarks. Regions with fewer nodes get fewer landmarks.
+     * @param selection The strategy for choosing the landmarks.
+     * @return The {@link Landmarks} of the given {@link CompiledRegion}.
+     */
+    public static Landmarks of(CompiledRegion region, int count, Selection selection) {
+        return region.getOrCompute(keyOf(region, count, selection), compiled -> select(compiled, count, selection));
+    }
+
+    /**
+     * Selects new {@link Landmarks} of the given {@link CompiledRegion}. Landmarks are only chosen in connected
+     * components with at least {@code size / count} nodes, since they do not help in tiny components.
+     *
+     * @param region    The {@link CompiledRegion} to select the landmarks of.
+     * @param count     The amount of landmarks. Regions with fewer nodes get fewer landmarks.
+     * @param selection The strategy for choosing the landmarks.
+     * @return The selected {@link Landmarks}.
+     * @throws IllegalArgumentException If the amount of landmarks is negative.
+     */
+    public static Landmarks select(CompiledRegion region, int count, Selection selection) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Invalid amount of landmarks: %d".formatted(count));
+        }
+        return new Selector(region, selection).select(Math.min(count, region.size()));
+    }
+
+    /**
+     * Restores {@link Landmarks} that have been selected before, e.g. read from a file.
+     *
+     * @param region    The {@link CompiledRegion} of the landmarks.
+     * @param selection The strategy the landmarks have been chosen with.
+     * @param landmarks The ids of the landmarks.
+     * @param distances The durations between every landmark and every node, {@code distances[i][node]} is the
+     *                  duration between the {@code i}-th landmark and {@code node} or {@link Long#MAX_VALUE} if they
+     *                  are not connected.
+     * @return The restored {@link Landmarks}.
+     * @throws IllegalArgumentException If the arrays do not match the region.
+     */
+    public static Landmarks restore(CompiledRegion region, Selection selection, int[] landmarks, long[][] distances) {
+        int n = region.size();
+        if (distances.length != landmarks.length) {
+            throw new IllegalArgumentException("Expected distances of %d landmarks but got %d"
+                .formatted(landmarks.length, distances.length));
+        }
+        long[] flat = new long[n * landmarks.length];
+        for (int i = 0; i < landmarks.length; i++) {
+            if (landmarks[i] < 0 || landmarks[i] >= n || distances[i].length != n) {
+                throw new IllegalArgumentException("Landmark %d does not match the region".formatted(i));
+            }
+            for (int node = 0; node < n; node++) {
+                flat[node * landmarks.length + i] = distances[i][node];
+            }
+        }
+        return new Landmarks(region, selection, landmarks.clone(), flat);
+    }
+
+    /**
+     * Shares these {@link Landmarks} with all users of {@link #of(CompiledRegion, int, Selection)} with the same
+     * amount of landmarks and {@link Selection}, unless landmarks have been shared before.
+     *
+     * @return The shared {@link Landmarks}, which are these {@link Landmarks} if none have been shared before.
+     */
+    public Landmarks share() {
+        return region.getOrCompute(keyOf(region, landmarks.length, selection), ignored -> this);
+    }
+
+    private static Key keyOf(CompiledRegion region, int count, Selection selection) {
+        return new Key(Math.max(0, Math.min(count, region.size())), selection);
+    }
+
+    /**
+     * Returns the {@link CompiledRegion} of these {@link Landmarks}.
+     * @return The {@link CompiledRegion} of these {@link Landmarks}.
+     */
+    public CompiledRegion getRegion() {
+        return region;
+    }
+
+    /**
+     * Returns the strategy these {@link Landmarks} have been chosen with.
+     * @return The {@link Selection} of these {@link Landmarks}.
+     */
+    public Selection getSelection() {
+        return selection;
+    }
+
+    /**
+     * Returns the amount of landmarks.
+     * @return The amount of landmarks.
+     */
+    public int getCount() {
+        return landmarks.length;
+    }
+
+    /**
+     * Returns the id of the landmark with the given index.
+     * @param index The index of the landmark in {@code [0, getCount())}.
+     * @return The id of the landmark node.
+     */
+    public int getLandmark(int index) {
+        return landmarks[index];
+    }
+
+    /**
+     * Returns the duration of the shortest path between the landmark with the given index and the given node.
+     *
+     * @param index The index of the landmark in {@code [0, getCount())}.
+     * @param node  The id of the node.
+     * @return The duration of the shortest path or {@link Long#MAX_VALUE} if they are not connected.
+     */
+    public long getDistance(int index, int node) {
+        return distances[node * landmarks.length + index];
+    }
+
+    /**
+     * Returns a lower bound of the duration of the shortest path between the given nodes using all landmarks.
+     *
+     * @param node   The id of the first node.
+     * @param target The id of the second node.
+     * @return A lower bound of the duration of the shortest path between the nodes.
+     */
+    public long lowerBound(int node, int target) {
+        int count = landmarks.length;
+        long bound = 0;
+        for (int i = 0; i < count; i++) {
+            bound = Math.max(bound, bound(distances[node * count + i], distances[target * count + i]));
+        }
+        return bound;
+    }
+
+    /**
+     * Chooses the landmarks that give the best lower bound between the given nodes. Using only a few landmarks per
+     * query makes evaluating the bound cheaper while keeping most of its quality.
+     *
+     * @param source The id of the first node.
+     * @param target The id of the second node.
+     * @param active The array to store the indices of the chosen landmarks in. Its length is the maximum amount of
+     *               chosen landmarks.
+     * @return The amount of chosen landmarks.
+     */
+    public int selectActive(int source, int target, int[] active) {
+        int count = landmarks.length;
+        int[] order = new int[count];
+        long[] bounds = new long[count];
+        for (int i = 0; i < count; i++) {
+            bounds[i] = bound(distances[source * count + i], distances[target * count + i]);
+        }
+        int size = 0;
+        // a partial selection sort, the amount of landmarks is small
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        for (; size < Math.min(active.length, count); size++) {
+            int best = size;
+            for (int i = size + 1; i < count; i++) {
+                if (bounds[order[i]] > bounds[order[best]]) {
+                    best = i;
+                }
+            }
+            int swap = order[size];
+            order[size] = order[best];
+            order[best] = swap;
+            active[size] = order[size];
+        }
+        return size;
+    }
+
+    /**
+     * Returns a lower bound of the duration of the shortest path between the given nodes using the given landmarks.
+     *
+     * @param node        The id of the first node.
+     * @param target      The id of the second node.
+     * @param active      The indices of the used landmarks, see {@link #selectActive(int, int, int[])}.
+     * @param activeCount The amount of used landmarks.
+     * @return A lower bound of the duration of the shortest path between the nodes.
+     */
+    public long lowerBound(int node, int target, int[] active, int activeCount) {
+        int count = landmarks.length;
+        long bound = 0;
+        for (int i = 0; i < activeCount; i++) {
+            int landmark = active[i];
+            bound = Math.max(bound, bound(distances[node * count + landmark], distances[target * count + landmark]));
+        }
+        return bound;
+    }
+
+    private static long bound(long a, long b) {
+        // a landmark in another component does not bound anything
+        if (a == Long.MAX_VALUE || b == Long.MAX_VALUE) {
+            return 0;
+        }
+        return Math.abs(a - b);
+    }
+
+    /**
+     * The state of the selection of the landmarks.
+     */
+    private static final class Selector {
+
+        private final CompiledRegion region;
+        private final Selection selection;
+        private final Random random = new Random(0);
+        private final boolean[] eligible;
+        private final int[] landmarks;
+        private final long[][] landmarkDistances;
+        private int count;
+
+        Selector(CompiledRegion region, Selection selection) {
+            this.region = region;
+            this.selection = selection;
+            eligible = new boolean[region.size()];
+            landmarks = new int[region.size()];
+            landmarkDistances = new long[region.size()][];
+        }
+
+        Landmarks select(int maxCount) {
+            markEligible(maxCount);
+            while (count < maxCount) {
+                int landmark = selection == Selection.AVOID ? nextAvoid() : nextFarthest();
+                if (landmark == -1) {
+                    break;
+                }
+                landmarks[count] = landmark;
+                landmarkDistances[count++] = distancesFrom(landmark);
+            }
+            long[][] distances = Arrays.copyOf(landmarkDistances, count);
+            return restore(region, selection, Arrays.copyOf(landmarks, count), distances);
+        }
+
+        /**
+         * Marks the nodes of the connected components with at least {@code size / maxCount} nodes.
+         */
+        private void markEligible(int maxCount) {
+            int n = region.size();
+            int[] components = new int[n];
+            Arrays.fill(components, -1);
+            int[] stack = new int[n];
+            int[] sizes = new int[n];
+            int componentCount = 0;
+            for (int start = 0; start < n; start++) {
+                if (components[start] != -1) {
+                    continue;
+                }
+                int size = 0;
+                stack[size++] = start;
+                components[start] = componentCount;
+                int visited = 0;
+                while (size > 0) {
+                    int u = stack[--size];
+                    visited++;
+                    for (int arc = region.offsets[u], end = region.offsets[u + 1]; arc < end; arc++) {
+                        int v = region.targets[arc];
+                        if (components[v] == -1) {
+                            components[v] = componentCount;
+                            stack[size++] = v;
+                        }
+                    }
+                }
+                sizes[componentCount++] = visited;
+            }
+            int minSize = Math.max(2, maxCount == 0 ? n : n / maxCount);
+            for (int node = 0; node < n; node++) {
+                eligible[node] = sizes[components[node]] >= minSize;
+            }
+        }
+
+        /**
+         * Returns the eligible node farthest away from all landmarks or {@code -1} if there is none. Nodes that are not
+         * connected to any landmark are the farthest.
+         */
+        private int nextFarthest() {
+            if (count == 0) {
+                // the first landmark is the node farthest away from an arbitrary node
+                int start = randomEligible();
+                if (start == -1) {
+                    return -1;
+                }
+                long[] distances = distancesFrom(start);
+                int farthest = start;
+                for (int node = 0; node < distances.length; node++) {
+                    if (distances[node] != Long.MAX_VALUE && distances[node] > distances[farthest]) {
+                        farthest = node;
+                    }
+                }
+                return farthest;
+            }
+            int farthest = -1;
+            long farthestDistance = 0;
+            for (int node = 0; node < eligible.length; node++) {
+                if (!eligible[node]) {
+                    continue;
+                }
+                long distance = Long.MAX_VALUE;
+                for (int i = 0; i < count; i++) {
+                    distance = Math.min(distance, landmarkDistances[i][node]);
+                }
+                if (distance > farthestDistance) {
+                    farthest = node;
+                    farthestDistance = distance;
+                }
+            }
+            return farthest;
+        }
+
+        /**
+         * Returns the next landmark of the "avoid" strategy or {@code -1} if there is none.
+         */
+        private int nextAvoid() {
+            int root = randomEligible();
+            if (root == -1) {
+                return -1;
+            }
+            int n = region.size();
+            DijkstraWorkspace workspace = DijkstraEngine.search(region, root, -1, QueueStrategy.forRegion(region));
+
+            // the children of every node in the shortest path tree of the root in CSR format
+            int[] childOffsets = new int[n + 1];
+            for (int node = 0; node < n; node++) {
+                int parent = workspace.getParent(node);
+                if (parent != -1) {
+                    childOffsets[parent + 1]++;
+                }
+            }
+            for (int node = 0; node < n; node++) {
+                childOffsets[node + 1] += childOffsets[node];
+            }
+            int[] children = new int[childOffsets[n]];
+            int[] fill = Arrays.copyOf(childOffsets, n);
+            for (int node = 0; node < n; node++) {
+                int parent = workspace.getParent(node);
+                if (parent != -1) {
+                    children[fill[parent]++] = node;
+                }
+            }
+
+            // breadth-first order, so every node comes after its parent
+            int[] order = new int[n];
+            int size = 0;
+            order[size++] = root;
+            for (int i = 0; i < size; i++) {
+                int node = order[i];
+                for (int child = childOffsets[node]; child < childOffsets[node + 1]; child++) {
+                    order[size++] = children[child];
+                }
+            }
+
+            // the weight of a node is how much the current landmarks underestimate its distance to the root, the
+            // size of a node is the weight of its subtree or 0 if the subtree already contains a landmark
+            boolean[] isLandmark = new boolean[n];
+            for (int i = 0; i < count; i++) {
+                isLandmark[landmarks[i]] = true;
+            }
+            long[] sizes = new long[n];
+            boolean[] covered = new boolean[n];
+            for (int i = size - 1; i >= 0; i--) {
+                int node = order[i];
+                long bound = 0;
+                for (int j = 0; j < count; j++) {
+                    bound = Math.max(bound, bound(landmarkDistances[j][root], landmarkDistances[j][node]));
+                }
+                covered[node] |= isLandmark[node];
+                sizes[node] = covered[node] ? 0 : sizes[node] + workspace.getDistance(node) - bound;
+                int parent = workspace.getParent(node);
+                if (parent != -1) {
+                    covered[parent] |= covered[node];
+                    sizes[parent] += sizes[node];
+                }
+            }
+
+            int best = -1;
+            for (int i = 0; i < size; i++) {
+                if (sizes[order[i]] > 0 && (best == -1 || sizes[order[i]] > sizes[best])) {
+                    best = order[i];
+                }
+            }
+            if (best == -1) {
+                // the landmarks already give exact bounds for the root
+                return nextFarthest();
+            }
+            // follow the largest subtree down to a leaf
+            while (childOffsets[best] < childOffsets[best + 1]) {
+                int next = children[childOffsets[best]];
+                for (int child = childOffsets[best] + 1; child < childOffsets[best + 1]; child++) {
+                    if (sizes[children[child]] > sizes[next]) {
+                        next = children[child];
+                    }
+                }
+                best = next;
+            }
+            return best;
+        }
+
+        private int randomEligible() {
+            int eligibleCount = 0;
+            for (boolean isEligible : eligible) {
+                if (isEligible) {
+                    eligibleCount++;
+                }
+            }
+            if (eligibleCount == 0) {
+                return -1;
+            }
+            int index = random.nextInt(eligibleCount);
+            for (int node = 0; node < eligible.length; node++) {
+                if (eligible[node] && index-- == 0) {
+                    return node;
+                }
+            }
+            throw new AssertionError();
+        }
+
+        private long[] distancesFrom(int node) {
+            DijkstraWorkspace workspace = DijkstraEngine.search(region, node, -1, QueueStrategy.forRegion(region));
+            long[] distances = new long[region.size()];
+            for (int other = 0; other < distances.length; other++) {
+                distances[other] = workspace.getDistance(other);
+            }
+            return distances;
+        }
+    }
+}
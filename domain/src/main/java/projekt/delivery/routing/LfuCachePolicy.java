@@ -0,0 +1,80 @@
+package projekt.delivery.routing;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A {@link CachePolicy} that evicts the least frequently used key. Keys with the same frequency are evicted in least
+ * recently used order. The frequency of a key is forgotten once it is evicted.
+ *
+ * @param <K> The type of the keys.
+ */
+public class LfuCachePolicy<K> implements CachePolicy<K> {
+
+    private final Map<K, Long> frequencies;
+    private final TreeMap<Long, LinkedHashSet<K>> buckets = new TreeMap<>();
+
+    /**
+     * Creates a new {@link LfuCachePolicy}.
+     *
+     * @param capacity The expected amount of keys of the cache. Only used as a sizing hint.
+     */
+    public LfuCachePolicy(int capacity) {
+        frequencies = new HashMap<>(Math.max(16, capacity * 2));
+    }
+
+    @Override
+    public void recordAccess(K key) {
+        Long frequency = frequencies.get(key);
+        if (frequency != null) {
+            removeFromBucket(key, frequency);
+            track(key, frequency + 1);
+        }
+    }
+
+    @Override
+    public void recordInsertion(K key) {
+        recordRemoval(key);
+        track(key, 1L);
+    }
+
+    @Override
+    public void recordRemoval(K key) {
+        Long frequency = frequencies.remove(key);
+        if (frequency != null) {
+            removeFromBucket(key, frequency);
+        }
+    }
+
+    @Override
+    public K evict() {
+        Map.Entry<Long, LinkedHashSet<K>> bucket = buckets.firstEntry();
+        if (bucket == null) {
+            throw new IllegalStateException("No key to evict");
+        }
+        Iterator<K> iterator = bucket.getValue().iterator();
+        K key = iterator.next();
+        iterator.remove();
+        if (bucket.getValue().isEmpty()) {
+            buckets.remove(bucket.getKey());
+        }
+        frequencies.remove(key);
+        return key;
+    }
+
+    private void track(K key, long frequency) {
+        frequencies.put(key, frequency);
+        buckets.computeIfAbsent(frequency, ignored -> new LinkedHashSet<>()).add(key);
+    }
+
+    private void removeFromBucket(K key, long frequency) {
+        LinkedHashSet<K> bucket = buckets.get(frequency);
+        bucket.remove(key);
+        if (bucket.isEmpty()) {
+            buckets.remove(frequency);
+        }
+    }
+}
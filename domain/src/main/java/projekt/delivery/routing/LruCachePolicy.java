@@ -0,0 +1,51 @@
+package projekt.delivery.routing;
+
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+
+/**
+ * A {@link CachePolicy} that evicts the least recently used key.
+ *
+ * @param <K> The type of the keys.
+ */
+public class LruCachePolicy<K> implements CachePolicy<K> {
+
+    private final LinkedHashSet<K> keys = new LinkedHashSet<>();
+
+    /**
+     * Creates a new {@link LruCachePolicy}.
+     *
+     * @param capacity The expected amount of keys of the cache. Only used as a sizing hint.
+     */
+    public LruCachePolicy(int capacity) {
+    }
+
+    @Override
+    public void recordAccess(K key) {
+        if (keys.remove(key)) {
+            keys.add(key);
+        }
+    }
+
+    @Override
+    public void recordInsertion(K key) {
+        keys.remove(key);
+        keys.add(key);
+    }
+
+    @Override
+    public void recordRemoval(K key) {
+        keys.remove(key);
+    }
+
+    @Override
+    public K evict() {
+        Iterator<K> iterator = keys.iterator();
+        if (!iterator.hasNext()) {
+            throw new IllegalStateException("No key to evict");
+        }
+        K key = iterator.next();
+        iterator.remove();
+        return key;
+    }
+}
@@ -0,0 +1,266 @@
+package projekt.delivery.routing;
+
+import projekt.delivery.partition.Partition;
+import projekt.delivery.partition.RegionPartitioner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A nested partition of a {@link CompiledRegion} into cells on several levels, the metric-independent part of a
+ * multi-level overlay.<p>
+ *
+ * Level {@code 0} is the region itself. On every level {@code 1..getLevelCount()} the nodes are partitioned into cells,
+ * every cell of a level lies completely inside one cell of the next higher level. A node is a boundary node of its cell
+ * on a level if it is connected to a node of another cell on that level, so the boundary nodes of a level are also
+ * boundary nodes of all lower levels. The boundary nodes of every cell are numbered from {@code 0}, an
+ * {@link OverlayMetric} stores the durations between them in a clique per cell.<p>
+ *
+ * The cells of a level are computed by the {@link RegionPartitioner} and then nested into the higher level by moving
+ * every cell of the lower level into the higher cell that contains most of its nodes. Levels that would not have more
+ * than one cell or not fewer cells than the level below are left out. The partition only depends on the topology of
+ * the region, so it can be reused for any durations of the edges.<p>
+ *
+ * Use {@link #of(CompiledRegion, int[], long)} to obtain the shared {@link MultiLevelPartition} of a
+ * {@link CompiledRegion}.
+ */
+public final class MultiLevelPartition {
+
+    /**
+     * The key of a shared {@link MultiLevelPartition} in
+     * {@link CompiledRegion#getOrCompute(Object, java.util.function.Function)}.
+     */
+    private record Key(List<Integer> cellSizes, long seed) {
+    }
+
+    private final CompiledRegion region;
+    /**
+     * The cell of every node on level {@code l} at index {@code l - 1}.
+     */
+    final int[][] cells;
+    final int[] cellCounts;
+    /**
+     * The boundary nodes of cell {@code c} on level {@code l} are stored in
+     * {@code [boundaryOffsets[l - 1][c], boundaryOffsets[l - 1][c + 1])} of {@code boundaryNodes[l - 1]}.
+     */
+    final int[][] boundaryOffsets;
+    final int[][] boundaryNodes;
+    /**
+     * The number of every node among the boundary nodes of its cell on level {@code l} at index {@code l - 1} or
+     * {@code -1} if it is not a boundary node.
+     */
+    final int[][] boundaryIndices;
+
+    private MultiLevelPartition(CompiledRegion region, int[] cellSizes, long seed) {
+        this.region = region;
+        int n = region.size();
+        List<int[]> levels = new ArrayList<>();
+        List<Integer> counts = new ArrayList<>();
+        int[] lower = null;
+        int lowerCount = n;
+        for (int cellSize : cellSizes) {
+            int cellCount = (int) ((n + (long) cellSize - 1) / cellSize);
+            if (cellCount <= 1 || cellCount >= lowerCount) {
+                continue;
+            }
+            Partition partition = RegionPartitioner.builder().setCellCount(cellCount).setSeed(seed).build()
+                .partition(region);
+            int[] levelCells = partition.getCells();
+            if (lower != null) {
+                cellCount = nest(lower, lowerCount, partition, levelCells);
+                if (cellCount <= 1 || cellCount >= lowerCount) {
+                    continue;
+                }
+            }
+            levels.add(levelCells);
+            counts.add(cellCount);
+            lower = levelCells;
+            lowerCount = cellCount;
+        }
+
+        int levelCount = levels.size();
+        cells = levels.toArray(int[][]::new);
+        cellCounts = counts.stream().mapToInt(Integer::intValue).toArray();
+        boundaryOffsets = new int[levelCount][];
+        boundaryNodes = new int[levelCount][];
+        boundaryIndices = new int[levelCount][];
+        for (int level = 0; level < levelCount; level++) {
+            buildBoundary(level);
+        }
+    }
+
+    /**
+     * Returns the shared {@link MultiLevelPartition} of the given {@link CompiledRegion} and computes it if necessary.
+     *
+     * @param region    The {@link CompiledRegion} to return the {@link MultiLevelPartition} of.
+     * @param cellSizes The desired amount of nodes per cell on every level in ascending order.
+     * @param seed      The seed of the {@link RegionPartitioner}.
+     * @return The {@link MultiLevelPartition} of the given {@link CompiledRegion}.
+     * @throws IllegalArgumentException If the cell sizes are not positive and ascending.
+     */
+    public static MultiLevelPartition of(CompiledRegion region, int[] cellSizes, long seed) {
+        for (int i = 0; i < cellSizes.length; i++) {
+            if (cellSizes[i] < 1 || i > 0 && cellSizes[i] <= cellSizes[i - 1]) {
+                throw new IllegalArgumentException("Illegal cell sizes: %s".formatted(Arrays.toString(cellSizes)));
+            }
+        }
+        Key key = new Key(Arrays.stream(cellSizes).boxed().toList(), seed);
+        return region.getOrCompute(key, compiled -> new MultiLevelPartition(compiled, cellSizes, seed));
+    }
+
+    /**
+     * Moves every cell of the lower level into the cell of the given {@link Partition} that contains most of its
+     * nodes and numbers the resulting cells in the order of the lower cells.
+     */
+    private static int nest(int[] lower, int lowerCount, Partition partition, int[] levelCells) {
+        int[] firstNodes = new int[lowerCount + 1];
+        for (int cell : lower) {
+            firstNodes[cell + 1]++;
+        }
+        for (int cell = 0; cell < lowerCount; cell++) {
+            firstNodes[cell + 1] += firstNodes[cell];
+        }
+        int[] nodes = new int[lower.length];
+        int[] positions = Arrays.copyOf(firstNodes, lowerCount);
+        for (int node = 0; node < lower.length; node++) {
+            nodes[positions[lower[node]]++] = node;
+        }
+
+        int[] parents = new int[lowerCount];
+        int[] counts = new int[partition.getCellCount()];
+        int[] touched = new int[partition.getCellCount()];
+        int[] ids = new int[partition.getCellCount()];
+        Arrays.fill(ids, -1);
+        int cellCount = 0;
+        for (int cell = 0; cell < lowerCount; cell++) {
+            int touchedCount = 0;
+            for (int i = firstNodes[cell]; i < firstNodes[cell + 1]; i++) {
+                int parent = partition.getCell(nodes[i]);
+                if (counts[parent]++ == 0) {
+                    touched[touchedCount++] = parent;
+                }
+            }
+            int best = -1;
+            for (int i = 0; i < touchedCount; i++) {
+                int parent = touched[i];
+                if (best < 0 || counts[parent] > counts[best] || counts[parent] == counts[best] && parent < best) {
+                    best = parent;
+                }
+                counts[parent] = 0;
+            }
+            if (ids[best] < 0) {
+                ids[best] = cellCount++;
+            }
+            parents[cell] = ids[best];
+        }
+        for (int node = 0; node < lower.length; node++) {
+            levelCells[node] = parents[lower[node]];
+        }
+        return cellCount;
+    }
+
+    private void buildBoundary(int level) {
+        int n = region.size();
+        int[] levelCells = cells[level];
+        int cellCount = cellCounts[level];
+        int[] offsets = new int[cellCount + 1];
+        int[] indices = new int[n];
+        Arrays.fill(indices, -1);
+        for (int u = 0; u < n; u++) {
+            for (int arc = region.arcStart(u); arc < region.arcEnd(u); arc++) {
+                if (levelCells[region.arcTarget(arc)] != levelCells[u]) {
+                    indices[u] = offsets[levelCells[u] + 1]++;
+                    break;
+                }
+            }
+        }
+        for (int cell = 0; cell < cellCount; cell++) {
+            offsets[cell + 1] += offsets[cell];
+        }
+        int[] nodes = new int[offsets[cellCount]];
+        for (int u = 0; u < n; u++) {
+            if (indices[u] >= 0) {
+                nodes[offsets[levelCells[u]] + indices[u]] = u;
+            }
+        }
+        boundaryOffsets[level] = offsets;
+        boundaryNodes[level] = nodes;
+        boundaryIndices[level] = indices;
+    }
+
+    /**
+     * Returns the partitioned {@link CompiledRegion}.
+     * @return The partitioned {@link CompiledRegion}.
+     */
+    public CompiledRegion getRegion() {
+        return region;
+    }
+
+    /**
+     * Returns the amount of levels above the region.
+     * @return The amount of levels.
+     */
+    public int getLevelCount() {
+        return cells.length;
+    }
+
+    /**
+     * Returns the amount of cells on the given level.
+     * @param level The level in {@code [1, getLevelCount()]}.
+     * @return The amount of cells on the level.
+     */
+    public int getCellCount(int level) {
+        return cellCounts[level - 1];
+    }
+
+    /**
+     * Returns the cell of the given node on the given level.
+     * @param level The level in {@code [1, getLevelCount()]}.
+     * @param node  The id of the node.
+     * @return The cell of the node on the level.
+     */
+    public int getCell(int level, int node) {
+        return cells[level - 1][node];
+    }
+
+    /**
+     * Returns the amount of boundary nodes of all cells on the given level.
+     * @param level The level in {@code [1, getLevelCount()]}.
+     * @return The amount of boundary nodes on the level.
+     */
+    public int getBoundaryNodeCount(int level) {
+        return boundaryNodes[level - 1].length;
+    }
+
+    /**
+     * Returns the ids of the boundary nodes of the given cell.
+     * @param level The level in {@code [1, getLevelCount()]}.
+     * @param cell  The cell on the level.
+     * @return A new array containing the ids of the boundary nodes of the cell.
+     */
+    public int[] getBoundaryNodes(int level, int cell) {
+        return Arrays.copyOfRange(boundaryNodes[level - 1], boundaryOffsets[level - 1][cell],
+            boundaryOffsets[level - 1][cell + 1]);
+    }
+
+    /**
+     * Returns the highest level on which the given node lies neither in the cell of {@code source} nor in the cell of
+     * {@code target}, or {@code 0} if there is none. A search between both nodes only needs the cells of that level
+     * around the node.
+     *
+     * @param node   The id of the node.
+     * @param source The id of the source of the search.
+     * @param target The id of the target of the search.
+     * @return The query level of the node.
+     */
+    public int getQueryLevel(int node, int source, int target) {
+        int level = 0;
+        // the cells are nested, so once the node shares a cell with source or target, it does so on all higher levels
+        while (level < cells.length && cells[level][node] != cells[level][source]
+            && cells[level][node] != cells[level][target]) {
+            level++;
+        }
+        return level;
+    }
+}
@@ -0,0 +1,92 @@
+package projekt.delivery.routing;
+
+import java.util.stream.IntStream;
+
+/**
+ * The shortest paths between all pairs of nodes of a {@link CompiledRegion}.<p>
+ *
+ * For every pair of nodes the table stores the duration of the shortest path and the next node on it, so a path is
+ * reconstructed by following next hops and the duration of a path is looked up in {@code O(1)}. The table is
+ * computed with one Dijkstra search per node, which run in parallel on the common fork-join pool. It needs
+ * {@code 12 * n * n} bytes, so it is only suitable for small regions.<p>
+ *
+ * Use {@link #of(CompiledRegion)} to obtain the shared {@link NextHopTable} of a {@link CompiledRegion}.
+ */
+public final class NextHopTable {
+
+    private final CompiledRegion region;
+    private final int size;
+
+    /**
+     * The next node on the path from {@code source} to {@code target} at {@code target * size + source} or
+     * {@code -1} if there is no path or {@code source == target}.
+     */
+    private final int[] nextHops;
+
+    /**
+     * The duration of the shortest path from {@code source} to {@code target} at {@code target * size + source} or
+     * {@link Long#MAX_VALUE} if there is no path.
+     */
+    private final long[] distances;
+
+    private NextHopTable(CompiledRegion region) {
+        this.region = region;
+        size = region.size();
+        nextHops = new int[size * size];
+        distances = new long[size * size];
+        IntStream.range(0, size).parallel().forEach(target -> {
+            // the regions are undirected, so the search tree of the target points towards the target
+            DijkstraWorkspace workspace = DijkstraEngine.search(region, target, -1, QueueStrategy.forRegion(region));
+            int offset = target * size;
+            for (int source = 0; source < size; source++) {
+                nextHops[offset + source] = workspace.getParent(source);
+                distances[offset + source] = workspace.getDistance(source);
+            }
+        });
+    }
+
+    /**
+     * Returns the shared {@link NextHopTable} of the given {@link CompiledRegion} and computes it if necessary.
+     *
+     * @param region The {@link CompiledRegion} to return the {@link NextHopTable} of.
+     * @return The {@link NextHopTable} of the given {@link CompiledRegion}.
+     * @throws IllegalArgumentException If the table of the given region would have more than
+     *                                  {@link Integer#MAX_VALUE} entries.
+     */
+    public static NextHopTable of(CompiledRegion region) {
+        if ((long) region.size() * region.size() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Region with %d nodes is too large".formatted(region.size()));
+        }
+        return region.getOrCompute(NextHopTable.class, NextHopTable::new);
+    }
+
+    /**
+     * Returns the {@link CompiledRegion} of this {@link NextHopTable}.
+     * @return The {@link CompiledRegion} of this {@link NextHopTable}.
+     */
+    public CompiledRegion getRegion() {
+        return region;
+    }
+
+    /**
+     * Returns the next node on the shortest path from {@code source} to {@code target}.
+     *
+     * @param source The id of the current node.
+     * @param target The id of the target node.
+     * @return The id of the next node or {@code -1} if there is no path or {@code source == target}.
+     */
+    public int getNextHop(int source, int target) {
+        return nextHops[target * size + source];
+    }
+
+    /**
+     * Returns the duration of the shortest path from {@code source} to {@code target}.
+     *
+     * @param source The id of the source node.
+     * @param target The id of the target node.
+     * @return The duration of the shortest path or {@link Long#MAX_VALUE} if there is no path.
+     */
+    public long getDistance(int source, int target) {
+        return distances[target * size + source];
+    }
+}
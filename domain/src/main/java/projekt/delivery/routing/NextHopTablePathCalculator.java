@@ -0,0 +1,137 @@
+package projekt.delivery.routing;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A {@link PathCalculator} that precomputes the shortest paths between all pairs of nodes in a {@link NextHopTable}.<p>
+ *
+ * A path is reconstructed by following the next hops in the table, so no search is needed after the table has been
+ * computed. The table needs {@code 12 * n * n} bytes, so it is only computed for regions with at most
+ * {@link #getMaxNodes()} nodes. Larger regions are routed with a fallback {@link PathCalculator}.
+ */
+public class NextHopTablePathCalculator implements PathCalculator {
+
+    /**
+     * The default maximum amount of nodes of a region for which a {@link NextHopTable} is computed. The table of a
+     * region of this size needs 48 MiB.
+     */
+    public static final int DEFAULT_MAX_NODES = 2048;
+
+    private final int maxNodes;
+    private final PathCalculator fallback;
+
+    /**
+     * Creates a new {@link NextHopTablePathCalculator} that computes tables for regions with at most
+     * {@link #DEFAULT_MAX_NODES} nodes and uses a {@link DijkstraPathCalculator} for larger regions.
+     */
+    public NextHopTablePathCalculator() {
+        this(DEFAULT_MAX_NODES);
+    }
+
+    /**
+     * Creates a new {@link NextHopTablePathCalculator} that uses a {@link DijkstraPathCalculator} for larger regions.
+     *
+     * @param maxNodes The maximum amount of nodes of a region for which a {@link NextHopTable} is computed.
+     */
+    public NextHopTablePathCalculator(int maxNodes) {
+        this(maxNodes, new DijkstraPathCalculator());
+    }
+
+    /**
+     * Creates a new {@link NextHopTablePathCalculator}.
+     *
+     * @param maxNodes The maximum amount of nodes of a region for which a {@link NextHopTable} is computed.
+     * @param fallback The {@link PathCalculator} used for larger regions.
+     */
+    public NextHopTablePathCalculator(int maxNodes, PathCalculator fallback) {
+        if (maxNodes < 0 || (long) maxNodes * maxNodes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid maximum amount of nodes: %d".formatted(maxNodes));
+        }
+        this.maxNodes = maxNodes;
+        this.fallback = fallback;
+    }
+
+    /**
+     * Returns the maximum amount of nodes of a region for which a {@link NextHopTable} is computed.
+     * @return The maximum amount of nodes of a region for which a {@link NextHopTable} is computed.
+     */
+    public int getMaxNodes() {
+        return maxNodes;
+    }
+
+    /**
+     * Returns the {@link PathCalculator} used for regions with more than {@link #getMaxNodes()} nodes.
+     * @return The {@link PathCalculator} used for larger regions.
+     */
+    public PathCalculator getFallback() {
+        return fallback;
+    }
+
+    /**
+     * {@inheritDoc}<p>
+     *
+     * This is a lookup in the {@link NextHopTable} if the region is small enough.
+     *
+     * @throws IllegalArgumentException If there is no path from start to end.
+     */
+    @Override
+    public long getDistance(Region.Node start, Region.Node end) {
+        CompiledRegion compiled = CompiledRegion.of(end.getRegion());
+        if (compiled.size() > maxNodes) {
+            return fallback.getDistance(start, end);
+        }
+        long distance = NextHopTable.of(compiled).getDistance(compiled.indexOf(start), compiled.indexOf(end));
+        if (distance == Long.MAX_VALUE) {
+            throw new IllegalArgumentException("No path from %s to %s".formatted(start, end));
+        }
+        return distance;
+    }
+
+    @Override
+    public Deque<Region.Node> getPath(Region.Node start, Region.Node end) {
+        CompiledRegion compiled = CompiledRegion.of(end.getRegion());
+        if (compiled.size() > maxNodes) {
+            return fallback.getPath(start, end);
+        }
+        NextHopTable table = NextHopTable.of(compiled);
+        int startId = compiled.indexOf(start);
+        int endId = compiled.indexOf(end);
+        if (table.getDistance(startId, endId) == Long.MAX_VALUE) {
+            throw new IllegalArgumentException("No path from %s to %s".formatted(start, end));
+        }
+        return walk(compiled, table, startId, endId);
+    }
+
+    @Override
+    public Map<Region.Node, Deque<Region.Node>> getAllPathsTo(Region.Node end) {
+        CompiledRegion compiled = CompiledRegion.of(end.getRegion());
+        if (compiled.size() > maxNodes) {
+            return fallback.getAllPathsTo(end);
+        }
+        NextHopTable table = NextHopTable.of(compiled);
+        int endId = compiled.indexOf(end);
+        Map<Region.Node, Deque<Region.Node>> paths = new HashMap<>();
+        for (int id = 0; id < compiled.size(); id++) {
+            // nodes that cannot reach end have no path
+            if (table.getDistance(id, endId) != Long.MAX_VALUE) {
+                paths.put(compiled.getNode(id), walk(compiled, table, id, endId));
+            }
+        }
+        return paths;
+    }
+
+    /**
+     * Follows the next hops from {@code start} (excluded) to {@code end} (included).
+     */
+    private static Deque<Region.Node> walk(CompiledRegion compiled, NextHopTable table, int start, int end) {
+        Deque<Region.Node> path = new ArrayDeque<>();
+        for (int current = start; current != end; ) {
+            current = table.getNextHop(current, end);
+            path.addLast(compiled.getNode(current));
+        }
+        return path;
+    }
+}
@@ -3,7 +3,9 @@ package projekt.delivery.routing;
 import org.jetbrains.annotations.Nullable;
 import projekt.base.Location;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 
@@ -14,6 +16,12 @@ class NodeImpl implements Region.Node {
     protected final String name;
     protected final Location location;
 
+    /**
+     * The adjacent nodes and edges resolved by {@link #freeze()} or {@code null} if they are looked up on every call.
+     */
+    private @Nullable Set<Region.Node> adjacentNodes;
+    private @Nullable Set<Region.Edge> adjacentEdges;
+
     /**
      * Creates a new {@link NodeImpl} instance.
      *
@@ -61,8 +69,33 @@ class NodeImpl implements Region.Node {
         return region.getEdge(location, other.getLocation());
     }
 
+    /**
+     * Resolves the adjacent nodes and edges of this {@link NodeImpl} once, so {@link #getAdjacentNodes()} and
+     * {@link #getAdjacentEdges()} return them without looking them up. Must only be called once the {@link Region}
+     * of this {@link NodeImpl} does not change anymore.
+     */
+    void freeze() {
+        List<Region.Node> nodes = new ArrayList<>(connections.size());
+        List<Region.Edge> edges = new ArrayList<>(connections.size());
+        for (Location connection : connections) {
+            Region.Node node = region.getNode(connection);
+            if (node != null) {
+                nodes.add(node);
+            }
+            Region.Edge edge = region.getEdge(location, connection);
+            if (edge != null) {
+                edges.add(edge);
+            }
+        }
+        adjacentNodes = new ArraySet<>(nodes.toArray(Region.Node[]::new));
+        adjacentEdges = new ArraySet<>(edges.toArray(Region.Edge[]::new));
+    }
+
     @Override
     public Set<Region.Node> getAdjacentNodes() {
+        if (adjacentNodes != null) {
+            return adjacentNodes;
+        }
         Set<Region.Node> result = new HashSet<>();
         for (Location connection : connections) {
             Region.Node node = region.getNode(connection);
@@ -75,6 +108,9 @@ class NodeImpl implements Region.Node {
 
     @Override
     public Set<Region.Edge> getAdjacentEdges() {
+        if (adjacentEdges != null) {
+            return adjacentEdges;
+        }
         Set<Region.Edge> result = new HashSet<>();
         for (Location connection : connections) {
             Region.Edge edge = region.getEdge(location, connection);
@@ -0,0 +1,70 @@
+package projekt.delivery.routing;
+
+/**
+ * An addressable priority queue of node ids as used by the shortest path searches on a {@link CompiledRegion}.<p>
+ *
+ * Every node id is contained at most once. Inserting a node that is already contained decreases its key instead.
+ * Implementations may require the keys to be monotone, i.e. no key that is smaller than the key of the last polled
+ * node is ever inserted. This is always the case for Dijkstra's algorithm and for A* with a consistent heuristic.<p>
+ *
+ * Implementations do not allocate after {@link #reset(int, long)} has been called, so a queue can be reused for any
+ * amount of searches.
+ *
+ * @see QueueStrategy
+ */
+public interface NodeQueue {
+
+    /**
+     * Empties this {@link NodeQueue} and prepares it for node ids in {@code [0, capacity)}.
+     *
+     * @param capacity       The amount of node ids this {@link NodeQueue} must be able to hold.
+     * @param maxKeyIncrease An upper bound for the difference between an inserted key and the key of the last polled
+     *                       node. Only needed by bucket based implementations.
+     */
+    void reset(int capacity, long maxKeyIncrease);
+
+    /**
+     * Removes all nodes from this {@link NodeQueue}. The cost is proportional to the amount of contained nodes, not
+     * to the capacity.
+     */
+    void clear();
+
+    /**
+     * Inserts the given node with the given key or decreases its key if it is already contained.
+     *
+     * @param node The id of the node.
+     * @param key  The new key of the node. Must not be greater than the current key if the node is contained.
+     */
+    void update(int node, long key);
+
+    /**
+     * Returns true, if the given node is contained in this {@link NodeQueue}.
+     *
+     * @param node The id of the node.
+     * @return True, if the given node is contained in this {@link NodeQueue}.
+     */
+    boolean contains(int node);
+
+    /**
+     * Returns true, if this {@link NodeQueue} contains no nodes.
+     *
+     * @return True, if this {@link NodeQueue} contains no nodes.
+     */
+    boolean isEmpty();
+
+    /**
+     * Returns the smallest key of all contained nodes without removing the node.
+     *
+     * @return The smallest key of all contained nodes.
+     * @throws IllegalStateException If this {@link NodeQueue} is empty.
+     */
+    long peekKey();
+
+    /**
+     * Removes the node with the smallest key and returns its id.
+     *
+     * @return The id of the removed node.
+     * @throws IllegalStateException If this {@link NodeQueue} is empty.
+     */
+    int poll();
+}
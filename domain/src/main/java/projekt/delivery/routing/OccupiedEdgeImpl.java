@@ -2,9 +2,6 @@ package projekt.delivery.routing;
 
 import projekt.delivery.event.ArrivedAtEdgeEvent;
 
-import java.util.List;
-import java.util.Map;
-
 class OccupiedEdgeImpl extends AbstractOccupied<Region.Edge> {
 
     /**
@@ -16,14 +13,23 @@ class OccupiedEdgeImpl extends AbstractOccupied<Region.Edge> {
         super(edge, vehicleManager);
     }
 
+    /**
+     * Does nothing. Edges are not ticked, the {@link VehicleManagerImpl} schedules the arrival of every vehicle that
+     * enters an edge at the tick returned by {@link #getArrivalTick(VehicleStats)} and moves it in that tick.
+     * @param currentTick The tick to execute.
+     */
     @Override
     public void tick(long currentTick) {
-        // it is important to create a copy here. The move method in vehicle will probably modify this map
-        for (Map.Entry<VehicleImpl, VehicleStats> entry : List.copyOf(vehicles.entrySet())) {
-            if (currentTick >= entry.getValue().arrived + component.getDuration()) {
-                entry.getKey().move(currentTick);
-            }
-        }
+    }
+
+    /**
+     * Returns the tick a vehicle with the given {@link VehicleStats} arrives at the end of this edge, using the
+     * duration of the edge at the tick the vehicle entered it.
+     * @param stats The {@link VehicleStats} of the vehicle on this edge.
+     * @return The tick the vehicle arrives at the end of this edge.
+     */
+    long getArrivalTick(VehicleStats stats) {
+        return stats.arrived + component.getDuration(stats.arrived);
     }
 
     @Override
@@ -39,8 +45,20 @@ class OccupiedEdgeImpl extends AbstractOccupied<Region.Edge> {
         if (previousNode.vehicles.remove(vehicle) == null) {
             throw new AssertionError("Vehicle " + vehicle.getId() + " was not found in previous node");
         }
-        vehicles.put(vehicle, new VehicleStats(currentTick, previous));
+        final VehicleStats stats = new VehicleStats(currentTick, previous);
         vehicle.setOccupied(this);
+        if (vehicleManager instanceof VehicleManagerImpl vehicleManagerImpl) {
+            // the edge may be shared with other shards of a parallel tick
+            Runnable enter = () -> {
+                vehicles.put(vehicle, stats);
+                vehicleManagerImpl.scheduleArrival(this, vehicle);
+            };
+            if (!vehicleManagerImpl.defer(enter)) {
+                enter.run();
+            }
+        } else {
+            vehicles.put(vehicle, stats);
+        }
         vehicleManager.getEventBus().queuePost(ArrivedAtEdgeEvent.of(
                 currentTick,
                 vehicle,
@@ -2,8 +2,9 @@ package projekt.delivery.routing;
 
 import projekt.delivery.event.ArrivedAtNodeEvent;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 
 class OccupiedNodeImpl<C extends Region.Node> extends AbstractOccupied<C> {
 
@@ -18,10 +19,26 @@ class OccupiedNodeImpl<C extends Region.Node> extends AbstractOccupied<C> {
 
     @Override
     public void tick(long currentTick) {
-        // it is important to create a copy here. The move method in vehicle will probably modify this map
-        // TODO: Only move things that can be moved
-        for (Map.Entry<VehicleImpl, VehicleStats> entry : List.copyOf(vehicles.entrySet())) {
-            entry.getKey().move(currentTick);
+        // vehicles without queued paths would not move, so only the others are copied.
+        // It is important to create a copy here. The move method in vehicle will probably modify this map
+        List<VehicleImpl> moving = null;
+        for (VehicleImpl vehicle : vehicles.keySet()) {
+            if (vehicle.hasQueuedPaths()) {
+                if (moving == null) {
+                    moving = new ArrayList<>();
+                }
+                moving.add(vehicle);
+            }
+        }
+        if (moving == null) {
+            return;
+        }
+        Collections.sort(moving);
+        for (VehicleImpl vehicle : moving) {
+            vehicle.move(currentTick);
+            if (vehicle.getOccupied() == this && vehicle.hasQueuedPaths()) {
+                activate();
+            }
         }
     }
 
@@ -35,11 +52,19 @@ class OccupiedNodeImpl<C extends Region.Node> extends AbstractOccupied<C> {
             throw new AssertionError("Vehicle " + vehicle.getId() + " cannot move directly from node to node");
         }
         final OccupiedEdgeImpl previousEdge = (OccupiedEdgeImpl) previous;
-        if (previousEdge.vehicles.remove(vehicle) == null) {
+        if (previousEdge.vehicles.get(vehicle) == null) {
             throw new AssertionError("Vehicle " + vehicle.getId() + " was not found in previous edge");
         }
+        // the edge may be shared with other shards of a parallel tick
+        if (!(vehicleManager instanceof VehicleManagerImpl vehicleManagerImpl)
+            || !vehicleManagerImpl.defer(() -> previousEdge.vehicles.remove(vehicle))) {
+            previousEdge.vehicles.remove(vehicle);
+        }
         vehicles.put(vehicle, new VehicleStats(currentTick, previous));
         vehicle.setOccupied(this);
+        if (vehicle.hasQueuedPaths()) {
+            activate();
+        }
         emitArrivedEvent(vehicle, previousEdge, currentTick);
     }
 
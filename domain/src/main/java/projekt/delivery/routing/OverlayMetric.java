@@ -0,0 +1,522 @@
+package projekt.delivery.routing;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.ToLongFunction;
+
+/**
+ * The durations of a multi-level overlay: the durations of all arcs of a {@link CompiledRegion} together with the
+ * durations of the shortest paths between the boundary nodes of every cell of a {@link MultiLevelPartition}.<p>
+ *
+ * The durations between the boundary nodes of a cell only use the nodes inside the cell and form the clique of the
+ * cell. Computing them ("customization") searches every cell from each of its boundary nodes. On the lowest level a
+ * search uses the arcs of the region inside the cell, on every higher level it uses the cliques of the cells one level
+ * below and the arcs between them, so each level only depends on the level below. The cells of a level are independent
+ * of each other and are customized on the {@link Executor} passed by the caller, or on the calling thread if none is
+ * given. An entry is left out of the clique if its shortest path passes another boundary node of the cell, since the
+ * searches also find it over the entries of that node. This keeps most cliques sparse.<p>
+ *
+ * The customization runs a complete search of the cell from every boundary node, so its cost grows with the amount of
+ * boundary nodes times the size of the cell. With the default cell sizes of {@link OverlayPathCalculator}, a region
+ * with {@code 10^5} nodes takes between about 0.5 seconds (random geometric) and 3 seconds (grid, radial) on a single
+ * thread. On grid and radial regions, whose cells have many boundary nodes, the queries are not faster than a plain
+ * Dijkstra search either, only sparser road-like regions answer them about twice as fast.<p>
+ *
+ * A query between two nodes searches from both ends at the same time. Around each end it uses the arcs of the region
+ * inside the lowest cell of that end, further away it uses the cliques of the highest level whose cell contains
+ * neither end, see {@link MultiLevelPartition#getQueryLevel(int, int, int)}. The cliques of the found path are unpacked
+ * by searching their cells again, level by level.<p>
+ *
+ * An {@link OverlayMetric} does not change once it has been created, new durations require a new customization. Use
+ * {@link #of(MultiLevelPartition)} to obtain the shared {@link OverlayMetric} of the durations of the region.
+ *
+ * @see OverlayPathCalculator
+ */
+public final class OverlayMetric {
+
+    /**
+     * The {@link DijkstraWorkspace} slot used by the searches inside a single cell. Queries use the slots {@code 0} and
+     * {@code 1}, which must not be overwritten while the cliques of their path are unpacked, and the slot {@code 2} is
+     * used by the witness searches of a {@link ContractionHierarchy}.
+     */
+    private static final int CELL_SLOT = 3;
+
+    /**
+     * The key of the shared {@link OverlayMetric} of the durations of the region in
+     * {@link CompiledRegion#getOrCompute(Object, java.util.function.Function)}.
+     */
+    private record Key(MultiLevelPartition partition) {
+    }
+
+    private final MultiLevelPartition partition;
+    private final CompiledRegion region;
+    private final long[] durations;
+    /**
+     * The cliques of all cells on level {@code l} at index {@code l - 1}. The entries of the {@code i}-th boundary node
+     * of the level, see {@link MultiLevelPartition#boundaryNodes}, are stored in
+     * {@code [cliqueOffsets[l - 1][i], cliqueOffsets[l - 1][i + 1])} of {@code cliqueTargets[l - 1]} and
+     * {@code cliqueDurations[l - 1]}.
+     */
+    private final int[][] cliqueOffsets;
+    private final int[][] cliqueTargets;
+    private final long[][] cliqueDurations;
+
+    private OverlayMetric(MultiLevelPartition partition, long[] durations, Executor executor) {
+        this.partition = partition;
+        this.region = partition.getRegion();
+        this.durations = durations;
+        int levelCount = partition.getLevelCount();
+        cliqueOffsets = new int[levelCount][];
+        cliqueTargets = new int[levelCount][];
+        cliqueDurations = new long[levelCount][];
+        // every level is customized from the cliques of the level below
+        for (int level = 1; level <= levelCount; level++) {
+            Clique[] cliques = customizeLevel(level, executor);
+            int[] offsets = new int[partition.getBoundaryNodeCount(level) + 1];
+            int entries = 0;
+            for (Clique clique : cliques) {
+                entries += clique.targets.size;
+            }
+            int[] targets = new int[entries];
+            long[] cliqueDuration = new long[entries];
+            int row = 0;
+            int entry = 0;
+            for (Clique clique : cliques) {
+                for (int i = 0; i < clique.rowEnds.length; i++) {
+                    offsets[++row] = entry + clique.rowEnds[i];
+                }
+                System.arraycopy(clique.targets.values, 0, targets, entry, clique.targets.size);
+                System.arraycopy(clique.durations, 0, cliqueDuration, entry, clique.targets.size);
+                entry += clique.targets.size;
+            }
+            cliqueOffsets[level - 1] = offsets;
+            cliqueTargets[level - 1] = targets;
+            cliqueDurations[level - 1] = cliqueDuration;
+        }
+    }
+
+    /**
+     * Returns the shared {@link OverlayMetric} of the given {@link MultiLevelPartition} with the durations of the edges
+     * of the region and customizes it on the calling thread if necessary.
+     *
+     * @param partition The {@link MultiLevelPartition} to return the {@link OverlayMetric} of.
+     * @return The {@link OverlayMetric} of the durations of the region.
+     */
+    public static OverlayMetric of(MultiLevelPartition partition) {
+        return of(partition, Runnable::run);
+    }
+
+    /**
+     * Returns the shared {@link OverlayMetric} of the given {@link MultiLevelPartition} with the durations of the edges
+     * of the region and customizes it if necessary.
+     *
+     * @param partition The {@link MultiLevelPartition} to return the {@link OverlayMetric} of.
+     * @param executor  The {@link Executor} customizing the cells. The calling thread waits for them, so it must not
+     *                  be the only thread of the {@link Executor}.
+     * @return The {@link OverlayMetric} of the durations of the region.
+     */
+    public static OverlayMetric of(MultiLevelPartition partition, Executor executor) {
+        CompiledRegion region = partition.getRegion();
+        return region.getOrCompute(new Key(partition),
+            compiled -> new OverlayMetric(partition, compiled.durations, executor));
+    }
+
+    /**
+     * Customizes the given {@link MultiLevelPartition} with new durations of the edges on the calling thread.
+     *
+     * @param partition The {@link MultiLevelPartition} to customize.
+     * @param durations The function returning the duration of every {@link Region.Edge} of the region.
+     * @return The new {@link OverlayMetric}.
+     * @throws IllegalArgumentException If the duration of an edge is negative.
+     */
+    public static OverlayMetric customize(MultiLevelPartition partition,
+                                          ToLongFunction<? super Region.Edge> durations) {
+        return customize(partition, durations, Runnable::run);
+    }
+
+    /**
+     * Customizes the given {@link MultiLevelPartition} with new durations of the edges.
+     *
+     * @param partition The {@link MultiLevelPartition} to customize.
+     * @param durations The function returning the duration of every {@link Region.Edge} of the region.
+     * @param executor  The {@link Executor} customizing the cells. The calling thread waits for them, so it must not
+     *                  be the only thread of the {@link Executor}.
+     * @return The new {@link OverlayMetric}.
+     * @throws IllegalArgumentException If the duration of an edge is negative.
+     */
+    public static OverlayMetric customize(MultiLevelPartition partition,
+                                          ToLongFunction<? super Region.Edge> durations, Executor executor) {
+        CompiledRegion region = partition.getRegion();
+        long[] arcDurations = new long[region.arcCount()];
+        for (int arc = 0; arc < arcDurations.length; arc++) {
+            Region.Edge edge = region.arcEdge(arc);
+            long duration = durations.applyAsLong(edge);
+            if (duration < 0) {
+                throw new IllegalArgumentException("Negative duration %d of edge %s".formatted(duration, edge));
+            }
+            arcDurations[arc] = duration;
+        }
+        return new OverlayMetric(partition, arcDurations, executor);
+    }
+
+    /**
+     * Returns the customized {@link MultiLevelPartition}.
+     * @return The customized {@link MultiLevelPartition}.
+     */
+    public MultiLevelPartition getPartition() {
+        return partition;
+    }
+
+    /**
+     * Returns the {@link CompiledRegion} of this {@link OverlayMetric}.
+     * @return The {@link CompiledRegion} of this {@link OverlayMetric}.
+     */
+    public CompiledRegion getRegion() {
+        return region;
+    }
+
+    /**
+     * Returns the duration of the given arc.
+     * @param arc The index of the arc.
+     * @return The duration of the arc.
+     */
+    public long getDuration(int arc) {
+        return durations[arc];
+    }
+
+    /**
+     * Returns the amount of entries of the cliques of all cells on the given level.
+     * @param level The level in {@code [1, getPartition().getLevelCount()]}.
+     * @return The amount of clique entries on the level.
+     */
+    public int getCliqueSize(int level) {
+        return cliqueTargets[level - 1].length;
+    }
+
+    /**
+     * Calculates the duration of the shortest path between the given nodes.
+     *
+     * @param source The id of the first node.
+     * @param target The id of the second node.
+     * @return The duration of the shortest path or {@link Long#MAX_VALUE} if the nodes are not connected.
+     */
+    public long getDistance(int source, int target) {
+        if (source == target) {
+            return 0;
+        }
+        DijkstraWorkspace forward = DijkstraWorkspace.forCurrentThread(0, QueueStrategy.BINARY_HEAP);
+        DijkstraWorkspace backward = DijkstraWorkspace.forCurrentThread(1, QueueStrategy.BINARY_HEAP);
+        return query(source, target, forward, backward).distance;
+    }
+
+    /**
+     * Calculates the shortest path between the given nodes.
+     *
+     * @param source The id of the first node.
+     * @param target The id of the second node.
+     * @return The ids of the nodes of the shortest path including {@code source} and {@code target} or {@code null}
+     * if the nodes are not connected.
+     */
+    public int @Nullable [] getPath(int source, int target) {
+        if (source == target) {
+            return new int[] {source};
+        }
+        DijkstraWorkspace forward = DijkstraWorkspace.forCurrentThread(0, QueueStrategy.BINARY_HEAP);
+        DijkstraWorkspace backward = DijkstraWorkspace.forCurrentThread(1, QueueStrategy.BINARY_HEAP);
+        Meeting meeting = query(source, target, forward, backward);
+        if (meeting.node == -1) {
+            return null;
+        }
+
+        // the steps of the forward search from the meeting node back to source, in reverse order
+        IntList steps = new IntList();
+        for (int node = meeting.node; node != source; node = forward.getParent(node)) {
+            steps.add(node);
+            steps.add(forward.getParentArc(node));
+        }
+        IntList path = new IntList();
+        path.add(source);
+        for (int i = steps.size - 2; i >= 0; i -= 2) {
+            appendStep(path.values[path.size - 1], steps.values[i], steps.values[i + 1], path);
+        }
+        // the arcs of the backward search are walked in the opposite direction, which has the same duration
+        for (int node = meeting.node; node != target; node = backward.getParent(node)) {
+            appendStep(node, backward.getParent(node), backward.getParentArc(node), path);
+        }
+        return Arrays.copyOf(path.values, path.size);
+    }
+
+    /**
+     * Runs a search from the given node over all arcs of the region, e.g. to calculate the paths from all nodes to it.
+     *
+     * @param root The id of the node to start at.
+     * @return The {@link DijkstraWorkspace} of the current thread containing the result of the search.
+     */
+    DijkstraWorkspace searchAll(int root) {
+        DijkstraWorkspace workspace = DijkstraWorkspace.forCurrentThread(0, QueueStrategy.BINARY_HEAP);
+        workspace.begin(region, 0);
+        workspace.update(root, 0, -1, -1);
+        workspace.getQueue().update(root, 0);
+        while (!workspace.getQueue().isEmpty()) {
+            int u = workspace.getQueue().poll();
+            workspace.settle(u);
+            relax(0, u, workspace.getDistance(u), workspace, null, -1, null, null);
+        }
+        return workspace;
+    }
+
+    /**
+     * Runs the bidirectional search between the given nodes and returns the node where both searches meet on a
+     * shortest path.
+     */
+    private Meeting query(int source, int target, DijkstraWorkspace forward, DijkstraWorkspace backward) {
+        forward.begin(region, 0);
+        backward.begin(region, 0);
+        NodeQueue forwardQueue = forward.getQueue();
+        NodeQueue backwardQueue = backward.getQueue();
+        forward.update(source, 0, -1, -1);
+        forwardQueue.update(source, 0);
+        backward.update(target, 0, -1, -1);
+        backwardQueue.update(target, 0);
+
+        Meeting meeting = new Meeting();
+        // every path found later is at least as long as the sum of the smallest keys of both directions
+        while (!forwardQueue.isEmpty() && !backwardQueue.isEmpty()
+            && forwardQueue.peekKey() + backwardQueue.peekKey() < meeting.distance) {
+            boolean isForward = forwardQueue.peekKey() <= backwardQueue.peekKey();
+            DijkstraWorkspace workspace = isForward ? forward : backward;
+            DijkstraWorkspace other = isForward ? backward : forward;
+            int u = workspace.getQueue().poll();
+            workspace.settle(u);
+            relax(partition.getQueryLevel(u, source, target), u, workspace.getDistance(u), workspace, null, -1,
+                other, meeting);
+        }
+        return meeting;
+    }
+
+    /**
+     * Computes the cliques of all cells of the given level on the given {@link Executor} and waits for them.
+     */
+    private Clique[] customizeLevel(int level, Executor executor) {
+        @SuppressWarnings("unchecked")
+        CompletableFuture<Clique>[] futures = new CompletableFuture[partition.getCellCount(level)];
+        for (int cell = 0; cell < futures.length; cell++) {
+            int currentCell = cell;
+            futures[cell] = CompletableFuture.supplyAsync(() -> customizeCell(level, currentCell), executor);
+        }
+        Clique[] cliques = new Clique[futures.length];
+        try {
+            for (int cell = 0; cell < futures.length; cell++) {
+                cliques[cell] = futures[cell].join();
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return cliques;
+    }
+
+    /**
+     * Computes the clique of the given cell.
+     */
+    private Clique customizeCell(int level, int cell) {
+        DijkstraWorkspace workspace = DijkstraWorkspace.forCurrentThread(CELL_SLOT, QueueStrategy.BINARY_HEAP);
+        int[] nodes = partition.boundaryNodes[level - 1];
+        int[] indices = partition.boundaryIndices[level - 1];
+        int first = partition.boundaryOffsets[level - 1][cell];
+        int size = partition.boundaryOffsets[level - 1][cell + 1] - first;
+        Clique clique = new Clique(size);
+        LongList durations = new LongList();
+        for (int i = 0; i < size; i++) {
+            int source = nodes[first + i];
+            searchCell(level, cell, source, -1, workspace);
+            for (int j = 0; j < size; j++) {
+                int target = nodes[first + j];
+                long distance = workspace.getDistance(target);
+                if (j != i && distance != Long.MAX_VALUE
+                    && !passesBoundary(source, target, distance, indices, workspace)) {
+                    clique.targets.add(target);
+                    durations.add(distance);
+                }
+            }
+            clique.rowEnds[i] = clique.targets.size;
+        }
+        clique.durations = durations.values;
+        return clique;
+    }
+
+    /**
+     * Checks if the shortest path to {@code target} found by the search from {@code source} passes another boundary
+     * node that is strictly closer to both ends. The entry of {@code target} can then be left out of the clique, since
+     * its path is also found over the entries of that boundary node.
+     */
+    private static boolean passesBoundary(int source, int target, long distance, int[] indices,
+                                          DijkstraWorkspace workspace) {
+        for (int node = workspace.getParent(target); node != source; node = workspace.getParent(node)) {
+            long nodeDistance = workspace.getDistance(node);
+            if (nodeDistance == 0) {
+                return false;
+            }
+            if (indices[node] >= 0 && nodeDistance < distance) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Searches from {@code source} inside the given cell with the cliques of the level below, until {@code target}
+     * is settled or the cell has been searched completely if {@code target} is {@code -1}.
+     */
+    private void searchCell(int level, int cell, int source, int target, DijkstraWorkspace workspace) {
+        workspace.begin(region, 0);
+        NodeQueue queue = workspace.getQueue();
+        workspace.update(source, 0, -1, -1);
+        queue.update(source, 0);
+        int[] cells = partition.cells[level - 1];
+        while (!queue.isEmpty()) {
+            int u = queue.poll();
+            workspace.settle(u);
+            if (u == target) {
+                return;
+            }
+            relax(level - 1, u, workspace.getDistance(u), workspace, cells, cell, null, null);
+        }
+    }
+
+    /**
+     * Relaxes the arcs of {@code u} on the given level: the arcs of the region on level {@code 0}, the clique of the
+     * cell of {@code u} and the arcs leaving that cell on every higher level. Clique arcs are stored as parent arc
+     * {@code -2 - level}. If {@code outerCells} is not {@code null}, only nodes inside {@code outerCell} are reached.
+     * If {@code other} is not {@code null}, nodes reached by the other direction of a query update the meeting.
+     */
+    private void relax(int level, int u, long distance, DijkstraWorkspace workspace, int @Nullable [] outerCells,
+                       int outerCell, @Nullable DijkstraWorkspace other, @Nullable Meeting meeting) {
+        int cell = -1;
+        int[] cells = null;
+        if (level > 0) {
+            cells = partition.cells[level - 1];
+            cell = cells[u];
+            int index = partition.boundaryIndices[level - 1][u];
+            if (index < 0) {
+                throw new IllegalStateException("Node %d is not a boundary node of level %d".formatted(u, level));
+            }
+            int row = partition.boundaryOffsets[level - 1][cell] + index;
+            int[] targets = cliqueTargets[level - 1];
+            long[] cliqueDuration = cliqueDurations[level - 1];
+            for (int entry = cliqueOffsets[level - 1][row], end = cliqueOffsets[level - 1][row + 1]; entry < end;
+                 entry++) {
+                reach(targets[entry], distance + cliqueDuration[entry], u, -2 - level, workspace, other, meeting);
+            }
+        }
+        for (int arc = region.arcStart(u), end = region.arcEnd(u); arc < end; arc++) {
+            int v = region.arcTarget(arc);
+            // arcs inside the cell of u are part of its clique
+            if ((cells == null || cells[v] != cell) && (outerCells == null || outerCells[v] == outerCell)) {
+                reach(v, distance + durations[arc], u, arc, workspace, other, meeting);
+            }
+        }
+    }
+
+    private static void reach(int v, long distance, int parent, int parentArc, DijkstraWorkspace workspace,
+                              @Nullable DijkstraWorkspace other, @Nullable Meeting meeting) {
+        if (workspace.isSettled(v) || !workspace.update(v, distance, parent, parentArc)) {
+            return;
+        }
+        workspace.getQueue().update(v, distance);
+        if (other != null && other.isReached(v) && distance + other.getDistance(v) < meeting.distance) {
+            meeting.distance = distance + other.getDistance(v);
+            meeting.node = v;
+        }
+    }
+
+    /**
+     * Appends the nodes of the step from {@code from} (excluded) to {@code to} (included) with all cliques replaced by
+     * the paths they represent.
+     */
+    private void appendStep(int from, int to, int parentArc, IntList path) {
+        if (parentArc >= -1) {
+            path.add(to);
+            return;
+        }
+        int level = -2 - parentArc;
+        int cell = partition.cells[level - 1][to];
+        DijkstraWorkspace workspace = DijkstraWorkspace.forCurrentThread(CELL_SLOT, QueueStrategy.BINARY_HEAP);
+        searchCell(level, cell, from, to, workspace);
+        // the steps are copied first, so the workspace can be reused for unpacking the cliques of the level below
+        IntList steps = new IntList();
+        for (int node = to; node != from; node = workspace.getParent(node)) {
+            steps.add(node);
+            steps.add(workspace.getParentArc(node));
+        }
+        int previous = from;
+        for (int i = steps.size - 2; i >= 0; i -= 2) {
+            appendStep(previous, steps.values[i], steps.values[i + 1], path);
+            previous = steps.values[i];
+        }
+    }
+
+    /**
+     * The best meeting node of a query found so far.
+     */
+    private static final class Meeting {
+
+        private long distance = Long.MAX_VALUE;
+        private int node = -1;
+    }
+
+    /**
+     * The clique of a single cell, the entries of its {@code i}-th boundary node end at {@code rowEnds[i]}.
+     */
+    private static final class Clique {
+
+        private final int[] rowEnds;
+        private final IntList targets = new IntList();
+        private long[] durations;
+
+        private Clique(int size) {
+            rowEnds = new int[size];
+        }
+    }
+
+    /**
+     * A growable list of longs.
+     */
+    private static final class LongList {
+
+        private long[] values = new long[8];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+
+    /**
+     * A growable list of ints.
+     */
+    private static final class IntList {
+
+        private int[] values = new int[8];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package projekt.delivery.routing;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.ToLongFunction;
+
+/**
+ * A {@link PathCalculator} that answers queries with a multi-level overlay of the region (customizable route
+ * planning).<p>
+ *
+ * The region is partitioned into nested cells once, see {@link MultiLevelPartition}. This only depends on the topology
+ * of the region and is shared by all calculators with the same settings. The durations are then added by a fast
+ * customization, see {@link OverlayMetric}. By default the durations of the edges are used; other durations, e.g. for
+ * rush hours or closed roads, can be set with {@link #customize(Region, ToLongFunction)} without partitioning the
+ * region again. A query only searches the cells around its ends and the overlay of the higher levels in between.<p>
+ *
+ * The custom durations are only used for the region they have been set for, every region keeps its own durations
+ * until they are reset with {@link #resetDurations(Region)}. The cells are customized on the {@link Executor} passed to
+ * the constructor or on the calling thread by default. Wrapping this calculator in a {@link CachedPathCalculator} keeps returning the cached
+ * paths of the old durations after a customization.
+ */
+public class OverlayPathCalculator implements PathCalculator {
+
+    /**
+     * The key of the custom durations of a calculator in
+     * {@link CompiledRegion#getOrCompute(Object, java.util.function.Function)}.
+     */
+    private record CustomKey(OverlayPathCalculator calculator) {
+    }
+
+    private final int[] cellSizes;
+    private final long seed;
+    private final Executor executor;
+
+    /**
+     * Creates a new {@link OverlayPathCalculator} with two levels of cells with about {@code 2^8} and {@code 2^12}
+     * nodes, which customizes the cells on the calling thread.
+     */
+    public OverlayPathCalculator() {
+        this(new int[] {1 << 8, 1 << 12}, 0);
+    }
+
+    /**
+     * Creates a new {@link OverlayPathCalculator} which customizes the cells on the calling thread.
+     *
+     * @param cellSizes The desired amount of nodes per cell on every level in ascending order.
+     * @param seed      The seed of the partition of the region.
+     * @throws IllegalArgumentException If the cell sizes are not positive and ascending.
+     */
+    public OverlayPathCalculator(int[] cellSizes, long seed) {
+        this(cellSizes, seed, Runnable::run);
+    }
+
+    /**
+     * Creates a new {@link OverlayPathCalculator}.
+     *
+     * @param cellSizes The desired amount of nodes per cell on every level in ascending order.
+     * @param seed      The seed of the partition of the region.
+     * @param executor  The {@link Executor} customizing the cells. The thread starting a customization waits for
+     *                  them, so it must not be the only thread of the {@link Executor}.
+     * @throws IllegalArgumentException If the cell sizes are not positive and ascending.
+     */
+    public OverlayPathCalculator(int[] cellSizes, long seed, Executor executor) {
+        for (int i = 0; i < cellSizes.length; i++) {
+            if (cellSizes[i] < 1 || i > 0 && cellSizes[i] <= cellSizes[i - 1]) {
+                throw new IllegalArgumentException("Illegal cell sizes: %s".formatted(Arrays.toString(cellSizes)));
+            }
+        }
+        this.cellSizes = cellSizes.clone();
+        this.seed = seed;
+        this.executor = executor;
+    }
+
+    /**
+     * Partitions and customizes the given {@link Region} if that has not been done yet, so the first query does not
+     * have to wait for it.
+     *
+     * @param region The {@link Region} to prepare.
+     */
+    public void prepare(Region region) {
+        getMetric(CompiledRegion.of(region));
+    }
+
+    /**
+     * Replaces the durations of the edges of the given {@link Region} for all following queries on it. Only the cliques
+     * of the cells are computed again, the partition of the region is reused.
+     *
+     * @param region    The {@link Region} to set the durations of.
+     * @param durations The function returning the duration of every {@link Region.Edge} of the region.
+     * @return The new {@link OverlayMetric}.
+     * @throws IllegalArgumentException If the duration of an edge is negative.
+     */
+    public OverlayMetric customize(Region region, ToLongFunction<? super Region.Edge> durations) {
+        CompiledRegion compiled = CompiledRegion.of(region);
+        OverlayMetric metric = OverlayMetric.customize(getPartition(compiled), durations, executor);
+        getCustomMetric(compiled).set(metric);
+        return metric;
+    }
+
+    /**
+     * Removes the durations set by {@link #customize(Region, ToLongFunction)} for the given {@link Region}, so the
+     * durations of its edges are used again.
+     *
+     * @param region The {@link Region} to reset the durations of.
+     */
+    public void resetDurations(Region region) {
+        getCustomMetric(CompiledRegion.of(region)).set(null);
+    }
+
+    /**
+     * Returns the {@link OverlayMetric} used for queries on the given {@link Region}.
+     *
+     * @param region The {@link Region} to return the {@link OverlayMetric} of.
+     * @return The {@link OverlayMetric} of the {@link Region}.
+     */
+    public OverlayMetric getMetric(Region region) {
+        return getMetric(CompiledRegion.of(region));
+    }
+
+    private MultiLevelPartition getPartition(CompiledRegion region) {
+        return MultiLevelPartition.of(region, cellSizes, seed);
+    }
+
+    private AtomicReference<OverlayMetric> getCustomMetric(CompiledRegion region) {
+        return region.getOrCompute(new CustomKey(this), compiled -> new AtomicReference<>());
+    }
+
+    private OverlayMetric getMetric(CompiledRegion region) {
+        OverlayMetric metric = getCustomMetric(region).get();
+        if (metric != null) {
+            return metric;
+        }
+        return OverlayMetric.of(getPartition(region), executor);
+    }
+
+    @Override
+    public Deque<Region.Node> getPath(Region.Node start, Region.Node end) {
+        CompiledRegion compiled = CompiledRegion.of(end.getRegion());
+        int[] path = getMetric(compiled).getPath(compiled.indexOf(start), compiled.indexOf(end));
+        if (path == null) {
+            throw new IllegalArgumentException("No path from %s to %s".formatted(start, end));
+        }
+        Deque<Region.Node> nodes = new ArrayDeque<>(path.length);
+        // the start node is not part of the path
+        for (int i = 1; i < path.length; i++) {
+            nodes.addLast(compiled.getNode(path[i]));
+        }
+        return nodes;
+    }
+
+    /**
+     * {@inheritDoc}<p>
+     *
+     * The duration is calculated with the cliques of the cells without unpacking the path.
+     *
+     * @throws IllegalArgumentException If there is no path from start to end.
+     */
+    @Override
+    public long getDistance(Region.Node start, Region.Node end) {
+        CompiledRegion compiled = CompiledRegion.of(end.getRegion());
+        long distance = getMetric(compiled).getDistance(compiled.indexOf(start), compiled.indexOf(end));
+        if (distance == Long.MAX_VALUE) {
+            throw new IllegalArgumentException("No path from %s to %s".formatted(start, end));
+        }
+        return distance;
+    }
+
+    /**
+     * {@inheritDoc}<p>
+     *
+     * The paths to all nodes are calculated with a single search over the whole region, which is faster than a query
+     * per node.
+     */
+    @Override
+    public Map<Region.Node, Deque<Region.Node>> getAllPathsTo(Region.Node end) {
+        CompiledRegion compiled = CompiledRegion.of(end.getRegion());
+        DijkstraWorkspace workspace = getMetric(compiled).searchAll(compiled.indexOf(end));
+        Map<Region.Node, Deque<Region.Node>> paths = new HashMap<>();
+        for (int id = 0; id < compiled.size(); id++) {
+            Deque<Region.Node> path = workspace.pathToRoot(id);
+            // Nodes that cannot reach end have no path
+            if (path != null) {
+                paths.put(compiled.getNode(id), path);
+            }
+        }
+        return paths;
+    }
+}
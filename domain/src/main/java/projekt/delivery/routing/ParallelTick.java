@@ -0,0 +1,236 @@
+package projekt.delivery.routing;
+
+import org.jetbrains.annotations.Nullable;
+import projekt.delivery.event.Event;
+import projekt.delivery.event.EventBus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntConsumer;
+
+/**
+ * Runs the phases of a tick of a {@link VehicleManagerImpl} concurrently on shards of the region.<p>
+ *
+ * The nodes are split into {@link #getShardCount()} contiguous ranges of their indices. A shard moves the vehicles
+ * leaving or arriving at its nodes. Everything a shard changes outside of its nodes and vehicles is not applied
+ * directly but recorded in the shard with {@link Shard#defer(Runnable)}, and its events are collected by a private
+ * {@link EventBus}. After all shards have finished, the recorded changes and events are applied on the calling thread
+ * in the order of a sequential tick, so the result does not depend on the amount of shards or the scheduling of the
+ * threads.
+ */
+final class ParallelTick {
+
+    private final ForkJoinPool pool;
+    private final Shard[] shards;
+    private final ThreadLocal<Shard> currentShard = new ThreadLocal<>();
+
+    /**
+     * Creates a new {@link ParallelTick} instance.
+     * @param pool The {@link ForkJoinPool} running the shards.
+     * @param shardCount The amount of shards.
+     */
+    ParallelTick(ForkJoinPool pool, int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("The amount of shards must be positive: %d".formatted(shardCount));
+        }
+        this.pool = pool;
+        shards = new Shard[shardCount];
+        Arrays.setAll(shards, i -> new Shard());
+    }
+
+    /**
+     * Returns the {@link ForkJoinPool} running the shards.
+     * @return The {@link ForkJoinPool} running the shards.
+     */
+    ForkJoinPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Returns the amount of shards.
+     * @return The amount of shards.
+     */
+    int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Returns the shard with the given index.
+     * @param shard The index of the shard.
+     * @return The shard with the given index.
+     */
+    Shard getShard(int shard) {
+        return shards[shard];
+    }
+
+    /**
+     * Returns the shard that is run by the current thread.
+     * @return The shard that is run by the current thread or {@code null} if the current thread does not run a shard.
+     */
+    @Nullable Shard getCurrentShard() {
+        return currentShard.get();
+    }
+
+    /**
+     * Returns the shard of the node with the given index.
+     * @param node The index of the node.
+     * @param nodeCount The amount of nodes.
+     * @return The shard of the node.
+     */
+    int shardOf(int node, int nodeCount) {
+        return (int) ((long) node * shards.length / nodeCount);
+    }
+
+    /**
+     * Returns the index of the first node of the given shard, which is the end of the previous shard.
+     * @param shard The index of the shard, may be {@link #getShardCount()}.
+     * @param nodeCount The amount of nodes.
+     * @return The index of the first node of the shard.
+     */
+    int firstNode(int shard, int nodeCount) {
+        return (int) (((long) shard * nodeCount + shards.length - 1) / shards.length);
+    }
+
+    /**
+     * Runs the given task for every shard on the {@link ForkJoinPool} and waits until all of them have finished. If
+     * tasks fail, the failure of the shard with the lowest index is thrown.
+     * @param task The task to run, it receives the index of the shard.
+     */
+    void runShards(IntConsumer task) {
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            int index = i;
+            Shard shard = shards[i];
+            shard.clear();
+            tasks.add(ForkJoinTask.adapt(() -> {
+                currentShard.set(shard);
+                try {
+                    task.accept(index);
+                } catch (Throwable t) {
+                    shard.failure = t;
+                } finally {
+                    currentShard.remove();
+                }
+            }));
+        }
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+        for (Shard shard : shards) {
+            if (shard.failure instanceof RuntimeException exception) {
+                throw exception;
+            } else if (shard.failure instanceof Error error) {
+                throw error;
+            } else if (shard.failure != null) {
+                throw new IllegalStateException(shard.failure);
+            }
+        }
+    }
+
+    /**
+     * The state of a shard during a phase of a tick.
+     */
+    static final class Shard {
+
+        private final List<Runnable> deferred = new ArrayList<>();
+        private final ShardEventBus eventBus = new ShardEventBus();
+        private int[] arrivals = new int[16];
+        private int arrivalCount;
+        private @Nullable Throwable failure;
+
+        /**
+         * Records a change that is applied after all shards have finished.
+         * @param change The change to apply.
+         */
+        void defer(Runnable change) {
+            deferred.add(change);
+        }
+
+        /**
+         * Applies all recorded changes in the order they have been recorded.
+         */
+        void applyDeferred() {
+            for (Runnable change : deferred) {
+                change.run();
+            }
+            deferred.clear();
+        }
+
+        /**
+         * Returns the {@link EventBus} collecting the events of this shard.
+         * @return The {@link EventBus} collecting the events of this shard.
+         */
+        EventBus getEventBus() {
+            return eventBus;
+        }
+
+        /**
+         * Returns the events collected by this shard in the order they have been posted.
+         * @return The events collected by this shard.
+         */
+        List<Event> getEvents() {
+            return eventBus.events;
+        }
+
+        /**
+         * Assigns the arrival with the given rank to this shard.
+         * @param rank The rank of the arrival.
+         */
+        void addArrival(int rank) {
+            if (arrivalCount == arrivals.length) {
+                arrivals = Arrays.copyOf(arrivals, arrivalCount * 2);
+            }
+            arrivals[arrivalCount++] = rank;
+        }
+
+        /**
+         * Returns the amount of arrivals assigned to this shard.
+         * @return The amount of arrivals assigned to this shard.
+         */
+        int getArrivalCount() {
+            return arrivalCount;
+        }
+
+        /**
+         * Returns the rank of the arrival with the given index in this shard.
+         * @param index The index of the arrival in this shard.
+         * @return The rank of the arrival.
+         */
+        int getArrival(int index) {
+            return arrivals[index];
+        }
+
+        /**
+         * Removes the arrivals of this shard.
+         */
+        void clearArrivals() {
+            arrivalCount = 0;
+        }
+
+        private void clear() {
+            deferred.clear();
+            eventBus.events.clear();
+            failure = null;
+        }
+    }
+
+    /**
+     * An {@link EventBus} that only collects the posted events of a shard.
+     */
+    private static final class ShardEventBus extends EventBus {
+
+        private final List<Event> events = new ArrayList<>();
+
+        @Override
+        public void queuePost(Event event) {
+            events.add(event);
+        }
+
+        @Override
+        public void queuePost(Collection<Event> events) {
+            this.events.addAll(events);
+        }
+    }
+}
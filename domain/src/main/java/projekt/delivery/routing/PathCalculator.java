@@ -1,7 +1,9 @@
 package projekt.delivery.routing;
 
 import java.util.Deque;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * Calculates paths inside a graph.
@@ -25,4 +27,62 @@ public interface PathCalculator {
      * (excluding start and including end) that represent the path from start to end
      */
     Map<Region.Node, Deque<Region.Node>> getAllPathsTo(Region.Node end);
+
+    /**
+     * Calculates the duration of the shortest path from {@code start} to {@code end}.<p>
+     *
+     * The default implementation sums the durations of the edges of {@link #getPath(Region.Node, Region.Node)}.
+     * Calculators that know the duration without creating the path should override it.
+     *
+     * @param start The start {@link Region.Node}
+     * @param end   The end {@link Region.Node}
+     * @return The duration of the shortest path from start to end.
+     */
+    default long getDistance(Region.Node start, Region.Node end) {
+        long distance = 0;
+        Region.Node previous = start;
+        for (Region.Node node : getPath(start, end)) {
+            distance += Objects.requireNonNull(previous.getEdge(node)).getDuration();
+            previous = node;
+        }
+        return distance;
+    }
+
+    /**
+     * Calculates the shortest paths of all given queries. The queries are answered in parallel on the common
+     * {@link java.util.concurrent.ForkJoinPool}, so {@link #getPath(Region.Node, Region.Node)} has to be thread-safe.
+     *
+     * @param queries The queries to answer.
+     * @return The paths of the queries in the same order as the queries, see
+     * {@link #getPath(Region.Node, Region.Node)}.
+     */
+    default List<Deque<Region.Node>> getPaths(List<Query> queries) {
+        return queries.parallelStream().map(query -> getPath(query.start(), query.end())).toList();
+    }
+
+    /**
+     * Calculates the durations of the shortest paths of all given queries. The queries are answered in parallel on
+     * the common {@link java.util.concurrent.ForkJoinPool}, so {@link #getDistance(Region.Node, Region.Node)} has to
+     * be thread-safe.
+     *
+     * @param queries The queries to answer.
+     * @return The durations of the shortest paths in the same order as the queries.
+     */
+    default long[] getDistances(List<Query> queries) {
+        return queries.parallelStream().mapToLong(query -> getDistance(query.start(), query.end())).toArray();
+    }
+
+    /**
+     * A query for the shortest path from {@code start} to {@code end}.
+     *
+     * @param start The start {@link Region.Node}
+     * @param end   The end {@link Region.Node}
+     */
+    record Query(Region.Node start, Region.Node end) {
+
+        public Query {
+            Objects.requireNonNull(start, "start");
+            Objects.requireNonNull(end, "end");
+        }
+    }
 }
@@ -0,0 +1,55 @@
+package projekt.delivery.routing;
+
+import java.util.function.Supplier;
+
+/**
+ * The available {@link NodeQueue} implementations for the shortest path searches on a {@link CompiledRegion}.
+ */
+public enum QueueStrategy {
+
+    /**
+     * An indexed binary heap with {@code O(log n)} insertions, key decreases and polls. Works for any keys.
+     */
+    BINARY_HEAP(IndexedBinaryHeap::new),
+
+    /**
+     * Dial's bucket queue with {@code O(1)} insertions and key decreases. Only suitable for small edge durations,
+     * because it allocates one bucket for every possible key in the window of the maximum key increase.
+     */
+    DIAL(DialBucketQueue::new),
+
+    /**
+     * A radix heap with amortized {@code O(log C)} polls, where {@code C} is the largest edge duration.
+     */
+    RADIX_HEAP(RadixHeap::new);
+
+    /**
+     * The largest edge duration for which {@link #forRegion(CompiledRegion)} chooses {@link #DIAL}.
+     */
+    public static final long DIAL_MAX_DURATION = 1 << 12;
+
+    private final Supplier<NodeQueue> factory;
+
+    QueueStrategy(Supplier<NodeQueue> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Creates a new, empty {@link NodeQueue} of this strategy.
+     *
+     * @return The created {@link NodeQueue}.
+     */
+    public NodeQueue create() {
+        return factory.get();
+    }
+
+    /**
+     * Returns the {@link QueueStrategy} that is expected to be the fastest for the given {@link CompiledRegion}.
+     *
+     * @param region The {@link CompiledRegion} that will be searched.
+     * @return {@link #DIAL} if all edge durations are small, {@link #BINARY_HEAP} otherwise.
+     */
+    public static QueueStrategy forRegion(CompiledRegion region) {
+        return region.getMaxDuration() <= DIAL_MAX_DURATION ? DIAL : BINARY_HEAP;
+    }
+}
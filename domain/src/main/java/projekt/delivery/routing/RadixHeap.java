@@ -0,0 +1,153 @@
+package projekt.delivery.routing;
+
+import java.util.Arrays;
+
+/**
+ * A monotone {@link NodeQueue} implemented as a radix heap. A node with key {@code k} is stored in the bucket of the
+ * highest bit in which {@code k} differs from the key of the last polled node, so every node is moved to a lower
+ * bucket at most 64 times. Unlike {@link DialBucketQueue} the cost does not depend on the size of the keys, which
+ * makes it suitable for regions with long edges. Keys must not be negative.
+ */
+final class RadixHeap implements NodeQueue {
+
+    private static final int NONE = -1;
+    private static final int BUCKET_COUNT = 65;
+
+    private final int[] heads = new int[BUCKET_COUNT];
+    private int[] next = new int[0];
+    private int[] previous = new int[0];
+    private long[] keys = new long[0];
+    /**
+     * The bucket of every node plus one, or {@code 0} if the node is not contained.
+     */
+    private int[] buckets = new int[0];
+    private long last;
+    private int size;
+
+    RadixHeap() {
+        Arrays.fill(heads, NONE);
+    }
+
+    @Override
+    public void reset(int capacity, long maxKeyIncrease) {
+        clear();
+        if (buckets.length < capacity) {
+            next = new int[capacity];
+            previous = new int[capacity];
+            keys = new long[capacity];
+            buckets = new int[capacity];
+        }
+    }
+
+    @Override
+    public void clear() {
+        last = 0;
+        if (size == 0) {
+            return;
+        }
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            for (int node = heads[bucket]; node != NONE; node = next[node]) {
+                buckets[node] = 0;
+            }
+            heads[bucket] = NONE;
+        }
+        size = 0;
+    }
+
+    @Override
+    public void update(int node, long key) {
+        if (buckets[node] != 0) {
+            if (keys[node] < key) {
+                throw new IllegalArgumentException("Cannot increase the key of node %d".formatted(node));
+            }
+            unlink(node);
+            size--;
+        }
+        if (key < last) {
+            throw new IllegalArgumentException("Key %d is smaller than the last polled key %d".formatted(key, last));
+        }
+        keys[node] = key;
+        link(node, bucketOf(key));
+        size++;
+    }
+
+    @Override
+    public boolean contains(int node) {
+        return buckets[node] != 0;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public long peekKey() {
+        return keys[heads[redistribute()]];
+    }
+
+    @Override
+    public int poll() {
+        int node = heads[redistribute()];
+        unlink(node);
+        size--;
+        return node;
+    }
+
+    /**
+     * Makes sure that the node with the smallest key is in bucket {@code 0} and returns {@code 0}.
+     */
+    private int redistribute() {
+        if (size == 0) {
+            throw new IllegalStateException("Queue is empty");
+        }
+        if (heads[0] != NONE) {
+            return 0;
+        }
+        int bucket = 1;
+        while (heads[bucket] == NONE) {
+            bucket++;
+        }
+        long min = Long.MAX_VALUE;
+        for (int node = heads[bucket]; node != NONE; node = next[node]) {
+            min = Math.min(min, keys[node]);
+        }
+        last = min;
+        int node = heads[bucket];
+        heads[bucket] = NONE;
+        while (node != NONE) {
+            int following = next[node];
+            link(node, bucketOf(keys[node]));
+            node = following;
+        }
+        return 0;
+    }
+
+    private int bucketOf(long key) {
+        return key == last ? 0 : 64 - Long.numberOfLeadingZeros(key ^ last);
+    }
+
+    private void link(int node, int bucket) {
+        int head = heads[bucket];
+        next[node] = head;
+        previous[node] = NONE;
+        if (head != NONE) {
+            previous[head] = node;
+        }
+        heads[bucket] = node;
+        buckets[node] = bucket + 1;
+    }
+
+    private void unlink(int node) {
+        int bucket = buckets[node] - 1;
+        if (previous[node] == NONE) {
+            heads[bucket] = next[node];
+        } else {
+            next[previous[node]] = next[node];
+        }
+        if (next[node] != NONE) {
+            previous[next[node]] = previous[node];
+        }
+        buckets[node] = 0;
+    }
+}
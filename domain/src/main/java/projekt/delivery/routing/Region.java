@@ -21,6 +21,17 @@ public interface Region {
         return new RegionBuilderImpl();
     }
 
+    /**
+     * Returns a new {@link Region.Builder} instance that is presized for the given amount of nodes and edges. Use it to
+     * bulk-load large regions.
+     * @param expectedNodes The expected amount of {@link Node}s.
+     * @param expectedEdges The expected amount of {@link Edge}s.
+     * @return A new {@link Region.Builder} instance.
+     */
+    static Builder builder(int expectedNodes, int expectedEdges) {
+        return new RegionBuilderImpl(expectedNodes, expectedEdges);
+    }
+
     /**
      * Returns the {@link Region.Node} at the given {@link Location}.
      * @param location The {@link Location} of the returned {@link Region.Node}.
@@ -125,6 +136,26 @@ public interface Region {
          */
         long getDuration();
 
+        /**
+         * Returns the {@link TravelTimeProfile} of this {@link Edge} or {@code null} if its duration does not change
+         * over time.
+         * @return The {@link TravelTimeProfile} of this {@link Edge} or {@code null}.
+         */
+        default @Nullable TravelTimeProfile getTravelTimeProfile() {
+            return null;
+        }
+
+        /**
+         * Returns the duration of this {@link Edge} if it is entered at the given tick. Without a
+         * {@link TravelTimeProfile} this is {@link #getDuration()}.
+         * @param tick The tick this {@link Edge} is entered at.
+         * @return The duration of this {@link Edge} at the given tick.
+         */
+        default long getDuration(long tick) {
+            TravelTimeProfile profile = getTravelTimeProfile();
+            return profile != null ? profile.getDuration(tick) : getDuration();
+        }
+
         /**
          * Returns the start {@link Region.Node} of this {@link EdgeImpl}.
          * @return The start {@link Region.Node} of this {@link EdgeImpl}.
@@ -255,6 +286,19 @@ public interface Region {
          */
         Builder addEdge(String name, Location locationA, Location locationB);
 
+        /**
+         * Adds a new {@link Edge} whose duration changes over time to the constructed {@link Region}. The duration
+         * calculated from the {@link Location}s is multiplied with the given factors, see
+         * {@link TravelTimeProfile#scaled(long, long[], double[])}.
+         * @param name The name of the new {@link Edge}.
+         * @param locationA The start {@link Location} of the new {@link Edge}.
+         * @param locationB The end {@link Location} of the new {@link Edge}.
+         * @param ticks The ticks of the breakpoints of the {@link TravelTimeProfile} in strictly ascending order.
+         * @param factors The factors of the duration at the ticks of the breakpoints.
+         * @return The current {@link Builder}.
+         */
+        Builder addEdge(String name, Location locationA, Location locationB, long[] ticks, double[] factors);
+
         /**
          * Checks if a {@link Edge} with the given values can be added to the constructed {@link Region}.<p>
          *
@@ -1,20 +1,62 @@
 package projekt.delivery.routing;
 
+import org.jetbrains.annotations.Nullable;
 import projekt.base.DistanceCalculator;
 import projekt.base.Location;
+import projekt.base.LocationMap;
 
-import java.util.*;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 class RegionBuilderImpl implements Region.Builder {
-    private final Map<Location, NodeBuilder> nodes = new HashMap<>();
-    private final Set<EdgeBuilder> edges = new TreeSet<>(
-        Comparator.comparing(EdgeBuilder::getLocationA).thenComparing(EdgeBuilder::getLocationB)
-    );
-    private final Set<String> allNames = new HashSet<>();
+
+    private static final Comparator<EdgeBuilder> EDGE_ORDER = (a, b) -> {
+        int result = a.locationA.compareTo(b.locationA);
+        return result != 0 ? result : a.locationB.compareTo(b.locationB);
+    };
+
+    private final LocationMap<NodeBuilder> nodes;
+    /**
+     * The edges by the packed locations of their nodes, see {@link EdgeKey}.
+     */
+    private final Map<EdgeKey, EdgeBuilder> edges;
+    /**
+     * The {@link NodeBuilder} or {@link EdgeBuilder} of every name.
+     */
+    private final Map<String, Object> components;
     private DistanceCalculator distanceCalc;
 
-    private void addName(String name) {
-        if (!allNames.add(name)) {
+    RegionBuilderImpl() {
+        this(16, 16);
+    }
+
+    /**
+     * Creates a new {@link RegionBuilderImpl} whose data structures are presized for the given amount of nodes and
+     * edges, so bulk-loading a large region does not rehash them again and again.
+     *
+     * @param expectedNodes The expected amount of nodes.
+     * @param expectedEdges The expected amount of edges.
+     */
+    RegionBuilderImpl(int expectedNodes, int expectedEdges) {
+        if (expectedNodes < 0 || expectedEdges < 0) {
+            throw new IllegalArgumentException("Illegal size: %d nodes, %d edges".formatted(expectedNodes, expectedEdges));
+        }
+        nodes = new LocationMap<>(expectedNodes);
+        edges = new HashMap<>(capacityFor(expectedEdges));
+        components = new HashMap<>(capacityFor(expectedNodes + expectedEdges));
+    }
+
+    private static int capacityFor(int expectedSize) {
+        return (int) Math.min(1 << 30, expectedSize * 4L / 3 + 1);
+    }
+
+    private void addName(String name, Object component) {
+        if (components.putIfAbsent(name, component) != null) {
             throw new IllegalArgumentException(String.format("Duplicate name '%s'", name));
         }
     }
@@ -27,12 +69,7 @@ class RegionBuilderImpl implements Region.Builder {
 
     @Override
     public Region.Builder addNode(String name, Location location) {
-        addName(name);
-        if (nodes.putIfAbsent(location, new NodeBuilder(name, location)) != null) {
-            allNames.remove(name);
-            throw new IllegalArgumentException("Duplicate node at location " + location);
-        }
-        return this;
+        return addNodeBuilder(new NodeBuilder(name, location));
     }
 
     @Override
@@ -41,7 +78,7 @@ class RegionBuilderImpl implements Region.Builder {
             return false;
         }
 
-        if (allNames.contains(name)) {
+        if (components.containsKey(name)) {
             return false;
         }
 
@@ -50,24 +87,12 @@ class RegionBuilderImpl implements Region.Builder {
 
     @Override
     public Region.Builder addNeighborhood(String name, Location location) {
-        addName(name);
-        if (nodes.putIfAbsent(location, new NeighborhoodBuilder(name, location)) != null) {
-            allNames.remove(name);
-            throw new IllegalArgumentException("Duplicate node at location " + location);
-        }
-        return this;
+        return addNodeBuilder(new NeighborhoodBuilder(name, location));
     }
 
     @Override
     public Region.Builder addRestaurant(String name, Location location, List<String> availableFood) {
-        addName(name);
-
-        if (nodes.putIfAbsent(location, new RestaurantBuilder(name, location, availableFood)) != null) {
-            allNames.remove(name);
-            throw new IllegalArgumentException("Duplicate node at location " + location);
-        }
-
-        return this;
+        return addNodeBuilder(new RestaurantBuilder(name, location, availableFood));
     }
 
     @Override
@@ -75,12 +100,32 @@ class RegionBuilderImpl implements Region.Builder {
         return addRestaurant(restaurantPreset.name(), location, restaurantPreset.availableFoods());
     }
 
+    private Region.Builder addNodeBuilder(NodeBuilder nodeBuilder) {
+        addName(nodeBuilder.name, nodeBuilder);
+        if (nodes.putIfAbsent(nodeBuilder.location, nodeBuilder) != null) {
+            components.remove(nodeBuilder.name);
+            throw new IllegalArgumentException("Duplicate node at location " + nodeBuilder.location);
+        }
+        return this;
+    }
+
     @Override
     public Region.Builder addEdge(String name, Location locationA, Location locationB) {
+        return addEdgeBuilder(name, locationA, locationB, null, null);
+    }
+
+    @Override
+    public Region.Builder addEdge(String name, Location locationA, Location locationB, long[] ticks, double[] factors) {
+        TravelTimeProfile.checkFactors(ticks, factors);
+        return addEdgeBuilder(name, locationA, locationB, ticks.clone(), factors.clone());
+    }
+
+    private Region.Builder addEdgeBuilder(String name, Location locationA, Location locationB, long @Nullable [] ticks,
+                                          double @Nullable [] factors) {
         if (locationA.compareTo(locationB) < 0) {
-            addSortedEdge(name, locationA, locationB);
+            addSortedEdge(name, locationA, locationB, ticks, factors);
         } else {
-            addSortedEdge(name, locationB, locationA);
+            addSortedEdge(name, locationB, locationA, ticks, factors);
         }
         return this;
     }
@@ -91,7 +136,7 @@ class RegionBuilderImpl implements Region.Builder {
             return false;
         }
 
-        if (allNames.contains(name)) {
+        if (components.containsKey(name)) {
             return false;
         }
 
@@ -99,70 +144,101 @@ class RegionBuilderImpl implements Region.Builder {
             return false;
         }
 
-        return edges.stream().noneMatch(edgeBuilder -> edgeBuilder.getLocationA().equals(locationA)
-            && edgeBuilder.getLocationB().equals(locationB));
+        return !edges.containsKey(EdgeKey.of(locationA, locationB));
     }
 
     @Override
     public Region.Builder removeComponent(String name) {
-        if (!allNames.contains(name)) {
+        Object component = components.remove(name);
+        if (component == null) {
             throw new IllegalArgumentException("No Component with this name exists");
         }
 
-        allNames.remove(name);
-
-        for (NodeBuilder nodeBuilder : nodes.values()) {
-            if (nodeBuilder.name.equals(name)) {
-                nodes.remove(nodes.keySet().stream().filter(key -> nodes.get(key).equals(nodeBuilder)).findFirst()
-                    .orElseThrow());
-                return this;
-            }
-        }
-
-        for (EdgeBuilder edgeBuilder : edges) {
-            if (edgeBuilder.name.equals(name)) {
-                edges.remove(edgeBuilder);
-                return this;
-            }
+        if (component instanceof NodeBuilder nodeBuilder) {
+            nodes.remove(nodeBuilder.location);
+        } else {
+            EdgeBuilder edgeBuilder = (EdgeBuilder) component;
+            edges.remove(EdgeKey.of(edgeBuilder.locationA, edgeBuilder.locationB));
         }
-
-        throw new AssertionError("No component with the given name found but the name is in the allNames list");
+        return this;
     }
 
     @Override
     public Region build() {
         Objects.requireNonNull(distanceCalc, "distanceCalculator");
-        RegionImpl region = new RegionImpl(distanceCalc);
-        nodes.forEach((l, n) -> {
-            n.connections = new HashSet<>(); //reset connection to not modify nodes created by previous calls to build()
-            region.putNode(n.build(region));
-        });
-        edges.forEach(e -> {
-
-            if (!nodes.containsKey(e.getLocationA()) || !nodes.containsKey(e.locationB)) {
+        EdgeBuilder[] sortedEdges = edges.values().toArray(EdgeBuilder[]::new);
+        Arrays.sort(sortedEdges, EDGE_ORDER);
+
+        // count the connections of every node first, so every node gets an exactly sized array of connections
+        LocationMap<int[]> degrees = new LocationMap<>(nodes.size());
+        nodes.forEach((location, nodeBuilder) -> degrees.put(location, new int[1]));
+        for (EdgeBuilder edgeBuilder : sortedEdges) {
+            int[] degreeA = degrees.get(edgeBuilder.locationA);
+            int[] degreeB = degrees.get(edgeBuilder.locationB);
+            if (degreeA == null || degreeB == null) {
                 throw new IllegalArgumentException("Can't create an edge if one of the connected nodes wasn't added to the region");
             }
-
-            nodes.get(e.locationA).connections.add(e.locationB);
-            nodes.get(e.locationB).connections.add(e.locationA);
-            region.putEdge(e.build(region, distanceCalc));
+            degreeA[0]++;
+            if (degreeA != degreeB) {
+                degreeB[0]++;
+            }
+        }
+        LocationMap<Location[]> connections = new LocationMap<>(nodes.size());
+        degrees.forEach((location, degree) -> {
+            connections.put(location, new Location[degree[0]]);
+            degree[0] = 0;
         });
+        for (EdgeBuilder edgeBuilder : sortedEdges) {
+            int[] degreeA = degrees.get(edgeBuilder.locationA);
+            int[] degreeB = degrees.get(edgeBuilder.locationB);
+            connections.get(edgeBuilder.locationA)[degreeA[0]++] = edgeBuilder.locationB;
+            if (degreeA != degreeB) {
+                connections.get(edgeBuilder.locationB)[degreeB[0]++] = edgeBuilder.locationA;
+            }
+        }
+
+        RegionImpl region = new RegionImpl(distanceCalc);
+        nodes.forEach((location, nodeBuilder) ->
+            region.putNode(nodeBuilder.build(region, new ArraySet<>(connections.get(location)))));
+        for (EdgeBuilder edgeBuilder : sortedEdges) {
+            region.putEdge(edgeBuilder.build(region, distanceCalc));
+        }
+        region.freeze();
         return region;
     }
 
-    private void addSortedEdge(String name, Location locationA, Location locationB) {
-        addName(name);
-        if (!edges.add(new EdgeBuilder(name, locationA, locationB))) {
-            allNames.remove(name);
+    private void addSortedEdge(String name, Location locationA, Location locationB, long @Nullable [] ticks,
+                               double @Nullable [] factors) {
+        EdgeBuilder edgeBuilder = new EdgeBuilder(name, locationA, locationB, ticks, factors);
+        addName(name, edgeBuilder);
+        if (edges.putIfAbsent(EdgeKey.of(locationA, locationB), edgeBuilder) != null) {
+            components.remove(name);
             throw new IllegalArgumentException("Duplicate edge connecting %s to %s".formatted(locationA, locationB));
         }
     }
 
+    /**
+     * The packed locations of the nodes of an edge in ascending order.
+     */
+    private record EdgeKey(long locationA, long locationB) {
+
+        private static EdgeKey of(Location locationA, Location locationB) {
+            return locationA.compareTo(locationB) <= 0
+                ? new EdgeKey(locationA.getKey(), locationB.getKey())
+                : new EdgeKey(locationB.getKey(), locationA.getKey());
+        }
+
+        @Override
+        public int hashCode() {
+            long hash = (locationA * 0x9E3779B97F4A7C15L + locationB) * 0xC2B2AE3D27D4EB4FL;
+            return (int) (hash ^ hash >>> 32);
+        }
+    }
+
     private static class NodeBuilder {
 
         protected final String name;
         protected final Location location;
-        protected Set<Location> connections = new HashSet<>();
 
         private NodeBuilder(String name, Location location) {
             this.name = name;
@@ -173,8 +249,8 @@ class RegionBuilderImpl implements Region.Builder {
             return location;
         }
 
-        NodeImpl build(Region region) {
-            return new NodeImpl(region, name, location, Collections.unmodifiableSet(connections));
+        NodeImpl build(Region region, Set<Location> connections) {
+            return new NodeImpl(region, name, location, connections);
         }
     }
 
@@ -185,8 +261,8 @@ class RegionBuilderImpl implements Region.Builder {
         }
 
         @Override
-        NeighborhoodImpl build(Region region) {
-            return new NeighborhoodImpl(region, name, location, Collections.unmodifiableSet(connections));
+        NeighborhoodImpl build(Region region, Set<Location> connections) {
+            return new NeighborhoodImpl(region, name, location, connections);
         }
     }
 
@@ -200,8 +276,8 @@ class RegionBuilderImpl implements Region.Builder {
         }
 
         @Override
-        RestaurantImpl build(Region region) {
-            return new RestaurantImpl(region, name, location, Collections.unmodifiableSet(connections), availableFood);
+        RestaurantImpl build(Region region, Set<Location> connections) {
+            return new RestaurantImpl(region, name, location, connections, availableFood);
         }
     }
 
@@ -209,17 +285,27 @@ class RegionBuilderImpl implements Region.Builder {
         private final String name;
         private final Location locationA;
         private final Location locationB;
-
-        EdgeBuilder(String name, Location locationA, Location locationB) {
+        /**
+         * The breakpoints of the {@link TravelTimeProfile} or {@code null} if the duration does not change over time.
+         */
+        private final long @Nullable [] ticks;
+        private final double @Nullable [] factors;
+
+        EdgeBuilder(String name, Location locationA, Location locationB, long @Nullable [] ticks,
+                    double @Nullable [] factors) {
             this.name = name;
             this.locationA = locationA;
             this.locationB = locationB;
+            this.ticks = ticks;
+            this.factors = factors;
         }
 
         EdgeImpl build(Region region, DistanceCalculator distanceCalculator) {
             double distance = distanceCalculator.calculateDistance(locationA, locationB);
             long duration = (long) Math.ceil(distance);
-            return new EdgeImpl(region, name, locationA, locationB, duration);
+            TravelTimeProfile profile = ticks != null && factors != null
+                ? TravelTimeProfile.scaled(duration, ticks, factors) : null;
+            return new EdgeImpl(region, name, locationA, locationB, duration, profile);
         }
 
         public Location getLocationA() {
@@ -3,7 +3,6 @@ package projekt.delivery.routing;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -13,13 +12,19 @@ import org.jetbrains.annotations.Nullable;
 import projekt.base.DistanceCalculator;
 import projekt.base.EuclideanDistanceCalculator;
 import projekt.base.Location;
+import projekt.base.LocationMap;
 
 class RegionImpl implements Region {
 
-    private final Map<Location, NodeImpl> nodes = new HashMap<>();
-    private final Map<Location, Map<Location, EdgeImpl>> edges = new HashMap<>();
+    private final Map<Location, NodeImpl> nodes = new LocationMap<>();
+    private final Map<Location, Map<Location, EdgeImpl>> edges = new LocationMap<>();
     private final List<EdgeImpl> allEdges = new ArrayList<>();
+    private final Collection<Node> nodeView = Collections.unmodifiableCollection(nodes.values());
+    private final Collection<Edge> edgeView = Collections.unmodifiableCollection(allEdges);
     private final DistanceCalculator distanceCalculator;
+    private boolean frozen;
+    private @Nullable SpatialIndex spatialIndex;
+    private volatile @Nullable CompiledRegion compiledRegion;
 
     /**
      * Creates a new, empty {@link RegionImpl} instance using a
@@ -44,24 +49,22 @@ class RegionImpl implements Region {
 
     @Override
     public @Nullable Edge getEdge(Location locationA, Location locationB) {
-        Edge result = null;
-        if (edges.containsKey(locationA) && edges.get(locationA).containsKey(locationB)) {
-            result = edges.get(locationA).get(locationB);
-        }
-        if (result == null && edges.containsKey(locationB)) {
-            result = edges.get(locationB).get(locationA);
+        Map<Location, EdgeImpl> adjacentEdges = edges.get(locationA);
+        Edge result = adjacentEdges != null ? adjacentEdges.get(locationB) : null;
+        if (result == null && (adjacentEdges = edges.get(locationB)) != null) {
+            result = adjacentEdges.get(locationA);
         }
         return result;
     }
 
     @Override
     public Collection<Node> getNodes() {
-        return Collections.unmodifiableCollection(nodes.values());
+        return nodeView;
     }
 
     @Override
     public Collection<Edge> getEdges() {
-        return Collections.unmodifiableCollection(allEdges);
+        return edgeView;
     }
 
     @Override
@@ -75,10 +78,12 @@ class RegionImpl implements Region {
      * @param node the {@link NodeImpl} to add.
      */
     void putNode(NodeImpl node) {
+        checkNotFrozen();
         if (node.getRegion() != this) {
             throw new IllegalArgumentException(String.format("Node %s has incorrect region", node.toString()));
         }
         nodes.put(node.getLocation(), node);
+        compiledRegion = null;
     }
 
     /**
@@ -87,6 +92,7 @@ class RegionImpl implements Region {
      * @param edge the {@link EdgeImpl} to add.
      */
     void putEdge(EdgeImpl edge) {
+        checkNotFrozen();
         if (edge.getNodeA() == null) {
             throw new IllegalArgumentException(
                     String.format("NodeA %s is not part of the region", edge.getLocationA()));
@@ -98,11 +104,70 @@ class RegionImpl implements Region {
         if (edge.getRegion() != this || edge.getNodeA().getRegion() != this || edge.getNodeB().getRegion() != this) {
             throw new IllegalArgumentException(String.format("Edge %s has incorrect region", edge.toString()));
         }
-        if (!edges.containsKey(edge.getLocationA())) {
-            edges.put(edge.getLocationA(), new HashMap<>());
-        }
-        edges.get(edge.getLocationA()).put(edge.getLocationB(), edge);
+        edges.computeIfAbsent(edge.getLocationA(), location -> new LocationMap<>()).put(edge.getLocationB(), edge);
         allEdges.add(edge);
+        compiledRegion = null;
+    }
+
+    /**
+     * Freezes this {@link RegionImpl} after all nodes and edges have been added. The nodes and edges resolve their
+     * adjacent nodes and edges once, so their accessors neither look them up nor allocate anymore, and the
+     * {@link SpatialIndex} of this {@link RegionImpl} is built.
+     *
+     * @throws IllegalStateException If a node or an edge is added afterwards.
+     */
+    void freeze() {
+        for (NodeImpl node : nodes.values()) {
+            node.freeze();
+        }
+        for (EdgeImpl edge : allEdges) {
+            edge.freeze();
+        }
+        frozen = true;
+        spatialIndex = SpatialIndex.build(this);
+    }
+
+    /**
+     * Returns the {@link SpatialIndex} built by {@link #freeze()}.
+     *
+     * @return The {@link SpatialIndex} or {@code null} if this {@link RegionImpl} is not frozen.
+     */
+    @Nullable SpatialIndex getSpatialIndex() {
+        return spatialIndex;
+    }
+
+    /**
+     * Returns true, if this {@link RegionImpl} has been frozen by {@link #freeze()}.
+     *
+     * @return True, if this {@link RegionImpl} is frozen.
+     */
+    boolean isFrozen() {
+        return frozen;
+    }
+
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new IllegalStateException("Region is frozen");
+        }
+    }
+
+    /**
+     * Returns the cached {@link CompiledRegion} of this {@link RegionImpl} and compiles it if necessary.
+     *
+     * @return The {@link CompiledRegion} of this {@link RegionImpl}.
+     */
+    CompiledRegion getCompiledRegion() {
+        CompiledRegion result = compiledRegion;
+        if (result == null || !result.matches(nodes.size(), allEdges.size())) {
+            synchronized (this) {
+                result = compiledRegion;
+                if (result == null || !result.matches(nodes.size(), allEdges.size())) {
+                    result = CompiledRegion.compile(this);
+                    compiledRegion = result;
+                }
+            }
+        }
+        return result;
     }
 
     @Override
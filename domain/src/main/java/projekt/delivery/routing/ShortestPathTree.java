@@ -0,0 +1,267 @@
+package projekt.delivery.routing;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The shortest paths from every node of a {@link CompiledRegion} to a common root node.<p>
+ *
+ * The tree only stores the parent and the distance of every node, i.e. {@code 12} bytes per node, instead of a full
+ * path per node. Paths are reconstructed on demand by following the parents to the root.
+ */
+public final class ShortestPathTree {
+
+    private final CompiledRegion region;
+    private final int root;
+    /**
+     * The next node on the path to the root, or {@code -1} for the root and unreachable nodes.
+     */
+    private final int[] parents;
+    /**
+     * The duration of the path to the root, or {@link Long#MAX_VALUE} for unreachable nodes.
+     */
+    private final long[] distances;
+    private final int reachableCount;
+
+    private ShortestPathTree(CompiledRegion region, int root, int[] parents, long[] distances) {
+        this.region = region;
+        this.root = root;
+        this.parents = parents;
+        this.distances = distances;
+        int count = 0;
+        for (long distance : distances) {
+            if (distance != Long.MAX_VALUE) {
+                count++;
+            }
+        }
+        this.reachableCount = count;
+    }
+
+    /**
+     * Creates the {@link ShortestPathTree} to the given root with Dijkstra's algorithm.
+     *
+     * @param region   The {@link CompiledRegion} to search.
+     * @param root     The id of the root node.
+     * @param strategy The {@link QueueStrategy} used for the search.
+     * @return The created {@link ShortestPathTree}.
+     */
+    public static ShortestPathTree compute(CompiledRegion region, int root, QueueStrategy strategy) {
+        DijkstraWorkspace workspace = DijkstraEngine.search(region, root, -1, strategy);
+        int[] parents = new int[region.size()];
+        long[] distances = new long[region.size()];
+        for (int node = 0; node < parents.length; node++) {
+            parents[node] = workspace.getParent(node);
+            distances[node] = workspace.getDistance(node);
+        }
+        return new ShortestPathTree(region, root, parents, distances);
+    }
+
+    /**
+     * Creates the {@link ShortestPathTree} of the given paths as returned by
+     * {@link PathCalculator#getAllPathsTo(Region.Node)}. The parent of a node is the first node of its path, so the
+     * paths have to form a tree, which is the case for all shortest path calculators that resolve ties consistently.
+     *
+     * @param region The {@link CompiledRegion} of the paths.
+     * @param root   The id of the common end node of the paths.
+     * @param paths  The paths to the root.
+     * @return The created {@link ShortestPathTree}.
+     */
+    public static ShortestPathTree fromPaths(CompiledRegion region, int root, Map<Region.Node, Deque<Region.Node>> paths) {
+        int n = region.size();
+        int[] parents = new int[n];
+        long[] distances = new long[n];
+        for (int node = 0; node < n; node++) {
+            parents[node] = -1;
+            distances[node] = Long.MAX_VALUE;
+        }
+        for (Map.Entry<Region.Node, Deque<Region.Node>> entry : paths.entrySet()) {
+            int node = region.indexOf(entry.getKey());
+            Region.Node next = entry.getValue().peekFirst();
+            parents[node] = next == null ? -1 : region.indexOf(next);
+        }
+        distances[root] = 0;
+        parents[root] = -1;
+
+        // the distance of a node is the distance of its parent plus the duration of the edge between them
+        int[] stack = new int[n];
+        for (int node = 0; node < n; node++) {
+            int size = 0;
+            int current = node;
+            while (distances[current] == Long.MAX_VALUE && parents[current] != -1) {
+                if (size == n) {
+                    throw new IllegalArgumentException("The paths contain a cycle");
+                }
+                stack[size++] = current;
+                current = parents[current];
+            }
+            if (distances[current] == Long.MAX_VALUE) {
+                continue;
+            }
+            while (size > 0) {
+                int child = stack[--size];
+                int parent = parents[child];
+                Region.Edge edge = Objects.requireNonNull(region.getNode(child).getEdge(region.getNode(parent)));
+                distances[child] = distances[parent] + edge.getDuration();
+            }
+        }
+        return new ShortestPathTree(region, root, parents, distances);
+    }
+
+    /**
+     * Returns the {@link CompiledRegion} of this {@link ShortestPathTree}.
+     * @return The {@link CompiledRegion} of this {@link ShortestPathTree}.
+     */
+    public CompiledRegion getRegion() {
+        return region;
+    }
+
+    /**
+     * Returns the id of the root node.
+     * @return The id of the root node.
+     */
+    public int getRoot() {
+        return root;
+    }
+
+    /**
+     * Returns true, if the given node has a path to the root.
+     * @param node The id of the node.
+     * @return True, if the given node has a path to the root.
+     */
+    public boolean isReachable(int node) {
+        return distances[node] != Long.MAX_VALUE;
+    }
+
+    /**
+     * Returns the next node on the path from the given node to the root.
+     * @param node The id of the node.
+     * @return The id of the next node or {@code -1} if the node is the root or not reachable.
+     */
+    public int getParent(int node) {
+        return parents[node];
+    }
+
+    /**
+     * Returns the duration of the path from the given node to the root.
+     * @param node The id of the node.
+     * @return The duration of the path or {@link Long#MAX_VALUE} if the node is not reachable.
+     */
+    public long getDistance(int node) {
+        return distances[node];
+    }
+
+    /**
+     * Returns the path from the given node to the root.
+     *
+     * @param node The id of the node.
+     * @return A new {@link Deque} of the nodes of the path (excluding the given node and including the root) or
+     * {@code null} if the node is not reachable.
+     */
+    public @Nullable Deque<Region.Node> getPath(int node) {
+        if (!isReachable(node)) {
+            return null;
+        }
+        Deque<Region.Node> path = new ArrayDeque<>();
+        for (int current = parents[node]; current != -1; current = parents[current]) {
+            path.addLast(region.getNode(current));
+        }
+        return path;
+    }
+
+    /**
+     * Returns the estimated amount of bytes this {@link ShortestPathTree} occupies.
+     * @return The estimated size of this {@link ShortestPathTree} in bytes.
+     */
+    public long getEstimatedBytes() {
+        // two array headers and the object itself
+        return 12L * parents.length + 64;
+    }
+
+    /**
+     * Returns an unmodifiable view of this {@link ShortestPathTree} in the format of
+     * {@link PathCalculator#getAllPathsTo(Region.Node)}. The paths are created on access, every access returns a new
+     * {@link Deque}.
+     *
+     * @return A {@link Map} view of this {@link ShortestPathTree}.
+     */
+    public Map<Region.Node, Deque<Region.Node>> asMap() {
+        return new AbstractMap<>() {
+
+            @Override
+            public @Nullable Deque<Region.Node> get(Object key) {
+                int node = idOf(key);
+                return node == -1 ? null : getPath(node);
+            }
+
+            @Override
+            public boolean containsKey(Object key) {
+                int node = idOf(key);
+                return node != -1 && isReachable(node);
+            }
+
+            @Override
+            public int size() {
+                return reachableCount;
+            }
+
+            @Override
+            public Set<Entry<Region.Node, Deque<Region.Node>>> entrySet() {
+                return new AbstractSet<>() {
+                    @Override
+                    public Iterator<Entry<Region.Node, Deque<Region.Node>>> iterator() {
+                        return new Iterator<>() {
+                            private int next = advance(0);
+
+                            private int advance(int node) {
+                                while (node < parents.length && !isReachable(node)) {
+                                    node++;
+                                }
+                                return node;
+                            }
+
+                            @Override
+                            public boolean hasNext() {
+                                return next < parents.length;
+                            }
+
+                            @Override
+                            public Entry<Region.Node, Deque<Region.Node>> next() {
+                                if (!hasNext()) {
+                                    throw new NoSuchElementException();
+                                }
+                                int node = next;
+                                next = advance(node + 1);
+                                return new SimpleImmutableEntry<>(region.getNode(node), getPath(node));
+                            }
+                        };
+                    }
+
+                    @Override
+                    public int size() {
+                        return reachableCount;
+                    }
+                };
+            }
+        };
+    }
+
+    private int idOf(Object key) {
+        if (!(key instanceof Region.Node node) || node.getRegion() != region.getRegion()) {
+            return -1;
+        }
+        try {
+            return region.indexOf(node);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,497 @@
+package projekt.delivery.routing;
+
+import org.jetbrains.annotations.Nullable;
+import projekt.base.Location;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An index of the {@link Region.Node}s and {@link Region.Edge}s of a {@link Region} by their coordinates, which
+ * answers nearest-neighbour, radius and rectangle queries without scanning the whole region.<p>
+ *
+ * Nodes and edges are stored in two static bounding volume trees. Every tree is implicit: the items of a subtree are
+ * stored in a contiguous range of an array, the item in the middle of the range is the root of the subtree and the
+ * bounding box of the whole range is stored at its index. The ranges are split at the median of the item centers,
+ * alternating between the x- and y-axis, so the trees are balanced and a query only visits the subtrees whose boxes
+ * intersect it. A node is a box of size zero, an edge is the bounding box of its two nodes.<p>
+ *
+ * All distances are euclidean distances between the coordinates, independent of the {@link projekt.base.DistanceCalculator}
+ * of the region. The index of a region built by {@link Region.Builder#build()} is created while building it; use
+ * {@link #of(Region)} to obtain it.
+ */
+public final class SpatialIndex {
+
+    private static final Object KEY = new Object();
+
+    private final Region region;
+    private final BoxTree<Region.Node> nodes;
+    private final BoxTree<Region.Edge> edges;
+
+    private SpatialIndex(Region region) {
+        this.region = region;
+        Collection<Region.Node> regionNodes = region.getNodes();
+        Region.Node[] nodeArray = regionNodes.toArray(Region.Node[]::new);
+        int[] nodeBoxes = new int[nodeArray.length * 4];
+        for (int i = 0; i < nodeArray.length; i++) {
+            Location location = nodeArray[i].getLocation();
+            setBox(nodeBoxes, i, location.getX(), location.getY(), location.getX(), location.getY());
+        }
+        nodes = new BoxTree<>(nodeArray, nodeBoxes);
+
+        Region.Edge[] edgeArray = region.getEdges().toArray(Region.Edge[]::new);
+        int[] edgeBoxes = new int[edgeArray.length * 4];
+        for (int i = 0; i < edgeArray.length; i++) {
+            Location a = edgeArray[i].getNodeA().getLocation();
+            Location b = edgeArray[i].getNodeB().getLocation();
+            setBox(edgeBoxes, i, Math.min(a.getX(), b.getX()), Math.min(a.getY(), b.getY()),
+                Math.max(a.getX(), b.getX()), Math.max(a.getY(), b.getY()));
+        }
+        edges = new BoxTree<>(edgeArray, edgeBoxes);
+    }
+
+    /**
+     * Builds the {@link SpatialIndex} of the given {@link Region}.
+     *
+     * @param region The {@link Region} to index.
+     * @return The new {@link SpatialIndex}.
+     */
+    static SpatialIndex build(Region region) {
+        return new SpatialIndex(region);
+    }
+
+    /**
+     * Returns the {@link SpatialIndex} of the given {@link Region}. The index of a region built by
+     * {@link Region.Builder#build()} already exists, the index of any other region is built on the first call and
+     * shared by its {@link CompiledRegion}.
+     *
+     * @param region The {@link Region} to return the index of.
+     * @return The {@link SpatialIndex} of the given {@link Region}.
+     */
+    public static SpatialIndex of(Region region) {
+        if (region instanceof RegionImpl regionImpl) {
+            SpatialIndex index = regionImpl.getSpatialIndex();
+            if (index != null) {
+                return index;
+            }
+        }
+        return CompiledRegion.of(region).getOrCompute(KEY, compiled -> new SpatialIndex(compiled.getRegion()));
+    }
+
+    private static void setBox(int[] boxes, int i, int minX, int minY, int maxX, int maxY) {
+        boxes[i * 4] = minX;
+        boxes[i * 4 + 1] = minY;
+        boxes[i * 4 + 2] = maxX;
+        boxes[i * 4 + 3] = maxY;
+    }
+
+    /**
+     * Returns the {@link Region} indexed by this {@link SpatialIndex}.
+     * @return The indexed {@link Region}.
+     */
+    public Region getRegion() {
+        return region;
+    }
+
+    /**
+     * Returns the {@link Region.Node} closest to the given {@link Location}.
+     *
+     * @param location The {@link Location} to search from.
+     * @return The closest {@link Region.Node} or {@code null} if the region does not contain any nodes.
+     */
+    public @Nullable Region.Node getNearestNode(Location location) {
+        List<Region.Node> nearest = getNearestNodes(location, 1);
+        return nearest.isEmpty() ? null : nearest.get(0);
+    }
+
+    /**
+     * Returns the {@code k} {@link Region.Node}s closest to the given {@link Location}, ordered by their distance.
+     *
+     * @param location The {@link Location} to search from.
+     * @param k        The maximum amount of nodes to return.
+     * @return The closest {@link Region.Node}s, closest first.
+     * @throws IllegalArgumentException If {@code k} is negative.
+     */
+    public List<Region.Node> getNearestNodes(Location location, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("Invalid amount of nodes: %d".formatted(k));
+        }
+        if (k == 0 || nodes.size() == 0) {
+            return List.of();
+        }
+        NearestSearch search = new NearestSearch(location.getX(), location.getY(), Math.min(k, nodes.size()));
+        search.visit(0, nodes.size(), 0);
+        return search.result();
+    }
+
+    /**
+     * Returns all {@link Region.Node}s with a distance of at most {@code radius} to the given {@link Location}.
+     *
+     * @param center The center of the circle to search in.
+     * @param radius The radius of the circle to search in.
+     * @return The {@link Region.Node}s in the circle in no particular order.
+     */
+    public List<Region.Node> getNodesWithin(Location center, double radius) {
+        if (radius < 0) {
+            return List.of();
+        }
+        // every node in the circle is in its bounding box
+        int extent = (int) Math.min(Integer.MAX_VALUE, Math.floor(radius));
+        int cx = center.getX();
+        int cy = center.getY();
+        double radiusSquared = radius * radius;
+        List<Region.Node> result = new ArrayList<>();
+        nodes.query(clamp((long) cx - extent), clamp((long) cy - extent), clamp((long) cx + extent),
+            clamp((long) cy + extent), (node, i) -> {
+                double dx = (double) nodes.boxes[i * 4] - cx;
+                double dy = (double) nodes.boxes[i * 4 + 1] - cy;
+                if (dx * dx + dy * dy <= radiusSquared) {
+                    result.add(node);
+                }
+            });
+        return result;
+    }
+
+    /**
+     * Returns all {@link Region.Node}s in the given rectangle, including its border.
+     *
+     * @param minX The smallest x-coordinate of the rectangle.
+     * @param minY The smallest y-coordinate of the rectangle.
+     * @param maxX The largest x-coordinate of the rectangle.
+     * @param maxY The largest y-coordinate of the rectangle.
+     * @return The {@link Region.Node}s in the rectangle in no particular order.
+     */
+    public List<Region.Node> getNodesIn(int minX, int minY, int maxX, int maxY) {
+        List<Region.Node> result = new ArrayList<>();
+        nodes.query(minX, minY, maxX, maxY, (node, i) -> result.add(node));
+        return result;
+    }
+
+    /**
+     * Returns all {@link Region.Edge}s whose bounding box intersects the given rectangle, e.g. all edges that might be
+     * visible in a viewport.
+     *
+     * @param minX The smallest x-coordinate of the rectangle.
+     * @param minY The smallest y-coordinate of the rectangle.
+     * @param maxX The largest x-coordinate of the rectangle.
+     * @param maxY The largest y-coordinate of the rectangle.
+     * @return The {@link Region.Edge}s intersecting the rectangle in no particular order.
+     */
+    public List<Region.Edge> getEdgesIn(int minX, int minY, int maxX, int maxY) {
+        List<Region.Edge> result = new ArrayList<>();
+        edges.query(minX, minY, maxX, maxY, (edge, i) -> result.add(edge));
+        return result;
+    }
+
+    /**
+     * Returns the {@link Region.Edge} closest to the given {@link Location}, measured to the line segment between its
+     * nodes.
+     *
+     * @param location The {@link Location} to search from.
+     * @return The closest {@link Region.Edge} or {@code null} if the region does not contain any edges.
+     */
+    public @Nullable Region.Edge getNearestEdge(Location location) {
+        if (edges.size() == 0) {
+            return null;
+        }
+        NearestEdgeSearch search = new NearestEdgeSearch(location.getX(), location.getY());
+        search.visit(0, edges.size());
+        return search.best;
+    }
+
+    private static int clamp(long value) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, value));
+    }
+
+    /**
+     * Returns the squared distance between the given point and the given box, which is {@code 0} if the point is inside
+     * the box.
+     */
+    private static double distanceSquared(int[] boxes, int i, int x, int y) {
+        double dx = Math.max(0, Math.max((double) boxes[i * 4] - x, (double) x - boxes[i * 4 + 2]));
+        double dy = Math.max(0, Math.max((double) boxes[i * 4 + 1] - y, (double) y - boxes[i * 4 + 3]));
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * Finds the {@code k} nodes closest to a point with a bounded max-heap of the best candidates.
+     */
+    private final class NearestSearch {
+
+        private final int x;
+        private final int y;
+        private final int k;
+        private final int[] heap;
+        private final double[] heapDistances;
+        private int heapSize;
+
+        private NearestSearch(int x, int y, int k) {
+            this.x = x;
+            this.y = y;
+            this.k = k;
+            heap = new int[k];
+            heapDistances = new double[k];
+        }
+
+        private double bound() {
+            return heapSize < k ? Double.POSITIVE_INFINITY : heapDistances[0];
+        }
+
+        private void visit(int from, int to, int depth) {
+            if (from >= to || distanceSquared(nodes.subtreeBoxes, (from + to) >>> 1, x, y) > bound()) {
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            offer(mid, distanceSquared(nodes.boxes, mid, x, y));
+            // visit the half containing the point first, so the bound shrinks quickly
+            boolean lowerFirst = depth % 2 == 0 ? x <= nodes.boxes[mid * 4] : y <= nodes.boxes[mid * 4 + 1];
+            if (lowerFirst) {
+                visit(from, mid, depth + 1);
+                visit(mid + 1, to, depth + 1);
+            } else {
+                visit(mid + 1, to, depth + 1);
+                visit(from, mid, depth + 1);
+            }
+        }
+
+        /**
+         * Returns true, if the first candidate is farther away than the second one. Equally distant nodes are ordered
+         * by their natural order, so the result does not depend on the structure of the tree.
+         */
+        private boolean isWorse(int item, double distance, int other, double otherDistance) {
+            return distance > otherDistance
+                || distance == otherDistance && nodes.items[item].compareTo(nodes.items[other]) > 0;
+        }
+
+        private void offer(int item, double distance) {
+            if (heapSize < k) {
+                int i = heapSize++;
+                while (i > 0 && isWorse(item, distance, heap[(i - 1) / 2], heapDistances[(i - 1) / 2])) {
+                    heap[i] = heap[(i - 1) / 2];
+                    heapDistances[i] = heapDistances[(i - 1) / 2];
+                    i = (i - 1) / 2;
+                }
+                heap[i] = item;
+                heapDistances[i] = distance;
+            } else if (isWorse(heap[0], heapDistances[0], item, distance)) {
+                int i = 0;
+                while (true) {
+                    int child = 2 * i + 1;
+                    if (child >= heapSize) {
+                        break;
+                    }
+                    if (child + 1 < heapSize
+                        && isWorse(heap[child + 1], heapDistances[child + 1], heap[child], heapDistances[child])) {
+                        child++;
+                    }
+                    if (!isWorse(heap[child], heapDistances[child], item, distance)) {
+                        break;
+                    }
+                    heap[i] = heap[child];
+                    heapDistances[i] = heapDistances[child];
+                    i = child;
+                }
+                heap[i] = item;
+                heapDistances[i] = distance;
+            }
+        }
+
+        private List<Region.Node> result() {
+            Integer[] order = new Integer[heapSize];
+            for (int i = 0; i < heapSize; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> {
+                int result = Double.compare(heapDistances[a], heapDistances[b]);
+                return result != 0 ? result : nodes.items[heap[a]].compareTo(nodes.items[heap[b]]);
+            });
+            List<Region.Node> result = new ArrayList<>(heapSize);
+            for (int i : order) {
+                result.add(nodes.items[heap[i]]);
+            }
+            return Collections.unmodifiableList(result);
+        }
+    }
+
+    /**
+     * Finds the edge whose line segment is closest to a point.
+     */
+    private final class NearestEdgeSearch {
+
+        private final int x;
+        private final int y;
+        private @Nullable Region.Edge best;
+        private double bestDistance = Double.POSITIVE_INFINITY;
+
+        private NearestEdgeSearch(int x, int y) {
+            this.x = x;
+            this.y = y;
+        }
+
+        private void visit(int from, int to) {
+            if (from >= to) {
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            if (distanceSquared(edges.subtreeBoxes, mid, x, y) >= bestDistance) {
+                return;
+            }
+            Region.Edge edge = edges.items[mid];
+            double distance = segmentDistanceSquared(edge.getNodeA().getLocation(), edge.getNodeB().getLocation());
+            if (distance < bestDistance || distance == bestDistance && best != null && edge.compareTo(best) < 0) {
+                best = edge;
+                bestDistance = distance;
+            }
+            visit(from, mid);
+            visit(mid + 1, to);
+        }
+
+        private double segmentDistanceSquared(Location a, Location b) {
+            double abX = (double) b.getX() - a.getX();
+            double abY = (double) b.getY() - a.getY();
+            double apX = (double) x - a.getX();
+            double apY = (double) y - a.getY();
+            double lengthSquared = abX * abX + abY * abY;
+            double t = lengthSquared == 0 ? 0 : Math.max(0, Math.min(1, (apX * abX + apY * abY) / lengthSquared));
+            double dx = apX - t * abX;
+            double dy = apY - t * abY;
+            return dx * dx + dy * dy;
+        }
+    }
+
+    /**
+     * A static, implicit bounding volume tree of items with boxes.
+     */
+    private static final class BoxTree<T> {
+
+        private final T[] items;
+        /**
+         * The box of every item as {@code minX, minY, maxX, maxY}.
+         */
+        private final int[] boxes;
+        /**
+         * The box of the subtree rooted at every item.
+         */
+        private final int[] subtreeBoxes;
+
+        private BoxTree(T[] items, int[] boxes) {
+            this.items = items;
+            this.boxes = boxes;
+            subtreeBoxes = new int[boxes.length];
+            build(0, items.length, 0);
+        }
+
+        private int size() {
+            return items.length;
+        }
+
+        private void build(int from, int to, int depth) {
+            if (from >= to) {
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            select(from, to - 1, mid, depth % 2);
+            build(from, mid, depth + 1);
+            build(mid + 1, to, depth + 1);
+
+            int minX = boxes[mid * 4];
+            int minY = boxes[mid * 4 + 1];
+            int maxX = boxes[mid * 4 + 2];
+            int maxY = boxes[mid * 4 + 3];
+            if (from < mid) {
+                int child = (from + mid) >>> 1;
+                minX = Math.min(minX, subtreeBoxes[child * 4]);
+                minY = Math.min(minY, subtreeBoxes[child * 4 + 1]);
+                maxX = Math.max(maxX, subtreeBoxes[child * 4 + 2]);
+                maxY = Math.max(maxY, subtreeBoxes[child * 4 + 3]);
+            }
+            if (mid + 1 < to) {
+                int child = (mid + 1 + to) >>> 1;
+                minX = Math.min(minX, subtreeBoxes[child * 4]);
+                minY = Math.min(minY, subtreeBoxes[child * 4 + 1]);
+                maxX = Math.max(maxX, subtreeBoxes[child * 4 + 2]);
+                maxY = Math.max(maxY, subtreeBoxes[child * 4 + 3]);
+            }
+            setBox(subtreeBoxes, mid, minX, minY, maxX, maxY);
+        }
+
+        /**
+         * Returns twice the center of the box of the given item on the given axis.
+         */
+        private long center(int i, int axis) {
+            return (long) boxes[i * 4 + axis] + boxes[i * 4 + 2 + axis];
+        }
+
+        /**
+         * Moves the item with the k-th smallest center into position k and all smaller ones before it (quickselect).
+         */
+        private void select(int left, int right, int k, int axis) {
+            while (left < right) {
+                long pivot = center((left + right) >>> 1, axis);
+                int i = left;
+                int j = right;
+                while (i <= j) {
+                    while (center(i, axis) < pivot) {
+                        i++;
+                    }
+                    while (center(j, axis) > pivot) {
+                        j--;
+                    }
+                    if (i <= j) {
+                        swap(i++, j--);
+                    }
+                }
+                if (k <= j) {
+                    right = j;
+                } else if (k >= i) {
+                    left = i;
+                } else {
+                    return;
+                }
+            }
+        }
+
+        private void swap(int a, int b) {
+            T item = items[a];
+            items[a] = items[b];
+            items[b] = item;
+            for (int c = 0; c < 4; c++) {
+                int value = boxes[a * 4 + c];
+                boxes[a * 4 + c] = boxes[b * 4 + c];
+                boxes[b * 4 + c] = value;
+            }
+        }
+
+        private void query(int minX, int minY, int maxX, int maxY, ItemConsumer<T> consumer) {
+            query(0, items.length, minX, minY, maxX, maxY, consumer);
+        }
+
+        private void query(int from, int to, int minX, int minY, int maxX, int maxY, ItemConsumer<T> consumer) {
+            if (from >= to) {
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            if (!intersects(subtreeBoxes, mid, minX, minY, maxX, maxY)) {
+                return;
+            }
+            if (intersects(boxes, mid, minX, minY, maxX, maxY)) {
+                consumer.accept(items[mid], mid);
+            }
+            query(from, mid, minX, minY, maxX, maxY, consumer);
+            query(mid + 1, to, minX, minY, maxX, maxY, consumer);
+        }
+
+        private static boolean intersects(int[] boxes, int i, int minX, int minY, int maxX, int maxY) {
+            return boxes[i * 4] <= maxX && boxes[i * 4 + 2] >= minX
+                && boxes[i * 4 + 1] <= maxY && boxes[i * 4 + 3] >= minY;
+        }
+    }
+
+    @FunctionalInterface
+    private interface ItemConsumer<T> {
+        void accept(T item, int index);
+    }
+}
@@ -0,0 +1,292 @@
+package projekt.delivery.routing;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * A {@link PathCalculator} that calculates the fastest path for a departure at a given tick with a time-dependent
+ * variant of A*.<p>
+ *
+ * The duration of every edge is evaluated at the tick the path enters it, see {@link Region.Edge#getDuration(long)},
+ * so a path may avoid a road that is congested at the time it would be reached. The search is exact if all
+ * {@link TravelTimeProfile}s of the region are FIFO. Edges without a {@link TravelTimeProfile} keep their duration, so
+ * on regions without profiles this calculator returns paths as short as those of a {@link DijkstraPathCalculator}.<p>
+ *
+ * The heuristic is the distance to the end of the path calculated like {@link AStarPathCalculator}, multiplied with
+ * the smallest ratio between the smallest duration of an edge and the distance between its nodes. This keeps it a lower
+ * bound of the remaining duration at any tick. If the region uses another {@link projekt.base.DistanceCalculator},
+ * the search falls back to Dijkstra's algorithm.<p>
+ *
+ * The methods of {@link PathCalculator} depart at the tick returned by the supplier given to the constructor. A
+ * calculator created without a supplier departs at the current tick of the {@link VehicleManager} it is built into,
+ * see {@link VehicleManager#getCurrentTick()}, and at tick {@code 0} as long as it is not part of one.
+ */
+public class TimeDependentPathCalculator implements PathCalculator {
+
+    /**
+     * The key of the {@link Arcs} attached to a {@link CompiledRegion}.
+     */
+    private static final Object ARCS_KEY = new Object();
+
+    /**
+     * Whether {@link #departureTick} has been given to the constructor and is kept by {@link #bindClock(LongSupplier)}.
+     */
+    private final boolean fixedDepartureTick;
+    private LongSupplier departureTick;
+
+    /**
+     * Creates a new {@link TimeDependentPathCalculator} whose paths depart at the current tick of the
+     * {@link VehicleManager} it is built into.
+     */
+    public TimeDependentPathCalculator() {
+        departureTick = () -> 0;
+        fixedDepartureTick = false;
+    }
+
+    /**
+     * Creates a new {@link TimeDependentPathCalculator}.
+     *
+     * @param departureTick The supplier of the departure tick used by the methods of {@link PathCalculator}.
+     */
+    public TimeDependentPathCalculator(LongSupplier departureTick) {
+        this.departureTick = departureTick;
+        fixedDepartureTick = true;
+    }
+
+    /**
+     * Lets the methods of {@link PathCalculator} depart at the tick of the given clock, unless a supplier has been
+     * given to the constructor. Called when a {@link VehicleManager} is built with this calculator.
+     *
+     * @param clock The supplier of the current tick.
+     */
+    void bindClock(LongSupplier clock) {
+        if (!fixedDepartureTick) {
+            departureTick = clock;
+        }
+    }
+
+    private static Arcs getArcs(CompiledRegion compiled) {
+        return compiled.getOrCompute(ARCS_KEY, Arcs::new);
+    }
+
+    @Override
+    public Deque<Region.Node> getPath(Region.Node start, Region.Node end) {
+        return getPath(start, end, departureTick.getAsLong());
+    }
+
+    /**
+     * Calculates the fastest path from {@code start} to {@code end} departing at the given tick.
+     *
+     * @param start     The start {@link Region.Node}
+     * @param end       The end {@link Region.Node}
+     * @param departure The tick {@code start} is left at.
+     * @return A list of nodes (excluding start and including end) that represent a path from start to end
+     * @throws IllegalArgumentException If there is no path from start to end.
+     */
+    public Deque<Region.Node> getPath(Region.Node start, Region.Node end, long departure) {
+        CompiledRegion compiled = CompiledRegion.of(end.getRegion());
+        int startId = compiled.indexOf(start);
+        int endId = compiled.indexOf(end);
+        DijkstraWorkspace workspace = search(getArcs(compiled), startId, endId, departure);
+        if (!workspace.isReached(endId)) {
+            throw new IllegalArgumentException("No path from %s to %s".formatted(start, end));
+        }
+        // the parents of a forward search point towards start
+        Deque<Region.Node> path = new ArrayDeque<>();
+        for (int node = endId; node != startId; node = workspace.getParent(node)) {
+            path.addFirst(compiled.getNode(node));
+        }
+        return path;
+    }
+
+    /**
+     * {@inheritDoc}<p>
+     *
+     * The duration is taken from the search without creating the path.
+     *
+     * @throws IllegalArgumentException If there is no path from start to end.
+     */
+    @Override
+    public long getDistance(Region.Node start, Region.Node end) {
+        return getDistance(start, end, departureTick.getAsLong());
+    }
+
+    /**
+     * Calculates the duration of the fastest path from {@code start} to {@code end} departing at the given tick.
+     *
+     * @param start     The start {@link Region.Node}
+     * @param end       The end {@link Region.Node}
+     * @param departure The tick {@code start} is left at.
+     * @return The duration of the fastest path from start to end.
+     * @throws IllegalArgumentException If there is no path from start to end.
+     */
+    public long getDistance(Region.Node start, Region.Node end, long departure) {
+        CompiledRegion compiled = CompiledRegion.of(end.getRegion());
+        int endId = compiled.indexOf(end);
+        long distance = search(getArcs(compiled), compiled.indexOf(start), endId, departure).getDistance(endId);
+        if (distance == Long.MAX_VALUE) {
+            throw new IllegalArgumentException("No path from %s to %s".formatted(start, end));
+        }
+        return distance;
+    }
+
+    /**
+     * {@inheritDoc}<p>
+     *
+     * The paths of the nodes would depend on their arrival at {@code end}, so this uses the durations of all edges at
+     * the departure tick instead.
+     */
+    @Override
+    public Map<Region.Node, Deque<Region.Node>> getAllPathsTo(Region.Node end) {
+        CompiledRegion compiled = CompiledRegion.of(end.getRegion());
+        Arcs arcs = getArcs(compiled);
+        long departure = departureTick.getAsLong();
+        DijkstraWorkspace workspace = DijkstraWorkspace.forCurrentThread(0, QueueStrategy.BINARY_HEAP);
+        workspace.begin(compiled, 0);
+        NodeQueue queue = workspace.getQueue();
+        int endId = compiled.indexOf(end);
+        workspace.update(endId, 0, -1, -1);
+        queue.update(endId, 0);
+        while (!queue.isEmpty()) {
+            int u = queue.poll();
+            workspace.settle(u);
+            long distance = workspace.getDistance(u);
+            for (int arc = compiled.offsets[u], arcEnd = compiled.offsets[u + 1]; arc < arcEnd; arc++) {
+                int v = compiled.targets[arc];
+                long candidate = distance + arcs.getDuration(arc, departure);
+                if (!workspace.isSettled(v) && workspace.update(v, candidate, u, arc)) {
+                    queue.update(v, candidate);
+                }
+            }
+        }
+        Map<Region.Node, Deque<Region.Node>> paths = new HashMap<>();
+        for (int id = 0; id < compiled.size(); id++) {
+            Deque<Region.Node> path = workspace.pathToRoot(id);
+            // Nodes that cannot reach end have no path
+            if (path != null) {
+                paths.put(compiled.getNode(id), path);
+            }
+        }
+        return paths;
+    }
+
+    /**
+     * Runs the time-dependent A* from {@code source} departing at {@code departure} until {@code target} is settled.
+     * The distance of a node is the duration from {@code source} to it.
+     */
+    private static DijkstraWorkspace search(Arcs arcs, int source, int target, long departure) {
+        CompiledRegion region = arcs.region;
+        DijkstraWorkspace workspace = DijkstraWorkspace.forCurrentThread(0, QueueStrategy.BINARY_HEAP);
+        workspace.begin(region, 0);
+        NodeQueue queue = workspace.getQueue();
+        int[] offsets = region.offsets;
+        int[] targets = region.targets;
+
+        workspace.update(source, 0, -1, -1);
+        queue.update(source, arcs.lowerBound(source, target));
+        while (!queue.isEmpty()) {
+            int u = queue.poll();
+            workspace.settle(u);
+            if (u == target) {
+                break;
+            }
+            long distance = workspace.getDistance(u);
+            long tick = departure + distance;
+            for (int arc = offsets[u], end = offsets[u + 1]; arc < end; arc++) {
+                int v = targets[arc];
+                if (workspace.isSettled(v)) {
+                    continue;
+                }
+                long candidate = distance + arcs.getDuration(arc, tick);
+                if (workspace.update(v, candidate, u, arc)) {
+                    queue.update(v, candidate + arcs.lowerBound(v, target));
+                }
+            }
+        }
+        return workspace;
+    }
+
+    /**
+     * The {@link TravelTimeProfile}s of the arcs of a {@link CompiledRegion} and the heuristic of the searches on it.
+     */
+    private static final class Arcs {
+
+        private final CompiledRegion region;
+        /**
+         * The {@link TravelTimeProfile} of every arc or {@code null} if its duration does not change over time.
+         */
+        private final @Nullable TravelTimeProfile[] profiles;
+        private final AStarPathCalculator.Heuristic heuristic;
+        /**
+         * The factor of the distances of the heuristic, which is at most the smallest duration of every arc divided by
+         * the distance between its nodes.
+         */
+        private final double scale;
+
+        private Arcs(CompiledRegion region) {
+            this.region = region;
+            profiles = new TravelTimeProfile[region.arcCount()];
+            for (int arc = 0; arc < profiles.length; arc++) {
+                profiles[arc] = region.arcEdge(arc).getTravelTimeProfile();
+            }
+
+            AStarPathCalculator.Heuristic distances =
+                AStarPathCalculator.Heuristic.of(region.getRegion().getDistanceCalculator());
+            double minScale = Double.POSITIVE_INFINITY;
+            for (int u = 0; u < region.size() && distances != AStarPathCalculator.Heuristic.NONE; u++) {
+                for (int arc = region.offsets[u]; arc < region.offsets[u + 1]; arc++) {
+                    double distance = distance(distances, u, region.targets[arc]);
+                    if (distance > 0) {
+                        minScale = Math.min(minScale, getMinDuration(arc) / distance);
+                    }
+                }
+            }
+            if (minScale == Double.POSITIVE_INFINITY || minScale <= 0) {
+                heuristic = AStarPathCalculator.Heuristic.NONE;
+                scale = 0;
+                return;
+            }
+            // the division may round up, so the scale is lowered until it is a lower bound for every arc
+            for (int u = 0; u < region.size(); u++) {
+                for (int arc = region.offsets[u]; arc < region.offsets[u + 1]; arc++) {
+                    while (minScale * distance(distances, u, region.targets[arc]) > getMinDuration(arc)) {
+                        minScale = Math.nextDown(minScale);
+                    }
+                }
+            }
+            heuristic = distances;
+            scale = minScale;
+        }
+
+        private double distance(AStarPathCalculator.Heuristic distances, int u, int v) {
+            return distances.distance((long) region.xs[u] - region.xs[v], (long) region.ys[u] - region.ys[v]);
+        }
+
+        private long getMinDuration(int arc) {
+            TravelTimeProfile profile = profiles[arc];
+            return profile != null ? profile.getMinDuration() : region.durations[arc];
+        }
+
+        /**
+         * Returns the duration of the given arc if it is entered at the given tick.
+         */
+        long getDuration(int arc, long tick) {
+            TravelTimeProfile profile = profiles[arc];
+            return profile != null ? profile.getDuration(tick) : region.durations[arc];
+        }
+
+        /**
+         * Returns a lower bound of the duration from {@code node} to {@code target}. Rounding down keeps it consistent,
+         * since the durations are integers.
+         */
+        long lowerBound(int node, int target) {
+            return heuristic == AStarPathCalculator.Heuristic.NONE ? 0
+                : (long) (scale * distance(heuristic, node, target));
+        }
+    }
+}
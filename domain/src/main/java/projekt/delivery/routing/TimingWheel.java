@@ -0,0 +1,177 @@
+package projekt.delivery.routing;
+
+import java.util.Collection;
+
+/**
+ * A hierarchical timing wheel that schedules values for non-negative ticks.<p>
+ *
+ * Every level has 64 slots. A value is placed on the level of the highest base-64 digit in which its tick differs
+ * from the current tick of the wheel, in the slot of that digit. All values on a level are therefore due before the
+ * values on any higher level. Scheduling a value is {@code O(1)}. Advancing the wheel only visits occupied slots: the
+ * values in the lowest slot of level 0 are due, the values of a slot on a higher level are moved to lower levels once
+ * the wheel reaches the start of that slot. Every value is moved at most once per level, so advancing costs
+ * {@code O(1)} per value and the wheel can skip any amount of ticks at once.
+ *
+ * @param <T> The type of the scheduled values.
+ */
+final class TimingWheel<T> {
+
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int LEVELS = (Long.SIZE + BITS - 1) / BITS;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private final Entry<T>[] slots = new Entry[LEVELS * SLOTS];
+    private final long[] occupied = new long[LEVELS];
+    private Entry<T> overdue;
+    private long currentTick;
+    private int size;
+
+    /**
+     * Returns the tick the wheel has been advanced to.
+     * @return The tick the wheel has been advanced to.
+     */
+    long getCurrentTick() {
+        return currentTick;
+    }
+
+    /**
+     * Returns the amount of scheduled values.
+     * @return The amount of scheduled values.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Schedules the given value for the given tick. Values scheduled for the current tick or an earlier tick are
+     * returned by the next call to {@link #advance(long, Collection)}.
+     * @param tick The tick the value is due.
+     * @param value The value to schedule.
+     */
+    void schedule(long tick, T value) {
+        if (tick < 0) {
+            throw new IllegalArgumentException("Cannot schedule a value for the negative tick %d".formatted(tick));
+        }
+        place(new Entry<>(tick, value));
+        size++;
+    }
+
+    /**
+     * Advances the wheel to the given tick and adds all values that are due until then to the given {@link Collection}.
+     * The values are added in no particular order.
+     * @param tick The tick to advance to.
+     * @param due The {@link Collection} the due values are added to.
+     */
+    void advance(long tick, Collection<? super T> due) {
+        while (true) {
+            for (Entry<T> entry = overdue; entry != null; entry = entry.next) {
+                due.add(entry.value);
+                size--;
+            }
+            overdue = null;
+
+            int level = lowestLevel();
+            if (level < 0) {
+                break;
+            }
+            int slot = Long.numberOfTrailingZeros(occupied[level]);
+            long start = slotStart(level, slot);
+            if (start > tick) {
+                break;
+            }
+            Entry<T> entry = slots[level * SLOTS + slot];
+            slots[level * SLOTS + slot] = null;
+            occupied[level] &= ~(1L << slot);
+            currentTick = start;
+            // all values of a slot on level 0 are due at its start, the others are spread over the lower levels
+            while (entry != null) {
+                Entry<T> next = entry.next;
+                place(entry);
+                entry = next;
+            }
+        }
+        currentTick = Math.max(currentTick, tick);
+    }
+
+    /**
+     * Returns the tick of the earliest scheduled value.
+     * @return The tick of the earliest scheduled value or {@link Long#MAX_VALUE} if no value is scheduled.
+     */
+    long nextTick() {
+        if (overdue != null) {
+            return currentTick;
+        }
+        int level = lowestLevel();
+        if (level < 0) {
+            return Long.MAX_VALUE;
+        }
+        int slot = Long.numberOfTrailingZeros(occupied[level]);
+        if (level == 0) {
+            return slotStart(0, slot);
+        }
+        long tick = Long.MAX_VALUE;
+        for (Entry<T> entry = slots[level * SLOTS + slot]; entry != null; entry = entry.next) {
+            tick = Math.min(tick, entry.tick);
+        }
+        return tick;
+    }
+
+    /**
+     * Removes all scheduled values and resets the wheel to tick 0.
+     */
+    void clear() {
+        for (int level = 0; level < LEVELS; level++) {
+            while (occupied[level] != 0) {
+                int slot = Long.numberOfTrailingZeros(occupied[level]);
+                slots[level * SLOTS + slot] = null;
+                occupied[level] &= ~(1L << slot);
+            }
+        }
+        overdue = null;
+        currentTick = 0;
+        size = 0;
+    }
+
+    private void place(Entry<T> entry) {
+        if (entry.tick <= currentTick) {
+            entry.next = overdue;
+            overdue = entry;
+            return;
+        }
+        int level = (Long.SIZE - 1 - Long.numberOfLeadingZeros(entry.tick ^ currentTick)) / BITS;
+        int slot = (int) (entry.tick >>> (level * BITS)) & (SLOTS - 1);
+        entry.next = slots[level * SLOTS + slot];
+        slots[level * SLOTS + slot] = entry;
+        occupied[level] |= 1L << slot;
+    }
+
+    private int lowestLevel() {
+        for (int level = 0; level < LEVELS; level++) {
+            if (occupied[level] != 0) {
+                return level;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the first tick covered by the given slot, which shares all higher digits with the current tick.
+     */
+    private long slotStart(int level, int slot) {
+        int shift = (level + 1) * BITS;
+        long prefix = shift >= Long.SIZE ? 0 : currentTick & (-1L << shift);
+        return prefix | (long) slot << (level * BITS);
+    }
+
+    private static final class Entry<T> {
+        final long tick;
+        final T value;
+        Entry<T> next;
+
+        Entry(long tick, T value) {
+            this.tick = tick;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package projekt.delivery.routing;
+
+import java.util.Arrays;
+
+/**
+ * The duration of an {@link Region.Edge} as a piecewise-linear function of the tick the edge is entered at.<p>
+ *
+ * The function is given by breakpoints with strictly ascending ticks. Between two breakpoints the duration is
+ * interpolated linearly and rounded down, before the first and after the last breakpoint it stays constant. Evaluating
+ * the function only needs a binary search over the breakpoints and does not allocate any objects.<p>
+ *
+ * A profile is FIFO if entering the edge later never leads to an earlier arrival, i.e. if the duration never decreases
+ * by more than one per tick. Time-dependent searches like {@link TimeDependentPathCalculator} are only exact for FIFO
+ * profiles.
+ */
+public final class TravelTimeProfile {
+
+    private final long[] ticks;
+    private final long[] durations;
+    private final long minDuration;
+    private final long maxDuration;
+
+    private TravelTimeProfile(long[] ticks, long[] durations) {
+        this.ticks = ticks;
+        this.durations = durations;
+        minDuration = Arrays.stream(durations).min().orElseThrow();
+        maxDuration = Arrays.stream(durations).max().orElseThrow();
+    }
+
+    /**
+     * Creates a new {@link TravelTimeProfile} with the given breakpoints.
+     *
+     * @param ticks     The ticks of the breakpoints in strictly ascending order.
+     * @param durations The durations at the ticks of the breakpoints.
+     * @return The created {@link TravelTimeProfile}.
+     * @throws IllegalArgumentException If there are no breakpoints, the lengths of the arrays differ, the ticks are not
+     *                                  strictly ascending or a duration is negative.
+     */
+    public static TravelTimeProfile of(long[] ticks, long[] durations) {
+        checkTicks(ticks, durations.length);
+        for (long duration : durations) {
+            if (duration < 0) {
+                throw new IllegalArgumentException("Negative duration %d".formatted(duration));
+            }
+        }
+        return new TravelTimeProfile(ticks.clone(), durations.clone());
+    }
+
+    /**
+     * Creates a new {@link TravelTimeProfile} that multiplies the given duration with a factor at every breakpoint,
+     * e.g. to slow an edge down during a rush hour. The scaled durations are rounded to the nearest integer.
+     *
+     * @param duration The duration to scale.
+     * @param ticks    The ticks of the breakpoints in strictly ascending order.
+     * @param factors  The factors at the ticks of the breakpoints.
+     * @return The created {@link TravelTimeProfile}.
+     * @throws IllegalArgumentException If the duration is negative, there are no breakpoints, the lengths of the
+     *                                  arrays differ, the ticks are not strictly ascending or a factor is negative or
+     *                                  not finite.
+     */
+    public static TravelTimeProfile scaled(long duration, long[] ticks, double[] factors) {
+        if (duration < 0) {
+            throw new IllegalArgumentException("Negative duration %d".formatted(duration));
+        }
+        checkFactors(ticks, factors);
+        long[] durations = new long[factors.length];
+        for (int i = 0; i < factors.length; i++) {
+            durations[i] = Math.round(duration * factors[i]);
+        }
+        return new TravelTimeProfile(ticks.clone(), durations);
+    }
+
+    /**
+     * Checks the breakpoints of {@link #scaled(long, long[], double[])}.
+     *
+     * @param ticks   The ticks of the breakpoints.
+     * @param factors The factors at the ticks of the breakpoints.
+     * @throws IllegalArgumentException If the breakpoints are illegal.
+     */
+    static void checkFactors(long[] ticks, double[] factors) {
+        checkTicks(ticks, factors.length);
+        for (double factor : factors) {
+            if (!(factor >= 0) || Double.isInfinite(factor)) {
+                throw new IllegalArgumentException("Illegal factor %s".formatted(factor));
+            }
+        }
+    }
+
+    private static void checkTicks(long[] ticks, int length) {
+        if (ticks.length == 0 || ticks.length != length) {
+            throw new IllegalArgumentException("Illegal number of breakpoints: %d ticks, %d values"
+                .formatted(ticks.length, length));
+        }
+        for (int i = 1; i < ticks.length; i++) {
+            if (ticks[i] <= ticks[i - 1]) {
+                throw new IllegalArgumentException("Ticks are not strictly ascending: %s"
+                    .formatted(Arrays.toString(ticks)));
+            }
+        }
+    }
+
+    /**
+     * Returns the duration of the edge if it is entered at the given tick.
+     *
+     * @param tick The tick the edge is entered at.
+     * @return The duration of the edge.
+     */
+    public long getDuration(long tick) {
+        int last = ticks.length - 1;
+        if (tick <= ticks[0]) {
+            return durations[0];
+        }
+        if (tick >= ticks[last]) {
+            return durations[last];
+        }
+        int index = Arrays.binarySearch(ticks, tick);
+        if (index >= 0) {
+            return durations[index];
+        }
+        // the breakpoint before the tick
+        index = -index - 2;
+        long from = durations[index];
+        return from + Math.floorDiv((durations[index + 1] - from) * (tick - ticks[index]),
+            ticks[index + 1] - ticks[index]);
+    }
+
+    /**
+     * Returns the tick a vehicle arrives at the end of the edge if it enters the edge at the given tick.
+     *
+     * @param tick The tick the edge is entered at.
+     * @return The tick of the arrival.
+     */
+    public long getArrival(long tick) {
+        return tick + getDuration(tick);
+    }
+
+    /**
+     * Returns the smallest duration of this {@link TravelTimeProfile}.
+     * @return The smallest duration.
+     */
+    public long getMinDuration() {
+        return minDuration;
+    }
+
+    /**
+     * Returns the largest duration of this {@link TravelTimeProfile}.
+     * @return The largest duration.
+     */
+    public long getMaxDuration() {
+        return maxDuration;
+    }
+
+    /**
+     * Returns the ticks of the breakpoints.
+     * @return A new array containing the ticks of the breakpoints.
+     */
+    public long[] getTicks() {
+        return ticks.clone();
+    }
+
+    /**
+     * Returns the durations at the breakpoints.
+     * @return A new array containing the durations at the breakpoints.
+     */
+    public long[] getDurations() {
+        return durations.clone();
+    }
+
+    /**
+     * Returns true, if entering the edge later never leads to an earlier arrival.
+     * @return True, if this {@link TravelTimeProfile} is FIFO.
+     */
+    public boolean isFifo() {
+        for (int i = 1; i < ticks.length; i++) {
+            if (durations[i - 1] - durations[i] > ticks[i] - ticks[i - 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof TravelTimeProfile other && Arrays.equals(ticks, other.ticks)
+            && Arrays.equals(durations, other.durations);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(ticks) + Arrays.hashCode(durations);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("TravelTimeProfile(");
+        for (int i = 0; i < ticks.length; i++) {
+            builder.append(i == 0 ? "" : ", ").append(ticks[i]).append('=').append(durations[i]);
+        }
+        return builder.append(')').toString();
+    }
+}
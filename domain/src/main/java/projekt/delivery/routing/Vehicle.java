@@ -45,6 +45,14 @@ public interface Vehicle extends Comparable<Vehicle> {
         });
     }
 
+    /**
+     * Deletes the entire move queue and moves directly to the provided
+     * {@link Region.Node}.
+     * As soon as the vehicle arrives at the specified node, {@code arrivalAction}
+     * is run.
+     *
+     * @see #moveQueued(Region.Node, BiConsumer)
+     */
     void moveDirect(Region.Node node, BiConsumer<? super Vehicle, Long> arrivalAction);
 
     /**
@@ -59,6 +67,14 @@ public interface Vehicle extends Comparable<Vehicle> {
      * Adds the provided {@link Region.Node} to the move queue.
      * As soon as the vehicle arrives at the specified node, {@code arrivalAction}
      * is run.
+     *
+     * <p>
+     * The {@code arrivalAction} is run during {@link VehicleManager#tick(long)}. If the
+     * {@link VehicleManager} ticks in parallel, see
+     * {@link VehicleManager.Builder#parallelTick(java.util.concurrent.ForkJoinPool, int)}, the arrival actions of
+     * different vehicles may run concurrently on the threads of its pool, so an arrival action may only change the
+     * arriving vehicle, its orders and the node it arrived at without synchronization.
+     * </p>
      */
     void moveQueued(Region.Node node, BiConsumer<? super Vehicle, Long> arrivalAction);
 
@@ -53,6 +53,23 @@ class VehicleImpl implements Vehicle {
         this.occupied = occupied;
     }
 
+    /**
+     * Returns whether this {@link VehicleImpl} has queued paths, i.e. whether {@link #move(long)} would do anything.
+     * @return Whether this {@link VehicleImpl} has queued paths.
+     */
+    boolean hasQueuedPaths() {
+        return !moveQueue.isEmpty();
+    }
+
+    /**
+     * Returns the next node on the current path of this {@link VehicleImpl}.
+     * @return The next node on the current path or {@code null} if the current path has no nodes left.
+     */
+    @Nullable Region.Node getNextNode() {
+        PathImpl path = moveQueue.peek();
+        return path == null ? null : path.nodes().peek();
+    }
+
     @Override
     public void moveDirect(Region.Node node, BiConsumer<? super Vehicle, Long> arrivalAction) {
         if (node == occupied.getComponent()) {
@@ -77,6 +94,7 @@ class VehicleImpl implements Vehicle {
                 ? moveQueue.getLast().nodes().getLast()
                 : (Region.Node) occupied.getComponent();
         moveQueue.add(new PathImpl(vehicleManager.getPathCalculator().getPath(start, node), arrivalAction));
+        occupied.activate();
     }
 
     @Override
@@ -1,11 +1,14 @@
 package projekt.delivery.routing;
 
+import org.jetbrains.annotations.Nullable;
 import projekt.base.Location;
 import projekt.delivery.event.Event;
 import projekt.delivery.event.EventBus;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Manages all Vehicles on a {@link Region}.
@@ -32,6 +35,25 @@ public interface VehicleManager {
      */
     PathCalculator getPathCalculator();
 
+    /**
+     * Returns the durations of the shortest paths between all nodes of the underlying {@link Region} and all of its
+     * restaurants. The {@link DistanceMatrix} is computed on the first call and shared by all callers using the same
+     * {@link Region}.
+     * @return The {@link DistanceMatrix} from all nodes to all restaurants.
+     */
+    default DistanceMatrix getDistanceMatrix() {
+        return DistanceMatrix.toRestaurants(CompiledRegion.of(getRegion()));
+    }
+
+    /**
+     * Returns the {@link CacheWarmUp} started when this {@link VehicleManager} was built.
+     * @return The {@link CacheWarmUp} or {@code null} if no warm-up has been started.
+     * @see Builder#warmUp(Executor, CacheWarmUp.ProgressListener)
+     */
+    default @Nullable CacheWarmUp getCacheWarmUp() {
+        return null;
+    }
+
     /**
      * Returns all spawned {@link Vehicle}s
      * @return All spawned {@link Vehicle}s
@@ -102,6 +124,25 @@ public interface VehicleManager {
      */
     List<Event> tick(long currentTick);
 
+    /**
+     * Returns the tick last executed by {@link #tick(long)}. Paths queued by a {@link Vehicle} depart at this tick.
+     * @return The last executed tick or {@code 0} if no tick has been executed yet.
+     */
+    default long getCurrentTick() {
+        return 0;
+    }
+
+    /**
+     * Returns the next tick after the given tick in which a {@link Vehicle} may move, assuming that no paths are queued
+     * until then. All ticks before it would not change the state of this {@link VehicleManager} and can be skipped.
+     * @param currentTick The last executed tick.
+     * @return The next tick in which a {@link Vehicle} may move or {@link Long#MAX_VALUE} if no {@link Vehicle} will
+     *     move again.
+     */
+    default long getNextTick(long currentTick) {
+        return currentTick + 1;
+    }
+
     /**
      * Resets this {@link VehicleManager} to its start state.
      */
@@ -223,6 +264,36 @@ public interface VehicleManager {
             Location startingLocation
         );
 
+        /**
+         * Enables warming up the cache of the {@link PathCalculator} when the {@link VehicleManager} is built. The
+         * paths to all restaurants and then to all neighborhoods are calculated in the background, so the first ticks
+         * do not have to wait for them. This only has an effect if the {@link PathCalculator} is a
+         * {@link CachedPathCalculator}, which never wraps a {@link TimeDependentPathCalculator} whose paths change with
+         * the current tick. The warm-up can be observed and cancelled with
+         * {@link VehicleManager#getCacheWarmUp()}.
+         * @param executor The {@link Executor} running the calculations.
+         * @param listener The {@link CacheWarmUp.ProgressListener} notified about the progress or {@code null}.
+         * @return The current {@link Builder}.
+         */
+        Builder warmUp(Executor executor, @Nullable CacheWarmUp.ProgressListener listener);
+
+        /**
+         * Enables running the ticks of the constructed {@link VehicleManager} on the given {@link ForkJoinPool}. The
+         * nodes of the {@link Region} are split into the given amount of shards that move their vehicles concurrently.
+         * The produced events and the resulting state are the same as for a sequential tick, independent of the amount
+         * of shards.<p>
+         *
+         * The arrival actions of the vehicles, including those passed by a
+         * {@link projekt.delivery.service.DeliveryService}, are run concurrently on the threads of the pool as well.
+         * An arrival action may only change the vehicle it is called for, its orders and the node it arrived at, and
+         * has to synchronize any other state it shares, e.g. the pending orders of a
+         * {@link projekt.delivery.service.DeliveryService}. The {@link PathCalculator} has to be thread-safe.
+         * @param pool The {@link ForkJoinPool} running the shards.
+         * @param shardCount The amount of shards.
+         * @return The current {@link Builder}.
+         */
+        Builder parallelTick(ForkJoinPool pool, int shardCount);
+
         /**
          * Constructs the {@link VehicleManager}.
          * @return The constructed {@link VehicleManager}.
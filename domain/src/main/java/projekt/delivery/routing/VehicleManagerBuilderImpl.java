@@ -1,16 +1,22 @@
 package projekt.delivery.routing;
 
+import org.jetbrains.annotations.Nullable;
 import projekt.base.Location;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 class VehicleManagerBuilderImpl implements VehicleManager.Builder {
 
     private final List<VehicleBuilder> vehicles = new ArrayList<>();
     private Region region;
     private PathCalculator pathCalculator;
+    private @Nullable Executor warmUpExecutor;
+    private @Nullable CacheWarmUp.ProgressListener warmUpListener;
+    private @Nullable ParallelTick parallelTick;
 
     @Override
     public VehicleManager.Builder region(Region region) {
@@ -42,14 +48,38 @@ class VehicleManagerBuilderImpl implements VehicleManager.Builder {
         return this;
     }
 
+    @Override
+    public VehicleManager.Builder warmUp(Executor executor, @Nullable CacheWarmUp.ProgressListener listener) {
+        warmUpExecutor = Objects.requireNonNull(executor, "executor");
+        warmUpListener = listener;
+        return this;
+    }
+
+    @Override
+    public VehicleManager.Builder parallelTick(ForkJoinPool pool, int shardCount) {
+        parallelTick = new ParallelTick(Objects.requireNonNull(pool, "pool"), shardCount);
+        return this;
+    }
+
     @Override
     public VehicleManager build() {
         Objects.requireNonNull(region, "region");
         Objects.requireNonNull(pathCalculator, "pathCalculator");
         VehicleManagerImpl vehicleManager = new VehicleManagerImpl(region, pathCalculator);
+        vehicleManager.setParallelTick(parallelTick);
+        // a TimeDependentPathCalculator is never wrapped, since CachedPathCalculator rejects it
+        if (pathCalculator instanceof TimeDependentPathCalculator timeDependentPathCalculator) {
+            timeDependentPathCalculator.bindClock(vehicleManager::getCurrentTick);
+        }
         for (VehicleBuilder vehicleBuilder : vehicles) {
             vehicleManager.addVehicle(vehicleBuilder.startingLocation, vehicleBuilder.capacity);
         }
+        if (warmUpExecutor != null && pathCalculator instanceof CachedPathCalculator cachedPathCalculator) {
+            List<Region.Node> ends = new ArrayList<>();
+            region.getNodes().stream().filter(Region.Restaurant.class::isInstance).sorted().forEach(ends::add);
+            region.getNodes().stream().filter(Region.Neighborhood.class::isInstance).sorted().forEach(ends::add);
+            vehicleManager.setCacheWarmUp(CacheWarmUp.start(cachedPathCalculator, ends, warmUpExecutor, warmUpListener));
+        }
         return vehicleManager;
     }
 
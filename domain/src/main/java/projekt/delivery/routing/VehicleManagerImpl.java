@@ -1,11 +1,13 @@
 package projekt.delivery.routing;
 
+import org.jetbrains.annotations.Nullable;
 import projekt.base.Location;
 import projekt.delivery.event.Event;
 import projekt.delivery.event.EventBus;
 import projekt.delivery.event.SpawnEvent;
 
 import java.util.*;
+import java.util.function.IntConsumer;
 
 import static org.tudalgo.algoutils.student.Student.crash;
 
@@ -13,12 +15,29 @@ class VehicleManagerImpl implements VehicleManager {
 
     final Map<Region.Node, OccupiedNodeImpl<? extends Region.Node>> occupiedNodes;
     final Map<Region.Edge, OccupiedEdgeImpl> occupiedEdges;
+    /**
+     * The occupied nodes and edges by their index. Only the nodes whose bit is set in {@link #activeNodes} are ticked,
+     * all others have no vehicle that could move. Edges are not ticked at all, a vehicle entering an edge schedules its
+     * arrival in {@link #arrivals} instead.
+     */
+    private final OccupiedNodeImpl<?>[] indexedNodes;
+    private final OccupiedEdgeImpl[] indexedEdges;
+    private final BitSet activeNodes;
+    private final TimingWheel<Arrival> arrivals = new TimingWheel<>();
+    private final List<Arrival> dueArrivals = new ArrayList<>();
     private final Region region;
     private final PathCalculator pathCalculator;
     private final List<VehicleImpl> vehiclesToSpawn = new ArrayList<>();
     private final List<VehicleImpl> vehicles = new ArrayList<>();
     private final Collection<Vehicle> unmodifiableVehicles = Collections.unmodifiableCollection(vehicles);
     private final EventBus eventBus = new EventBus();
+    private @Nullable CacheWarmUp cacheWarmUp;
+    private @Nullable ParallelTick parallelTick;
+    /**
+     * Whether the shards of {@link #parallelTick} are currently running.
+     */
+    private boolean parallelPhase;
+    private long currentTick;
 
     VehicleManagerImpl(
             Region region,
@@ -27,6 +46,21 @@ class VehicleManagerImpl implements VehicleManager {
         this.pathCalculator = pathCalculator;
         occupiedNodes = toOccupiedNodes(region.getNodes());
         occupiedEdges = toOccupiedEdges(region.getEdges());
+        indexedNodes = new OccupiedNodeImpl<?>[occupiedNodes.size()];
+        indexedEdges = new OccupiedEdgeImpl[occupiedEdges.size()];
+        activeNodes = new BitSet(indexedNodes.length);
+        int index = 0;
+        for (Region.Node node : region.getNodes()) {
+            OccupiedNodeImpl<?> occupied = occupiedNodes.get(node);
+            occupied.index = index;
+            indexedNodes[index++] = occupied;
+        }
+        index = 0;
+        for (Region.Edge edge : region.getEdges()) {
+            OccupiedEdgeImpl occupied = occupiedEdges.get(edge);
+            occupied.index = index;
+            indexedEdges[index++] = occupied;
+        }
     }
 
     private Map<Region.Node, OccupiedNodeImpl<? extends Region.Node>> toOccupiedNodes(Collection<Region.Node> nodes) {
@@ -58,10 +92,12 @@ class VehicleManagerImpl implements VehicleManager {
     }
 
     private OccupiedNodeImpl<? extends Region.Node> getOccupiedNode(Location location) {
-        return occupiedNodes.values().stream()
-                .filter(node -> node.getComponent().getLocation().equals(location))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("Could not find node with given predicate"));
+        Region.Node node = region.getNode(location);
+        OccupiedNodeImpl<? extends Region.Node> occupied = node == null ? null : occupiedNodes.get(node);
+        if (occupied == null) {
+            throw new IllegalArgumentException("Could not find node with given predicate");
+        }
+        return occupied;
     }
 
     @Override
@@ -74,6 +110,36 @@ class VehicleManagerImpl implements VehicleManager {
         return pathCalculator;
     }
 
+    @Override
+    public long getCurrentTick() {
+        return currentTick;
+    }
+
+    @Override
+    public @Nullable CacheWarmUp getCacheWarmUp() {
+        return cacheWarmUp;
+    }
+
+    void setCacheWarmUp(CacheWarmUp cacheWarmUp) {
+        this.cacheWarmUp = cacheWarmUp;
+    }
+
+    /**
+     * Sets the {@link ParallelTick} used to run the ticks of this {@link VehicleManagerImpl} concurrently.
+     * @param parallelTick The {@link ParallelTick} or {@code null} to run the ticks sequentially.
+     */
+    void setParallelTick(@Nullable ParallelTick parallelTick) {
+        this.parallelTick = parallelTick;
+    }
+
+    /**
+     * Returns the shard that is run by the current thread.
+     * @return The shard that is run by the current thread or {@code null} if no parallel tick is running.
+     */
+    private @Nullable ParallelTick.Shard getCurrentShard() {
+        return parallelPhase ? parallelTick.getCurrentShard() : null;
+    }
+
     @Override
     public Collection<Vehicle> getVehicles() {
         return unmodifiableVehicles;
@@ -165,11 +231,14 @@ class VehicleManagerImpl implements VehicleManager {
 
     @Override
     public EventBus getEventBus() {
-        return eventBus;
+        // the events of a running shard are collected separately and merged in the order of a sequential tick
+        ParallelTick.Shard shard = getCurrentShard();
+        return shard == null ? eventBus : shard.getEventBus();
     }
 
     @Override
     public List<Event> tick(long currentTick) {
+        this.currentTick = currentTick;
         for (VehicleImpl vehicle : vehiclesToSpawn) {
             spawnVehicle(vehicle, currentTick);
         }
@@ -180,15 +249,179 @@ class VehicleManagerImpl implements VehicleManager {
         // For example, a node tick may move a vehicle onto an edge.
         // Ticking this edge afterwards does not move the vehicle further along the edge
         // compared to a vehicle already on the edge.
-        occupiedNodes.values().forEach(occupiedNode -> occupiedNode.tick(currentTick));
-        occupiedEdges.values().forEach(occupiedEdge -> occupiedEdge.tick(currentTick));
+        // Only active nodes are ticked. A node is deactivated before its tick and activates itself again
+        // if it still holds vehicles that may move, so the work per tick depends on the moving vehicles only.
+        // Instead of ticking the edges, only the vehicles arriving in this tick are moved, in the order of their edges
+        if (parallelTick == null || indexedNodes.length == 0) {
+            for (int i = activeNodes.nextSetBit(0); i >= 0; i = activeNodes.nextSetBit(i + 1)) {
+                activeNodes.clear(i);
+                indexedNodes[i].tick(currentTick);
+            }
+            arrivals.advance(currentTick, dueArrivals);
+            dueArrivals.sort(Arrival.ORDER);
+            for (Arrival arrival : dueArrivals) {
+                tickArrival(arrival, currentTick);
+            }
+            dueArrivals.clear();
+        } else {
+            tickNodesInParallel(currentTick);
+            tickArrivalsInParallel(currentTick);
+        }
         return eventBus.popEvents(currentTick);
     }
 
+    private void tickArrival(Arrival arrival, long currentTick) {
+        // the vehicle may have left the edge since, e.g. because of a reset
+        if (!arrival.isValid()) {
+            return;
+        }
+        long arrivalTick = arrival.getTick();
+        if (currentTick >= arrivalTick) {
+            arrival.vehicle.move(currentTick);
+        }
+        // a vehicle that could not leave the edge is tried again in the next tick, like the edge would do
+        if (arrival.vehicle.getOccupied() == arrival.edge && arrival.isValid()) {
+            ParallelTick.Shard shard = getCurrentShard();
+            if (shard == null) {
+                arrivals.schedule(Math.max(arrivalTick, currentTick + 1), arrival);
+            } else {
+                shard.defer(() -> arrivals.schedule(Math.max(arrivalTick, currentTick + 1), arrival));
+            }
+        }
+    }
+
+    /**
+     * Ticks the active nodes on the shards of {@link #parallelTick}. The shards are contiguous ranges of the nodes, so
+     * applying their changes and events shard by shard results in the order of a sequential tick.
+     */
+    private void tickNodesInParallel(long currentTick) {
+        BitSet nodes = (BitSet) activeNodes.clone();
+        activeNodes.clear();
+        runShards(shard -> {
+            int end = parallelTick.firstNode(shard + 1, indexedNodes.length);
+            for (int i = nodes.nextSetBit(parallelTick.firstNode(shard, indexedNodes.length)); i >= 0 && i < end;
+                 i = nodes.nextSetBit(i + 1)) {
+                indexedNodes[i].tick(currentTick);
+            }
+        });
+        for (int shard = 0; shard < parallelTick.getShardCount(); shard++) {
+            eventBus.queuePost(parallelTick.getShard(shard).getEvents());
+        }
+    }
+
+    /**
+     * Moves the arriving vehicles on the shards of {@link #parallelTick}. An arrival belongs to the shard of the node
+     * the vehicle arrives at, so every node is only changed by one shard. The events are merged in the order of the
+     * arrivals, which is the order of a sequential tick.
+     */
+    private void tickArrivalsInParallel(long currentTick) {
+        arrivals.advance(currentTick, dueArrivals);
+        if (dueArrivals.isEmpty()) {
+            return;
+        }
+        dueArrivals.sort(Arrival.ORDER);
+        int count = dueArrivals.size();
+        int[] arrivalShards = new int[count];
+        int[] eventStarts = new int[count];
+        int[] eventEnds = new int[count];
+        for (int shard = 0; shard < parallelTick.getShardCount(); shard++) {
+            parallelTick.getShard(shard).clearArrivals();
+        }
+        for (int rank = 0; rank < count; rank++) {
+            Region.Node node = dueArrivals.get(rank).vehicle.getNextNode();
+            OccupiedNodeImpl<?> occupiedNode = node == null ? null : occupiedNodes.get(node);
+            int shard = occupiedNode == null ? 0 : parallelTick.shardOf(occupiedNode.index, indexedNodes.length);
+            arrivalShards[rank] = shard;
+            parallelTick.getShard(shard).addArrival(rank);
+        }
+        runShards(shard -> {
+            ParallelTick.Shard current = parallelTick.getShard(shard);
+            for (int i = 0; i < current.getArrivalCount(); i++) {
+                int rank = current.getArrival(i);
+                eventStarts[rank] = current.getEvents().size();
+                tickArrival(dueArrivals.get(rank), currentTick);
+                eventEnds[rank] = current.getEvents().size();
+            }
+        });
+        for (int rank = 0; rank < count; rank++) {
+            List<Event> events = parallelTick.getShard(arrivalShards[rank]).getEvents();
+            for (int i = eventStarts[rank]; i < eventEnds[rank]; i++) {
+                eventBus.queuePost(events.get(i));
+            }
+        }
+        dueArrivals.clear();
+    }
+
+    /**
+     * Runs the given task on all shards and applies their deferred changes shard by shard afterwards.
+     */
+    private void runShards(IntConsumer task) {
+        parallelPhase = true;
+        try {
+            parallelTick.runShards(task);
+        } finally {
+            parallelPhase = false;
+        }
+        for (int shard = 0; shard < parallelTick.getShardCount(); shard++) {
+            parallelTick.getShard(shard).applyDeferred();
+        }
+    }
+
+    /**
+     * Defers the given change to the end of the current phase, if the current thread runs a shard of a parallel tick.
+     * @param change The change to defer.
+     * @return True, if the change has been deferred, false if it has to be applied directly.
+     */
+    boolean defer(Runnable change) {
+        ParallelTick.Shard shard = getCurrentShard();
+        if (shard == null) {
+            return false;
+        }
+        shard.defer(change);
+        return true;
+    }
+
+    /**
+     * Schedules the arrival of the given {@link VehicleImpl} at the end of the given edge. The {@link VehicleImpl}
+     * must have just entered the edge.
+     * @param occupiedEdge The edge the {@link VehicleImpl} entered.
+     * @param vehicle The {@link VehicleImpl} that entered the edge.
+     */
+    void scheduleArrival(OccupiedEdgeImpl occupiedEdge, VehicleImpl vehicle) {
+        if (occupiedEdge.index < 0 || indexedEdges[occupiedEdge.index] != occupiedEdge) {
+            return;
+        }
+        Arrival arrival = new Arrival(occupiedEdge, vehicle, occupiedEdge.vehicles.get(vehicle));
+        arrivals.schedule(Math.max(arrival.getTick(), 0), arrival);
+    }
+
+    @Override
+    public long getNextTick(long currentTick) {
+        if (!vehiclesToSpawn.isEmpty() || !activeNodes.isEmpty()) {
+            return currentTick + 1;
+        }
+        long nextTick = arrivals.nextTick();
+        return nextTick == Long.MAX_VALUE ? nextTick : Math.max(nextTick, currentTick + 1);
+    }
+
+    /**
+     * Marks the given component as active, so it is ticked in the current or next tick. Only nodes are ticked, edges
+     * schedule the arrivals of their vehicles with {@link #scheduleArrival(OccupiedEdgeImpl, VehicleImpl)}.
+     * @param occupied The component to activate.
+     */
+    void activate(AbstractOccupied<?> occupied) {
+        if (occupied.index >= 0 && occupied instanceof OccupiedNodeImpl<?> && indexedNodes[occupied.index] == occupied
+            && !defer(() -> activeNodes.set(occupied.index))) {
+            activeNodes.set(occupied.index);
+        }
+    }
+
     public void reset() {
         for (AbstractOccupied<?> occupied : getAllOccupied()) {
             occupied.reset();
         }
+        activeNodes.clear();
+        arrivals.clear();
 
         for (Vehicle vehicle : getAllVehicles()) {
             vehicle.reset();
@@ -225,6 +458,30 @@ class VehicleManagerImpl implements VehicleManager {
         vehicles.add(vehicle);
         OccupiedRestaurantImpl warehouse = (OccupiedRestaurantImpl) vehicle.getOccupied();
         warehouse.vehicles.put(vehicle, new AbstractOccupied.VehicleStats(currentTick, null));
+        if (vehicle.hasQueuedPaths()) {
+            warehouse.activate();
+        }
         getEventBus().queuePost(SpawnEvent.of(currentTick, vehicle, warehouse.getComponent()));
     }
+
+    /**
+     * The scheduled arrival of a {@link VehicleImpl} at the end of an edge.
+     * @param edge The edge the {@link VehicleImpl} is on.
+     * @param vehicle The arriving {@link VehicleImpl}.
+     * @param stats The {@link AbstractOccupied.VehicleStats} of the {@link VehicleImpl} on the edge, which identify its
+     *     stay on the edge.
+     */
+    private record Arrival(OccupiedEdgeImpl edge, VehicleImpl vehicle, AbstractOccupied.VehicleStats stats) {
+
+        static final Comparator<Arrival> ORDER = Comparator.<Arrival>comparingInt(arrival -> arrival.edge.index)
+            .thenComparingInt(arrival -> arrival.vehicle.getId());
+
+        long getTick() {
+            return edge.getArrivalTick(stats);
+        }
+
+        boolean isValid() {
+            return stats != null && edge.vehicles.get(vehicle) == stats;
+        }
+    }
 }
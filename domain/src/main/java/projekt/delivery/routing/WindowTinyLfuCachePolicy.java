@@ -0,0 +1,179 @@
+package projekt.delivery.routing;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A {@link CachePolicy} that combines recency and frequency (W-TinyLFU).<p>
+ *
+ * New keys enter a small least recently used window. Keys leaving the window move to the probation segment of the
+ * main cache and are promoted to its protected segment once they are accessed again. When a key has to be evicted,
+ * the newest key of the probation segment competes with its oldest key and the one that has been requested less
+ * often according to a {@link FrequencySketch} is evicted. Keys that were only requested once therefore cannot
+ * displace frequently requested keys, while the window still allows bursts of new keys.
+ *
+ * @param <K> The type of the keys.
+ */
+public class WindowTinyLfuCachePolicy<K> implements CachePolicy<K> {
+
+    private final FrequencySketch sketch;
+    private final int windowCapacity;
+    private final int protectedCapacity;
+    private final AccessOrder<K> window = new AccessOrder<>();
+    private final AccessOrder<K> probation = new AccessOrder<>();
+    private final AccessOrder<K> protectedKeys = new AccessOrder<>();
+
+    /**
+     * Creates a new {@link WindowTinyLfuCachePolicy}.
+     *
+     * @param capacity The maximum amount of keys of the cache.
+     */
+    public WindowTinyLfuCachePolicy(int capacity) {
+        sketch = new FrequencySketch(capacity);
+        // 1% window, the main cache is split into 20% probation and 80% protected
+        windowCapacity = Math.max(1, capacity / 100);
+        protectedCapacity = (int) ((capacity - windowCapacity) * 0.8);
+    }
+
+    @Override
+    public void recordAccess(K key) {
+        sketch.increment(key);
+        if (window.contains(key)) {
+            window.moveToLast(key);
+        } else if (probation.remove(key)) {
+            protectedKeys.addLast(key);
+            if (protectedKeys.size() > protectedCapacity) {
+                probation.addLast(protectedKeys.removeFirst());
+            }
+        } else if (protectedKeys.contains(key)) {
+            protectedKeys.moveToLast(key);
+        }
+    }
+
+    @Override
+    public void recordInsertion(K key) {
+        recordRemoval(key);
+        sketch.increment(key);
+        window.addLast(key);
+        if (window.size() > windowCapacity) {
+            probation.addLast(window.removeFirst());
+        }
+    }
+
+    @Override
+    public void recordRemoval(K key) {
+        if (!window.remove(key) && !probation.remove(key)) {
+            protectedKeys.remove(key);
+        }
+    }
+
+    @Override
+    public K evict() {
+        if (probation.size() >= 2) {
+            K candidate = probation.last();
+            K victim = probation.first();
+            K evicted = sketch.frequency(candidate) > sketch.frequency(victim) ? victim : candidate;
+            probation.remove(evicted);
+            return evicted;
+        }
+        AccessOrder<K> source = probation.size() > 0 ? probation : protectedKeys.size() > 0 ? protectedKeys : window;
+        if (source.size() == 0) {
+            throw new IllegalStateException("No key to evict");
+        }
+        return source.removeFirst();
+    }
+
+    /**
+     * A doubly linked list of keys with constant time access to both ends and to every key.
+     */
+    private static final class AccessOrder<K> {
+
+        private final Map<K, Entry<K>> entries = new HashMap<>();
+        private @Nullable Entry<K> head;
+        private @Nullable Entry<K> tail;
+
+        int size() {
+            return entries.size();
+        }
+
+        boolean contains(K key) {
+            return entries.containsKey(key);
+        }
+
+        K first() {
+            assert head != null;
+            return head.key;
+        }
+
+        K last() {
+            assert tail != null;
+            return tail.key;
+        }
+
+        void addLast(K key) {
+            Entry<K> entry = new Entry<>(key);
+            entries.put(key, entry);
+            link(entry);
+        }
+
+        void moveToLast(K key) {
+            Entry<K> entry = entries.get(key);
+            if (entry != tail) {
+                unlink(entry);
+                link(entry);
+            }
+        }
+
+        boolean remove(K key) {
+            Entry<K> entry = entries.remove(key);
+            if (entry == null) {
+                return false;
+            }
+            unlink(entry);
+            return true;
+        }
+
+        K removeFirst() {
+            K key = first();
+            remove(key);
+            return key;
+        }
+
+        private void link(Entry<K> entry) {
+            entry.previous = tail;
+            entry.next = null;
+            if (tail == null) {
+                head = entry;
+            } else {
+                tail.next = entry;
+            }
+            tail = entry;
+        }
+
+        private void unlink(Entry<K> entry) {
+            if (entry.previous == null) {
+                head = entry.next;
+            } else {
+                entry.previous.next = entry.next;
+            }
+            if (entry.next == null) {
+                tail = entry.previous;
+            } else {
+                entry.next.previous = entry.previous;
+            }
+        }
+
+        private static final class Entry<K> {
+
+            private final K key;
+            private @Nullable Entry<K> previous;
+            private @Nullable Entry<K> next;
+
+            Entry(K key) {
+                this.key = key;
+            }
+        }
+    }
+}
@@ -47,6 +47,16 @@ public abstract class AbstractDeliveryService implements DeliveryService {
         return tick(currentTick, newOrders);
     }
 
+    @Override
+    public long getNextTick(long currentTick) {
+        synchronized (lock) {
+            if (!unprocessedOrders.isEmpty()) {
+                return currentTick + 1;
+            }
+        }
+        return Math.min(vehicleManager.getNextTick(currentTick), getNextServiceTick(currentTick));
+    }
+
     @Override
     public VehicleManager getVehicleManager() {
         return vehicleManager;
@@ -65,4 +75,18 @@ public abstract class AbstractDeliveryService implements DeliveryService {
      * @return A {@link List} containing all {@link Event}s that occurred during the tick.
      */
    protected abstract List<Event> tick(long currentTick, List<ConfirmedOrder> newOrders);
+
+    /**
+     * Returns the next tick after the given tick in which {@link #tick(long, List)} would assign tasks to the
+     * {@link projekt.delivery.routing.Vehicle}s even though no orders have been delivered and no vehicle has moved.
+     * <p>
+     * The default implementation returns the tick after the given tick, so subclasses that do not override this method
+     * are ticked every tick.
+     * @param currentTick The last executed tick.
+     * @return The next tick in which tasks may be assigned or {@link Long#MAX_VALUE} if tasks are only assigned in
+     *     reaction to new orders and moving vehicles.
+     */
+    protected long getNextServiceTick(long currentTick) {
+        return currentTick + 1;
+    }
 }
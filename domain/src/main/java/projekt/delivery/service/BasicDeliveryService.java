@@ -67,6 +67,8 @@ public class BasicDeliveryService extends AbstractDeliveryService {
         }
     }
 
+    // may run concurrently for different vehicles during a parallel tick, so it only changes the arriving vehicle
+    // and the neighborhood it arrived at
     private BiConsumer<? super Vehicle, Long> arrivalAction() {
         return (arrivedVehicle, arrivedTick) -> {
             VehicleManager.OccupiedNeighborhood neighborhood = vehicleManager
@@ -80,6 +82,17 @@ public class BasicDeliveryService extends AbstractDeliveryService {
         };
     }
 
+    @Override
+    protected long getNextServiceTick(long currentTick) {
+        // orders are only loaded onto vehicles waiting at the restaurant of a pending order
+        for (ConfirmedOrder order : pendingOrders) {
+            if (!order.getRestaurant().getVehicles().isEmpty()) {
+                return currentTick + 1;
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
     @Override
     public List<ConfirmedOrder> getPendingOrders() {
         return pendingOrders;
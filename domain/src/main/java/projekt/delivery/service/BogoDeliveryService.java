@@ -85,6 +85,12 @@ public class BogoDeliveryService extends AbstractDeliveryService {
         vehicle.moveDirect(node);
     }
 
+    @Override
+    protected long getNextServiceTick(long currentTick) {
+        // vehicles are only moved and loaded in reaction to the events of the vehicle manager
+        return Long.MAX_VALUE;
+    }
+
     @Override
     public List<ConfirmedOrder> getPendingOrders() {
         return pendingOrders;
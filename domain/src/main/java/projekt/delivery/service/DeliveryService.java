@@ -9,6 +9,13 @@ import java.util.List;
 
 /**
  * Manages all incoming {@link ConfirmedOrder}s and assigns task to the {@link Vehicle}s of the underlying {@link VehicleManager}.
+ * <p>
+ * The arrival actions a {@link DeliveryService} passes to {@link Vehicle#moveQueued} or {@link Vehicle#moveDirect} are
+ * called back from {@link VehicleManager#tick(long)}. If the {@link VehicleManager} ticks in parallel, see
+ * {@link VehicleManager.Builder#parallelTick(java.util.concurrent.ForkJoinPool, int)}, these callbacks may run
+ * concurrently on the threads of its pool, while {@link #tick(long)} itself is still called by a single thread. A
+ * callback therefore must not change the pending orders or any other state of the {@link DeliveryService} without
+ * synchronization.
  */
 public interface DeliveryService {
 
@@ -30,6 +37,21 @@ public interface DeliveryService {
      */
     List<Event> tick(long currentTick);
 
+    /**
+     * Returns the next tick after the given tick in which this {@link DeliveryService} has to be ticked, assuming that
+     * no orders are delivered until then. All ticks before it would not change the state of this
+     * {@link DeliveryService} and can be skipped.<p>
+     *
+     * The default implementation returns the tick after the given tick, i.e. no tick can be skipped.
+     *
+     * @param currentTick The last executed tick.
+     * @return The next tick in which this {@link DeliveryService} has to be ticked or {@link Long#MAX_VALUE} if it
+     *     does not have to be ticked again.
+     */
+    default long getNextTick(long currentTick) {
+        return currentTick + 1;
+    }
+
     /**
      * Returns the underlying {@link VehicleManager}.
      * @return The underlying {@link VehicleManager}.
@@ -150,7 +150,23 @@ public class BasicDeliverySimulation implements Simulation {
         return deliveryService;
     }
 
-    private void setupNewSimulation() {
+    /**
+     * Returns the {@link OrderGenerator} of the current simulation run.
+     * @return The {@link OrderGenerator} of the current simulation run.
+     */
+    protected OrderGenerator getOrderGenerator() {
+        return currentOrderGenerator;
+    }
+
+    /**
+     * Returns true, if {@link #endSimulation()} has been called since the current simulation run was started.
+     * @return True, if the termination of the current simulation run has been requested.
+     */
+    protected boolean isTerminationRequested() {
+        return terminationRequested;
+    }
+
+    protected void setupNewSimulation() {
         currentTick = 0;
         terminationRequested = false;
         lastEvents = new ArrayList<>();
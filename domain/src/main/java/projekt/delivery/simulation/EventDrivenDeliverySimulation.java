@@ -0,0 +1,80 @@
+package projekt.delivery.simulation;
+
+import projekt.delivery.generator.OrderGenerator;
+import projekt.delivery.rating.Rater;
+import projekt.delivery.rating.RatingCriteria;
+import projekt.delivery.service.DeliveryService;
+
+import java.util.Map;
+
+/**
+ * A {@link Simulation} that skips all ticks in which nothing happens, for offline experiments.<p>
+ *
+ * After every executed tick the next tick that may change the state of the simulation is determined from
+ * {@link DeliveryService#getNextTick(long)}, which includes the arrivals of the vehicles, and
+ * {@link OrderGenerator#getNextOrderTick(long)}. The simulation jumps directly to this tick. The executed ticks produce
+ * exactly the same {@link projekt.delivery.event.Event}s as in a {@link BasicDeliverySimulation}, so the {@link Rater}s
+ * calculate the same scores. The {@link SimulationListener}s are only notified about the executed ticks, all skipped
+ * ticks would have had no events.<p>
+ *
+ * The simulation runs as fast as possible and ignores {@link SimulationConfig#getMillisecondsPerTick()}. A run without a
+ * maximum amount of ticks ends as soon as no further tick can change the state of the simulation.
+ */
+public class EventDrivenDeliverySimulation extends BasicDeliverySimulation {
+
+    /**
+     * Creates a new {@link EventDrivenDeliverySimulation} instance.
+     *
+     * @param simulationConfig The used {@link SimulationConfig}.
+     * @param raterFactoryMap The {@link Rater.Factory}s that are used to rate this {@link EventDrivenDeliverySimulation} based on the corresponding {@link RatingCriteria}.
+     * @param deliveryService The simulated {@link DeliveryService}.
+     * @param orderGeneratorFactory The {@link OrderGenerator.Factory} used to generate orders during this {@link EventDrivenDeliverySimulation}.
+     */
+    public EventDrivenDeliverySimulation(SimulationConfig simulationConfig,
+                                         Map<RatingCriteria, Rater.Factory> raterFactoryMap,
+                                         DeliveryService deliveryService,
+                                         OrderGenerator.Factory orderGeneratorFactory) {
+        super(simulationConfig, raterFactoryMap, deliveryService, orderGeneratorFactory);
+    }
+
+    @Override
+    public void runSimulation() {
+        setupNewSimulation();
+        isRunning = true;
+
+        while (!isTerminationRequested() && (simulationLength == -1 || currentTick < simulationLength)) {
+            if (simulationConfig.isPaused()) {
+                try {
+                    //noinspection BusyWait
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    e.printStackTrace();
+                }
+                continue;
+            }
+
+            runCurrentTick();
+
+            long nextTick = getNextTick(currentTick - 1);
+            if (nextTick == Long.MAX_VALUE && simulationLength == -1) {
+                break;
+            }
+            currentTick = simulationLength == -1 ? nextTick : Math.min(nextTick, simulationLength);
+        }
+
+        simulationLength = -1;
+        isRunning = false;
+    }
+
+    /**
+     * Returns the next tick after the given tick that may change the state of this simulation.
+     * @param tick The last executed tick.
+     * @return The next tick that may change the state of this simulation or {@link Long#MAX_VALUE} if there is none.
+     */
+    protected long getNextTick(long tick) {
+        long nextTick = Math.min(
+            getDeliveryService().getNextTick(tick),
+            getOrderGenerator().getNextOrderTick(tick + 1));
+        return Math.max(nextTick, tick + 1);
+    }
+}
@@ -0,0 +1,99 @@
+package projekt.base;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LocationMapUnitTests {
+
+    @Test
+    public void testSameAsHashMap() {
+        Random random = new Random(3);
+        Map<Location, Integer> expected = new HashMap<>();
+        LocationMap<Integer> actual = new LocationMap<>();
+        for (int i = 0; i < 20000; i++) {
+            Location location = new Location(random.nextInt(-40, 40), random.nextInt(-40, 40));
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(location), actual.remove(location));
+            } else {
+                assertEquals(expected.put(location, i), actual.put(location, i));
+            }
+            assertEquals(expected.size(), actual.size());
+        }
+        assertEquals(expected, actual);
+        assertEquals(actual, expected);
+        assertEquals(expected.hashCode(), actual.hashCode());
+        for (int x = -40; x < 40; x++) {
+            for (int y = -40; y < 40; y++) {
+                Location location = new Location(x, y);
+                assertEquals(expected.get(location), actual.get(location));
+                assertEquals(expected.get(location), actual.get(x, y));
+                assertEquals(expected.get(location), actual.getByKey(location.getKey()));
+                assertEquals(expected.containsKey(location), actual.containsKey(x, y));
+            }
+        }
+    }
+
+    @Test
+    public void testInsertionOrder() {
+        LocationMap<String> map = new LocationMap<>(2);
+        List<Location> locations = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Location location = new Location(i * 7 % 13, -i);
+            locations.add(location);
+            map.put(location, location.toString());
+        }
+        assertEquals(locations, new ArrayList<>(map.keySet()));
+        List<Location> visited = new ArrayList<>();
+        map.forEach((location, value) -> {
+            assertEquals(location.toString(), value);
+            visited.add(location);
+        });
+        assertEquals(locations, visited);
+    }
+
+    @Test
+    public void testIteratorRemove() {
+        LocationMap<Integer> map = new LocationMap<>();
+        for (int i = 0; i < 50; i++) {
+            map.put(new Location(i, i), i);
+        }
+        Iterator<Map.Entry<Location, Integer>> iterator = map.entrySet().iterator();
+        int visited = 0;
+        while (iterator.hasNext()) {
+            Map.Entry<Location, Integer> entry = iterator.next();
+            visited++;
+            if (entry.getValue() % 2 == 0) {
+                iterator.remove();
+            } else {
+                entry.setValue(-entry.getValue());
+            }
+        }
+        assertEquals(50, visited);
+        assertEquals(25, map.size());
+        for (int i = 0; i < 50; i++) {
+            assertEquals(i % 2 == 0 ? null : -i, map.get(new Location(i, i)));
+        }
+    }
+
+    @Test
+    public void testNullValuesAndForeignKeys() {
+        LocationMap<String> map = new LocationMap<>();
+        map.put(new Location(1, 2), null);
+        assertTrue(map.containsKey(new Location(1, 2)));
+        assertNull(map.get(new Location(1, 2)));
+        assertNull(map.get("(1,2)"));
+        assertFalse(map.containsKey(null));
+        assertThrows(NullPointerException.class, () -> map.put(null, "A"));
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey(1, 2));
+    }
+}
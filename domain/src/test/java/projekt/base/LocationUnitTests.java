@@ -5,8 +5,12 @@ import org.junit.jupiter.api.Test;
 import projekt.ComparableUnitTests;
 import projekt.ObjectUnitTests;
 
+import java.util.HashSet;
+import java.util.Set;
 import java.util.function.Function;
 
+import static org.junit.jupiter.api.Assertions.*;
+
 public class LocationUnitTests {
 
     private static ComparableUnitTests<Location> comparableUnitTests;
@@ -51,4 +55,41 @@ public class LocationUnitTests {
     public void testLessThen() {
         comparableUnitTests.testLessThen();
     }
+
+    @Test
+    public void testUniqueHashCodes() {
+        assertNotEquals(new Location(1, 23).hashCode(), new Location(12, 3).hashCode());
+        Set<Integer> hashes = new HashSet<>();
+        for (int x = -200; x < 200; x++) {
+            for (int y = -200; y < 200; y++) {
+                hashes.add(new Location(x, y).hashCode());
+            }
+        }
+        assertEquals(400 * 400, hashes.size());
+    }
+
+    @Test
+    public void testOf() {
+        assertSame(Location.of(3, -7), Location.of(3, -7));
+        assertSame(Location.of(-128, 127), Location.of(-128, 127));
+        assertEquals(new Location(1000, -1000), Location.of(1000, -1000));
+        assertSame(Location.of(3, 4), new Location(1, 1).add(new Location(2, 3)));
+    }
+
+    @Test
+    public void testKey() {
+        int[] coordinates = {Integer.MIN_VALUE, -1, 0, 1, Integer.MAX_VALUE};
+        Set<Long> keys = new HashSet<>();
+        for (int x : coordinates) {
+            for (int y : coordinates) {
+                long key = Location.key(x, y);
+                assertEquals(key, new Location(x, y).getKey());
+                assertEquals(x, Location.keyX(key));
+                assertEquals(y, Location.keyY(key));
+                assertEquals(new Location(x, y), Location.ofKey(key));
+                keys.add(key);
+            }
+        }
+        assertEquals(coordinates.length * coordinates.length, keys.size());
+    }
 }
@@ -0,0 +1,92 @@
+package projekt.delivery.archetype;
+
+import org.junit.jupiter.api.Test;
+import projekt.delivery.rating.RatingCriteria;
+import projekt.delivery.routing.Region;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProblemArchetypeGeneratorUnitTests {
+
+    private static ProblemArchetypeGenerator.Builder builder(ProblemArchetypeGenerator.Topology topology) {
+        return ProblemArchetypeGenerator.builder()
+            .setTopology(topology)
+            .setNodeCount(2_000)
+            .setRestaurantCount(9)
+            .setNeighborhoodCount(150)
+            .setVehicleCount(20)
+            .setSeed(42);
+    }
+
+    private static void assertConnected(Region region) {
+        Region.Node start = region.getNodes().iterator().next();
+        Set<Region.Node> visited = new HashSet<>(Set.of(start));
+        Deque<Region.Node> queue = new ArrayDeque<>(visited);
+        while (!queue.isEmpty()) {
+            for (Region.Node node : queue.poll().getAdjacentNodes()) {
+                if (visited.add(node)) {
+                    queue.add(node);
+                }
+            }
+        }
+        assertEquals(region.getNodes().size(), visited.size());
+    }
+
+    @Test
+    public void testTopologies() {
+        for (ProblemArchetypeGenerator.Topology topology : ProblemArchetypeGenerator.Topology.values()) {
+            ProblemArchetype problem = builder(topology).build().generate("generated");
+            Region region = problem.vehicleManager().getRegion();
+            assertEquals(2_000, region.getNodes().size(), topology.name());
+            assertEquals(9, region.getNodes().stream().filter(Region.Restaurant.class::isInstance).count());
+            assertEquals(150, region.getNodes().stream().filter(Region.Neighborhood.class::isInstance).count());
+            assertConnected(region);
+            assertEquals(20, problem.vehicleManager().getAllVehicles().size());
+            assertEquals(Set.of(RatingCriteria.values()), problem.raterFactoryMap().keySet());
+            assertEquals("generated", problem.name());
+        }
+    }
+
+    @Test
+    public void testReproducible() {
+        for (ProblemArchetypeGenerator.Topology topology : ProblemArchetypeGenerator.Topology.values()) {
+            ProblemArchetypeGenerator generator = builder(topology).build();
+            assertEquals(generator.generateRegion(), generator.generateRegion());
+            assertEquals(builder(topology).build().generateRegion(), generator.generateRegion());
+        }
+        assertNotEquals(builder(ProblemArchetypeGenerator.Topology.RANDOM_GEOMETRIC).build().generateRegion(),
+            builder(ProblemArchetypeGenerator.Topology.RANDOM_GEOMETRIC).setSeed(43).build().generateRegion());
+    }
+
+    @Test
+    public void testSmallRegions() {
+        for (ProblemArchetypeGenerator.Topology topology : ProblemArchetypeGenerator.Topology.values()) {
+            for (int nodeCount = 1; nodeCount < 30; nodeCount++) {
+                Region region = ProblemArchetypeGenerator.builder()
+                    .setTopology(topology)
+                    .setNodeCount(nodeCount)
+                    .setRestaurantCount(1)
+                    .setNeighborhoodCount(0)
+                    .setSpacing(1)
+                    .build()
+                    .generateRegion();
+                assertEquals(nodeCount, region.getNodes().size());
+                assertConnected(region);
+            }
+        }
+    }
+
+    @Test
+    public void testInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> ProblemArchetypeGenerator.builder().setNodeCount(0).build());
+        assertThrows(IllegalArgumentException.class, () -> ProblemArchetypeGenerator.builder()
+            .setNodeCount(10).setRestaurantCount(5).setNeighborhoodCount(6).build());
+        assertThrows(IllegalArgumentException.class, () -> ProblemArchetypeGenerator.builder().setRestaurantCount(0).build());
+        assertThrows(IllegalArgumentException.class, () -> ProblemArchetypeGenerator.builder().setSpacing(0).build());
+    }
+}
@@ -0,0 +1,176 @@
+package projekt.delivery.partition;
+
+import org.junit.jupiter.api.Test;
+import projekt.base.Location;
+import projekt.base.ManhattanDistanceCalculator;
+import projekt.delivery.archetype.ProblemArchetypeGenerator;
+import projekt.delivery.routing.CompiledRegion;
+import projekt.delivery.routing.Region;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RegionPartitionerUnitTests {
+
+    private static Region generate(ProblemArchetypeGenerator.Topology topology, int nodeCount) {
+        return ProblemArchetypeGenerator.builder()
+            .setTopology(topology)
+            .setNodeCount(nodeCount)
+            .setRestaurantCount(1)
+            .setNeighborhoodCount(0)
+            .setSeed(3)
+            .build()
+            .generateRegion();
+    }
+
+    private static void assertValid(Partition partition, double imbalance) {
+        CompiledRegion region = partition.getRegion();
+        int n = region.size();
+        int k = partition.getCellCount();
+        long maxCellSize = (long) Math.max((n + k - 1) / k, Math.ceil((1 + imbalance) * n / k));
+        int total = 0;
+        int boundaryNodes = 0;
+        for (int cell = 0; cell < k; cell++) {
+            int[] nodes = partition.getNodes(cell);
+            assertEquals(partition.getCellSize(cell), nodes.length);
+            assertTrue(nodes.length > 0, "empty cell " + cell);
+            assertTrue(nodes.length <= maxCellSize, "cell " + cell + " has " + nodes.length + " nodes");
+            for (int node : nodes) {
+                assertEquals(cell, partition.getCell(node));
+            }
+            for (int node : partition.getBoundaryNodes(cell)) {
+                assertEquals(cell, partition.getCell(node));
+                assertTrue(partition.isBoundary(node));
+            }
+            total += nodes.length;
+            boundaryNodes += partition.getBoundaryNodes(cell).length;
+        }
+        assertEquals(n, total);
+        assertEquals(boundaryNodes, partition.getBoundaryNodeCount());
+
+        long cutArcs = 0;
+        for (int u = 0; u < n; u++) {
+            boolean boundary = false;
+            for (int arc = region.arcStart(u); arc < region.arcEnd(u); arc++) {
+                if (partition.getCell(region.arcTarget(arc)) != partition.getCell(u)) {
+                    boundary = true;
+                    cutArcs++;
+                }
+            }
+            assertEquals(boundary, partition.isBoundary(u));
+        }
+        assertEquals(cutArcs / 2, partition.getCutEdgeCount());
+        assertTrue(partition.getImbalance() <= imbalance + (double) k / n);
+    }
+
+    @Test
+    public void testGrid() {
+        Region region = generate(ProblemArchetypeGenerator.Topology.GRID, 4_096);
+        Partition partition = RegionPartitioner.builder().setCellCount(16).build().partition(region);
+        assertValid(partition, 0.03);
+        // a 64 x 64 grid cut into a 4 x 4 grid of squares needs 6 * 64 cut edges
+        assertTrue(partition.getCutEdgeCount() <= 2 * 6 * 64, partition.toString());
+    }
+
+    @Test
+    public void testTopologies() {
+        for (ProblemArchetypeGenerator.Topology topology : ProblemArchetypeGenerator.Topology.values()) {
+            Region region = generate(topology, 3_000);
+            for (int cellCount : new int[] {1, 2, 7, 64}) {
+                Partition partition = RegionPartitioner.builder()
+                    .setCellCount(cellCount)
+                    .setImbalance(0.1)
+                    .build()
+                    .partition(region);
+                assertValid(partition, 0.1);
+                assertTrue(partition.getCutEdgeCount() < region.getEdges().size() / 4, topology + " " + partition);
+            }
+        }
+    }
+
+    @Test
+    public void testReproducible() {
+        Region region = generate(ProblemArchetypeGenerator.Topology.RANDOM_GEOMETRIC, 2_000);
+        RegionPartitioner partitioner = RegionPartitioner.builder().setCellCount(12).setSeed(5).build();
+        int[] cells = partitioner.partition(region).getCells();
+        assertArrayEquals(cells, partitioner.partition(region).getCells());
+        assertArrayEquals(cells, RegionPartitioner.builder().setCellCount(12).setSeed(5).build()
+            .partition(CompiledRegion.compile(region)).getCells());
+        assertFalse(Arrays.equals(cells, RegionPartitioner.builder().setCellCount(12).setSeed(6).build()
+            .partition(region).getCells()));
+    }
+
+    @Test
+    public void testDisconnectedRegion() {
+        Region.Builder builder = Region.builder().distanceCalculator(new ManhattanDistanceCalculator());
+        for (int i = 0; i < 30; i++) {
+            builder.addNode("N" + i, new Location(i, 0));
+        }
+        // a path of 20 nodes, a path of 5 nodes and 5 isolated nodes
+        for (int i = 0; i < 19; i++) {
+            builder.addEdge("E" + i, new Location(i, 0), new Location(i + 1, 0));
+        }
+        for (int i = 20; i < 24; i++) {
+            builder.addEdge("E" + i, new Location(i, 0), new Location(i + 1, 0));
+        }
+        Region region = builder.build();
+        for (int cellCount = 1; cellCount <= 30; cellCount++) {
+            Partition partition = RegionPartitioner.builder().setCellCount(cellCount).setImbalance(0).build()
+                .partition(region);
+            assertValid(partition, 0);
+        }
+    }
+
+    @Test
+    public void testCellsAreConnectedOnPath() {
+        Region.Builder builder = Region.builder().distanceCalculator(new ManhattanDistanceCalculator());
+        for (int i = 0; i < 100; i++) {
+            builder.addNode("N" + i, new Location(i, 0));
+        }
+        for (int i = 0; i < 99; i++) {
+            builder.addEdge("E" + i, new Location(i, 0), new Location(i + 1, 0));
+        }
+        Partition partition = RegionPartitioner.builder().setCellCount(5).build().partition(builder.build());
+        assertValid(partition, 0.03);
+        assertEquals(4, partition.getCutEdgeCount());
+        assertEquals(8, partition.getBoundaryNodeCount());
+        for (int cell = 0; cell < 5; cell++) {
+            Deque<Integer> nodes = new ArrayDeque<>();
+            for (int node : partition.getNodes(cell)) {
+                nodes.add(node);
+            }
+            assertEquals(nodes.peekLast() - nodes.peekFirst() + 1, nodes.size());
+        }
+    }
+
+    @Test
+    public void testHilbertIndexVisitsNeighbours() {
+        int side = 16;
+        int[] xs = new int[side * side];
+        int[] ys = new int[side * side];
+        for (int x = 0; x < side; x++) {
+            for (int y = 0; y < side; y++) {
+                // the lowest 4 bits of every coordinate only change the lowest 8 bits of the index
+                int index = (int) (RegionPartitioner.hilbertIndex(x, y) & 0xFF);
+                xs[index] = x;
+                ys[index] = y;
+            }
+        }
+        for (int i = 1; i < side * side; i++) {
+            assertEquals(1, Math.abs(xs[i] - xs[i - 1]) + Math.abs(ys[i] - ys[i - 1]), "index " + i);
+        }
+    }
+
+    @Test
+    public void testInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> RegionPartitioner.builder().setCellCount(0).build());
+        assertThrows(IllegalArgumentException.class, () -> RegionPartitioner.builder().setImbalance(-1).build());
+        assertThrows(IllegalArgumentException.class, () -> RegionPartitioner.builder().setRefinementRounds(-1).build());
+        Region region = generate(ProblemArchetypeGenerator.Topology.GRID, 10);
+        assertThrows(IllegalArgumentException.class, () -> RegionPartitioner.builder().setCellCount(11).build()
+            .partition(region));
+    }
+}
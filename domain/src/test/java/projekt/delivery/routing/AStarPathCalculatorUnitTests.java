@@ -0,0 +1,96 @@
+package projekt.delivery.routing;
+
+import org.junit.jupiter.api.Test;
+import projekt.base.ChessboardDistanceCalculator;
+import projekt.base.DistanceCalculator;
+import projekt.base.EuclideanDistanceCalculator;
+import projekt.base.Location;
+import projekt.base.ManhattanDistanceCalculator;
+
+import java.util.Deque;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AStarPathCalculatorUnitTests {
+
+    private static Region createRegion(DistanceCalculator distanceCalculator) {
+        Random random = new Random(42);
+        Region.Builder builder = Region.builder().distanceCalculator(distanceCalculator);
+        Location[][] locations = new Location[8][8];
+        for (int x = 0; x < 8; x++) {
+            for (int y = 0; y < 8; y++) {
+                locations[x][y] = new Location(x * 10 + random.nextInt(5), y * 10 + random.nextInt(5));
+                builder.addNode("N%d%d".formatted(x, y), locations[x][y]);
+            }
+        }
+        for (int x = 0; x < 8; x++) {
+            for (int y = 0; y < 8; y++) {
+                if (x < 7 && random.nextInt(5) > 0) {
+                    builder.addEdge("H%d%d".formatted(x, y), locations[x][y], locations[x + 1][y]);
+                }
+                if (y < 7 && random.nextInt(5) > 0) {
+                    builder.addEdge("V%d%d".formatted(x, y), locations[x][y], locations[x][y + 1]);
+                }
+                if (x < 7 && y < 7 && random.nextInt(3) == 0) {
+                    builder.addEdge("D%d%d".formatted(x, y), locations[x][y], locations[x + 1][y + 1]);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    private static long duration(Region.Node start, Deque<Region.Node> path) {
+        long duration = 0;
+        Region.Node previous = start;
+        for (Region.Node node : path) {
+            Region.Edge edge = previous.getEdge(node);
+            assertNotNull(edge);
+            duration += edge.getDuration();
+            previous = node;
+        }
+        return duration;
+    }
+
+    private static void assertSameDurations(Region region, PathCalculator calculator) {
+        PathCalculator reference = new DijkstraPathCalculator(QueueStrategy.BINARY_HEAP);
+        for (Region.Node start : region.getNodes()) {
+            for (Region.Node end : region.getNodes()) {
+                Deque<Region.Node> expected;
+                try {
+                    expected = reference.getPath(start, end);
+                } catch (IllegalArgumentException e) {
+                    assertThrows(IllegalArgumentException.class, () -> calculator.getPath(start, end));
+                    continue;
+                }
+                Deque<Region.Node> actual = calculator.getPath(start, end);
+                assertEquals(duration(start, expected), duration(start, actual));
+                if (!start.equals(end)) {
+                    assertEquals(end, actual.getLast());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testShortestPaths() {
+        for (DistanceCalculator distanceCalculator : new DistanceCalculator[]{new EuclideanDistanceCalculator(),
+            new ManhattanDistanceCalculator(), new ChessboardDistanceCalculator()}) {
+            Region region = createRegion(distanceCalculator);
+            for (QueueStrategy strategy : QueueStrategy.values()) {
+                AStarPathCalculator calculator = new AStarPathCalculator(strategy);
+                assertTrue(calculator.isHeuristicUsed(region));
+                assertSameDurations(region, calculator);
+            }
+        }
+    }
+
+    @Test
+    public void testFallback() {
+        // a custom distance calculator is not known to be admissible
+        Region region = createRegion((a, b) -> 1);
+        AStarPathCalculator calculator = new AStarPathCalculator();
+        assertFalse(calculator.isHeuristicUsed(region));
+        assertSameDurations(region, calculator);
+    }
+}
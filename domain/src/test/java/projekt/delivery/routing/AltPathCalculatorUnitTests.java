@@ -0,0 +1,117 @@
+package projekt.delivery.routing;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import projekt.base.EuclideanDistanceCalculator;
+import projekt.base.Location;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AltPathCalculatorUnitTests {
+
+    private static Region region;
+    private static CompiledRegion compiled;
+
+    @BeforeAll
+    public static void initialize() {
+        Random random = new Random(3);
+        Region.Builder builder = Region.builder().distanceCalculator(new EuclideanDistanceCalculator());
+        Location[][] locations = new Location[10][10];
+        for (int x = 0; x < 10; x++) {
+            for (int y = 0; y < 10; y++) {
+                locations[x][y] = new Location(x * 10 + random.nextInt(5), y * 10 + random.nextInt(5));
+                builder.addNode("N%d_%d".formatted(x, y), locations[x][y]);
+            }
+        }
+        for (int x = 0; x < 10; x++) {
+            for (int y = 0; y < 10; y++) {
+                if (x < 9 && random.nextInt(5) > 0) {
+                    builder.addEdge("H%d_%d".formatted(x, y), locations[x][y], locations[x + 1][y]);
+                }
+                if (y < 9 && random.nextInt(5) > 0) {
+                    builder.addEdge("V%d_%d".formatted(x, y), locations[x][y], locations[x][y + 1]);
+                }
+            }
+        }
+        builder.addNode("X", new Location(-100, -100));
+        region = builder.build();
+        compiled = CompiledRegion.of(region);
+    }
+
+    @Test
+    public void testLowerBounds() {
+        for (Landmarks.Selection selection : Landmarks.Selection.values()) {
+            Landmarks landmarks = Landmarks.select(compiled, 8, selection);
+            assertEquals(8, landmarks.getCount());
+            int isolated = compiled.indexOf(region.getNode(new Location(-100, -100)));
+            for (int i = 0; i < landmarks.getCount(); i++) {
+                // landmarks are not chosen in tiny components
+                assertNotEquals(isolated, landmarks.getLandmark(i));
+                for (int j = 0; j < i; j++) {
+                    assertNotEquals(landmarks.getLandmark(j), landmarks.getLandmark(i));
+                }
+            }
+            for (int target = 0; target < compiled.size(); target++) {
+                DijkstraWorkspace workspace = DijkstraEngine.search(compiled, target, -1, QueueStrategy.BINARY_HEAP);
+                for (int node = 0; node < compiled.size(); node++) {
+                    if (workspace.isReached(node)) {
+                        assertTrue(landmarks.lowerBound(node, target) <= workspace.getDistance(node));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSameDurations() {
+        PathCalculator reference = new DijkstraPathCalculator(QueueStrategy.BINARY_HEAP);
+        for (Landmarks.Selection selection : Landmarks.Selection.values()) {
+            for (QueueStrategy strategy : QueueStrategy.values()) {
+                PathCalculator calculator = new AltPathCalculator(4, selection, strategy);
+                for (Region.Node start : region.getNodes()) {
+                    for (Region.Node end : region.getNodes()) {
+                        long expected;
+                        try {
+                            expected = reference.getDistance(start, end);
+                        } catch (IllegalArgumentException e) {
+                            assertThrows(IllegalArgumentException.class, () -> calculator.getPath(start, end));
+                            continue;
+                        }
+                        assertEquals(expected, calculator.getDistance(start, end));
+                        long duration = 0;
+                        Region.Node previous = start;
+                        for (Region.Node node : calculator.getPath(start, end)) {
+                            duration += region.getEdge(previous, node).getDuration();
+                            previous = node;
+                        }
+                        assertEquals(expected, duration);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRestore() {
+        Landmarks landmarks = Landmarks.of(compiled, 4, Landmarks.Selection.FARTHEST);
+        assertSame(landmarks, Landmarks.of(compiled, 4, Landmarks.Selection.FARTHEST));
+        long[][] distances = new long[landmarks.getCount()][compiled.size()];
+        int[] ids = new int[landmarks.getCount()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = landmarks.getLandmark(i);
+            for (int node = 0; node < compiled.size(); node++) {
+                distances[i][node] = landmarks.getDistance(i, node);
+            }
+        }
+        Landmarks restored = Landmarks.restore(compiled, Landmarks.Selection.FARTHEST, ids, distances);
+        // landmarks that have been shared before are kept
+        assertSame(landmarks, restored.share());
+        for (int node = 0; node < compiled.size(); node++) {
+            assertEquals(landmarks.lowerBound(node, 0), restored.lowerBound(node, 0));
+        }
+        assertThrows(IllegalArgumentException.class,
+            () -> Landmarks.restore(compiled, Landmarks.Selection.FARTHEST, ids, new long[ids.length][1]));
+    }
+}
@@ -0,0 +1,73 @@
+package projekt.delivery.routing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CachePolicyUnitTests {
+
+    /**
+     * Inserts the given keys into a cache with the given capacity and returns the keys that remain.
+     */
+    private static Set<Integer> simulate(CachePolicy<Integer> policy, int capacity, int... keys) {
+        Set<Integer> cache = new HashSet<>();
+        for (int key : keys) {
+            if (cache.contains(key)) {
+                policy.recordAccess(key);
+                continue;
+            }
+            cache.add(key);
+            policy.recordInsertion(key);
+            while (cache.size() > capacity) {
+                assertTrue(cache.remove(policy.evict()));
+            }
+        }
+        return cache;
+    }
+
+    @Test
+    public void testLru() {
+        assertEquals(Set.of(1, 3), simulate(new LruCachePolicy<>(2), 2, 1, 2, 1, 3));
+    }
+
+    @Test
+    public void testLfu() {
+        // the new key is used less often than the others
+        assertEquals(Set.of(1, 2), simulate(new LfuCachePolicy<>(2), 2, 1, 1, 2, 2, 1, 3));
+        // ties are evicted in least recently used order
+        assertEquals(Set.of(2, 3), simulate(new LfuCachePolicy<>(2), 2, 1, 2, 3));
+    }
+
+    @Test
+    public void testWindowTinyLfuKeepsFrequentKeys() {
+        int capacity = 100;
+        int[] keys = new int[20_000];
+        for (int i = 0; i < keys.length; i++) {
+            // every other request is one of ten hot keys, the rest is a scan over cold keys
+            keys[i] = i % 2 == 0 ? i % 20 / 2 : 1000 + i;
+        }
+        Set<Integer> cache = simulate(new WindowTinyLfuCachePolicy<>(capacity), capacity, keys);
+        for (int hot = 0; hot < 10; hot++) {
+            assertTrue(cache.contains(hot), "Hot key %d was evicted".formatted(hot));
+        }
+    }
+
+    @Test
+    public void testEvictEmpty() {
+        for (IntFunction<CachePolicy<Integer>> factory : List.<IntFunction<CachePolicy<Integer>>>of(
+            LruCachePolicy::new, LfuCachePolicy::new, WindowTinyLfuCachePolicy::new)) {
+            CachePolicy<Integer> policy = factory.apply(4);
+            assertThrows(IllegalStateException.class, policy::evict);
+            policy.recordInsertion(1);
+            policy.recordRemoval(1);
+            assertThrows(IllegalStateException.class, policy::evict);
+            policy.recordInsertion(2);
+            assertEquals(Integer.valueOf(2), policy.evict());
+        }
+    }
+}
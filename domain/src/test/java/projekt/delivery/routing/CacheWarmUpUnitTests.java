@@ -0,0 +1,117 @@
+package projekt.delivery.routing;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import projekt.base.Location;
+import projekt.base.ManhattanDistanceCalculator;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CacheWarmUpUnitTests {
+
+    private static Region region;
+
+    @BeforeAll
+    public static void initialize() {
+        Region.Builder builder = Region.builder().distanceCalculator(new ManhattanDistanceCalculator());
+        for (int x = 0; x < 5; x++) {
+            for (int y = 0; y < 5; y++) {
+                Location location = new Location(x, y);
+                if (x == y) {
+                    builder.addRestaurant("R%d_%d".formatted(x, y), location, List.of("Pizza"));
+                } else if (x + y == 4) {
+                    builder.addNeighborhood("B%d_%d".formatted(x, y), location);
+                } else {
+                    builder.addNode("N%d_%d".formatted(x, y), location);
+                }
+                if (x > 0) {
+                    builder.addEdge("H%d_%d".formatted(x, y), new Location(x - 1, y), location);
+                }
+                if (y > 0) {
+                    builder.addEdge("V%d_%d".formatted(x, y), new Location(x, y - 1), location);
+                }
+            }
+        }
+        region = builder.build();
+    }
+
+    @Test
+    public void testWarmUp() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            CachedPathCalculator calculator = new CachedPathCalculator(new DijkstraPathCalculator());
+            List<Integer> progress = new ArrayList<>();
+            VehicleManager vehicleManager = VehicleManager.builder()
+                .region(region)
+                .pathCalculator(calculator)
+                .warmUp(executor, (completed, total) -> {
+                    synchronized (progress) {
+                        progress.add(completed);
+                    }
+                    assertEquals(9, total);
+                })
+                .build();
+            CacheWarmUp warmUp = vehicleManager.getCacheWarmUp();
+            assertNotNull(warmUp);
+            warmUp.await();
+            assertTrue(warmUp.isDone());
+            assertEquals(9, warmUp.getTotal());
+            assertEquals(9, warmUp.getCompleted());
+            assertEquals(List.of(1, 2, 3, 4, 5, 6, 7, 8, 9), progress.stream().sorted().toList());
+
+            // the warm-up is not counted as requests, but all later requests are hits
+            assertEquals(new CacheStats(0, 0, 0, 0, 9, calculator.getStats().estimatedBytes()), calculator.getStats());
+            calculator.getPath(region.getNode(new Location(0, 1)), region.getNode(new Location(2, 2)));
+            calculator.getPath(region.getNode(new Location(0, 1)), region.getNode(new Location(1, 3)));
+            assertEquals(2, calculator.getStats().hits());
+            assertEquals(0, calculator.getStats().misses());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testLimitedBySize() {
+        CachedPathCalculator calculator = new CachedPathCalculator(new DijkstraPathCalculator(), 3);
+        List<Region.Node> ends = new ArrayList<>(region.getNodes());
+        CacheWarmUp warmUp = CacheWarmUp.start(calculator, ends, Runnable::run, null);
+        assertTrue(warmUp.isDone());
+        assertEquals(3, warmUp.getTotal());
+        // the entries are split into segments, so the end nodes may still evict each other
+        assertTrue(calculator.getStats().entries() <= 3);
+    }
+
+    @Test
+    public void testCancel() {
+        Queue<Runnable> tasks = new ArrayDeque<>();
+        CachedPathCalculator calculator = new CachedPathCalculator(new DijkstraPathCalculator());
+        CacheWarmUp warmUp = CacheWarmUp.start(calculator, List.copyOf(region.getNodes()), tasks::add, null);
+        assertEquals(25, tasks.size());
+        tasks.poll().run();
+        tasks.poll().run();
+        warmUp.cancel();
+        assertTrue(warmUp.isCancelled());
+        tasks.forEach(Runnable::run);
+        assertTrue(warmUp.isDone());
+        assertEquals(2, warmUp.getCompleted());
+        assertEquals(2, calculator.getStats().entries());
+    }
+
+    @Test
+    public void testNoWarmUp() {
+        VehicleManager vehicleManager = VehicleManager.builder()
+            .region(region)
+            .pathCalculator(new DijkstraPathCalculator())
+            .warmUp(Runnable::run, null)
+            .build();
+        // only a CachedPathCalculator can be warmed up
+        assertNull(vehicleManager.getCacheWarmUp());
+    }
+}
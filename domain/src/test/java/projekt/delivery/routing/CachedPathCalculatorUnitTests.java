@@ -0,0 +1,132 @@
+package projekt.delivery.routing;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import projekt.base.Location;
+import projekt.base.ManhattanDistanceCalculator;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CachedPathCalculatorUnitTests {
+
+    private static Region region;
+
+    @BeforeAll
+    public static void initialize() {
+        Region.Builder builder = Region.builder().distanceCalculator(new ManhattanDistanceCalculator());
+        for (int x = 0; x < 5; x++) {
+            for (int y = 0; y < 5; y++) {
+                builder.addNode("N%d%d".formatted(x, y), new Location(x, y * 2));
+                if (x > 0) {
+                    builder.addEdge("H%d%d".formatted(x, y), new Location(x - 1, y * 2), new Location(x, y * 2));
+                }
+                if (y > 0) {
+                    builder.addEdge("V%d%d".formatted(x, y), new Location(x, y * 2 - 2), new Location(x, y * 2));
+                }
+            }
+        }
+        builder.addNode("X", new Location(-10, -10));
+        region = builder.build();
+    }
+
+    private static void assertSamePaths(PathCalculator expected, PathCalculator actual) {
+        for (Region.Node end : region.getNodes()) {
+            Map<Region.Node, Deque<Region.Node>> expectedPaths = expected.getAllPathsTo(end);
+            Map<Region.Node, Deque<Region.Node>> actualPaths = actual.getAllPathsTo(end);
+            assertEquals(expectedPaths.size(), actualPaths.size());
+            for (Map.Entry<Region.Node, Deque<Region.Node>> entry : expectedPaths.entrySet()) {
+                assertEquals(List.copyOf(entry.getValue()), List.copyOf(actualPaths.get(entry.getKey())));
+                assertEquals(List.copyOf(entry.getValue()), List.copyOf(actual.getPath(entry.getKey(), end)));
+            }
+        }
+    }
+
+    @Test
+    public void testSamePaths() {
+        PathCalculator dijkstra = new DijkstraPathCalculator();
+        assertSamePaths(dijkstra, new CachedPathCalculator(dijkstra));
+        assertSamePaths(dijkstra, new CachedPathCalculator(dijkstra, 1));
+        assertSamePaths(dijkstra, CachedPathCalculator.withMemoryLimit(dijkstra, 1024, 1000));
+        // delegates that are not a DijkstraPathCalculator are asked for their paths
+        PathCalculator aStar = new AStarPathCalculator();
+        assertSamePaths(aStar, new CachedPathCalculator(aStar, 3));
+        assertSamePaths(dijkstra, new CachedPathCalculator(dijkstra, 3, Long.MAX_VALUE, LruCachePolicy::new));
+        assertSamePaths(dijkstra, new CachedPathCalculator(dijkstra, 3, Long.MAX_VALUE, LfuCachePolicy::new));
+    }
+
+    @Test
+    public void testStats() {
+        CachedPathCalculator calculator = new CachedPathCalculator(new DijkstraPathCalculator(), 1);
+        Region.Node start = region.getNode(new Location(0, 0));
+        Region.Node end = region.getNode(new Location(4, 8));
+        assertEquals(new CacheStats(0, 0, 0, 0, 0, 0), calculator.getStats());
+        calculator.getPath(start, end);
+        calculator.getPath(end, end);
+        calculator.getPath(end, start);
+        CacheStats stats = calculator.getStats();
+        assertEquals(1, stats.hits());
+        assertEquals(2, stats.misses());
+        assertEquals(1, stats.evictions());
+        assertEquals(1, stats.entries());
+        assertTrue(stats.estimatedBytes() > 0);
+        assertEquals(1.0 / 3, stats.hitRate(), 1e-9);
+    }
+
+    @Test
+    public void testCopies() {
+        CachedPathCalculator calculator = new CachedPathCalculator(new DijkstraPathCalculator());
+        Region.Node start = region.getNode(new Location(0, 0));
+        Region.Node end = region.getNode(new Location(4, 8));
+        Deque<Region.Node> path = calculator.getPath(start, end);
+        int length = path.size();
+        path.clear();
+        calculator.getAllPathsTo(end).get(start).clear();
+        assertEquals(length, calculator.getPath(start, end).size());
+        assertThrows(IllegalArgumentException.class,
+            () -> calculator.getPath(region.getNode(new Location(-10, -10)), end));
+        assertFalse(calculator.getAllPathsTo(end).containsKey(region.getNode(new Location(-10, -10))));
+    }
+
+    @Test
+    public void testTimeDependentDelegate() {
+        // the cached paths would keep the departure tick of their first calculation
+        assertThrows(IllegalArgumentException.class, () -> new CachedPathCalculator(new TimeDependentPathCalculator()));
+        assertThrows(IllegalArgumentException.class,
+            () -> CachedPathCalculator.withMemoryLimit(new TimeDependentPathCalculator(() -> 0), 4, 1 << 20));
+    }
+
+    @Test
+    public void testConcurrentAccess() throws Exception {
+        PathCalculator dijkstra = new DijkstraPathCalculator();
+        CachedPathCalculator calculator = new CachedPathCalculator(dijkstra, 4);
+        List<Region.Node> nodes = new ArrayList<>(region.getNodes());
+        nodes.remove(region.getNode(new Location(-10, -10)));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                int offset = thread;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        Region.Node start = nodes.get((i * 7 + offset) % nodes.size());
+                        Region.Node end = nodes.get((i * 3 + offset) % nodes.size());
+                        assertEquals(dijkstra.getPath(start, end).size(), calculator.getPath(start, end).size());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
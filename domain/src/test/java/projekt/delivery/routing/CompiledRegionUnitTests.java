@@ -0,0 +1,125 @@
+package projekt.delivery.routing;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import projekt.base.Location;
+import projekt.base.ManhattanDistanceCalculator;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompiledRegionUnitTests {
+
+    private static Region region;
+    private static CompiledRegion compiled;
+
+    @BeforeAll
+    public static void initialize() {
+        region = Region.builder()
+            .distanceCalculator(new ManhattanDistanceCalculator())
+            .addNode("A", new Location(0, 0))
+            .addNode("B", new Location(0, 2))
+            .addNode("C", new Location(3, 0))
+            .addNode("D", new Location(3, 2))
+            .addNode("E", new Location(9, 9))
+            .addEdge("AB", new Location(0, 0), new Location(0, 2))
+            .addEdge("AC", new Location(0, 0), new Location(3, 0))
+            .addEdge("BD", new Location(0, 2), new Location(3, 2))
+            .addEdge("CD", new Location(3, 0), new Location(3, 2))
+            .build();
+        compiled = CompiledRegion.of(region);
+    }
+
+    @Test
+    public void testShared() {
+        assertSame(compiled, CompiledRegion.of(region));
+        assertSame(region, compiled.getRegion());
+    }
+
+    @Test
+    public void testNodeIds() {
+        assertEquals(5, compiled.size());
+        for (int id = 0; id < compiled.size(); id++) {
+            Region.Node node = compiled.getNode(id);
+            assertEquals(id, compiled.indexOf(node));
+            assertEquals(node.getLocation().getX(), compiled.getX(id));
+            assertEquals(node.getLocation().getY(), compiled.getY(id));
+            if (id > 0) {
+                assertTrue(compiled.getNode(id - 1).getLocation().compareTo(node.getLocation()) < 0);
+            }
+        }
+    }
+
+    @Test
+    public void testArcs() {
+        assertEquals(2 * region.getEdges().size(), compiled.arcCount());
+        for (int u = 0; u < compiled.size(); u++) {
+            Region.Node node = compiled.getNode(u);
+            Set<Region.Node> adjacent = new HashSet<>();
+            for (int arc = compiled.arcStart(u); arc < compiled.arcEnd(u); arc++) {
+                Region.Node target = compiled.getNode(compiled.arcTarget(arc));
+                adjacent.add(target);
+                assertEquals(node.getEdge(target), compiled.arcEdge(arc));
+                assertEquals(compiled.arcEdge(arc).getDuration(), compiled.arcDuration(arc));
+            }
+            assertEquals(node.getAdjacentNodes(), adjacent);
+        }
+        assertEquals(2, compiled.getMinDuration());
+        assertEquals(3, compiled.getMaxDuration());
+    }
+
+    @Test
+    public void testUnknownNode() {
+        Region other = Region.builder()
+            .distanceCalculator(new ManhattanDistanceCalculator())
+            .addNode("X", new Location(42, 42))
+            .build();
+        assertThrows(IllegalArgumentException.class,
+            () -> compiled.indexOf(other.getNode(new Location(42, 42))));
+    }
+
+    @Test
+    public void testGetOrComputeOnce() throws Exception {
+        Object key = new Object();
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Object>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return compiled.getOrCompute(key, ignored -> {
+                        calls.incrementAndGet();
+                        // the factory may attach other data
+                        return compiled.getOrCompute(calls, alsoIgnored -> new Object());
+                    });
+                }));
+            }
+            start.countDown();
+            Object first = results.get(0).get();
+            for (Future<Object> result : results) {
+                assertSame(first, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(1, calls.get());
+
+        Object failing = new Object();
+        assertThrows(IllegalStateException.class, () -> compiled.getOrCompute(failing, ignored -> {
+            throw new IllegalStateException("failed");
+        }));
+        // a failed computation is not attached
+        assertEquals("computed", compiled.getOrCompute(failing, ignored -> "computed"));
+    }
+}
@@ -0,0 +1,96 @@
+package projekt.delivery.routing;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import projekt.base.EuclideanDistanceCalculator;
+import projekt.base.Location;
+
+import java.util.Deque;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ContractionHierarchyPathCalculatorUnitTests {
+
+    private static Region region;
+    private static Region.Node isolated;
+
+    @BeforeAll
+    public static void initialize() {
+        Random random = new Random(7);
+        Region.Builder builder = Region.builder().distanceCalculator(new EuclideanDistanceCalculator());
+        Location[][] locations = new Location[12][12];
+        for (int x = 0; x < 12; x++) {
+            for (int y = 0; y < 12; y++) {
+                locations[x][y] = new Location(x * 10 + random.nextInt(6), y * 10 + random.nextInt(6));
+                builder.addNode("N%d_%d".formatted(x, y), locations[x][y]);
+            }
+        }
+        for (int x = 0; x < 12; x++) {
+            for (int y = 0; y < 12; y++) {
+                if (x < 11 && random.nextInt(6) > 0) {
+                    builder.addEdge("H%d_%d".formatted(x, y), locations[x][y], locations[x + 1][y]);
+                }
+                if (y < 11 && random.nextInt(6) > 0) {
+                    builder.addEdge("V%d_%d".formatted(x, y), locations[x][y], locations[x][y + 1]);
+                }
+                if (x < 11 && y < 11 && random.nextInt(4) == 0) {
+                    builder.addEdge("D%d_%d".formatted(x, y), locations[x][y], locations[x + 1][y + 1]);
+                }
+            }
+        }
+        builder.addNode("X", new Location(-50, -50));
+        region = builder.build();
+        isolated = region.getNode(new Location(-50, -50));
+    }
+
+    private static long duration(Region.Node start, Deque<Region.Node> path) {
+        long duration = 0;
+        Region.Node previous = start;
+        for (Region.Node node : path) {
+            Region.Edge edge = previous.getEdge(node);
+            assertNotNull(edge);
+            duration += edge.getDuration();
+            previous = node;
+        }
+        return duration;
+    }
+
+    @Test
+    public void testShortestPaths() {
+        ContractionHierarchyPathCalculator calculator = new ContractionHierarchyPathCalculator();
+        PathCalculator reference = new DijkstraPathCalculator();
+        for (Region.Node end : region.getNodes()) {
+            var expected = reference.getAllPathsTo(end);
+            for (Region.Node start : region.getNodes()) {
+                if (!expected.containsKey(start)) {
+                    assertThrows(IllegalArgumentException.class, () -> calculator.getPath(start, end));
+                    assertThrows(IllegalArgumentException.class, () -> calculator.getDistance(start, end));
+                    continue;
+                }
+                long distance = duration(start, expected.get(start));
+                Deque<Region.Node> path = calculator.getPath(start, end);
+                assertEquals(distance, duration(start, path));
+                assertEquals(distance, calculator.getDistance(start, end));
+                if (start.equals(end)) {
+                    assertTrue(path.isEmpty());
+                } else {
+                    assertEquals(end, path.getLast());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testHierarchy() {
+        CompiledRegion compiled = CompiledRegion.of(region);
+        ContractionHierarchy hierarchy = ContractionHierarchy.of(compiled);
+        assertSame(hierarchy, ContractionHierarchy.of(compiled));
+        boolean[] ranks = new boolean[compiled.size()];
+        for (int node = 0; node < compiled.size(); node++) {
+            assertFalse(ranks[hierarchy.getRank(node)]);
+            ranks[hierarchy.getRank(node)] = true;
+        }
+        assertEquals(Long.MAX_VALUE, hierarchy.getDistance(compiled.size() - 1, compiled.indexOf(isolated)));
+    }
+}
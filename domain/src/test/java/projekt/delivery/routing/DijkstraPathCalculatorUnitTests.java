@@ -0,0 +1,150 @@
+package projekt.delivery.routing;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import projekt.base.Location;
+import projekt.base.ManhattanDistanceCalculator;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DijkstraPathCalculatorUnitTests {
+
+    private static Region region;
+    private static Region.Node isolated;
+
+    @BeforeAll
+    public static void initialize() {
+        Region.Builder builder = Region.builder().distanceCalculator(new ManhattanDistanceCalculator());
+        for (int x = 0; x < 5; x++) {
+            for (int y = 0; y < 5; y++) {
+                builder.addNode("N%d%d".formatted(x, y), new Location(x * 3, y * 2));
+            }
+        }
+        for (int x = 0; x < 5; x++) {
+            for (int y = 0; y < 5; y++) {
+                if (x < 4) {
+                    builder.addEdge("H%d%d".formatted(x, y), new Location(x * 3, y * 2), new Location(x * 3 + 3, y * 2));
+                }
+                if (y < 4) {
+                    builder.addEdge("V%d%d".formatted(x, y), new Location(x * 3, y * 2), new Location(x * 3, y * 2 + 2));
+                }
+            }
+        }
+        // A long diagonal shortcut that is never shorter than the grid
+        builder.addEdge("D", new Location(0, 0), new Location(12, 8));
+        builder.addNode("X", new Location(100, 100));
+        region = builder.build();
+        isolated = region.getNode(new Location(100, 100));
+    }
+
+    private static long duration(Region.Node start, Deque<Region.Node> path) {
+        long duration = 0;
+        Region.Node previous = start;
+        for (Region.Node node : path) {
+            Region.Edge edge = previous.getEdge(node);
+            assertNotNull(edge);
+            duration += edge.getDuration();
+            previous = node;
+        }
+        return duration;
+    }
+
+    @Test
+    public void testStrategiesAgree() {
+        PathCalculator reference = new DijkstraPathCalculator(QueueStrategy.BINARY_HEAP);
+        for (QueueStrategy strategy : QueueStrategy.values()) {
+            PathCalculator calculator = new DijkstraPathCalculator(strategy);
+            for (Region.Node start : region.getNodes()) {
+                for (Region.Node end : region.getNodes()) {
+                    if (start == isolated || end == isolated) {
+                        continue;
+                    }
+                    Deque<Region.Node> path = calculator.getPath(start, end);
+                    if (start.equals(end)) {
+                        assertTrue(path.isEmpty());
+                    } else {
+                        assertEquals(end, path.getLast());
+                        assertNotEquals(start, path.getFirst());
+                    }
+                    long expected = Math.abs(start.getLocation().getX() - end.getLocation().getX())
+                        + Math.abs(start.getLocation().getY() - end.getLocation().getY());
+                    assertEquals(expected, duration(start, path), strategy.name());
+                    assertEquals(duration(start, reference.getPath(start, end)), duration(start, path));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testBidirectional() {
+        PathCalculator unidirectional = new DijkstraPathCalculator(QueueStrategy.BINARY_HEAP, false);
+        for (QueueStrategy strategy : QueueStrategy.values()) {
+            PathCalculator bidirectional = new DijkstraPathCalculator(strategy, true);
+            for (Region.Node start : region.getNodes()) {
+                for (Region.Node end : region.getNodes()) {
+                    if (start == isolated || end == isolated) {
+                        continue;
+                    }
+                    Deque<Region.Node> path = bidirectional.getPath(start, end);
+                    assertEquals(duration(start, unidirectional.getPath(start, end)), duration(start, path));
+                    if (!start.equals(end)) {
+                        assertEquals(end, path.getLast());
+                    }
+                }
+            }
+        }
+        assertThrows(IllegalArgumentException.class,
+            () -> new DijkstraPathCalculator(null, true).getPath(isolated, region.getNode(new Location(0, 0))));
+    }
+
+    @Test
+    public void testAllPathsTo() {
+        Region.Node end = region.getNode(new Location(6, 4));
+        Map<Region.Node, Deque<Region.Node>> paths = new DijkstraPathCalculator().getAllPathsTo(end);
+        assertEquals(region.getNodes().size() - 1, paths.size());
+        assertFalse(paths.containsKey(isolated));
+        assertTrue(paths.get(end).isEmpty());
+        paths.forEach((start, path) -> assertEquals(duration(start, new DijkstraPathCalculator().getPath(start, end)),
+            duration(start, path)));
+    }
+
+    @Test
+    public void testDistances() {
+        List<PathCalculator> calculators = List.of(new DijkstraPathCalculator(null, true),
+            new DijkstraPathCalculator(null, false), new AStarPathCalculator(),
+            new CachedPathCalculator(new DijkstraPathCalculator()), new NextHopTablePathCalculator(),
+            new ContractionHierarchyPathCalculator());
+        List<PathCalculator.Query> queries = new ArrayList<>();
+        for (Region.Node start : region.getNodes()) {
+            for (Region.Node end : region.getNodes()) {
+                if (start != isolated && end != isolated) {
+                    queries.add(new PathCalculator.Query(start, end));
+                }
+            }
+        }
+        for (PathCalculator calculator : calculators) {
+            List<Deque<Region.Node>> paths = calculator.getPaths(queries);
+            long[] distances = calculator.getDistances(queries);
+            assertEquals(queries.size(), paths.size());
+            for (int i = 0; i < queries.size(); i++) {
+                PathCalculator.Query query = queries.get(i);
+                long expected = duration(query.start(), paths.get(i));
+                assertEquals(expected, distances[i], calculator.getClass().getSimpleName());
+                assertEquals(expected, calculator.getDistance(query.start(), query.end()));
+            }
+            assertThrows(IllegalArgumentException.class, () -> calculator.getDistance(queries.get(0).start(), isolated));
+        }
+    }
+
+    @Test
+    public void testUnreachable() {
+        Region.Node start = region.getNode(new Location(0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new DijkstraPathCalculator().getPath(start, isolated));
+        assertTrue(new DijkstraPathCalculator().getPath(isolated, isolated).isEmpty());
+    }
+}
@@ -0,0 +1,105 @@
+package projekt.delivery.routing;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import projekt.base.EuclideanDistanceCalculator;
+import projekt.base.Location;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DistanceMatrixUnitTests {
+
+    private static Region region;
+    private static CompiledRegion compiled;
+
+    @BeforeAll
+    public static void initialize() {
+        Random random = new Random(7);
+        Region.Builder builder = Region.builder().distanceCalculator(new EuclideanDistanceCalculator());
+        Location[][] locations = new Location[12][12];
+        for (int x = 0; x < 12; x++) {
+            for (int y = 0; y < 12; y++) {
+                locations[x][y] = new Location(x * 10 + random.nextInt(5), y * 10 + random.nextInt(5));
+                if ((x * 12 + y) % 17 == 0) {
+                    builder.addRestaurant("R%d_%d".formatted(x, y), locations[x][y], List.of("Pizza"));
+                } else if ((x + y) % 5 == 0) {
+                    builder.addNeighborhood("B%d_%d".formatted(x, y), locations[x][y]);
+                } else {
+                    builder.addNode("N%d_%d".formatted(x, y), locations[x][y]);
+                }
+            }
+        }
+        for (int x = 0; x < 12; x++) {
+            for (int y = 0; y < 12; y++) {
+                if (x < 11 && random.nextInt(5) > 0) {
+                    builder.addEdge("H%d_%d".formatted(x, y), locations[x][y], locations[x + 1][y]);
+                }
+                if (y < 11 && random.nextInt(5) > 0) {
+                    builder.addEdge("V%d_%d".formatted(x, y), locations[x][y], locations[x][y + 1]);
+                }
+            }
+        }
+        builder.addRestaurant(new Location(500, 500), Region.Restaurant.PASTAFAR);
+        region = builder.build();
+        compiled = CompiledRegion.of(region);
+    }
+
+    @Test
+    public void testToRestaurants() {
+        DistanceMatrix matrix = DistanceMatrix.toRestaurants(compiled);
+        assertSame(matrix, DistanceMatrix.toRestaurants(compiled));
+        assertEquals(compiled.size(), matrix.getSourceCount());
+        long restaurants = region.getNodes().stream().filter(node -> node instanceof Region.Restaurant).count();
+        assertEquals(restaurants, matrix.getTargetCount());
+
+        for (int j = 0; j < matrix.getTargetCount(); j++) {
+            int target = matrix.getTarget(j);
+            DijkstraWorkspace workspace = DijkstraEngine.search(compiled, target, -1, QueueStrategy.BINARY_HEAP);
+            for (int i = 0; i < matrix.getSourceCount(); i++) {
+                assertEquals(workspace.getDistance(matrix.getSource(i)), matrix.getDistance(i, j));
+            }
+        }
+    }
+
+    @Test
+    public void testLookup() {
+        DistanceMatrix matrix = DistanceMatrix.toRestaurants(compiled);
+        PathCalculator reference = new DijkstraPathCalculator();
+        Region.Node isolated = region.getNode(new Location(500, 500));
+        List<Region.Node> restaurants = region.getNodes().stream()
+            .filter(node -> node instanceof Region.Restaurant && node != isolated)
+            .toList();
+        for (Region.Node node : region.getNodes()) {
+            if (node == isolated) {
+                continue;
+            }
+            for (Region.Node restaurant : restaurants) {
+                assertEquals(reference.getDistance(node, restaurant), matrix.getDistance(node, restaurant));
+            }
+            assertThrows(IllegalArgumentException.class, () -> matrix.getDistance(node, isolated));
+            if (!(node instanceof Region.Restaurant)) {
+                // only restaurants are targets
+                assertEquals(-1, matrix.indexOfTarget(node));
+                assertThrows(IllegalArgumentException.class, () -> matrix.getDistance(restaurants.get(0), node));
+            }
+        }
+        assertEquals(0, matrix.getDistance(isolated, isolated));
+    }
+
+    @Test
+    public void testCompute() {
+        int[] sources = {3, 40, 77, 100};
+        int[] targets = {5, 40, 143};
+        DistanceMatrix matrix = DistanceMatrix.compute(compiled, sources, targets);
+        for (int i = 0; i < sources.length; i++) {
+            DijkstraWorkspace workspace = DijkstraEngine.search(compiled, sources[i], -1, QueueStrategy.BINARY_HEAP);
+            for (int j = 0; j < targets.length; j++) {
+                assertEquals(workspace.getDistance(targets[j]), matrix.getDistance(i, j));
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> DistanceMatrix.compute(compiled, new int[]{1, 1}, targets));
+    }
+}
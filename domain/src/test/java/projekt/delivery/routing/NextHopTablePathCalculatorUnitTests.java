@@ -0,0 +1,91 @@
+package projekt.delivery.routing;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import projekt.base.EuclideanDistanceCalculator;
+import projekt.base.Location;
+
+import java.util.Deque;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NextHopTablePathCalculatorUnitTests {
+
+    private static Region region;
+
+    @BeforeAll
+    public static void initialize() {
+        Random random = new Random(3);
+        Region.Builder builder = Region.builder().distanceCalculator(new EuclideanDistanceCalculator());
+        Location[][] locations = new Location[6][6];
+        for (int x = 0; x < 6; x++) {
+            for (int y = 0; y < 6; y++) {
+                locations[x][y] = new Location(x * 7 + random.nextInt(4), y * 7 + random.nextInt(4));
+                builder.addNode("N%d%d".formatted(x, y), locations[x][y]);
+            }
+        }
+        for (int x = 0; x < 6; x++) {
+            for (int y = 0; y < 6; y++) {
+                if (x < 5 && random.nextInt(5) > 0) {
+                    builder.addEdge("H%d%d".formatted(x, y), locations[x][y], locations[x + 1][y]);
+                }
+                if (y < 5 && random.nextInt(5) > 0) {
+                    builder.addEdge("V%d%d".formatted(x, y), locations[x][y], locations[x][y + 1]);
+                }
+            }
+        }
+        builder.addNode("X", new Location(100, 100));
+        region = builder.build();
+    }
+
+    private static long duration(Region.Node start, Deque<Region.Node> path) {
+        long duration = 0;
+        Region.Node previous = start;
+        for (Region.Node node : path) {
+            Region.Edge edge = previous.getEdge(node);
+            assertNotNull(edge);
+            duration += edge.getDuration();
+            previous = node;
+        }
+        return duration;
+    }
+
+    @Test
+    public void testShortestPaths() {
+        NextHopTablePathCalculator calculator = new NextHopTablePathCalculator();
+        PathCalculator reference = new DijkstraPathCalculator();
+        for (Region.Node end : region.getNodes()) {
+            Map<Region.Node, Deque<Region.Node>> expected = reference.getAllPathsTo(end);
+            Map<Region.Node, Deque<Region.Node>> actual = calculator.getAllPathsTo(end);
+            assertEquals(expected.keySet(), actual.keySet());
+            for (Region.Node start : region.getNodes()) {
+                if (!expected.containsKey(start)) {
+                    assertThrows(IllegalArgumentException.class, () -> calculator.getPath(start, end));
+                    assertThrows(IllegalArgumentException.class, () -> calculator.getDistance(start, end));
+                    continue;
+                }
+                long distance = duration(start, expected.get(start));
+                assertEquals(distance, duration(start, actual.get(start)));
+                assertEquals(distance, duration(start, calculator.getPath(start, end)));
+                assertEquals(distance, calculator.getDistance(start, end));
+            }
+        }
+    }
+
+    @Test
+    public void testFallback() {
+        NextHopTablePathCalculator calculator = new NextHopTablePathCalculator(10);
+        Region.Node start = region.getNodes().iterator().next();
+        for (Region.Node end : region.getNodes()) {
+            Deque<Region.Node> expected;
+            try {
+                expected = calculator.getFallback().getPath(start, end);
+            } catch (IllegalArgumentException e) {
+                continue;
+            }
+            assertEquals(duration(start, expected), calculator.getDistance(start, end));
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package projekt.delivery.routing;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import projekt.base.EuclideanDistanceCalculator;
+import projekt.base.Location;
+import projekt.base.ManhattanDistanceCalculator;
+
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToLongFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OverlayPathCalculatorUnitTests {
+
+    private static final int[] CELL_SIZES = {8, 32, 128};
+
+    private static Region region;
+
+    @BeforeAll
+    public static void initialize() {
+        Random random = new Random(11);
+        Region.Builder builder = Region.builder().distanceCalculator(new EuclideanDistanceCalculator());
+        Location[][] locations = new Location[16][16];
+        for (int x = 0; x < 16; x++) {
+            for (int y = 0; y < 16; y++) {
+                locations[x][y] = new Location(x * 10 + random.nextInt(6), y * 10 + random.nextInt(6));
+                builder.addNode("N%d_%d".formatted(x, y), locations[x][y]);
+            }
+        }
+        for (int x = 0; x < 16; x++) {
+            for (int y = 0; y < 16; y++) {
+                if (x < 15 && random.nextInt(6) > 0) {
+                    builder.addEdge("H%d_%d".formatted(x, y), locations[x][y], locations[x + 1][y]);
+                }
+                if (y < 15 && random.nextInt(6) > 0) {
+                    builder.addEdge("V%d_%d".formatted(x, y), locations[x][y], locations[x][y + 1]);
+                }
+                if (x < 15 && y < 15 && random.nextInt(4) == 0) {
+                    builder.addEdge("D%d_%d".formatted(x, y), locations[x][y], locations[x + 1][y + 1]);
+                }
+            }
+        }
+        builder.addNode("X", new Location(-50, -50));
+        region = builder.build();
+    }
+
+    private static Region line(int length) {
+        Region.Builder builder = Region.builder().distanceCalculator(new ManhattanDistanceCalculator());
+        for (int i = 0; i < length; i++) {
+            builder.addNode("N" + i, new Location(i, 0));
+        }
+        for (int i = 0; i < length - 1; i++) {
+            builder.addEdge("E" + i, new Location(i, 0), new Location(i + 1, 0));
+        }
+        return builder.build();
+    }
+
+    private static long duration(Region.Node start, Deque<Region.Node> path, ToLongFunction<Region.Edge> durations) {
+        long duration = 0;
+        Region.Node previous = start;
+        for (Region.Node node : path) {
+            Region.Edge edge = previous.getEdge(node);
+            assertNotNull(edge);
+            duration += durations.applyAsLong(edge);
+            previous = node;
+        }
+        return duration;
+    }
+
+    /**
+     * A plain Dijkstra search with the given durations.
+     */
+    private static Map<Region.Node, Long> distancesFrom(Region.Node start, ToLongFunction<Region.Edge> durations) {
+        Map<Region.Node, Long> distances = new HashMap<>();
+        Set<Region.Node> settled = new HashSet<>();
+        PriorityQueue<Map.Entry<Region.Node, Long>> queue = new PriorityQueue<>(Map.Entry.comparingByValue());
+        distances.put(start, 0L);
+        queue.add(Map.entry(start, 0L));
+        while (!queue.isEmpty()) {
+            Region.Node node = queue.poll().getKey();
+            if (!settled.add(node)) {
+                continue;
+            }
+            for (Region.Edge edge : node.getAdjacentEdges()) {
+                Region.Node next = edge.getNodeA().equals(node) ? edge.getNodeB() : edge.getNodeA();
+                long distance = distances.get(node) + durations.applyAsLong(edge);
+                if (distance < distances.getOrDefault(next, Long.MAX_VALUE)) {
+                    distances.put(next, distance);
+                    queue.add(Map.entry(next, distance));
+                }
+            }
+        }
+        return distances;
+    }
+
+    private static void assertShortestPaths(OverlayPathCalculator calculator, ToLongFunction<Region.Edge> durations) {
+        for (Region.Node start : region.getNodes()) {
+            Map<Region.Node, Long> expected = distancesFrom(start, durations);
+            for (Region.Node end : region.getNodes()) {
+                if (!expected.containsKey(end)) {
+                    assertThrows(IllegalArgumentException.class, () -> calculator.getPath(start, end));
+                    assertThrows(IllegalArgumentException.class, () -> calculator.getDistance(start, end));
+                    continue;
+                }
+                Deque<Region.Node> path = calculator.getPath(start, end);
+                assertEquals((long) expected.get(end), duration(start, path, durations), start + " -> " + end);
+                assertEquals((long) expected.get(end), calculator.getDistance(start, end), start + " -> " + end);
+                if (start.equals(end)) {
+                    assertTrue(path.isEmpty());
+                } else {
+                    assertEquals(end, path.getLast());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testShortestPaths() {
+        OverlayPathCalculator calculator = new OverlayPathCalculator(CELL_SIZES, 0);
+        assertEquals(3, calculator.getMetric(region).getPartition().getLevelCount());
+        assertShortestPaths(calculator, Region.Edge::getDuration);
+    }
+
+    @Test
+    public void testAllPathsTo() {
+        OverlayPathCalculator calculator = new OverlayPathCalculator(CELL_SIZES, 0);
+        PathCalculator reference = new DijkstraPathCalculator();
+        for (Region.Node end : region.getNodes()) {
+            Map<Region.Node, Deque<Region.Node>> expected = reference.getAllPathsTo(end);
+            Map<Region.Node, Deque<Region.Node>> paths = calculator.getAllPathsTo(end);
+            assertEquals(expected.keySet(), paths.keySet());
+            for (Region.Node start : expected.keySet()) {
+                assertEquals(duration(start, expected.get(start), Region.Edge::getDuration),
+                    duration(start, paths.get(start), Region.Edge::getDuration));
+            }
+        }
+    }
+
+    @Test
+    public void testCustomize() {
+        OverlayPathCalculator calculator = new OverlayPathCalculator(CELL_SIZES, 0);
+        MultiLevelPartition partition = calculator.getMetric(region).getPartition();
+        // closed roads take very long, some roads take no time at all
+        ToLongFunction<Region.Edge> durations = edge -> switch (Math.floorMod(edge.getName().hashCode(), 7)) {
+            case 0 -> 1_000;
+            case 1 -> 0;
+            default -> edge.getDuration() * 3;
+        };
+        OverlayMetric metric = calculator.customize(region, durations);
+        assertSame(metric, calculator.getMetric(region));
+        // the partition does not depend on the durations
+        assertSame(partition, metric.getPartition());
+        assertShortestPaths(calculator, durations);
+
+        // the durations of other regions are kept separately
+        Region line = line(5);
+        OverlayMetric lineMetric = calculator.customize(line, edge -> 2);
+        assertSame(lineMetric, calculator.getMetric(line));
+        assertSame(metric, calculator.getMetric(region));
+        calculator.resetDurations(line);
+        assertNotSame(lineMetric, calculator.getMetric(line));
+        assertSame(metric, calculator.getMetric(region));
+
+        calculator.resetDurations(region);
+        assertNotSame(metric, calculator.getMetric(region));
+        assertSame(OverlayMetric.of(partition), calculator.getMetric(region));
+        assertShortestPaths(calculator, Region.Edge::getDuration);
+
+        assertThrows(IllegalArgumentException.class, () -> calculator.customize(region, edge -> -1));
+    }
+
+    @Test
+    public void testExecutor() {
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+        try {
+            AtomicInteger tasks = new AtomicInteger();
+            OverlayPathCalculator calculator = new OverlayPathCalculator(CELL_SIZES, 0, task -> {
+                tasks.incrementAndGet();
+                pool.execute(task);
+            });
+            ToLongFunction<Region.Edge> durations = edge -> edge.getDuration() + edge.getName().length();
+            OverlayMetric metric = calculator.customize(region, durations);
+            MultiLevelPartition partition = metric.getPartition();
+            int cells = 0;
+            for (int level = 1; level <= partition.getLevelCount(); level++) {
+                cells += partition.getCellCount(level);
+            }
+            // every cell is customized on the executor
+            assertEquals(cells, tasks.get());
+            OverlayMetric sequential = OverlayMetric.customize(partition, durations);
+            for (int level = 1; level <= partition.getLevelCount(); level++) {
+                assertEquals(sequential.getCliqueSize(level), metric.getCliqueSize(level));
+            }
+            assertShortestPaths(calculator, durations);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testPartition() {
+        CompiledRegion compiled = CompiledRegion.of(region);
+        MultiLevelPartition partition = MultiLevelPartition.of(compiled, CELL_SIZES, 0);
+        assertSame(partition, MultiLevelPartition.of(compiled, CELL_SIZES, 0));
+        assertNotSame(partition, MultiLevelPartition.of(compiled, CELL_SIZES, 1));
+        for (int level = 1; level <= partition.getLevelCount(); level++) {
+            int boundaryNodes = 0;
+            for (int cell = 0; cell < partition.getCellCount(level); cell++) {
+                for (int node : partition.getBoundaryNodes(level, cell)) {
+                    assertEquals(cell, partition.getCell(level, node));
+                    boundaryNodes++;
+                }
+            }
+            assertEquals(boundaryNodes, partition.getBoundaryNodeCount(level));
+            if (level > 1) {
+                assertTrue(partition.getCellCount(level) < partition.getCellCount(level - 1));
+            }
+            for (int u = 0; u < compiled.size(); u++) {
+                // the cells are nested
+                if (level < partition.getLevelCount()) {
+                    for (int v = 0; v < compiled.size(); v++) {
+                        if (partition.getCell(level, u) == partition.getCell(level, v)) {
+                            assertEquals(partition.getCell(level + 1, u), partition.getCell(level + 1, v));
+                        }
+                    }
+                }
+                boolean boundary = false;
+                for (int arc = compiled.arcStart(u); arc < compiled.arcEnd(u); arc++) {
+                    boundary |= partition.getCell(level, compiled.arcTarget(arc)) != partition.getCell(level, u);
+                }
+                int cell = partition.getCell(level, u);
+                int node = u;
+                assertEquals(boundary, Arrays.stream(partition.getBoundaryNodes(level, cell))
+                    .anyMatch(b -> b == node));
+            }
+        }
+        for (int node = 0; node < compiled.size(); node++) {
+            int level = 0;
+            while (level < partition.getLevelCount()
+                && partition.getCell(level + 1, node) != partition.getCell(level + 1, 0)) {
+                level++;
+            }
+            assertEquals(level, partition.getQueryLevel(node, 0, 0));
+            assertEquals(0, partition.getQueryLevel(node, node, 0));
+        }
+    }
+
+    @Test
+    public void testSmallRegion() {
+        Region small = line(5);
+        OverlayPathCalculator calculator = new OverlayPathCalculator();
+        calculator.prepare(small);
+        assertEquals(0, calculator.getMetric(small).getPartition().getLevelCount());
+        Region.Node start = small.getNode(new Location(0, 0));
+        Region.Node end = small.getNode(new Location(4, 0));
+        assertEquals(4, calculator.getPath(start, end).size());
+        assertEquals(new DijkstraPathCalculator().getDistance(start, end), calculator.getDistance(start, end));
+    }
+
+    @Test
+    public void testInvalidCellSizes() {
+        assertThrows(IllegalArgumentException.class, () -> new OverlayPathCalculator(new int[] {0}, 0));
+        assertThrows(IllegalArgumentException.class, () -> new OverlayPathCalculator(new int[] {64, 64}, 0));
+        assertThrows(IllegalArgumentException.class, () -> new OverlayPathCalculator(new int[] {512, 64}, 0));
+        assertThrows(IllegalArgumentException.class,
+            () -> MultiLevelPartition.of(CompiledRegion.of(region), new int[] {-1}, 0));
+    }
+}
@@ -0,0 +1,114 @@
+package projekt.delivery.routing;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import projekt.base.Location;
+import projekt.delivery.archetype.ProblemArchetypeGenerator;
+import projekt.delivery.event.Event;
+import projekt.delivery.generator.FridayOrderGenerator;
+import projekt.delivery.rating.AmountDeliveredRater;
+import projekt.delivery.rating.RatingCriteria;
+import projekt.delivery.service.DeliveryService;
+import projekt.delivery.simulation.BasicDeliverySimulation;
+import projekt.delivery.simulation.SimulationConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelTickUnitTests {
+
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    public static void createPool() {
+        pool = new ForkJoinPool(4);
+    }
+
+    private static List<String> run(DeliveryService.Factory deliveryServiceFactory, int shardCount) {
+        Region region = ProblemArchetypeGenerator.builder()
+            .setNodeCount(400)
+            .setRestaurantCount(4)
+            .setNeighborhoodCount(40)
+            .setSeed(11)
+            .build()
+            .generateRegion();
+        Location[] restaurants = region.getNodes().stream()
+            .filter(Region.Restaurant.class::isInstance)
+            .map(Region.Node::getLocation)
+            .sorted()
+            .toArray(Location[]::new);
+        VehicleManager.Builder builder = VehicleManager.builder()
+            .region(region)
+            .pathCalculator(new DijkstraPathCalculator());
+        for (int i = 0; i < 16; i++) {
+            builder.addVehicle(restaurants[i % restaurants.length], 10);
+        }
+        if (shardCount > 0) {
+            builder.parallelTick(pool, shardCount);
+        }
+        VehicleManager vehicleManager = builder.build();
+        BasicDeliverySimulation simulation = new BasicDeliverySimulation(new SimulationConfig(0),
+            Map.of(RatingCriteria.AMOUNT_DELIVERED, AmountDeliveredRater.Factory.builder().build()),
+            deliveryServiceFactory.create(vehicleManager),
+            FridayOrderGenerator.Factory.builder()
+                .setOrderCount(80)
+                .setVehicleManager(vehicleManager)
+                .setLastTick(350)
+                .setSeed(11)
+                .build());
+
+        List<String> events = new ArrayList<>();
+        simulation.addListener((tickEvents, tick) -> {
+            for (Event event : tickEvents) {
+                // identity hash codes and the global order ids differ between the runs
+                events.add(tick + " " + event.toString().replaceAll("@\\p{XDigit}+|orderID=\\d+", ""));
+            }
+        });
+        simulation.runSimulation(400);
+        events.add("rating " + simulation.getRatingForCriterion(RatingCriteria.AMOUNT_DELIVERED));
+        return events;
+    }
+
+    private static void assertSameRun(DeliveryService.Factory deliveryServiceFactory) {
+        List<String> expected = run(deliveryServiceFactory, 0);
+        assertTrue(expected.size() > 100);
+        for (int shardCount : new int[] {1, 3, 7, 1_000}) {
+            assertEquals(expected, run(deliveryServiceFactory, shardCount), "shards: " + shardCount);
+        }
+    }
+
+    @Test
+    public void testBasicDeliveryService() {
+        assertSameRun(DeliveryService.BASIC);
+    }
+
+    @Test
+    public void testBogoDeliveryService() {
+        assertSameRun(DeliveryService.BOGO);
+    }
+
+    @Test
+    public void testInvalidShardCount() {
+        assertThrows(IllegalArgumentException.class, () -> new ParallelTick(pool, 0));
+    }
+
+    @Test
+    public void testShardsCoverAllNodes() {
+        for (int shardCount : new int[] {1, 3, 7, 16}) {
+            ParallelTick parallelTick = new ParallelTick(pool, shardCount);
+            for (int nodeCount : new int[] {1, 5, 7, 100}) {
+                assertEquals(0, parallelTick.firstNode(0, nodeCount));
+                assertEquals(nodeCount, parallelTick.firstNode(shardCount, nodeCount));
+                for (int node = 0; node < nodeCount; node++) {
+                    int shard = parallelTick.shardOf(node, nodeCount);
+                    assertTrue(parallelTick.firstNode(shard, nodeCount) <= node);
+                    assertTrue(node < parallelTick.firstNode(shard + 1, nodeCount));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package projekt.delivery.routing;
+
+import org.junit.jupiter.api.Test;
+import projekt.base.Location;
+import projekt.base.ManhattanDistanceCalculator;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RegionBuilderImplUnitTests {
+
+    @Test
+    public void testCheckAndRemove() {
+        Location locationA = new Location(0, 0);
+        Location locationB = new Location(0, 1);
+        Region.Builder builder = Region.builder().distanceCalculator(new ManhattanDistanceCalculator())
+            .addNode("A", locationA)
+            .addRestaurant("B", locationB, List.of("Pizza"));
+
+        assertFalse(builder.checkNode("A", new Location(5, 5)));
+        assertFalse(builder.checkNode("C", locationA));
+        assertTrue(builder.checkNode("C", new Location(5, 5)));
+        assertTrue(builder.checkEdge("AB", locationB, locationA));
+        assertFalse(builder.checkEdge("AB", locationA, new Location(5, 5)));
+
+        builder.addEdge("AB", locationB, locationA);
+        assertFalse(builder.checkEdge("AB2", locationA, locationB));
+        assertFalse(builder.checkEdge("AB2", locationB, locationA));
+        assertThrows(IllegalArgumentException.class, () -> builder.addEdge("AB2", locationA, locationB));
+        assertThrows(IllegalArgumentException.class, () -> builder.addNode("AB", new Location(5, 5)));
+        // failed additions do not reserve their names
+        assertTrue(builder.checkNode("AB2", new Location(5, 5)));
+
+        builder.removeComponent("AB");
+        assertTrue(builder.checkEdge("AB", locationA, locationB));
+        assertThrows(IllegalArgumentException.class, () -> builder.removeComponent("AB"));
+        builder.addEdge("AB", locationA, locationB);
+
+        Region region = builder.build();
+        assertEquals(Set.of(locationB), ((NodeImpl) region.getNode(locationA)).getConnections());
+        assertEquals(Set.of(locationA), ((NodeImpl) region.getNode(locationB)).getConnections());
+        assertTrue(region.getNode(locationB) instanceof Region.Restaurant);
+
+        builder.removeComponent("B");
+        assertThrows(IllegalArgumentException.class, builder::build);
+    }
+
+    @Test
+    public void testSelfLoop() {
+        Location location = new Location(1, 1);
+        Region region = Region.builder().distanceCalculator(new ManhattanDistanceCalculator())
+            .addNode("A", location)
+            .addEdge("AA", location, location)
+            .build();
+        Region.Node node = region.getNode(location);
+        assertEquals(Set.of(location), ((NodeImpl) node).getConnections());
+        assertEquals(Set.of(node), node.getAdjacentNodes());
+    }
+
+    @Test
+    public void testBulkLoad() {
+        int size = 300;
+        Region.Builder builder = Region.builder(size * size, 2 * size * size)
+            .distanceCalculator(new ManhattanDistanceCalculator());
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                builder.addNode("N%d_%d".formatted(x, y), new Location(x, y));
+                if (x > 0) {
+                    builder.addEdge("H%d_%d".formatted(x, y), new Location(x - 1, y), new Location(x, y));
+                }
+                if (y > 0) {
+                    builder.addEdge("V%d_%d".formatted(x, y), new Location(x, y - 1), new Location(x, y));
+                }
+            }
+        }
+        Region region = builder.build();
+        assertEquals(size * size, region.getNodes().size());
+        assertEquals(2 * size * (size - 1), region.getEdges().size());
+        assertEquals(4, region.getNode(new Location(5, 5)).getAdjacentEdges().size());
+        assertEquals(2, region.getNode(new Location(0, 0)).getAdjacentNodes().size());
+        // the edges are ordered by their locations
+        Region.Edge previous = null;
+        for (Region.Edge edge : region.getEdges()) {
+            assertTrue(previous == null || previous.compareTo(edge) < 0);
+            previous = edge;
+        }
+    }
+}
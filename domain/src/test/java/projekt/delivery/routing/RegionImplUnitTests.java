@@ -6,6 +6,7 @@ import projekt.ObjectUnitTests;
 import projekt.base.EuclideanDistanceCalculator;
 import projekt.base.Location;
 
+import java.util.Set;
 import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -123,4 +124,39 @@ public class RegionImplUnitTests {
 
         assertThrows(IllegalArgumentException.class, () -> region1.putEdge(edgeAERegion1));
     }
+
+    @Test
+    public void testFreeze() {
+        Location locationA = new Location(0, 0);
+        Location locationB = new Location(0, 1);
+        Location locationC = new Location(1, 0);
+        RegionImpl region = (RegionImpl) Region.builder().distanceCalculator(new EuclideanDistanceCalculator())
+            .addNode("A", locationA).addNode("B", locationB).addNode("C", locationC)
+            .addEdge("AB", locationA, locationB).addEdge("AC", locationA, locationC)
+            .build();
+        assertTrue(region.isFrozen());
+
+        Region.Node nodeA = region.getNode(locationA);
+        Region.Node nodeB = region.getNode(locationB);
+        Region.Node nodeC = region.getNode(locationC);
+        Region.Edge edgeAB = region.getEdge(locationA, locationB);
+        Region.Edge edgeAC = region.getEdge(locationA, locationC);
+        assertNotNull(nodeA);
+        assertEquals(Set.of(nodeB, nodeC), nodeA.getAdjacentNodes());
+        assertEquals(Set.of(edgeAB, edgeAC), nodeA.getAdjacentEdges());
+        assertEquals(Set.of(nodeA), nodeB.getAdjacentNodes());
+        assertSame(nodeA.getAdjacentNodes(), nodeA.getAdjacentNodes());
+        assertSame(nodeA.getAdjacentEdges(), nodeA.getAdjacentEdges());
+        assertThrows(UnsupportedOperationException.class, () -> nodeA.getAdjacentNodes().remove(nodeB));
+        assertSame(nodeA, edgeAB.getNodeA());
+        assertSame(nodeB, edgeAB.getNodeB());
+        assertSame(edgeAB, nodeA.getEdge(nodeB));
+        assertTrue(edgeAB.compareTo(edgeAC) < 0);
+        assertSame(region.getNodes(), region.getNodes());
+
+        assertThrows(IllegalStateException.class,
+            () -> region.putNode(new NodeImpl(region, "D", new Location(2, 2), Set.of())));
+        assertThrows(IllegalStateException.class,
+            () -> region.putEdge(new EdgeImpl(region, "BC", locationB, locationC, 1)));
+    }
 }
@@ -0,0 +1,119 @@
+package projekt.delivery.routing;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import projekt.base.EuclideanDistanceCalculator;
+import projekt.base.Location;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SpatialIndexUnitTests {
+
+    private static Region region;
+    private static SpatialIndex index;
+
+    @BeforeAll
+    public static void initialize() {
+        Random random = new Random(11);
+        Region.Builder builder = Region.builder().distanceCalculator(new EuclideanDistanceCalculator());
+        Set<Location> locations = new HashSet<>();
+        while (locations.size() < 500) {
+            Location location = new Location(random.nextInt(-300, 300), random.nextInt(-300, 300));
+            if (locations.add(location)) {
+                builder.addNode("N%d_%d".formatted(location.getX(), location.getY()), location);
+            }
+        }
+        List<Location> sorted = locations.stream().sorted().toList();
+        for (int i = 0; i + 1 < sorted.size(); i += 2) {
+            Location other = sorted.get(random.nextInt(sorted.size()));
+            if (!other.equals(sorted.get(i))) {
+                builder.addEdge("E%d".formatted(i), sorted.get(i), other);
+            }
+        }
+        region = builder.build();
+        index = SpatialIndex.of(region);
+    }
+
+    private static double distanceSquared(Location a, Location b) {
+        double dx = a.getX() - b.getX();
+        double dy = a.getY() - b.getY();
+        return dx * dx + dy * dy;
+    }
+
+    @Test
+    public void testShared() {
+        assertSame(index, SpatialIndex.of(region));
+        assertSame(region, index.getRegion());
+    }
+
+    @Test
+    public void testNearestNodes() {
+        Random random = new Random(5);
+        for (int i = 0; i < 100; i++) {
+            Location location = new Location(random.nextInt(-400, 400), random.nextInt(-400, 400));
+            Comparator<Region.Node> byDistance = Comparator.<Region.Node>comparingDouble(
+                node -> distanceSquared(node.getLocation(), location)).thenComparing(Comparator.naturalOrder());
+            List<Region.Node> expected = region.getNodes().stream().sorted(byDistance).limit(7).toList();
+            assertEquals(expected, index.getNearestNodes(location, 7));
+            assertEquals(expected.get(0), index.getNearestNode(location));
+        }
+        assertEquals(List.of(), index.getNearestNodes(new Location(0, 0), 0));
+        assertEquals(region.getNodes().size(), index.getNearestNodes(new Location(0, 0), 10000).size());
+        assertThrows(IllegalArgumentException.class, () -> index.getNearestNodes(new Location(0, 0), -1));
+    }
+
+    @Test
+    public void testRangeQueries() {
+        Random random = new Random(6);
+        for (int i = 0; i < 100; i++) {
+            Location center = new Location(random.nextInt(-300, 300), random.nextInt(-300, 300));
+            double radius = random.nextDouble(100);
+            assertEquals(region.getNodes().stream()
+                    .filter(node -> distanceSquared(node.getLocation(), center) <= radius * radius)
+                    .collect(Collectors.toSet()),
+                Set.copyOf(index.getNodesWithin(center, radius)));
+
+            int minX = center.getX();
+            int minY = center.getY();
+            int maxX = minX + random.nextInt(150);
+            int maxY = minY + random.nextInt(150);
+            assertEquals(region.getNodes().stream()
+                    .filter(node -> node.getLocation().getX() >= minX && node.getLocation().getX() <= maxX
+                        && node.getLocation().getY() >= minY && node.getLocation().getY() <= maxY)
+                    .collect(Collectors.toSet()),
+                Set.copyOf(index.getNodesIn(minX, minY, maxX, maxY)));
+            assertEquals(region.getEdges().stream()
+                    .filter(edge -> Math.min(edge.getNodeA().getLocation().getX(), edge.getNodeB().getLocation().getX()) <= maxX
+                        && Math.max(edge.getNodeA().getLocation().getX(), edge.getNodeB().getLocation().getX()) >= minX
+                        && Math.min(edge.getNodeA().getLocation().getY(), edge.getNodeB().getLocation().getY()) <= maxY
+                        && Math.max(edge.getNodeA().getLocation().getY(), edge.getNodeB().getLocation().getY()) >= minY)
+                    .collect(Collectors.toSet()),
+                Set.copyOf(index.getEdgesIn(minX, minY, maxX, maxY)));
+        }
+    }
+
+    @Test
+    public void testNearestEdge() {
+        Region.Node nodeA = region.getEdges().iterator().next().getNodeA();
+        Region.Edge nearest = index.getNearestEdge(nodeA.getLocation());
+        assertNotNull(nearest);
+        // the location of a node has a distance of 0 to all of its edges
+        assertTrue(nodeA.getAdjacentEdges().contains(nearest));
+    }
+
+    @Test
+    public void testRegionWithoutBuilder() {
+        RegionImpl empty = new RegionImpl();
+        SpatialIndex emptyIndex = SpatialIndex.of(empty);
+        assertNull(emptyIndex.getNearestNode(new Location(0, 0)));
+        assertNull(emptyIndex.getNearestEdge(new Location(0, 0)));
+        assertEquals(List.of(), emptyIndex.getNodesIn(-10, -10, 10, 10));
+    }
+}
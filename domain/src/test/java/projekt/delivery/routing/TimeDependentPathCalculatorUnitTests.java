@@ -0,0 +1,241 @@
+package projekt.delivery.routing;
+
+import org.junit.jupiter.api.Test;
+import projekt.base.DistanceCalculator;
+import projekt.base.EuclideanDistanceCalculator;
+import projekt.base.Location;
+import projekt.base.ManhattanDistanceCalculator;
+import projekt.delivery.event.ArrivedAtEdgeEvent;
+import projekt.delivery.event.ArrivedAtNodeEvent;
+import projekt.delivery.event.ArrivedAtRestaurantEvent;
+import projekt.delivery.event.Event;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimeDependentPathCalculatorUnitTests {
+
+    /**
+     * A region with a short route A - B - D, whose edge B - D is congested around tick 20, and a long route
+     * A - C - E - D.
+     */
+    private static Region createRushHourRegion() {
+        return Region.builder().distanceCalculator(new ManhattanDistanceCalculator())
+            .addNode("A", new Location(0, 0))
+            .addNode("B", new Location(10, 0))
+            .addNode("C", new Location(0, 10))
+            .addNode("D", new Location(20, 0))
+            .addNode("E", new Location(20, 10))
+            .addEdge("AB", new Location(0, 0), new Location(10, 0))
+            .addEdge("BD", new Location(10, 0), new Location(20, 0), new long[] {10, 20, 60}, new double[] {1, 4, 1})
+            .addEdge("AC", new Location(0, 0), new Location(0, 10))
+            .addEdge("CE", new Location(0, 10), new Location(20, 10))
+            .addEdge("ED", new Location(20, 10), new Location(20, 0))
+            .build();
+    }
+
+    private static Region createRandomRegion(DistanceCalculator distanceCalculator, long seed) {
+        Random random = new Random(seed);
+        Region.Builder builder = Region.builder().distanceCalculator(distanceCalculator);
+        Location[][] locations = new Location[10][10];
+        for (int x = 0; x < 10; x++) {
+            for (int y = 0; y < 10; y++) {
+                locations[x][y] = new Location(x * 10 + random.nextInt(6), y * 10 + random.nextInt(6));
+                builder.addNode("N%d_%d".formatted(x, y), locations[x][y]);
+            }
+        }
+        // breakpoints 100 ticks apart keep the profiles of these short edges FIFO
+        long[] ticks = {0, 100, 200, 300};
+        for (int x = 0; x < 10; x++) {
+            for (int y = 0; y < 10; y++) {
+                double[] factors = random.doubles(ticks.length, 0.5, 3).toArray();
+                if (x < 9 && random.nextInt(6) > 0) {
+                    builder.addEdge("H%d_%d".formatted(x, y), locations[x][y], locations[x + 1][y], ticks, factors);
+                }
+                if (y < 9 && random.nextInt(6) > 0) {
+                    builder.addEdge("V%d_%d".formatted(x, y), locations[x][y], locations[x][y + 1]);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * A plain time-dependent Dijkstra search.
+     */
+    private static Map<Region.Node, Long> durationsFrom(Region.Node start, long departure) {
+        Map<Region.Node, Long> durations = new HashMap<>();
+        Set<Region.Node> settled = new HashSet<>();
+        PriorityQueue<Map.Entry<Region.Node, Long>> queue = new PriorityQueue<>(Map.Entry.comparingByValue());
+        durations.put(start, 0L);
+        queue.add(Map.entry(start, 0L));
+        while (!queue.isEmpty()) {
+            Region.Node node = queue.poll().getKey();
+            if (!settled.add(node)) {
+                continue;
+            }
+            for (Region.Edge edge : node.getAdjacentEdges()) {
+                Region.Node next = edge.getNodeA().equals(node) ? edge.getNodeB() : edge.getNodeA();
+                long duration = durations.get(node) + edge.getDuration(departure + durations.get(node));
+                if (duration < durations.getOrDefault(next, Long.MAX_VALUE)) {
+                    durations.put(next, duration);
+                    queue.add(Map.entry(next, duration));
+                }
+            }
+        }
+        return durations;
+    }
+
+    private static long duration(Region.Node start, Deque<Region.Node> path, long departure) {
+        long tick = departure;
+        Region.Node previous = start;
+        for (Region.Node node : path) {
+            Region.Edge edge = previous.getEdge(node);
+            assertNotNull(edge);
+            tick += edge.getDuration(tick);
+            previous = node;
+        }
+        return tick - departure;
+    }
+
+    @Test
+    public void testRushHour() {
+        Region region = createRushHourRegion();
+        Region.Node a = region.getNode(new Location(0, 0));
+        Region.Node b = region.getNode(new Location(10, 0));
+        Region.Node d = region.getNode(new Location(20, 0));
+        AtomicLong departure = new AtomicLong();
+        TimeDependentPathCalculator calculator = new TimeDependentPathCalculator(departure::get);
+
+        // B is reached at tick 10, before the rush hour
+        assertEquals(20, calculator.getDistance(a, d));
+        assertEquals(List.of(b, d), List.copyOf(calculator.getPath(a, d)));
+        // B is reached at tick 15, when B - D takes 25 ticks
+        assertEquals(35, calculator.getDistance(a, d, 5));
+        assertEquals(List.of(b, d), List.copyOf(calculator.getPath(a, d, 5)));
+        // B is reached at tick 20, when the long route is faster
+        departure.set(10);
+        assertEquals(40, calculator.getDistance(a, d));
+        assertEquals(3, calculator.getPath(a, d).size());
+        assertFalse(calculator.getPath(a, d).contains(b));
+        // the rush hour is over
+        assertEquals(20, calculator.getDistance(a, d, 60));
+
+        assertTrue(calculator.getPath(a, a).isEmpty());
+        assertEquals(0, calculator.getDistance(a, a));
+    }
+
+    @Test
+    public void testDepartAtCurrentTick() {
+        Region region = createRushHourRegion();
+        Region.Node a = region.getNode(new Location(0, 0));
+        Region.Node d = region.getNode(new Location(20, 0));
+        TimeDependentPathCalculator calculator = new TimeDependentPathCalculator();
+        TimeDependentPathCalculator fixed = new TimeDependentPathCalculator(() -> 10);
+        VehicleManager vehicleManager = VehicleManager.builder()
+            .region(region)
+            .pathCalculator(calculator)
+            .build();
+        VehicleManager.builder().region(region).pathCalculator(fixed).build();
+
+        assertEquals(20, calculator.getDistance(a, d));
+        vehicleManager.tick(10);
+        assertEquals(10, vehicleManager.getCurrentTick());
+        assertEquals(40, calculator.getDistance(a, d));
+        assertFalse(calculator.getPath(a, d).contains(region.getNode(new Location(10, 0))));
+        vehicleManager.tick(60);
+        assertEquals(20, calculator.getDistance(a, d));
+        // an explicit supplier is kept
+        assertEquals(40, fixed.getDistance(a, d));
+    }
+
+    @Test
+    public void testFastestPaths() {
+        for (DistanceCalculator distanceCalculator : List.of(new EuclideanDistanceCalculator(),
+            new ManhattanDistanceCalculator(), (DistanceCalculator) (a, b) -> 1)) {
+            Region region = createRandomRegion(distanceCalculator, 5);
+            TimeDependentPathCalculator calculator = new TimeDependentPathCalculator();
+            for (long departure : new long[] {0, 70, 150, 400}) {
+                for (Region.Node start : region.getNodes()) {
+                    Map<Region.Node, Long> expected = durationsFrom(start, departure);
+                    for (Region.Node end : region.getNodes()) {
+                        if (!expected.containsKey(end)) {
+                            assertThrows(IllegalArgumentException.class, () -> calculator.getPath(start, end));
+                            continue;
+                        }
+                        assertEquals((long) expected.get(end), calculator.getDistance(start, end, departure));
+                        Deque<Region.Node> path = calculator.getPath(start, end, departure);
+                        assertEquals((long) expected.get(end), duration(start, path, departure));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testWithoutProfiles() {
+        Region region = Region.builder().distanceCalculator(new EuclideanDistanceCalculator())
+            .addNode("A", new Location(0, 0))
+            .addNode("B", new Location(3, 4))
+            .addNode("C", new Location(8, 4))
+            .addNode("D", new Location(9, 0))
+            .addEdge("AB", new Location(0, 0), new Location(3, 4))
+            .addEdge("BC", new Location(3, 4), new Location(8, 4))
+            .addEdge("AD", new Location(0, 0), new Location(9, 0))
+            .addEdge("CD", new Location(8, 4), new Location(9, 0))
+            .build();
+        PathCalculator reference = new DijkstraPathCalculator();
+        TimeDependentPathCalculator calculator = new TimeDependentPathCalculator(() -> 1_000);
+        for (Region.Node end : region.getNodes()) {
+            Map<Region.Node, Deque<Region.Node>> paths = calculator.getAllPathsTo(end);
+            assertEquals(reference.getAllPathsTo(end).keySet(), paths.keySet());
+            for (Region.Node start : region.getNodes()) {
+                assertEquals(reference.getDistance(start, end), calculator.getDistance(start, end));
+                assertEquals(reference.getDistance(start, end), duration(start, paths.get(start), 0));
+            }
+        }
+    }
+
+    @Test
+    public void testVehiclesUseDurationAtEntry() {
+        Region region = Region.builder().distanceCalculator(new ManhattanDistanceCalculator())
+            .addRestaurant("R0", new Location(0, 0), List.of("Pizza"))
+            .addNode("N1", new Location(2, 0))
+            .addRestaurant("R2", new Location(4, 0), List.of("Pizza"))
+            .addEdge("E01", new Location(0, 0), new Location(2, 0))
+            .addEdge("E12", new Location(2, 0), new Location(4, 0), new long[] {0, 100}, new double[] {3, 3})
+            .build();
+        for (boolean eventDriven : new boolean[] {false, true}) {
+            VehicleManager vehicleManager = VehicleManager.builder()
+                .region(region)
+                .pathCalculator(new TimeDependentPathCalculator())
+                .addVehicle(new Location(0, 0), 10)
+                .build();
+            vehicleManager.getAllVehicles().iterator().next().moveQueued(region.getNode(new Location(4, 0)));
+            List<Event> events = new ArrayList<>();
+            long tick = 0;
+            while (tick < 30) {
+                events.addAll(vehicleManager.tick(tick));
+                tick = eventDriven ? vehicleManager.getNextTick(tick) : tick + 1;
+            }
+            List<Event> moves = events.stream()
+                .filter(event -> event instanceof ArrivedAtEdgeEvent || event instanceof ArrivedAtNodeEvent
+                    || event instanceof ArrivedAtRestaurantEvent)
+                .toList();
+            assertEquals(4, moves.size());
+            // E01 takes 2 ticks, E12 takes 6 ticks at any tick
+            assertEquals(2, moves.get(1).getTick() - moves.get(0).getTick());
+            assertEquals(6, moves.get(3).getTick() - moves.get(2).getTick());
+        }
+    }
+}
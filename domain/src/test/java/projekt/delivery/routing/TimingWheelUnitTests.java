@@ -0,0 +1,62 @@
+package projekt.delivery.routing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimingWheelUnitTests {
+
+    @Test
+    public void testAgainstPriorityQueue() {
+        Random random = new Random(3);
+        TimingWheel<Long> wheel = new TimingWheel<>();
+        PriorityQueue<Long> expected = new PriorityQueue<>();
+        long tick = 0;
+        for (int round = 0; round < 20_000; round++) {
+            for (int i = random.nextInt(4); i > 0; i--) {
+                // mostly short durations, sometimes durations that span several levels
+                long due = tick + (random.nextInt(10) == 0 ? random.nextLong(1L << 40) : random.nextInt(200));
+                wheel.schedule(due, due);
+                expected.add(due);
+            }
+            assertEquals(expected.isEmpty() ? Long.MAX_VALUE : expected.peek(), wheel.nextTick());
+
+            tick += random.nextInt(5) == 0 ? random.nextLong(1L << 20) : random.nextInt(3);
+            List<Long> due = new ArrayList<>();
+            wheel.advance(tick, due);
+            List<Long> expectedDue = new ArrayList<>();
+            while (!expected.isEmpty() && expected.peek() <= tick) {
+                expectedDue.add(expected.poll());
+            }
+            due.sort(null);
+            assertEquals(expectedDue, due);
+            assertEquals(expected.size(), wheel.size());
+            assertEquals(tick, wheel.getCurrentTick());
+        }
+    }
+
+    @Test
+    public void testOverdueAndClear() {
+        TimingWheel<String> wheel = new TimingWheel<>();
+        wheel.advance(100, new ArrayList<>());
+        wheel.schedule(50, "late");
+        wheel.schedule(100, "now");
+        wheel.schedule(101, "next");
+        assertEquals(100, wheel.nextTick());
+        List<String> due = new ArrayList<>();
+        wheel.advance(100, due);
+        due.sort(null);
+        assertEquals(List.of("late", "now"), due);
+
+        wheel.clear();
+        assertEquals(0, wheel.size());
+        assertEquals(0, wheel.getCurrentTick());
+        assertEquals(Long.MAX_VALUE, wheel.nextTick());
+        assertThrows(IllegalArgumentException.class, () -> wheel.schedule(-1, "negative"));
+    }
+}
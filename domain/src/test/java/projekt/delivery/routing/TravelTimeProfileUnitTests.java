@@ -0,0 +1,88 @@
+package projekt.delivery.routing;
+
+import org.junit.jupiter.api.Test;
+import projekt.base.Location;
+import projekt.base.ManhattanDistanceCalculator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TravelTimeProfileUnitTests {
+
+    @Test
+    public void testInterpolation() {
+        TravelTimeProfile profile = TravelTimeProfile.of(new long[] {10, 20, 30}, new long[] {10, 40, 10});
+        assertEquals(10, profile.getDuration(-5));
+        assertEquals(10, profile.getDuration(10));
+        assertEquals(13, profile.getDuration(11));
+        assertEquals(25, profile.getDuration(15));
+        assertEquals(40, profile.getDuration(20));
+        // rounded down while decreasing, too
+        assertEquals(37, profile.getDuration(21));
+        assertEquals(10, profile.getDuration(30));
+        assertEquals(10, profile.getDuration(Long.MAX_VALUE));
+        assertEquals(58, profile.getArrival(21));
+        assertEquals(10, profile.getMinDuration());
+        assertEquals(40, profile.getMaxDuration());
+    }
+
+    @Test
+    public void testFifo() {
+        for (long[] durations : new long[][] {{10, 40, 30}, {5, 5, 5}, {0, 100, 90}}) {
+            TravelTimeProfile profile = TravelTimeProfile.of(new long[] {0, 30, 40}, durations);
+            boolean fifo = true;
+            for (long tick = -5; tick < 50; tick++) {
+                fifo &= profile.getArrival(tick) <= profile.getArrival(tick + 1);
+            }
+            assertTrue(fifo);
+            assertTrue(profile.isFifo());
+        }
+        TravelTimeProfile profile = TravelTimeProfile.of(new long[] {0, 10}, new long[] {30, 10});
+        assertFalse(profile.isFifo());
+        assertTrue(profile.getArrival(10) < profile.getArrival(0));
+    }
+
+    @Test
+    public void testScaled() {
+        TravelTimeProfile profile = TravelTimeProfile.scaled(10, new long[] {0, 100}, new double[] {1, 2.25});
+        assertEquals(TravelTimeProfile.of(new long[] {0, 100}, new long[] {10, 23}), profile);
+        assertEquals(TravelTimeProfile.of(new long[] {0, 100}, new long[] {10, 23}).hashCode(), profile.hashCode());
+        assertArrayEquals(new long[] {0, 100}, profile.getTicks());
+        assertArrayEquals(new long[] {10, 23}, profile.getDurations());
+        assertEquals("TravelTimeProfile(0=10, 100=23)", profile.toString());
+    }
+
+    @Test
+    public void testRegionEdges() {
+        Region region = Region.builder().distanceCalculator(new ManhattanDistanceCalculator())
+            .addNode("A", new Location(0, 0))
+            .addNode("B", new Location(4, 0))
+            .addNode("C", new Location(8, 0))
+            .addEdge("AB", new Location(0, 0), new Location(4, 0))
+            .addEdge("CB", new Location(8, 0), new Location(4, 0), new long[] {10, 20}, new double[] {1, 3})
+            .build();
+        Region.Edge constant = region.getEdge(new Location(0, 0), new Location(4, 0));
+        Region.Edge timeDependent = region.getEdge(new Location(4, 0), new Location(8, 0));
+        assertNull(constant.getTravelTimeProfile());
+        assertEquals(4, constant.getDuration(15));
+        assertEquals(4, timeDependent.getDuration());
+        assertEquals(TravelTimeProfile.of(new long[] {10, 20}, new long[] {4, 12}),
+            timeDependent.getTravelTimeProfile());
+        assertEquals(8, timeDependent.getDuration(15));
+    }
+
+    @Test
+    public void testInvalidBreakpoints() {
+        assertThrows(IllegalArgumentException.class, () -> TravelTimeProfile.of(new long[0], new long[0]));
+        assertThrows(IllegalArgumentException.class, () -> TravelTimeProfile.of(new long[] {0, 1}, new long[] {1}));
+        assertThrows(IllegalArgumentException.class, () -> TravelTimeProfile.of(new long[] {1, 1}, new long[] {1, 2}));
+        assertThrows(IllegalArgumentException.class, () -> TravelTimeProfile.of(new long[] {0}, new long[] {-1}));
+        assertThrows(IllegalArgumentException.class,
+            () -> TravelTimeProfile.scaled(-1, new long[] {0}, new double[] {1}));
+        assertThrows(IllegalArgumentException.class,
+            () -> TravelTimeProfile.scaled(1, new long[] {0}, new double[] {Double.NaN}));
+        assertThrows(IllegalArgumentException.class,
+            () -> TravelTimeProfile.scaled(1, new long[] {0}, new double[] {Double.POSITIVE_INFINITY}));
+        assertThrows(IllegalArgumentException.class, () -> Region.builder()
+            .addEdge("E", new Location(0, 0), new Location(1, 0), new long[] {2, 1}, new double[] {1, 1}));
+    }
+}
@@ -0,0 +1,99 @@
+package projekt.delivery.routing;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import projekt.base.Location;
+import projekt.base.ManhattanDistanceCalculator;
+import projekt.delivery.event.ArrivedAtEdgeEvent;
+import projekt.delivery.event.ArrivedAtNodeEvent;
+import projekt.delivery.event.ArrivedAtRestaurantEvent;
+import projekt.delivery.event.Event;
+import projekt.delivery.event.SpawnEvent;
+import projekt.delivery.event.VehicleEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VehicleManagerImplUnitTests {
+
+    private VehicleManager vehicleManager;
+    private Region.Node end;
+
+    @BeforeEach
+    public void initialize() {
+        Region region = Region.builder().distanceCalculator(new ManhattanDistanceCalculator())
+            .addRestaurant("R0", new Location(0, 0), List.of("Pizza"))
+            .addNode("N1", new Location(1, 0))
+            .addNode("N2", new Location(2, 0))
+            .addRestaurant("R3", new Location(3, 0), List.of("Pizza"))
+            .addEdge("E01", new Location(0, 0), new Location(1, 0))
+            .addEdge("E12", new Location(1, 0), new Location(2, 0))
+            .addEdge("E23", new Location(2, 0), new Location(3, 0))
+            .build();
+        end = region.getNode(new Location(3, 0));
+        vehicleManager = VehicleManager.builder()
+            .region(region)
+            .pathCalculator(new DijkstraPathCalculator())
+            .addVehicle(new Location(0, 0), 10)
+            .addVehicle(new Location(0, 0), 10)
+            .build();
+    }
+
+    private Vehicle getVehicle(int id) {
+        return vehicleManager.getAllVehicles().stream().filter(vehicle -> vehicle.getId() == id).findFirst().orElseThrow();
+    }
+
+    @Test
+    public void testOnlyMovingVehiclesAreTicked() {
+        List<Long> arrivals = new ArrayList<>();
+        getVehicle(0).moveQueued(end, (vehicle, tick) -> arrivals.add(tick));
+
+        List<Event> events = new ArrayList<>();
+        for (long tick = 0; tick < 10; tick++) {
+            events.addAll(vehicleManager.tick(tick));
+        }
+
+        assertEquals(List.of(6L), arrivals);
+        assertEquals(2, events.stream().filter(SpawnEvent.class::isInstance).count());
+        List<Event> moves = events.stream()
+            .filter(event -> !(event instanceof SpawnEvent))
+            .toList();
+        assertTrue(moves.stream().allMatch(event -> ((VehicleEvent) event).getVehicle().getId() == 0));
+        assertEquals(List.of(0L, 1L, 2L, 3L, 4L, 5L), moves.stream().map(Event::getTick).toList());
+        assertTrue(moves.get(0) instanceof ArrivedAtEdgeEvent);
+        assertTrue(moves.get(1) instanceof ArrivedAtNodeEvent);
+        assertTrue(moves.get(5) instanceof ArrivedAtRestaurantEvent);
+        assertSame(end, getVehicle(0).getOccupied().getComponent());
+    }
+
+    @Test
+    public void testIdleVehicleIsActivatedByQueuedPath() {
+        for (long tick = 0; tick < 5; tick++) {
+            vehicleManager.tick(tick);
+        }
+        getVehicle(1).moveQueued(end);
+        List<Event> events = vehicleManager.tick(5);
+        assertEquals(1, events.size());
+        assertTrue(events.get(0) instanceof ArrivedAtEdgeEvent);
+        assertEquals(1, ((VehicleEvent) events.get(0)).getVehicle().getId());
+
+        for (long tick = 6; tick < 12; tick++) {
+            vehicleManager.tick(tick);
+        }
+        assertSame(end, getVehicle(1).getOccupied().getComponent());
+    }
+
+    @Test
+    public void testReset() {
+        getVehicle(0).moveQueued(end);
+        vehicleManager.tick(0);
+        vehicleManager.tick(1);
+        ((VehicleManagerImpl) vehicleManager).reset();
+        List<Event> events = vehicleManager.tick(2);
+        assertEquals(2, events.size());
+        assertTrue(events.stream().allMatch(SpawnEvent.class::isInstance));
+        assertTrue(vehicleManager.tick(3).isEmpty());
+    }
+}
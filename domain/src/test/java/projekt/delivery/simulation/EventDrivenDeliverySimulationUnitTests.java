@@ -0,0 +1,88 @@
+package projekt.delivery.simulation;
+
+import org.junit.jupiter.api.Test;
+import projekt.delivery.archetype.ProblemArchetype;
+import projekt.delivery.archetype.ProblemArchetypeGenerator;
+import projekt.delivery.event.Event;
+import projekt.delivery.rating.RatingCriteria;
+import projekt.delivery.service.DeliveryService;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EventDrivenDeliverySimulationUnitTests {
+
+    private static ProblemArchetype generate() {
+        return ProblemArchetypeGenerator.builder()
+            .setNodeCount(300)
+            .setRestaurantCount(3)
+            .setNeighborhoodCount(30)
+            .setVehicleCount(6)
+            .setOrderCount(40)
+            .setSimulationLength(600)
+            .setSeed(7)
+            .build()
+            .generate("generated");
+    }
+
+    private static List<String> run(BasicDeliverySimulation simulation, long length, List<Long> executedTicks) {
+        List<String> events = new ArrayList<>();
+        simulation.addListener((tickEvents, tick) -> {
+            executedTicks.add(tick);
+            for (Event event : tickEvents) {
+                // identity hash codes and the global order ids differ between the two runs
+                events.add(tick + " " + event.toString().replaceAll("@\\p{XDigit}+|orderID=\\d+", ""));
+            }
+        });
+        simulation.runSimulation(length);
+        return events;
+    }
+
+    private static void assertSameRun(DeliveryService.Factory deliveryServiceFactory) {
+        ProblemArchetype basicProblem = generate();
+        BasicDeliverySimulation basic = new BasicDeliverySimulation(new SimulationConfig(0),
+            basicProblem.raterFactoryMap(), deliveryServiceFactory.create(basicProblem.vehicleManager()),
+            basicProblem.orderGeneratorFactory());
+        ProblemArchetype eventDrivenProblem = generate();
+        EventDrivenDeliverySimulation eventDriven = new EventDrivenDeliverySimulation(new SimulationConfig(0),
+            eventDrivenProblem.raterFactoryMap(), deliveryServiceFactory.create(eventDrivenProblem.vehicleManager()),
+            eventDrivenProblem.orderGeneratorFactory());
+
+        List<Long> basicTicks = new ArrayList<>();
+        List<Long> eventDrivenTicks = new ArrayList<>();
+        List<String> expected = run(basic, basicProblem.simulationLength(), basicTicks);
+        List<String> actual = run(eventDriven, eventDrivenProblem.simulationLength(), eventDrivenTicks);
+
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, actual);
+        for (RatingCriteria criterion : RatingCriteria.values()) {
+            assertEquals(basic.getRatingForCriterion(criterion), eventDriven.getRatingForCriterion(criterion));
+        }
+        assertEquals(basicProblem.simulationLength(), basicTicks.size());
+        assertTrue(eventDrivenTicks.size() < basicTicks.size());
+        assertTrue(eventDriven.getCurrentTick() <= eventDrivenProblem.simulationLength());
+    }
+
+    @Test
+    public void testBasicDeliveryService() {
+        assertSameRun(DeliveryService.BASIC);
+    }
+
+    @Test
+    public void testBogoDeliveryService() {
+        assertSameRun(DeliveryService.BOGO);
+    }
+
+    @Test
+    public void testUnboundedRunEnds() {
+        ProblemArchetype problem = generate();
+        EventDrivenDeliverySimulation simulation = new EventDrivenDeliverySimulation(new SimulationConfig(0),
+            problem.raterFactoryMap(), DeliveryService.BASIC.create(problem.vehicleManager()),
+            problem.orderGeneratorFactory());
+        simulation.runSimulation();
+        assertFalse(simulation.isRunning());
+        assertTrue(simulation.getRatingForCriterion(RatingCriteria.AMOUNT_DELIVERED) > 0);
+    }
+}
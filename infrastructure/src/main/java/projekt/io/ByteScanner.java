@@ -0,0 +1,181 @@
+package projekt.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * A minimal scanner for line based ASCII formats that reads its input in blocks and parses numbers directly from
+ * the buffered bytes, without creating a {@link String} for every line or token.
+ */
+class ByteScanner {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final InputStream in;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private long line = 1;
+
+    ByteScanner(InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * Returns the number of the line the scanner is currently in, starting at 1.
+     * @return The number of the current line.
+     */
+    long getLine() {
+        return line;
+    }
+
+    /**
+     * Skips blank lines and returns the first character of the next non-blank line without consuming anything
+     * after it.
+     * @return The first character of the next line or {@code -1} if the end of the input has been reached.
+     */
+    int nextLine() {
+        int c;
+        while ((c = peek()) == ' ' || c == '\t' || c == '\r' || c == '\n') {
+            consume();
+        }
+        if (c < 0) {
+            return -1;
+        }
+        consume();
+        return c;
+    }
+
+    /**
+     * Skips the rest of the current line including its line break.
+     */
+    void skipLine() {
+        int c;
+        while ((c = peek()) >= 0 && c != '\n') {
+            consume();
+        }
+        if (c == '\n') {
+            consume();
+        }
+    }
+
+    /**
+     * Reads the next whitespace separated token of the current line.
+     * @return The next token.
+     */
+    String nextToken() {
+        skipBlanks();
+        StringBuilder sb = new StringBuilder();
+        int c;
+        while ((c = peek()) > ' ') {
+            sb.append((char) c);
+            consume();
+        }
+        if (sb.isEmpty()) {
+            throw error("expected a token");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Reads the next integer of the current line.
+     * @return The next integer.
+     */
+    long nextLong() {
+        skipBlanks();
+        boolean negative = false;
+        int c = peek();
+        if (c == '-' || c == '+') {
+            negative = c == '-';
+            consume();
+            c = peek();
+        }
+        if (c < '0' || c > '9') {
+            throw error("expected a number");
+        }
+        long value = 0;
+        do {
+            if (value > (Long.MAX_VALUE - (c - '0')) / 10) {
+                throw error("number out of range");
+            }
+            value = value * 10 + (c - '0');
+            consume();
+        } while ((c = peek()) >= '0' && c <= '9');
+        if (c > ' ') {
+            throw error("expected a number");
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Reads the next integer of the current line and checks that it lies in the given range.
+     * @param min The smallest allowed value.
+     * @param max The largest allowed value.
+     * @return The next integer.
+     */
+    int nextInt(long min, long max) {
+        long value = nextLong();
+        if (value < min || value > max) {
+            throw error("%d is not in [%d, %d]".formatted(value, min, max));
+        }
+        return (int) value;
+    }
+
+    /**
+     * Checks that the current line contains no further tokens and moves to the next one.
+     */
+    void endLine() {
+        skipBlanks();
+        int c = peek();
+        if (c >= 0 && c != '\n') {
+            throw error("unexpected trailing characters");
+        }
+        skipLine();
+    }
+
+    /**
+     * Returns a new {@link RuntimeException} describing an error in the current line.
+     * @param message The description of the error.
+     * @return The new {@link RuntimeException}.
+     */
+    RuntimeException error(String message) {
+        return new RuntimeException("line %d: %s".formatted(line, message));
+    }
+
+    private void skipBlanks() {
+        int c;
+        while ((c = peek()) == ' ' || c == '\t' || c == '\r') {
+            consume();
+        }
+    }
+
+    private int peek() {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position] & 0xFF;
+    }
+
+    private void consume() {
+        if (buffer[position++] == '\n') {
+            line++;
+        }
+    }
+
+    private boolean fill() {
+        try {
+            int read;
+            do {
+                read = in.read(buffer, 0, BUFFER_SIZE);
+            } while (read == 0);
+            if (read < 0) {
+                return false;
+            }
+            position = 0;
+            limit = read;
+            return true;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
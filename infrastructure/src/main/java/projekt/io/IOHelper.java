@@ -1,6 +1,11 @@
 package projekt.io;
 
 import projekt.delivery.archetype.ProblemArchetype;
+import projekt.delivery.routing.AltPathCalculator;
+import projekt.delivery.routing.CachedPathCalculator;
+import projekt.delivery.routing.CompiledRegion;
+import projekt.delivery.routing.Landmarks;
+import projekt.delivery.routing.PathCalculator;
 
 import java.io.*;
 import java.nio.file.Path;
@@ -45,7 +50,8 @@ public class IOHelper {
     }
 
     /**
-     * Returns a {@link Set} of {@link File}s containing all {@link ProblemArchetype}s stored in the build dir (build/run/projekt/gui/problems).
+     * Returns a {@link Set} of {@link File}s containing all {@link ProblemArchetype}s stored in the build dir (build/run/projekt/gui/problems).<p>
+     * Only text files are returned, other files like the stored {@link Landmarks} are ignored.
      *
      * @return A {@link Set} of {@link File}s containing all {@link ProblemArchetype}s stored in the build dir.
      */
@@ -57,7 +63,7 @@ public class IOHelper {
             dir.mkdirs();
         }
 
-        return new HashSet<>(Arrays.asList(Objects.requireNonNull(dir.listFiles())));
+        return new HashSet<>(Arrays.asList(Objects.requireNonNull(dir.listFiles((ignored, name) -> name.endsWith(".txt")))));
     }
 
     private static List<ProblemArchetype> readProblemsInFiles(Set<File> files) {
@@ -65,7 +71,9 @@ public class IOHelper {
 
         for (File file : files) {
             try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-                problems.add(ProblemArchetypeIO.readProblemArchetype(reader));
+                ProblemArchetype problem = ProblemArchetypeIO.readProblemArchetype(reader);
+                readLandmarks(problem);
+                problems.add(problem);
             } catch (IOException e) {
                 throw new RuntimeException(e);
             }
@@ -74,6 +82,63 @@ public class IOHelper {
         return problems;
     }
 
+    /**
+     * Writes the {@link Landmarks} used by the {@link AltPathCalculator} of the given {@link ProblemArchetype} into a file
+     * next to the file of the problem in the build directory. They are selected if necessary. Does nothing if the
+     * problem does not use an {@link AltPathCalculator}.
+     *
+     * @param problem The {@link ProblemArchetype} to write the {@link Landmarks} of.
+     */
+    @SuppressWarnings("ResultOfMethodCallIgnored")
+    public static void writeLandmarks(ProblemArchetype problem) {
+        AltPathCalculator pathCalculator = getAltPathCalculator(problem.vehicleManager().getPathCalculator());
+        if (pathCalculator == null) {
+            return;
+        }
+        if (!PROBLEMS_DIR.exists()) {
+            PROBLEMS_DIR.mkdirs();
+        }
+
+        Landmarks landmarks = pathCalculator.getLandmarks(problem.vehicleManager().getRegion());
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(getLandmarkFile(problem)))) {
+            LandmarkIO.writeLandmarks(writer, landmarks);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Shares the {@link Landmarks} stored next to the file of the given {@link ProblemArchetype} with all
+     * {@link AltPathCalculator}s routing on its region, if they are still valid for the region.
+     */
+    private static void readLandmarks(ProblemArchetype problem) {
+        File file = getLandmarkFile(problem);
+        if (!file.exists() || getAltPathCalculator(problem.vehicleManager().getPathCalculator()) == null) {
+            return;
+        }
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            Landmarks landmarks = LandmarkIO.readLandmarks(reader,
+                CompiledRegion.of(problem.vehicleManager().getRegion()));
+            if (landmarks != null) {
+                landmarks.share();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static File getLandmarkFile(ProblemArchetype problem) {
+        return Path.of(PROBLEMS_DIR.getPath(), problem.name() + ".landmarks").toFile();
+    }
+
+    private static AltPathCalculator getAltPathCalculator(PathCalculator pathCalculator) {
+        while (pathCalculator instanceof CachedPathCalculator cachedPathCalculator) {
+            pathCalculator = cachedPathCalculator.getDelegate();
+        }
+        return pathCalculator instanceof AltPathCalculator altPathCalculator ? altPathCalculator : null;
+    }
+
     /**
      * Writes the given {@link ProblemArchetype} into a text file in the build directory (build/run/projekt/gui/problems).<p>
      * <p>
@@ -97,5 +162,7 @@ public class IOHelper {
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
+
+        writeLandmarks(problem);
     }
 }
@@ -0,0 +1,150 @@
+package projekt.io;
+
+import org.jetbrains.annotations.Nullable;
+import projekt.base.Location;
+import projekt.delivery.routing.CompiledRegion;
+import projekt.delivery.routing.Landmarks;
+import projekt.delivery.routing.Region;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Reads and writes the {@link Landmarks} of a {@link CompiledRegion}, so they do not have to be selected again on
+ * every launch.<p>
+ *
+ * The file stores a fingerprint of the region. Landmarks of a region that has been changed since they were written
+ * would give wrong bounds and are therefore not restored.
+ */
+public class LandmarkIO {
+
+    /**
+     * Writes the given {@link Landmarks} together with a fingerprint of their {@link CompiledRegion}. Every landmark is
+     * written as its location followed by its distances to all nodes, {@code -1} for nodes that cannot be reached.
+     *
+     * @param writer The {@link BufferedWriter} to write to.
+     * @param landmarks The {@link Landmarks} to write.
+     */
+    public static void writeLandmarks(BufferedWriter writer, Landmarks landmarks) {
+        CompiledRegion region = landmarks.getRegion();
+        try {
+            writer.write("START LANDMARKS\n");
+            writer.write("S %s\n".formatted(landmarks.getSelection().name()));
+            writer.write("F %d\n".formatted(fingerprint(region)));
+
+            for (int i = 0; i < landmarks.getCount(); i++) {
+                int landmark = landmarks.getLandmark(i);
+                StringBuilder sb = new StringBuilder("L %d,%d".formatted(region.getX(landmark), region.getY(landmark)));
+                for (int node = 0; node < region.size(); node++) {
+                    long distance = landmarks.getDistance(i, node);
+                    sb.append(',').append(distance == Long.MAX_VALUE ? -1 : distance);
+                }
+                writer.write(sb.append('\n').toString());
+            }
+
+            writer.write("END LANDMARKS\n");
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Reads {@link Landmarks} written by {@link #writeLandmarks(BufferedWriter, Landmarks)}.
+     *
+     * @param reader The reader to read from.
+     * @param region The {@link CompiledRegion} the landmarks belong to.
+     * @return The read {@link Landmarks} or {@code null} if they have been written for a different region or one of
+     *     their nodes does not exist anymore.
+     */
+    public static @Nullable Landmarks readLandmarks(BufferedReader reader, CompiledRegion region) {
+        Landmarks.Selection selection = null;
+        boolean fingerprintRead = false;
+        List<Integer> landmarks = new ArrayList<>();
+        List<long[]> distances = new ArrayList<>();
+
+        try {
+            String line = reader.readLine();
+
+            if (!Objects.equals(line, "START LANDMARKS")) {
+                throw new RuntimeException("input does not start with \"START LANDMARKS\"");
+            }
+
+            while (!Objects.equals(line = reader.readLine(), "END LANDMARKS")) {
+
+                if (line == null) {
+                    throw new RuntimeException("input does not end with \"END LANDMARKS\"");
+                } else if (line.startsWith("S ")) {
+                    selection = Landmarks.Selection.valueOf(line.substring(2));
+                } else if (line.startsWith("F ")) {
+                    // the landmarks of a changed region are neither parsed nor restored
+                    if (Long.parseLong(line.substring(2)) != fingerprint(region)) {
+                        return null;
+                    }
+                    fingerprintRead = true;
+                } else if (line.startsWith("L ")) {
+                    if (!fingerprintRead) {
+                        throw new RuntimeException("No input for fingerprint received before the landmarks");
+                    }
+                    String[] serializedLandmark = line.substring(2).split(",");
+                    int landmark = parseNode(region, serializedLandmark[0], serializedLandmark[1]);
+                    if (landmark == -1) {
+                        return null;
+                    }
+                    landmarks.add(landmark);
+                    distances.add(parseDistances(serializedLandmark));
+                } else {
+                    throw new RuntimeException("Illegal line read: %s".formatted(line));
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+
+        if (selection == null) {
+            throw new RuntimeException("No input for selection received");
+        }
+        if (!fingerprintRead) {
+            throw new RuntimeException("No input for fingerprint received");
+        }
+
+        return Landmarks.restore(region, selection, landmarks.stream().mapToInt(Integer::intValue).toArray(),
+            distances.toArray(long[][]::new));
+    }
+
+    /**
+     * Returns the index of the node at the given location or {@code -1} if the region has no such node.
+     */
+    private static int parseNode(CompiledRegion region, String x, String y) {
+        Region.Node node = region.getRegion().getNode(Location.of(Integer.parseInt(x), Integer.parseInt(y)));
+        return node == null ? -1 : region.indexOf(node);
+    }
+
+    private static long[] parseDistances(String[] serializedLandmark) {
+        long[] distances = new long[serializedLandmark.length - 2];
+        for (int node = 0; node < distances.length; node++) {
+            long distance = Long.parseLong(serializedLandmark[node + 2]);
+            distances[node] = distance == -1 ? Long.MAX_VALUE : distance;
+        }
+        return distances;
+    }
+
+    /**
+     * Hashes the nodes and arcs of the given {@link CompiledRegion}.
+     */
+    private static long fingerprint(CompiledRegion region) {
+        long hash = region.size();
+        for (int node = 0; node < region.size(); node++) {
+            hash = hash * 31 + region.getX(node);
+            hash = hash * 31 + region.getY(node);
+            for (int arc = region.arcStart(node); arc < region.arcEnd(node); arc++) {
+                hash = hash * 31 + region.arcTarget(arc);
+                hash = hash * 31 + region.arcDuration(arc);
+            }
+        }
+        return hash;
+    }
+}
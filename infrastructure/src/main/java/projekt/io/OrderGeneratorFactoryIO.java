@@ -44,9 +44,10 @@ public class OrderGeneratorFactoryIO {
                         fridayBuilder.setDeliveryInterval(Integer.parseInt(serializedOrderGenerator[2]));
                         fridayBuilder.setMaxWeight(Double.parseDouble(serializedOrderGenerator[3]));
                         fridayBuilder.setStandardDeviation(Double.parseDouble(serializedOrderGenerator[4]));
-                        fridayBuilder.setLastTick(Integer.parseInt(serializedOrderGenerator[5]));
-                        if (Integer.parseInt(serializedOrderGenerator[6]) >= 0) {
-                            fridayBuilder.setSeed(Integer.parseInt(serializedOrderGenerator[6]));
+                        fridayBuilder.setLastTick(Long.parseLong(serializedOrderGenerator[5]));
+                        long seed = Long.parseLong(serializedOrderGenerator[6]);
+                        if (seed >= 0) {
+                            fridayBuilder.setSeed(seed);
                         }
                         fridayBuilder.setVehicleManager(vehicleManager);
                     }
@@ -6,7 +6,7 @@ import projekt.delivery.routing.VehicleManager;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.IOException;
-import java.util.HashMap;
+import java.util.EnumMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.function.Supplier;
@@ -21,7 +21,7 @@ public class RaterFactoryMapIO {
 
     public static Map<RatingCriteria, Rater.Factory> readRaterFactoryMap(BufferedReader reader, VehicleManager vehicleManager) {
 
-        Map<RatingCriteria, Rater.Factory> map = new HashMap<>();
+        Map<RatingCriteria, Rater.Factory> map = new EnumMap<>(RatingCriteria.class);
 
         try {
             String line = reader.readLine();
@@ -53,6 +53,10 @@ public class RaterFactoryMapIO {
                     } else if (builder instanceof TravelDistanceRater.FactoryBuilder travelDistanceBuilder) {
                         travelDistanceBuilder.setFactor(Double.parseDouble(serializedRater[2]));
                         travelDistanceBuilder.setVehicleManager(vehicleManager);
+                        // files written before the flag existed end after the factor
+                        if (serializedRater.length > 3) {
+                            travelDistanceBuilder.setUseDistanceMatrix(Boolean.parseBoolean(serializedRater[3]));
+                        }
                     }
 
                     map.put(ratingCriteria, builder.build());
@@ -86,7 +90,10 @@ public class RaterFactoryMapIO {
                 } else if (entry.getValue() instanceof AmountDeliveredRater.Factory amountDeliveredFactory) {
                     writer.write(" %s\n".formatted(Double.toString(amountDeliveredFactory.factor)));
                 } else if (entry.getValue() instanceof TravelDistanceRater.Factory travelDistanceFactory) {
-                    writer.write(" %s\n".formatted(Double.toString(travelDistanceFactory.factor)));
+                    writer.write(" %s %b\n".formatted(
+                        Double.toString(travelDistanceFactory.factor),
+                        travelDistanceFactory.useDistanceMatrix
+                    ));
                 }
             }
             writer.write("END RATER\n");
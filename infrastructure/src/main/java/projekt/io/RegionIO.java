@@ -6,6 +6,7 @@ import projekt.delivery.routing.Region;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.*;
 import java.util.function.Supplier;
 
@@ -17,6 +18,16 @@ public class RegionIO {
         ManhattanDistanceCalculator.class.getSimpleName(), ManhattanDistanceCalculator::new
     );
 
+    private static final List<Region.Restaurant.Preset> DIMACS_RESTAURANT_PRESETS = List.of(
+        Region.Restaurant.LOS_FOPBOTS_HERMANOS,
+        Region.Restaurant.JAVA_HUT,
+        Region.Restaurant.PASTAFAR,
+        Region.Restaurant.PALPAPIZZA,
+        Region.Restaurant.ISENJAR,
+        Region.Restaurant.MIDDLE_FOP,
+        Region.Restaurant.MOUNT_DOOM_PIZZA
+    );
+
     public static Region readRegion(BufferedReader reader) {
         Region.Builder builder = Region.builder();
 
@@ -34,7 +45,7 @@ public class RegionIO {
                     String[] serializedNode = line.substring(2).split(",", 3);
                     builder.addNode(serializedNode[0], parseLocation(serializedNode[1], serializedNode[2]));
                 } else if (line.startsWith("NH ")) {
-                    String[] serializedNode = line.substring(2).split(",", 3);
+                    String[] serializedNode = line.substring(3).split(",", 3);
                     builder.addNeighborhood(serializedNode[0], parseLocation(serializedNode[1], serializedNode[2]));
                 } else if (line.startsWith("R ")) {
                     String[] serializedNode = line.substring(2).split(",");
@@ -88,6 +99,215 @@ public class RegionIO {
         }
     }
 
+    /**
+     * Reads a road network in the DIMACS shortest path format, i.e. a {@code .co} file containing the coordinates of
+     * the nodes and a {@code .gr} file containing the arcs between them. Both files are streamed and parsed without
+     * splitting their lines, so large benchmark networks can be loaded.<p>
+     *
+     * Arcs are undirected in a {@link Region}, so both directions of an arc and parallel arcs become a single
+     * {@link Region.Edge}. The weights of the arcs are ignored, the durations of the edges are calculated by the given
+     * {@link DistanceCalculator}. Nodes that share their coordinates with an earlier node are merged into it, only the
+     * earlier node can become a restaurant or neighborhood.<p>
+     *
+     * The given amount of nodes is chosen randomly and turned into {@link Region.Restaurant}s and
+     * {@link Region.Neighborhood}s. The DIMACS id of a node is part of its name.
+     *
+     * @param coordinates The content of the {@code .co} file.
+     * @param arcs The content of the {@code .gr} file.
+     * @param distanceCalculator The {@link DistanceCalculator} of the read {@link Region}.
+     * @param restaurantCount The amount of {@link Region.Restaurant}s.
+     * @param neighborhoodCount The amount of {@link Region.Neighborhood}s.
+     * @param seed The seed used to choose the {@link Region.Restaurant}s and {@link Region.Neighborhood}s.
+     * @return The read {@link Region}.
+     */
+    public static Region readDimacsRegion(InputStream coordinates, InputStream arcs, DistanceCalculator distanceCalculator,
+                                          int restaurantCount, int neighborhoodCount, long seed) {
+        ByteScanner coordinateScanner = new ByteScanner(coordinates);
+        ByteScanner arcScanner = new ByteScanner(arcs);
+
+        // the headers are read first, so the builder can be presized
+        readDimacsHeader(coordinateScanner, "aux", "sp", "co");
+        int nodeCount = coordinateScanner.nextInt(0, Integer.MAX_VALUE - 1);
+        coordinateScanner.endLine();
+        readDimacsHeader(arcScanner, "sp");
+        if (arcScanner.nextLong() != nodeCount) {
+            throw arcScanner.error("the amount of nodes does not match the coordinates");
+        }
+        long arcCount = arcScanner.nextLong();
+        arcScanner.endLine();
+
+        if (restaurantCount < 0 || neighborhoodCount < 0 || (long) restaurantCount + neighborhoodCount > nodeCount) {
+            throw new RuntimeException("cannot choose %d restaurants and %d neighborhoods from %d nodes".formatted(
+                restaurantCount, neighborhoodCount, nodeCount));
+        }
+
+        Location[] locations = new Location[nodeCount + 1];
+        // the ids of the nodes that do not share their coordinates with an earlier node, in the order of the file
+        LocationMap<Integer> firstIds = new LocationMap<>(nodeCount);
+        int[] distinctIds = new int[nodeCount];
+        int distinctCount = 0;
+
+        for (int c; (c = coordinateScanner.nextLine()) >= 0; ) {
+            if (c == 'c') {
+                coordinateScanner.skipLine();
+                continue;
+            } else if (c != 'v') {
+                throw coordinateScanner.error("illegal line type '%c'".formatted((char) c));
+            }
+            int id = coordinateScanner.nextInt(1, nodeCount);
+            Location location = Location.of(
+                coordinateScanner.nextInt(Integer.MIN_VALUE, Integer.MAX_VALUE),
+                coordinateScanner.nextInt(Integer.MIN_VALUE, Integer.MAX_VALUE));
+            // checked before the line ends, so the error names this line
+            if (locations[id] != null) {
+                throw coordinateScanner.error("duplicate node %d".formatted(id));
+            }
+            coordinateScanner.endLine();
+            locations[id] = location;
+            if (firstIds.putIfAbsent(location, id) == null) {
+                distinctIds[distinctCount++] = id;
+            }
+        }
+
+        // only nodes that are added to the region can become restaurants and neighborhoods
+        if ((long) restaurantCount + neighborhoodCount > distinctCount) {
+            throw new RuntimeException(("cannot choose %d restaurants and %d neighborhoods from %d nodes with distinct "
+                + "coordinates").formatted(restaurantCount, neighborhoodCount, distinctCount));
+        }
+        byte[] kinds = chooseDimacsKinds(distinctCount, restaurantCount, neighborhoodCount, seed);
+
+        Region.Builder builder = Region.builder(distinctCount, (int) Math.min(arcCount / 2, Integer.MAX_VALUE))
+            .distanceCalculator(distanceCalculator);
+        int restaurants = 0;
+        for (int i = 0; i < distinctCount; i++) {
+            int id = distinctIds[i];
+            Location location = locations[id];
+            switch (kinds[i]) {
+                case 1 -> {
+                    Region.Restaurant.Preset preset =
+                        DIMACS_RESTAURANT_PRESETS.get(restaurants++ % DIMACS_RESTAURANT_PRESETS.size());
+                    builder.addRestaurant("%s %d".formatted(preset.name(), id), location, preset.availableFoods());
+                }
+                case 2 -> builder.addNeighborhood("Neighborhood " + id, location);
+                default -> builder.addNode("Node " + id, location);
+            }
+        }
+
+        for (int c; (c = arcScanner.nextLine()) >= 0; ) {
+            if (c == 'c') {
+                arcScanner.skipLine();
+                continue;
+            } else if (c != 'a') {
+                throw arcScanner.error("illegal line type '%c'".formatted((char) c));
+            }
+            int idA = arcScanner.nextInt(1, nodeCount);
+            int idB = arcScanner.nextInt(1, nodeCount);
+            arcScanner.nextLong();
+            Location locationA = locations[idA];
+            Location locationB = locations[idB];
+            if (locationA == null || locationB == null) {
+                throw arcScanner.error("node %d has no coordinates".formatted(locationA == null ? idA : idB));
+            }
+            arcScanner.endLine();
+            if (locationA.equals(locationB)) {
+                continue;
+            }
+            String name = "Edge " + Math.min(idA, idB) + "_" + Math.max(idA, idB);
+            if (builder.checkEdge(name, locationA, locationB)) {
+                builder.addEdge(name, locationA, locationB);
+            }
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Writes the given {@link Region} in the DIMACS shortest path format, i.e. the coordinates of its nodes as a
+     * {@code .co} file and its edges as arcs in both directions as a {@code .gr} file. The nodes are numbered in the
+     * order of {@link Region#getNodes()} and the weight of an arc is the duration of its edge.<p>
+     *
+     * The format has no notion of restaurants and neighborhoods, they are written as plain nodes.
+     *
+     * @param coordinates The {@link BufferedWriter} for the {@code .co} file.
+     * @param arcs The {@link BufferedWriter} for the {@code .gr} file.
+     * @param region The {@link Region} to write.
+     */
+    public static void writeDimacsRegion(BufferedWriter coordinates, BufferedWriter arcs, Region region) {
+        Collection<Region.Node> nodes = region.getNodes();
+        Collection<Region.Edge> edges = region.getEdges();
+        LocationMap<Integer> ids = new LocationMap<>(nodes.size());
+        StringBuilder sb = new StringBuilder();
+
+        try {
+            coordinates.write("p aux sp co %d\n".formatted(nodes.size()));
+            for (Region.Node node : nodes) {
+                Location location = node.getLocation();
+                ids.put(location, ids.size() + 1);
+                sb.setLength(0);
+                sb.append("v ").append(ids.size()).append(' ')
+                    .append(location.getX()).append(' ').append(location.getY()).append('\n');
+                coordinates.append(sb);
+            }
+
+            arcs.write("p sp %d %d\n".formatted(nodes.size(), 2L * edges.size()));
+            for (Region.Edge edge : edges) {
+                int idA = ids.get(edge.getNodeA().getLocation());
+                int idB = ids.get(edge.getNodeB().getLocation());
+                sb.setLength(0);
+                sb.append("a ").append(idA).append(' ').append(idB).append(' ').append(edge.getDuration()).append('\n');
+                sb.append("a ").append(idB).append(' ').append(idA).append(' ').append(edge.getDuration()).append('\n');
+                arcs.append(sb);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void readDimacsHeader(ByteScanner scanner, String... problem) {
+        int c;
+        while ((c = scanner.nextLine()) == 'c') {
+            scanner.skipLine();
+        }
+        if (c != 'p') {
+            throw scanner.error("input does not start with a problem line");
+        }
+        for (String token : problem) {
+            if (!scanner.nextToken().equals(token)) {
+                throw scanner.error("expected the problem line \"p %s\"".formatted(String.join(" ", problem)));
+            }
+        }
+    }
+
+    /**
+     * Chooses {@code restaurantCount + neighborhoodCount} distinct indices in {@code [0, count)} with Floyd's
+     * algorithm and marks them with 1 for restaurants and 2 for neighborhoods.
+     */
+    private static byte[] chooseDimacsKinds(int count, int restaurantCount, int neighborhoodCount, long seed) {
+        Random random = new Random(seed);
+        byte[] kinds = new byte[count];
+        int special = restaurantCount + neighborhoodCount;
+        int[] chosen = new int[special];
+        for (int i = 0, j = count - special + 1; i < special; i++, j++) {
+            int index = random.nextInt(j);
+            if (kinds[index] != 0) {
+                index = j - 1;
+            }
+            kinds[index] = 3;
+            chosen[i] = index;
+        }
+        // the order of Floyd's algorithm is not uniform, so the kinds are assigned in a shuffled order
+        for (int i = special - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int index = chosen[i];
+            chosen[i] = chosen[j];
+            chosen[j] = index;
+        }
+        for (int i = 0; i < special; i++) {
+            kinds[chosen[i]] = (byte) (i < restaurantCount ? 1 : 2);
+        }
+        return kinds;
+    }
+
     private static String serializeNode(Region.Node node) {
         return "%s,%d,%d".formatted(node.getName(), node.getLocation().getX(), node.getLocation().getY());
     }
@@ -115,7 +335,7 @@ public class RegionIO {
     }
 
     private static Location parseLocation(String x, String y) {
-        return new Location(Integer.parseInt(x), Integer.parseInt(y));
+        return Location.of(Integer.parseInt(x), Integer.parseInt(y));
     }
 
     private static DistanceCalculator parseDistanceCalculator(String serializedDistanceCalculator) {
@@ -14,7 +14,13 @@ public class VehicleManagerIO {
 
     private static final Map<String, Function<Object, ? extends PathCalculator>> DESERIALIZED_PATH_CALCULATOR = Map.of(
         CachedPathCalculator.class.getSimpleName(), pathCalculator -> new CachedPathCalculator((PathCalculator) pathCalculator),
-        DijkstraPathCalculator.class.getSimpleName(), ignored -> new DijkstraPathCalculator()
+        DijkstraPathCalculator.class.getSimpleName(), ignored -> new DijkstraPathCalculator(),
+        AStarPathCalculator.class.getSimpleName(), ignored -> new AStarPathCalculator(),
+        AltPathCalculator.class.getSimpleName(), ignored -> new AltPathCalculator(),
+        ContractionHierarchyPathCalculator.class.getSimpleName(), ignored -> new ContractionHierarchyPathCalculator(),
+        NextHopTablePathCalculator.class.getSimpleName(), ignored -> new NextHopTablePathCalculator(),
+        OverlayPathCalculator.class.getSimpleName(), ignored -> new OverlayPathCalculator(),
+        TimeDependentPathCalculator.class.getSimpleName(), ignored -> new TimeDependentPathCalculator()
     );
 
     public static VehicleManager readVehicleManager(BufferedReader reader, Region region) {
@@ -74,7 +80,7 @@ public class VehicleManagerIO {
     }
 
     private static Location parseLocation(String x, String y) {
-        return new Location(Integer.parseInt(x), Integer.parseInt(y));
+        return Location.of(Integer.parseInt(x), Integer.parseInt(y));
     }
 
     private static String serializePathCalculator(PathCalculator pathCalculator) {
@@ -98,15 +104,18 @@ public class VehicleManagerIO {
             throw new RuntimeException("unknown name of pathCalculator: %s".formatted(serializedPathCalculator));
         }
 
-        PathCalculator returnPC = currentPC;
-
         //handle cached Path Calculators
         for (int i = split.length - 2; i >= 0; i--) {
-            PathCalculator PC;
-            PC = DESERIALIZED_PATH_CALCULATOR.get(split[i]).apply(currentPC);
-            currentPC = PC;
+            if (!split[i].equals(CachedPathCalculator.class.getSimpleName())) {
+                throw new RuntimeException("illegal wrapper of pathCalculator: %s".formatted(serializedPathCalculator));
+            }
+            if (currentPC instanceof TimeDependentPathCalculator) {
+                throw new RuntimeException("a %s cannot be cached: %s".formatted(
+                    TimeDependentPathCalculator.class.getSimpleName(), serializedPathCalculator));
+            }
+            currentPC = DESERIALIZED_PATH_CALCULATOR.get(split[i]).apply(currentPC);
         }
 
-        return returnPC;
+        return currentPC;
     }
 }
@@ -0,0 +1,66 @@
+package projekt.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ByteScannerUnitTests {
+
+    private static ByteScanner scanner(String content) {
+        return new ByteScanner(new ByteArrayInputStream(content.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    @Test
+    public void testTokens() {
+        ByteScanner scanner = scanner("\n  p sp 12 -34\r\nc comment\n\na 9223372036854775807 1\n");
+        assertEquals('p', scanner.nextLine());
+        assertEquals("sp", scanner.nextToken());
+        assertEquals(12, scanner.nextInt(0, 100));
+        assertEquals(-34, scanner.nextLong());
+        scanner.endLine();
+        assertEquals('c', scanner.nextLine());
+        scanner.skipLine();
+        assertEquals('a', scanner.nextLine());
+        assertEquals(Long.MAX_VALUE, scanner.nextLong());
+        assertEquals(1, scanner.nextLong());
+        scanner.endLine();
+        assertEquals(-1, scanner.nextLine());
+    }
+
+    @Test
+    public void testLargeInput() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            sb.append("v ").append(i).append(' ').append(-i).append('\n');
+        }
+        ByteScanner scanner = scanner(sb.toString());
+        for (int i = 0; i < 100_000; i++) {
+            assertEquals('v', scanner.nextLine());
+            assertEquals(i, scanner.nextInt(0, Integer.MAX_VALUE));
+            assertEquals(-i, scanner.nextLong());
+            scanner.endLine();
+        }
+        assertEquals(100_001, scanner.getLine());
+        assertEquals(-1, scanner.nextLine());
+    }
+
+    @Test
+    public void testErrors() {
+        assertThrows(RuntimeException.class, () -> scanner("x").nextLong());
+        assertThrows(RuntimeException.class, () -> scanner("1x").nextLong());
+        assertThrows(RuntimeException.class, () -> scanner("-").nextLong());
+        assertThrows(RuntimeException.class, () -> scanner("99999999999999999999").nextLong());
+        assertThrows(RuntimeException.class, () -> scanner("11").nextInt(0, 10));
+        assertThrows(RuntimeException.class, () -> scanner("  \n").nextToken());
+        ByteScanner scanner = scanner("a\nv 1 2\n");
+        scanner.nextLine();
+        scanner.skipLine();
+        scanner.nextLine();
+        scanner.nextLong();
+        RuntimeException error = assertThrows(RuntimeException.class, scanner::endLine);
+        assertTrue(error.getMessage().startsWith("line 2"));
+    }
+}
@@ -0,0 +1,98 @@
+package projekt.io;
+
+import org.junit.jupiter.api.Test;
+import projekt.base.Location;
+import projekt.base.ManhattanDistanceCalculator;
+import projekt.delivery.routing.CompiledRegion;
+import projekt.delivery.routing.Landmarks;
+import projekt.delivery.routing.Region;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LandmarkIOUnitTests {
+
+    /**
+     * A path of nodes along the x-axis, the last one at the given x coordinate, and a single unreachable node.
+     */
+    private static Region createRegion(int lastX) {
+        Region.Builder builder = Region.builder().distanceCalculator(new ManhattanDistanceCalculator());
+        for (int x = 0; x < 5; x++) {
+            builder.addNode("N" + x, new Location(x == 4 ? lastX : x, 0));
+        }
+        for (int x = 0; x < 4; x++) {
+            builder.addEdge("E" + x, new Location(x, 0), new Location(x == 3 ? lastX : x + 1, 0));
+        }
+        return builder.addNode("X", new Location(0, 9)).build();
+    }
+
+    private static String write(Landmarks landmarks) throws IOException {
+        StringWriter out = new StringWriter();
+        try (BufferedWriter writer = new BufferedWriter(out)) {
+            LandmarkIO.writeLandmarks(writer, landmarks);
+        }
+        return out.toString();
+    }
+
+    private static Landmarks read(String content, CompiledRegion region) {
+        return LandmarkIO.readLandmarks(new BufferedReader(new StringReader(content)), region);
+    }
+
+    private static String fingerprintLine(String content) {
+        return content.lines().filter(line -> line.startsWith("F ")).findFirst().orElseThrow();
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        CompiledRegion region = CompiledRegion.of(createRegion(4));
+        Landmarks landmarks = Landmarks.select(region, 2, Landmarks.Selection.FARTHEST);
+        String content = write(landmarks);
+        assertTrue(content.startsWith("START LANDMARKS\nS FARTHEST\nF "));
+        assertTrue(content.endsWith("END LANDMARKS\n"));
+
+        Landmarks read = read(content, region);
+        assertNotNull(read);
+        assertSame(region, read.getRegion());
+        assertEquals(landmarks.getSelection(), read.getSelection());
+        assertEquals(landmarks.getCount(), read.getCount());
+        for (int i = 0; i < landmarks.getCount(); i++) {
+            assertEquals(landmarks.getLandmark(i), read.getLandmark(i));
+            for (int node = 0; node < region.size(); node++) {
+                assertEquals(landmarks.getDistance(i, node), read.getDistance(i, node));
+            }
+        }
+    }
+
+    @Test
+    public void testStaleFiles() throws IOException {
+        CompiledRegion region = CompiledRegion.of(createRegion(4));
+        String content = write(Landmarks.select(region, 2, Landmarks.Selection.FARTHEST));
+
+        // the last node has moved, so the fingerprint differs
+        CompiledRegion changed = CompiledRegion.of(createRegion(7));
+        assertNull(read(content, changed));
+
+        // a landmark that no longer exists makes the file stale, too, even with a matching fingerprint
+        String changedFingerprint = fingerprintLine(write(Landmarks.select(changed, 1, Landmarks.Selection.FARTHEST)));
+        String forged = content.replace(fingerprintLine(content), changedFingerprint)
+            .replaceFirst("\nL -?\\d+,-?\\d+,", "\nL 123,456,");
+        assertNull(read(forged, changed));
+    }
+
+    @Test
+    public void testIllegalInput() throws IOException {
+        CompiledRegion region = CompiledRegion.of(createRegion(4));
+        String content = write(Landmarks.select(region, 2, Landmarks.Selection.FARTHEST));
+        assertThrows(RuntimeException.class, () -> read("", region));
+        assertThrows(RuntimeException.class, () -> read(content.replace("END LANDMARKS\n", ""), region));
+        assertThrows(RuntimeException.class, () -> read(content.replace("S FARTHEST\n", ""), region));
+        assertThrows(RuntimeException.class, () -> read("START LANDMARKS\nS FARTHEST\nL 0,0,0\nEND LANDMARKS\n",
+            region));
+        assertThrows(RuntimeException.class, () -> read("START LANDMARKS\nS FARTHEST\nQ\nEND LANDMARKS\n", region));
+    }
+}
@@ -0,0 +1,98 @@
+package projekt.io;
+
+import org.junit.jupiter.api.Test;
+import projekt.base.Location;
+import projekt.delivery.archetype.ProblemArchetype;
+import projekt.delivery.archetype.ProblemArchetypeGenerator;
+import projekt.delivery.generator.FridayOrderGenerator;
+import projekt.delivery.rating.TravelDistanceRater;
+import projekt.delivery.routing.Region;
+import projekt.delivery.routing.Vehicle;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProblemArchetypeIOUnitTests {
+
+    private static String write(ProblemArchetype problem) throws IOException {
+        StringWriter out = new StringWriter();
+        try (BufferedWriter writer = new BufferedWriter(out)) {
+            ProblemArchetypeIO.writeProblemArchetype(writer, problem);
+        }
+        return out.toString();
+    }
+
+    private static Map<Location, String> nodes(Region region) {
+        return region.getNodes().stream().collect(Collectors.toMap(Region.Node::getLocation,
+            node -> node.getClass().getSimpleName() + " " + node.getName()));
+    }
+
+    private static Set<List<Object>> edges(Region region) {
+        return region.getEdges().stream()
+            .map(edge -> List.<Object>of(edge.getNodeA().getLocation(), edge.getNodeB().getLocation(),
+                edge.getDuration()))
+            .collect(Collectors.toSet());
+    }
+
+    private static List<List<Object>> vehicles(ProblemArchetype problem) {
+        return problem.vehicleManager().getAllVehicles().stream()
+            .map(vehicle -> List.<Object>of(vehicle.getStartingNode().getComponent().getLocation(),
+                vehicle.getCapacity()))
+            .toList();
+    }
+
+    @Test
+    public void testGeneratedRoundTrip() throws IOException {
+        for (ProblemArchetypeGenerator.Topology topology : ProblemArchetypeGenerator.Topology.values()) {
+            ProblemArchetype problem = ProblemArchetypeGenerator.builder()
+                .setTopology(topology)
+                .setNodeCount(300)
+                .setRestaurantCount(3)
+                .setNeighborhoodCount(20)
+                .setVehicleCount(5)
+                // larger than an int, so a truncated seed would change the orders
+                .setSeed((1L << 40) + 5)
+                .build()
+                .generate("Generated " + topology);
+            String content = write(problem);
+            ProblemArchetype read = ProblemArchetypeIO.readProblemArchetype(
+                new BufferedReader(new StringReader(content)));
+
+            assertEquals(problem.name(), read.name());
+            assertEquals(problem.simulationLength(), read.simulationLength());
+            Region region = problem.vehicleManager().getRegion();
+            Region readRegion = read.vehicleManager().getRegion();
+            assertEquals(nodes(region), nodes(readRegion));
+            assertEquals(edges(region), edges(readRegion));
+            assertEquals(vehicles(problem), vehicles(read));
+            assertEquals(problem.vehicleManager().getPathCalculator().getClass(),
+                read.vehicleManager().getPathCalculator().getClass());
+
+            FridayOrderGenerator.Factory orders = (FridayOrderGenerator.Factory) problem.orderGeneratorFactory();
+            FridayOrderGenerator.Factory readOrders = (FridayOrderGenerator.Factory) read.orderGeneratorFactory();
+            assertEquals((1L << 40) + 5, orders.seed);
+            assertEquals(orders.seed, readOrders.seed);
+            assertEquals(orders.orderCount, readOrders.orderCount);
+            assertEquals(orders.lastTick, readOrders.lastTick);
+
+            assertEquals(problem.raterFactoryMap().keySet(), read.raterFactoryMap().keySet());
+            problem.raterFactoryMap().forEach((criteria, factory) ->
+                assertEquals(factory.getClass(), read.raterFactoryMap().get(criteria).getClass()));
+            assertSame(read.vehicleManager(),
+                ((TravelDistanceRater.Factory) read.raterFactoryMap().values().stream()
+                    .filter(TravelDistanceRater.Factory.class::isInstance).findFirst().orElseThrow()).vehicleManager);
+
+            // writing the read problem again results in the same file
+            assertEquals(content, write(read));
+        }
+    }
+}
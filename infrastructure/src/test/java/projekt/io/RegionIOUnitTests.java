@@ -0,0 +1,167 @@
+package projekt.io;
+
+import org.junit.jupiter.api.Test;
+import projekt.base.EuclideanDistanceCalculator;
+import projekt.base.Location;
+import projekt.base.ManhattanDistanceCalculator;
+import projekt.delivery.routing.Region;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RegionIOUnitTests {
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static Region readDimacs(String coordinates, String arcs, int restaurantCount, int neighborhoodCount) {
+        return RegionIO.readDimacsRegion(stream(coordinates), stream(arcs), new ManhattanDistanceCalculator(),
+            restaurantCount, neighborhoodCount, 42);
+    }
+
+    private static Set<Location> locations(Region region) {
+        return region.getNodes().stream().map(Region.Node::getLocation).collect(Collectors.toSet());
+    }
+
+    private static Set<Set<Location>> edges(Region region) {
+        return region.getEdges().stream()
+            .map(edge -> Set.of(edge.getNodeA().getLocation(), edge.getNodeB().getLocation()))
+            .collect(Collectors.toSet());
+    }
+
+    private static long count(Region region, Class<?> type) {
+        return region.getNodes().stream().filter(type::isInstance).count();
+    }
+
+    @Test
+    public void testDimacsRoundTrip() throws IOException {
+        Region region = Region.builder().distanceCalculator(new EuclideanDistanceCalculator())
+            .addRestaurant("R", new Location(0, 0), List.of("Pizza"))
+            .addNode("A", new Location(3, 4))
+            .addNode("B", new Location(-3, 4))
+            .addNeighborhood("N", new Location(0, 8))
+            .addNode("C", new Location(10, -2))
+            .addEdge("RA", new Location(0, 0), new Location(3, 4))
+            .addEdge("RB", new Location(0, 0), new Location(-3, 4))
+            .addEdge("AN", new Location(3, 4), new Location(0, 8))
+            .addEdge("BN", new Location(-3, 4), new Location(0, 8))
+            .build();
+        StringWriter coordinates = new StringWriter();
+        StringWriter arcs = new StringWriter();
+        try (BufferedWriter coordinateWriter = new BufferedWriter(coordinates);
+             BufferedWriter arcWriter = new BufferedWriter(arcs)) {
+            RegionIO.writeDimacsRegion(coordinateWriter, arcWriter, region);
+        }
+        assertTrue(coordinates.toString().startsWith("p aux sp co 5\n"));
+        assertTrue(arcs.toString().startsWith("p sp 5 8\n"));
+        assertEquals(6, coordinates.toString().lines().count());
+        assertEquals(9, arcs.toString().lines().count());
+
+        Region read = RegionIO.readDimacsRegion(stream(coordinates.toString()), stream(arcs.toString()),
+            new EuclideanDistanceCalculator(), 1, 2, 7);
+        assertEquals(locations(region), locations(read));
+        assertEquals(edges(region), edges(read));
+        assertEquals(1, count(read, Region.Restaurant.class));
+        assertEquals(2, count(read, Region.Neighborhood.class));
+        for (Region.Edge edge : read.getEdges()) {
+            assertEquals(region.getEdge(edge.getNodeA().getLocation(), edge.getNodeB().getLocation()).getDuration(),
+                edge.getDuration());
+        }
+    }
+
+    @Test
+    public void testDimacsCommentsAndArcs() {
+        Region region = readDimacs("""
+                c coordinates of a small network
+                p aux sp co 4
+
+                c the ids do not have to be ordered
+                v 3 2 0
+                v 1 0 0
+                v 2 1 0
+                v 4 2 5
+                """, """
+                c arcs of a small network
+                p sp 4 7
+                a 1 2 5
+                a 2 1 5
+                c a parallel arc with another weight
+                a 1 2 9
+                a 2 3 1
+                a 3 4 1
+                a 4 3 1
+                a 4 4 0
+                """, 0, 0);
+        assertEquals(4, region.getNodes().size());
+        assertEquals(Set.of(
+            Set.of(new Location(0, 0), new Location(1, 0)),
+            Set.of(new Location(1, 0), new Location(2, 0)),
+            Set.of(new Location(2, 0), new Location(2, 5))), edges(region));
+        // the durations are calculated by the distance calculator
+        assertEquals(5, region.getEdge(new Location(2, 0), new Location(2, 5)).getDuration());
+        assertTrue(region.getNode(new Location(2, 0)).getName().endsWith(" 3"));
+    }
+
+    @Test
+    public void testDimacsDuplicateCoordinates() {
+        String coordinates = """
+            p aux sp co 5
+            v 1 0 0
+            v 2 1 0
+            v 3 0 0
+            v 4 2 0
+            v 5 1 0
+            """;
+        String arcs = """
+            p sp 5 4
+            a 1 2 1
+            a 3 4 1
+            a 4 5 1
+            a 1 3 1
+            """;
+        for (long seed = 0; seed < 20; seed++) {
+            Region region = RegionIO.readDimacsRegion(stream(coordinates), stream(arcs),
+                new ManhattanDistanceCalculator(), 2, 1, seed);
+            // the duplicates 3 and 5 are merged into 1 and 2, and no chosen node is lost
+            assertEquals(3, region.getNodes().size());
+            assertEquals(2, count(region, Region.Restaurant.class));
+            assertEquals(1, count(region, Region.Neighborhood.class));
+            assertEquals(3, region.getEdges().size());
+        }
+        assertThrows(RuntimeException.class, () -> readDimacs(coordinates, arcs, 3, 1));
+    }
+
+    @Test
+    public void testDimacsErrors() {
+        String arcs = "p sp 2 1\na 1 2 1\n";
+        // bad tokens
+        assertThrows(RuntimeException.class, () -> readDimacs("p aux sp co 2\nv 1 a 0\nv 2 1 0\n", arcs, 0, 0));
+        assertThrows(RuntimeException.class, () -> readDimacs("p aux sp co 2\nv 1 0 0 7\nv 2 1 0\n", arcs, 0, 0));
+        assertThrows(RuntimeException.class, () -> readDimacs("p aux sp co 2\nv 1 0 0\nv 2 1 0\n", "p sp 2 1\na 1 x 1\n",
+            0, 0));
+        assertThrows(RuntimeException.class, () -> readDimacs("p aux sp co 2\nx 1 0 0\n", arcs, 0, 0));
+        assertThrows(RuntimeException.class, () -> readDimacs("v 1 0 0\n", arcs, 0, 0));
+        // duplicate and out of range ids
+        RuntimeException duplicate = assertThrows(RuntimeException.class,
+            () -> readDimacs("p aux sp co 2\nv 1 0 0\nv 1 1 0\n", arcs, 0, 0));
+        assertTrue(duplicate.getMessage().contains("line 3"));
+        assertThrows(RuntimeException.class, () -> readDimacs("p aux sp co 2\nv 3 0 0\n", arcs, 0, 0));
+        // arcs that do not match the coordinates
+        assertThrows(RuntimeException.class, () -> readDimacs("p aux sp co 2\nv 1 0 0\nv 2 1 0\n", "p sp 3 1\n", 0, 0));
+        RuntimeException missing = assertThrows(RuntimeException.class,
+            () -> readDimacs("p aux sp co 2\nv 1 0 0\n", arcs, 0, 0));
+        assertTrue(missing.getMessage().startsWith("line 2: node 2"));
+        // too many restaurants and neighborhoods
+        assertThrows(RuntimeException.class, () -> readDimacs("p aux sp co 2\nv 1 0 0\nv 2 1 0\n", arcs, 2, 1));
+    }
+}
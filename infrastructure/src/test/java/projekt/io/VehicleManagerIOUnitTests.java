@@ -0,0 +1,53 @@
+package projekt.io;
+
+import org.junit.jupiter.api.Test;
+import projekt.base.Location;
+import projekt.base.ManhattanDistanceCalculator;
+import projekt.delivery.routing.CachedPathCalculator;
+import projekt.delivery.routing.DijkstraPathCalculator;
+import projekt.delivery.routing.PathCalculator;
+import projekt.delivery.routing.Region;
+import projekt.delivery.routing.TimeDependentPathCalculator;
+import projekt.delivery.routing.VehicleManager;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VehicleManagerIOUnitTests {
+
+    private static Region createRegion() {
+        return Region.builder()
+            .distanceCalculator(new ManhattanDistanceCalculator())
+            .addNode("A", new Location(0, 0))
+            .addNode("B", new Location(1, 0))
+            .addEdge("AB", new Location(0, 0), new Location(1, 0))
+            .build();
+    }
+
+    private static PathCalculator readPathCalculator(String serialized) {
+        String content = "START VEHICLE MANAGER\nP %s\nEND VEHICLE MANAGER\n".formatted(serialized);
+        VehicleManager vehicleManager = VehicleManagerIO.readVehicleManager(
+            new BufferedReader(new StringReader(content)), createRegion());
+        return vehicleManager.getPathCalculator();
+    }
+
+    @Test
+    public void testCachedPathCalculator() {
+        PathCalculator pathCalculator =
+            readPathCalculator("CachedPathCalculator,CachedPathCalculator,DijkstraPathCalculator");
+        CachedPathCalculator outer = assertInstanceOf(CachedPathCalculator.class, pathCalculator);
+        CachedPathCalculator inner = assertInstanceOf(CachedPathCalculator.class, outer.getDelegate());
+        assertInstanceOf(DijkstraPathCalculator.class, inner.getDelegate());
+        assertInstanceOf(TimeDependentPathCalculator.class, readPathCalculator("TimeDependentPathCalculator"));
+    }
+
+    @Test
+    public void testIllegalPathCalculator() {
+        assertThrows(RuntimeException.class,
+            () -> readPathCalculator("CachedPathCalculator,TimeDependentPathCalculator"));
+        assertThrows(RuntimeException.class, () -> readPathCalculator("DijkstraPathCalculator,DijkstraPathCalculator"));
+        assertThrows(RuntimeException.class, () -> readPathCalculator("UnknownPathCalculator"));
+    }
+}